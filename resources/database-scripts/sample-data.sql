@@ -90,6 +90,28 @@ INSERT INTO enrollments (student_id, course_id, semester, grade) VALUES
 -- Student 10 (Maria Garcia) enrollments
 (10, 1, '2024 Fall', 'A');
 
+-- ============================================
+-- Fill the GPA summary
+-- ============================================
+-- The rows above were inserted directly, so build gpa_summary from them
+-- (the same query as EnrollmentQueries.rebuildGpaSummary())
+DELETE FROM gpa_summary;
+
+INSERT INTO gpa_summary (department, semester, students, enrollments, graded_credits, grade_points)
+SELECT
+    s.department,
+    e.semester,
+    COUNT(DISTINCT e.student_id),
+    COUNT(*),
+    COALESCE(SUM(CASE WHEN g.points IS NOT NULL THEN c.credits END), 0),
+    COALESCE(SUM(g.points * c.credits), 0)
+FROM enrollments e
+JOIN students s ON s.student_id = e.student_id
+JOIN courses c ON c.course_id = e.course_id
+LEFT JOIN grade_scale g ON g.grade = e.grade
+WHERE s.department IS NOT NULL AND e.semester IS NOT NULL
+GROUP BY s.department, e.semester;
+
 -- ============================================
 -- Verify Data
 -- ============================================
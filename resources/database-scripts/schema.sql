@@ -62,6 +62,43 @@ CREATE TABLE enrollments (
     UNIQUE KEY unique_enrollment (student_id, course_id, semester)
 );
 
+-- ============================================
+-- Table: grade_scale
+-- ============================================
+-- Grade points of each letter grade (4.0 scale);
+-- grades not listed here (for example W) do not count towards a GPA
+DROP TABLE IF EXISTS grade_scale;
+
+CREATE TABLE grade_scale (
+    grade VARCHAR(2) PRIMARY KEY,
+    points DECIMAL(3, 2) NOT NULL
+);
+
+INSERT INTO grade_scale (grade, points) VALUES
+('A', 4.00), ('A-', 3.70),
+('B+', 3.30), ('B', 3.00), ('B-', 2.70),
+('C+', 2.30), ('C', 2.00), ('C-', 1.70),
+('D+', 1.30), ('D', 1.00),
+('F', 0.00);
+
+-- ============================================
+-- Table: gpa_summary
+-- ============================================
+-- Credit-weighted grade totals per student department and semester
+-- (GPA = grade_points / graded_credits). EnrollmentDAO keeps it up to
+-- date; see EnrollmentQueries.
+DROP TABLE IF EXISTS gpa_summary;
+
+CREATE TABLE gpa_summary (
+    department VARCHAR(50) NOT NULL,
+    semester VARCHAR(20) NOT NULL,
+    students INT NOT NULL,
+    enrollments INT NOT NULL,
+    graded_credits INT NOT NULL,
+    grade_points DECIMAL(12, 2) NOT NULL,
+    PRIMARY KEY (department, semester)
+);
+
 -- ============================================
 -- Indexes for better performance
 -- ============================================
@@ -78,3 +115,5 @@ SHOW TABLES;
 DESCRIBE students;
 DESCRIBE courses;
 DESCRIBE enrollments;
+DESCRIBE grade_scale;
+DESCRIBE gpa_summary;
@@ -0,0 +1,773 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConnectionPool - Bounded JDBC Connection Pool
+ *
+ * This class demonstrates:
+ * - Reusing physical connections instead of reconnecting for every query
+ * - A bounded pool with minimum and maximum size
+ * - Waiting with a timeout when every connection is in use
+ * - Validation on borrow, idle eviction and leak detection
+ * - Dynamic proxies: close() on a borrowed connection returns it
+ * - A per-connection LRU cache of prepared statements
+ *
+ * Callers use the pool exactly like DriverManager:
+ *
+ *   try (Connection conn = pool.getConnection()) { ... }
+ *
+ * The returned object is a proxy around the physical connection. Closing
+ * it rolls back any unfinished transaction, restores auto-commit,
+ * read-only, transaction isolation, catalog and schema and hands the
+ * physical connection to the next caller. A proxy cannot be
+ * used after close(), so a stale reference never touches a connection
+ * that somebody else has borrowed in the meantime.
+ *
+ * Each physical connection also keeps its most recently used prepared
+ * statements, keyed by SQL text. prepareStatement(sql) with SQL that was
+ * prepared before on the same connection hands out the statement that
+ * already exists, so the driver (and, with server-side prepares, the
+ * database) does not parse and plan the SQL again. Closing such a
+ * statement clears its parameters, puts fetch size, row limit, query
+ * timeout and fetch direction back to what they were when it was
+ * prepared, and keeps it for the next caller. This
+ * only pays off when the SQL text is identical every time, so build SQL
+ * from constants and bind values with parameters.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Pool settings, read from db.properties
+     */
+    public static class Settings {
+        public int minConnections = 2;
+        public int maxConnections = 10;
+        /** How long getConnection() waits for a free connection */
+        public long connectionTimeoutMillis = 30_000;
+        /** Idle connections above the minimum are closed after this */
+        public long idleTimeoutMillis = 600_000;
+        /** Report connections borrowed for longer than this (0 = off) */
+        public long leakDetectionMillis = 0;
+        /** Timeout for Connection.isValid() when validating */
+        public int validationTimeoutSeconds = 5;
+        /** Connections used more recently than this are not re-validated */
+        public long validationIntervalMillis = 500;
+        /** Prepared statements kept per connection (0 = no caching) */
+        public int statementCacheSize = 32;
+
+        /**
+         * Read the db.* pool keys, keeping defaults for missing ones
+         */
+        public static Settings from(Properties props) {
+            Settings s = new Settings();
+            s.minConnections = intProperty(props, "db.minConnections", s.minConnections);
+            s.maxConnections = intProperty(props, "db.maxConnections", s.maxConnections);
+            s.connectionTimeoutMillis = intProperty(props, "db.connectionTimeout", (int) s.connectionTimeoutMillis);
+            s.idleTimeoutMillis = intProperty(props, "db.idleTimeout", (int) s.idleTimeoutMillis);
+            s.leakDetectionMillis = intProperty(props, "db.leakDetectionThreshold", (int) s.leakDetectionMillis);
+            s.validationTimeoutSeconds = intProperty(props, "db.validationTimeout", s.validationTimeoutSeconds);
+            s.statementCacheSize = Math.max(0, intProperty(props, "db.statementCacheSize", s.statementCacheSize));
+            if (s.maxConnections < 1) {
+                throw new IllegalArgumentException("db.maxConnections must be at least 1");
+            }
+            s.minConnections = Math.max(0, Math.min(s.minConnections, s.maxConnections));
+            return s;
+        }
+
+        private static int intProperty(Properties props, String key, int defaultValue) {
+            String value = props.getProperty(key);
+            return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+        }
+    }
+
+    /**
+     * Snapshot of the pool's counters
+     */
+    public record Stats(int total, int active, int idle, int waiting,
+                        long borrows, long created, long closed,
+                        long timeouts, long leaks, double averageWaitMillis,
+                        long statementHits, long statementMisses) {
+        @Override
+        public String toString() {
+            return String.format("total=%d active=%d idle=%d waiting=%d | borrows=%d created=%d closed=%d " +
+                "timeouts=%d leaks=%d avgWait=%.3f ms | statements: hits=%d misses=%d",
+                total, active, idle, waiting, borrows, created, closed, timeouts, leaks, averageWaitMillis,
+                statementHits, statementMisses);
+        }
+    }
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Settings settings;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+    // Most recently returned first, so warm connections are reused
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+
+    // Guarded by lock
+    private int total;
+    private int waiting;
+    private boolean closed;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    public ConnectionPool(String url, String username, String password, Settings settings) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.settings = settings;
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ConnectionPool-Housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.min(30_000, settings.idleTimeoutMillis / 2);
+        if (settings.leakDetectionMillis > 0) {
+            period = Math.min(period, settings.leakDetectionMillis / 2);
+        }
+        period = Math.max(250, period);
+        housekeeper.scheduleWithFixedDelay(this::houseKeeping, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the connection timeout
+     *
+     * @return a connection whose close() returns it to the pool
+     * @throws SQLTimeoutException if no connection became free in time
+     * @throws SQLException if a new connection could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(settings.connectionTimeoutMillis);
+        boolean retrying = false;
+
+        while (true) {
+            PooledConnection pooled = null;
+            boolean create = false;
+            // Recomputed on every pass: validating a broken connection takes time too
+            long remaining = deadline - System.nanoTime();
+
+            lock.lock();
+            try {
+                if (retrying && remaining <= 0) {
+                    throw timedOutLocked();
+                }
+                while (!closed && idle.isEmpty() && total >= settings.maxConnections) {
+                    if (remaining <= 0) {
+                        throw timedOutLocked();
+                    }
+                    waiting++;
+                    try {
+                        remaining = available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a connection", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                pooled = idle.pollFirst();
+                if (pooled == null) {
+                    total++;
+                    create = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                pooled = openPhysical();
+            } else if (!isUsable(pooled)) {
+                destroy(pooled);
+                retrying = true;
+                continue;
+            }
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = settings.leakDetectionMillis > 0 ? new Exception("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            borrows.increment();
+            waitNanos.add(System.nanoTime() - start);
+            return pooled.newProxy();
+        }
+    }
+
+    /**
+     * Count a timeout and describe it (lock held)
+     */
+    private SQLTimeoutException timedOutLocked() {
+        timeouts.increment();
+        return new SQLTimeoutException("Timed out after " + settings.connectionTimeoutMillis +
+            " ms waiting for a connection (" + statsLocked() + ")");
+    }
+
+    /**
+     * Open a new physical connection (total was already incremented)
+     */
+    private PooledConnection openPhysical() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, username, password);
+            try {
+                PooledConnection pooled = new PooledConnection(physical);
+                created.increment();
+                return pooled;
+            } catch (SQLException | RuntimeException e) {
+                physical.close();
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                total--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Validate an idle connection unless it was used very recently
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        long idleMillis = System.currentTimeMillis() - pooled.lastReturned;
+        if (idleMillis < settings.validationIntervalMillis) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(settings.validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Take back a connection from a proxy's close()
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        boolean reusable = pooled.reset();
+
+        lock.lock();
+        try {
+            if (reusable && !closed) {
+                pooled.lastReturned = System.currentTimeMillis();
+                idle.addFirst(pooled);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        destroy(pooled);
+    }
+
+    /**
+     * Close a physical connection and free its slot
+     */
+    private void destroy(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // Already broken; nothing else to do
+        }
+        destroyed.increment();
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Housekeeper: evict idle connections, refill to the minimum and
+     * report leaks
+     */
+    private void houseKeeping() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+        int missing;
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            // Oldest idle connections are at the end of the deque
+            while (total - evicted.size() > settings.minConnections && !idle.isEmpty()
+                    && now - idle.peekLast().lastReturned > settings.idleTimeoutMillis) {
+                evicted.add(idle.pollLast());
+            }
+            missing = settings.minConnections - (total - evicted.size());
+            if (missing > 0) {
+                total += missing;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : evicted) {
+            destroy(pooled);
+        }
+        for (int i = 0; i < missing; i++) {
+            try {
+                PooledConnection pooled = openPhysical();
+                lock.lock();
+                try {
+                    idle.addLast(pooled);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                System.err.println("ConnectionPool: cannot open connection: " + e.getMessage());
+                // openPhysical() gave back this slot; give back the rest too
+                lock.lock();
+                try {
+                    total -= missing - i - 1;
+                } finally {
+                    lock.unlock();
+                }
+                break;
+            }
+        }
+
+        if (settings.leakDetectionMillis > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > settings.leakDetectionMillis) {
+                    pooled.leakReported = true;
+                    leaks.increment();
+                    System.err.println("ConnectionPool: connection borrowed " + (now - pooled.borrowedAt) +
+                        " ms ago was not closed (possible leak)");
+                    if (pooled.borrowSite != null) {
+                        pooled.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Current pool statistics
+     */
+    public Stats getStats() {
+        lock.lock();
+        try {
+            return statsLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Stats statsLocked() {
+        long borrowCount = borrows.sum();
+        return new Stats(total, borrowed.size(), idle.size(), waiting,
+            borrowCount, created.sum(), destroyed.sum(), timeouts.sum(), leaks.sum(),
+            borrowCount == 0 ? 0.0 : waitNanos.sum() / 1e6 / borrowCount,
+            statementHits.sum(), statementMisses.sum());
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Close idle connections now; borrowed ones are closed when returned
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * A physical connection and its bookkeeping
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        volatile long lastReturned = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile Exception borrowSite;
+        volatile boolean leakReported;
+        // Access-ordered, so the eldest entry is the least recently used.
+        // Only the borrowing thread touches these two.
+        final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+        final List<StatementHandler> openStatements = new ArrayList<>();
+        // Settings as opened, restored when the connection comes back
+        final int isolation;
+        final String catalog;
+        final String schema;  // null if the driver does not support schemas
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.isolation = physical.getTransactionIsolation();
+            this.catalog = physical.getCatalog();
+            this.schema = schemaOf(physical);
+        }
+
+        Connection newProxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new Handler(this));
+        }
+
+        /**
+         * Undo what the borrower changed
+         *
+         * @return false if the connection is broken and must be discarded
+         */
+        boolean reset() {
+            // Statements the borrower forgot to close
+            for (StatementHandler statement : new ArrayList<>(openStatements)) {
+                statement.close();
+            }
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                if (physical.getTransactionIsolation() != isolation) {
+                    physical.setTransactionIsolation(isolation);
+                }
+                if (catalog != null && !catalog.equals(physical.getCatalog())) {
+                    physical.setCatalog(catalog);
+                }
+                if (schema != null && !schema.equals(schemaOf(physical))) {
+                    physical.setSchema(schema);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Hand out the cached statement for the SQL, preparing it on a miss
+         */
+        PreparedStatement prepare(Object connectionProxy, Method method, Object[] args) throws Throwable {
+            String key = args.length == 1 ? (String) args[0] : "keys=" + args[1] + ";" + args[0];
+            CachedStatement entry = statements.get(key);
+            if (entry != null && !entry.inUse) {
+                statementHits.increment();
+            } else {
+                statementMisses.increment();
+                PreparedStatement statement = (PreparedStatement) invokePhysical(physical, method, args);
+                if (entry != null) {
+                    // The same SQL is already open on this connection
+                    return newStatementProxy(connectionProxy, null, statement);
+                }
+                try {
+                    entry = new CachedStatement(key, statement);
+                } catch (SQLException e) {
+                    closeQuietly(statement);
+                    throw e;
+                }
+                statements.put(key, entry);
+                evictOverflow();
+            }
+            entry.inUse = true;
+            return newStatementProxy(connectionProxy, entry, entry.physical);
+        }
+
+        private void evictOverflow() {
+            Iterator<CachedStatement> eldest = statements.values().iterator();
+            while (statements.size() > settings.statementCacheSize) {
+                CachedStatement entry = eldest.next();
+                eldest.remove();
+                if (entry.inUse) {
+                    entry.evicted = true;  // closed when its user closes it
+                } else {
+                    closeQuietly(entry.physical);
+                }
+            }
+        }
+
+        private PreparedStatement newStatementProxy(Object connectionProxy, CachedStatement entry,
+                                                    PreparedStatement statement) {
+            StatementHandler handler = new StatementHandler(this, connectionProxy, entry, statement);
+            openStatements.add(handler);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, handler);
+        }
+    }
+
+    /**
+     * A prepared statement kept on its physical connection, with the
+     * settings it had when it was prepared
+     */
+    private static final class CachedStatement {
+        final String key;
+        final PreparedStatement physical;
+        final int fetchSize;
+        final int maxRows;
+        final int queryTimeout;
+        final int fetchDirection;
+        final int maxFieldSize;
+        boolean inUse;
+        boolean evicted;
+
+        CachedStatement(String key, PreparedStatement physical) throws SQLException {
+            this.key = key;
+            this.physical = physical;
+            this.fetchSize = physical.getFetchSize();
+            this.maxRows = physical.getMaxRows();
+            this.queryTimeout = physical.getQueryTimeout();
+            this.fetchDirection = physical.getFetchDirection();
+            this.maxFieldSize = physical.getMaxFieldSize();
+        }
+
+        /**
+         * Undo setFetchSize() and friends, so the next caller does not
+         * inherit them (a MySQL streaming fetch size, for example)
+         */
+        void restoreSettings() throws SQLException {
+            // Row limit first: some drivers reject a fetch size above it
+            physical.setMaxRows(maxRows);
+            physical.setMaxFieldSize(maxFieldSize);
+            physical.setQueryTimeout(queryTimeout);
+            physical.setFetchDirection(fetchDirection);
+            physical.setFetchSize(fetchSize);
+        }
+    }
+
+    /**
+     * Proxy handler: close() returns the connection, everything else is
+     * passed to the physical connection while the proxy is open
+     */
+    private final class Handler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Handler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.physical + (closed.get() ? ", closed" : "") + "]";
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection is closed (returned to the pool)");
+            }
+            if (method.getName().equals("prepareStatement") && settings.statementCacheSize > 0
+                    && (args.length == 1 || args.length == 2 && args[1] instanceof Integer)) {
+                return pooled.prepare(proxy, method, args);
+            }
+            return invokePhysical(pooled.physical, method, args);
+        }
+    }
+
+    /**
+     * Proxy handler for a statement from the cache (or a duplicate of a
+     * cached one): close() keeps the statement for the next caller
+     */
+    private final class StatementHandler implements InvocationHandler {
+        // Settings CachedStatement.restoreSettings() puts back
+        private static final Set<String> RESTORED_SETTINGS = Set.of("setFetchSize", "setMaxRows",
+            "setLargeMaxRows", "setQueryTimeout", "setFetchDirection", "setMaxFieldSize");
+        // Settings it cannot put back: the statement is closed instead of cached
+        private static final Set<String> UNRESTORABLE_SETTINGS = Set.of("setEscapeProcessing",
+            "setPoolable", "setCursorName", "closeOnCompletion");
+
+        private final PooledConnection pooled;
+        private final Object connectionProxy;
+        private final CachedStatement entry;  // null if not cached
+        private final PreparedStatement physical;
+        // Result sets since the last execute, closed with the statement
+        private final List<ResultSet> results = new ArrayList<>(1);
+        private boolean closed;
+        private boolean settingsChanged;
+        private boolean reusable = true;
+
+        StatementHandler(PooledConnection pooled, Object connectionProxy,
+                         CachedStatement entry, PreparedStatement physical) {
+            this.pooled = pooled;
+            this.connectionProxy = connectionProxy;
+            this.entry = entry;
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + physical + (closed ? ", closed" : "") + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (method.getName().equals("getConnection")) {
+                return connectionProxy;
+            }
+            if (method.getName().startsWith("execute")) {
+                // Executing again closes the previous result set anyway
+                results.clear();
+            } else if (RESTORED_SETTINGS.contains(method.getName())) {
+                settingsChanged = true;
+            } else if (UNRESTORABLE_SETTINGS.contains(method.getName())) {
+                reusable = false;
+            }
+            Object result = invokePhysical(physical, method, args);
+            if (result instanceof ResultSet resultSet) {
+                results.add(resultSet);
+            }
+            return result;
+        }
+
+        /**
+         * Close open result sets and give the statement back to the cache
+         */
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pooled.openStatements.remove(this);
+            for (ResultSet resultSet : results) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                    // Closed with the statement at the latest
+                }
+            }
+            results.clear();
+
+            if (entry != null && !entry.evicted && reusable) {
+                try {
+                    physical.clearParameters();
+                    physical.clearBatch();
+                    physical.clearWarnings();
+                    if (settingsChanged) {
+                        entry.restoreSettings();
+                    }
+                    entry.inUse = false;
+                    return;
+                } catch (SQLException e) {
+                    pooled.statements.remove(entry.key);
+                }
+            } else if (entry != null && !entry.evicted) {
+                pooled.statements.remove(entry.key);
+            }
+            closeQuietly(physical);
+        }
+    }
+
+    private static Object invokePhysical(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The current schema, or null if the driver does not support schemas
+     */
+    private static String schemaOf(Connection connection) {
+        try {
+            return connection.getSchema();
+        } catch (SQLException | AbstractMethodError e) {
+            return null;  // drivers written before JDBC 4.1
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // The connection is probably broken; it is discarded elsewhere
+        }
+    }
+}
@@ -1,9 +1,11 @@
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.function.Consumer;
 
 /**
  * DatabaseConnector - Database Connection Utility
@@ -11,15 +13,20 @@ import java.util.Properties;
  * This class demonstrates:
  * - Reading database configuration from properties file
  * - Establishing JDBC connection to MySQL
- * - Connection pooling basics
+ * - Connection pooling with ConnectionPool
  * - Error handling for database connections
  * - Secure credential management
  * 
+ * getConnection() borrows from a pool that is created on first use and
+ * sized by the db.* pool keys in db.properties. Closing the returned
+ * connection (for example in try-with-resources) returns it to the pool,
+ * so callers on any number of threads reuse a few physical connections.
+ * 
  * @author BICT Advanced Java Course
  * @version 1.0
  */
 public class DatabaseConnector {
-    private static Connection connection = null;
+    private static ConnectionPool pool = null;
     private static Properties dbProperties = null;
     
     /**
@@ -44,20 +51,57 @@ public class DatabaseConnector {
     }
     
     /**
-     * Establish connection to MySQL database
+     * Borrow a connection to the MySQL database from the pool
+     * 
+     * Close the connection when done to return it to the pool.
      * 
      * @return Connection object or null if connection fails
      */
     public static Connection getConnection() {
-        // Return existing connection if still valid
+        ConnectionPool current = getPool();
+        if (current == null) {
+            return null;
+        }
+        
         try {
-            if (connection != null && !connection.isClosed()) {
-                return connection;
-            }
+            return current.getConnection();
         } catch (SQLException e) {
-            System.err.println("Error checking connection status: " + e.getMessage());
+            System.err.println("Database connection failed!");
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("\nPossible causes:");
+            System.err.println("  1. MySQL server is not running");
+            System.err.println("  2. Incorrect database name, username, or password");
+            System.err.println("  3. Database 'college_db' does not exist");
+            System.err.println("     Run: resources/database-scripts/schema.sql");
+            System.err.println("  4. User does not have required permissions");
+            System.err.println("  5. All " + current.getSettings().maxConnections +
+                             " pooled connections are in use (db.maxConnections)");
+            return null;
         }
-        
+    }
+    
+    /**
+     * Get the connection pool, creating it on first use
+     * 
+     * @return the pool or null if the configuration is missing or invalid
+     */
+    public static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            pool = createPool(settings -> { });
+        }
+        return pool;
+    }
+    
+    /**
+     * Create a new pool for the configured database, separate from the
+     * shared one (for example to compare pool settings in a benchmark)
+     * 
+     * The caller must close the returned pool.
+     * 
+     * @param customizer adjusts the settings read from db.properties
+     * @return the pool or null if the configuration is missing or invalid
+     */
+    public static synchronized ConnectionPool createPool(Consumer<ConnectionPool.Settings> customizer) {
         // Load database properties if not already loaded
         if (dbProperties == null) {
             String configPath = "resources/config/db.properties";
@@ -89,47 +133,101 @@ public class DatabaseConnector {
         }
         
         try {
-            // Load MySQL JDBC Driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            System.out.println("✓ MySQL JDBC Driver loaded");
+            // Load JDBC Driver (MySQL unless db.driver says otherwise)
+            Class.forName(dbProperties.getProperty("db.driver", "com.mysql.cj.jdbc.Driver"));
+            System.out.println("✓ JDBC Driver loaded");
             
-            // Establish connection
-            connection = DriverManager.getConnection(url, username, password);
-            System.out.println("✓ Database connection established successfully");
-            System.out.println("  Connected to: " + url);
+            // Create the pool; connections are opened as they are needed
+            ConnectionPool.Settings settings = ConnectionPool.Settings.from(dbProperties);
+            customizer.accept(settings);
+            ConnectionPool created = new ConnectionPool(url, username, password, settings);
+            System.out.println("✓ Connection pool created (min " + settings.minConnections +
+                             ", max " + settings.maxConnections + " connections)");
+            System.out.println("  Connecting to: " + url);
             
-            return connection;
+            return created;
             
         } catch (ClassNotFoundException e) {
             System.err.println("MySQL JDBC Driver not found!");
             System.err.println("Please download and add mysql-connector-java to your classpath");
             System.err.println("Download from: https://dev.mysql.com/downloads/connector/j/");
             return null;
-        } catch (SQLException e) {
-            System.err.println("Database connection failed!");
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("\nPossible causes:");
-            System.err.println("  1. MySQL server is not running");
-            System.err.println("  2. Incorrect database name, username, or password");
-            System.err.println("  3. Database 'college_db' does not exist");
-            System.err.println("     Run: resources/database-scripts/schema.sql");
-            System.err.println("  4. User does not have required permissions");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid pool settings in db.properties: " + e.getMessage());
             return null;
         }
     }
     
     /**
-     * Close database connection
+     * Use the given configuration instead of resources/config/db.properties
+     * 
+     * For programs that bring their own database, such as an in-memory
+     * H2 database in a self-check. An existing pool is closed first.
+     * 
+     * @param props the db.* keys, as in db.properties
      */
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("✓ Database connection closed");
+    public static synchronized void useProperties(Properties props) {
+        closeConnection();
+        dbProperties = props;
+    }
+    
+    /**
+     * Print connection pool statistics
+     */
+    public static synchronized void printPoolStats() {
+        if (pool != null) {
+            System.out.println("Connection pool: " + pool.getStats());
+        }
+    }
+    
+    /**
+     * Close the connection pool and all idle connections
+     */
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            printPoolStats();
+            pool.close();
+            pool = null;
+            System.out.println("✓ Connection pool closed");
+        }
+    }
+    
+    /**
+     * Borrow connections from several threads at once to exercise the pool
+     */
+    private static void testConcurrentBorrowing() {
+        int threads = 16;
+        int queriesPerThread = 200;
+        System.out.println("\n=== Pool Test: " + threads + " threads x " + queriesPerThread + " queries ===");
+        
+        List<Thread> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < queriesPerThread; i++) {
+                    try (Connection c = getConnection()) {
+                        if (c == null) {
+                            return;
+                        }
+                        c.isValid(1);
+                    } catch (SQLException e) {
+                        System.err.println("Query failed: " + e.getMessage());
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        } catch (SQLException e) {
-            System.err.println("Error closing connection: " + e.getMessage());
         }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("✓ %d borrows in %.2f s (%.0f/s)%n",
+                        threads * queriesPerThread, seconds, threads * queriesPerThread / seconds);
     }
     
     /**
@@ -156,9 +254,12 @@ public class DatabaseConnector {
                 System.out.println("Driver Version: " + 
                                  conn.getMetaData().getDriverVersion());
                 System.out.println("Catalog: " + conn.getCatalog());
+                conn.close();
                 
                 System.out.println("\n✓ Connection test successful!");
                 
+                testConcurrentBorrowing();
+                
             } catch (SQLException e) {
                 System.err.println("Error retrieving metadata: " + e.getMessage());
             } finally {
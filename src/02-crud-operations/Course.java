@@ -0,0 +1,23 @@
+/**
+ * Course - One Row of the courses Table
+ *
+ * This class demonstrates:
+ * - A record as an immutable data carrier for database rows
+ * - An index-based RowMapper declared next to its column list
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public record Course(int courseId, String code, String name, int credits, String department) {
+
+    /** Columns in the order MAPPER reads them */
+    public static final String COLUMNS = "course_id, course_code, course_name, credits, department";
+    public static final int COLUMN_COUNT = 5;
+
+    public static final RowMapper<Course> MAPPER = (rs, first) -> new Course(
+        rs.getInt(first),
+        rs.getString(first + 1),
+        rs.getString(first + 2),
+        rs.getInt(first + 3),
+        rs.getString(first + 4));
+}
@@ -0,0 +1,91 @@
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CourseDAO - Data Access for the courses Table
+ *
+ * This class demonstrates:
+ * - A data access object that returns records instead of printing
+ * - Constant, parameterized SQL (reused through the statement cache)
+ * - Lookups that the schema's indexes can answer
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public final class CourseDAO {
+
+    static final String INSERT_SQL =
+        "INSERT INTO courses (course_code, course_name, credits, department) VALUES (?, ?, ?, ?)";
+    static final String SELECT_ALL_SQL =
+        "SELECT " + Course.COLUMNS + " FROM courses ORDER BY course_code";
+    static final String SELECT_BY_ID_SQL =
+        "SELECT " + Course.COLUMNS + " FROM courses WHERE course_id = ?";
+    static final String SELECT_BY_CODE_SQL =
+        "SELECT " + Course.COLUMNS + " FROM courses WHERE course_code = ?";
+    static final String SELECT_BY_DEPARTMENT_SQL =
+        "SELECT " + Course.COLUMNS + " FROM courses WHERE department = ? ORDER BY course_code";
+    static final String UPDATE_SQL =
+        "UPDATE courses SET course_name = ?, credits = ?, department = ? WHERE course_id = ?";
+    static final String DELETE_SQL = "DELETE FROM courses WHERE course_id = ?";
+
+    private CourseDAO() {
+    }
+
+    /**
+     * Add a course
+     *
+     * @return true if the course was inserted
+     * @throws SQLException if the code is already taken or the insert fails
+     */
+    public static boolean create(String code, String name, int credits, String department) throws SQLException {
+        return Queries.update(INSERT_SQL, code, name, credits, department) == 1;
+    }
+
+    /** All courses, by code */
+    public static List<Course> findAll() throws SQLException {
+        return Queries.list(SELECT_ALL_SQL, Course.MAPPER);
+    }
+
+    public static Optional<Course> findById(int courseId) throws SQLException {
+        return Queries.first(SELECT_BY_ID_SQL, Course.MAPPER, courseId);
+    }
+
+    /** Look up a course by its code, for example "CS101" */
+    public static Optional<Course> findByCode(String code) throws SQLException {
+        return Queries.first(SELECT_BY_CODE_SQL, Course.MAPPER, code);
+    }
+
+    /**
+     * Courses of a department, by code
+     *
+     * The courses table is small and has no index on department, so this
+     * is a table scan.
+     */
+    public static List<Course> findByDepartment(String department) throws SQLException {
+        return Queries.list(SELECT_BY_DEPARTMENT_SQL, Course.MAPPER, department);
+    }
+
+    /**
+     * Change a course's name, credits and department (the code stays)
+     *
+     * The credits weigh the course's grades, so gpa_summary is updated in
+     * the same transaction.
+     *
+     * @return true if the course exists
+     */
+    public static boolean update(Course course) throws SQLException {
+        return EnrollmentQueries.changeCourse(course.courseId(), conn -> Queries.update(conn, UPDATE_SQL,
+            course.name(), course.credits(), course.department(), course.courseId()) == 1);
+    }
+
+    /**
+     * Delete a course and, by ON DELETE CASCADE, its enrollments
+     * (updating gpa_summary in the same transaction)
+     *
+     * @return true if the course existed
+     */
+    public static boolean delete(int courseId) throws SQLException {
+        return EnrollmentQueries.changeCourse(courseId, conn -> Queries.update(conn, DELETE_SQL, courseId) == 1);
+    }
+}
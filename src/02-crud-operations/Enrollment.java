@@ -0,0 +1,31 @@
+import java.time.LocalDate;
+
+/**
+ * Enrollment - One Row of the enrollments Table
+ *
+ * This class demonstrates:
+ * - A record as an immutable data carrier for database rows
+ * - An index-based RowMapper declared next to its column list
+ *
+ * A student takes a course at most once per semester (the
+ * unique_enrollment key). The grade is null until it is set.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public record Enrollment(int enrollmentId, int studentId, int courseId,
+                         String semester, String grade, LocalDate enrollmentDate) {
+
+    /** Columns in the order MAPPER reads them */
+    public static final String COLUMNS =
+        "enrollment_id, student_id, course_id, semester, grade, enrollment_date";
+    public static final int COLUMN_COUNT = 6;
+
+    public static final RowMapper<Enrollment> MAPPER = (rs, first) -> new Enrollment(
+        rs.getInt(first),
+        rs.getInt(first + 1),
+        rs.getInt(first + 2),
+        rs.getString(first + 3),
+        rs.getString(first + 4),
+        rs.getObject(first + 5, LocalDate.class));
+}
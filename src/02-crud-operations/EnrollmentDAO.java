@@ -0,0 +1,95 @@
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * EnrollmentDAO - Data Access for the enrollments Table
+ *
+ * This class demonstrates:
+ * - A data access object that returns records instead of printing
+ * - Relying on UNIQUE and FOREIGN KEY constraints instead of checking
+ *   in Java first (which would race with other clients)
+ * - Lookups that the schema's indexes can answer
+ *
+ * enroll() fails with an SQLException (SQLState class 23, integrity
+ * constraint violation) if the student or course does not exist or if
+ * the student already takes the course that semester.
+ *
+ * Each change runs in a transaction that also updates the gpa_summary
+ * table (see EnrollmentQueries).
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public final class EnrollmentDAO {
+
+    static final String INSERT_SQL =
+        "INSERT INTO enrollments (student_id, course_id, semester) VALUES (?, ?, ?)";
+    static final String SELECT_BY_ID_SQL =
+        "SELECT " + Enrollment.COLUMNS + " FROM enrollments WHERE enrollment_id = ?";
+    static final String SELECT_BY_STUDENT_SQL =
+        "SELECT " + Enrollment.COLUMNS + " FROM enrollments WHERE student_id = ? ORDER BY enrollment_id";
+    static final String SELECT_BY_COURSE_SQL =
+        "SELECT " + Enrollment.COLUMNS + " FROM enrollments WHERE course_id = ? ORDER BY enrollment_id";
+    static final String SELECT_ONE_SQL =
+        "SELECT " + Enrollment.COLUMNS + " FROM enrollments " +
+        "WHERE student_id = ? AND course_id = ? AND semester = ?";
+    static final String SET_GRADE_SQL =
+        "UPDATE enrollments SET grade = ? WHERE student_id = ? AND course_id = ? AND semester = ?";
+    static final String DELETE_SQL =
+        "DELETE FROM enrollments WHERE student_id = ? AND course_id = ? AND semester = ?";
+
+    private EnrollmentDAO() {
+    }
+
+    /**
+     * Enroll a student in a course for a semester (no grade yet)
+     *
+     * @return true if the enrollment was inserted
+     * @throws SQLException on a constraint violation or other failure
+     */
+    public static boolean enroll(int studentId, int courseId, String semester) throws SQLException {
+        return EnrollmentQueries.changeEnrollments(studentId, semester,
+            conn -> Queries.update(conn, INSERT_SQL, studentId, courseId, semester) == 1);
+    }
+
+    public static Optional<Enrollment> findById(int enrollmentId) throws SQLException {
+        return Queries.first(SELECT_BY_ID_SQL, Enrollment.MAPPER, enrollmentId);
+    }
+
+    /** The enrollment of a student in a course for a semester */
+    public static Optional<Enrollment> find(int studentId, int courseId, String semester) throws SQLException {
+        return Queries.first(SELECT_ONE_SQL, Enrollment.MAPPER, studentId, courseId, semester);
+    }
+
+    /** All enrollments of a student, oldest first */
+    public static List<Enrollment> findByStudent(int studentId) throws SQLException {
+        return Queries.list(SELECT_BY_STUDENT_SQL, Enrollment.MAPPER, studentId);
+    }
+
+    /** All enrollments in a course, oldest first */
+    public static List<Enrollment> findByCourse(int courseId) throws SQLException {
+        return Queries.list(SELECT_BY_COURSE_SQL, Enrollment.MAPPER, courseId);
+    }
+
+    /**
+     * Record (or clear, with null) a grade
+     *
+     * @return true if the enrollment exists
+     */
+    public static boolean setGrade(int studentId, int courseId, String semester, String grade)
+            throws SQLException {
+        return EnrollmentQueries.changeEnrollments(studentId, semester,
+            conn -> Queries.update(conn, SET_GRADE_SQL, grade, studentId, courseId, semester) == 1);
+    }
+
+    /**
+     * Remove a student from a course for a semester
+     *
+     * @return true if the enrollment existed
+     */
+    public static boolean drop(int studentId, int courseId, String semester) throws SQLException {
+        return EnrollmentQueries.changeEnrollments(studentId, semester,
+            conn -> Queries.update(conn, DELETE_SQL, studentId, courseId, semester) == 1);
+    }
+}
@@ -0,0 +1,345 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * EnrollmentQueries - Transcripts, Rosters and GPA Reports
+ *
+ * This class demonstrates:
+ * - Answering a report with one set-based join instead of N+1 lookups
+ * - Several RowMappers reading one joined row at different offsets
+ * - GROUP BY aggregates computed by the database
+ * - A summary table kept up to date incrementally, in the same
+ *   transaction as the change it reflects
+ *
+ * Loading a department's transcripts with the DAOs takes one query for
+ * the students, one per student for the enrollments and one per
+ * enrollment for the course. transcriptsByDepartment() asks for all of
+ * it in one query that the indexes on students(department) and
+ * enrollments(student_id) answer.
+ *
+ * GPAs are credit-weighted: sum(points * credits) / sum(credits) over the
+ * graded enrollments, with points from the grade_scale table. Enrollments
+ * without a grade (or with a grade not in grade_scale) do not count.
+ *
+ * The gpa_summary table holds those totals per student department and
+ * semester, so gpaSummary() reads a few hundred rows where
+ * gpaByDepartmentAndSemester() aggregates every enrollment. Changes keep
+ * it current without recomputing it:
+ * - EnrollmentDAO and StudentCRUD change a student's enrollments (or
+ *   department) through changeEnrollments() and changeStudent(), which
+ *   subtract the student's totals, make the change and add them back
+ * - CourseDAO goes through changeCourse(), which recomputes the groups
+ *   of the course's students
+ * Rows written with plain SQL (sample-data.sql, a bulk load) are not
+ * seen; call rebuildGpaSummary() afterwards.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public final class EnrollmentQueries {
+
+    /** One course on a transcript */
+    public record TranscriptLine(Course course, String semester, String grade, BigDecimal points) {
+
+        /** Reads Course.COLUMNS, semester, grade, points; null if the course is NULL (no enrollment) */
+        public static final RowMapper<TranscriptLine> MAPPER = (rs, first) -> {
+            if (rs.getObject(first) == null) {
+                return null;
+            }
+            int next = first + Course.COLUMN_COUNT;
+            return new TranscriptLine(Course.MAPPER.map(rs, first),
+                rs.getString(next), rs.getString(next + 1), rs.getBigDecimal(next + 2));
+        };
+    }
+
+    /** A student and all of their enrollments, by semester */
+    public record Transcript(Student student, List<TranscriptLine> lines) {
+
+        public int gradedCredits() {
+            return lines.stream().filter(line -> line.points() != null)
+                .mapToInt(line -> line.course().credits()).sum();
+        }
+
+        /** Credit-weighted GPA, or null without graded courses */
+        public BigDecimal gpa() {
+            BigDecimal points = lines.stream().filter(line -> line.points() != null)
+                .map(line -> line.points().multiply(BigDecimal.valueOf(line.course().credits())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            return EnrollmentQueries.gpa(points, gradedCredits());
+        }
+    }
+
+    /** A student taking a course */
+    public record RosterEntry(Student student, String semester, String grade) {
+
+        public static final RowMapper<RosterEntry> MAPPER = (rs, first) -> {
+            int next = first + Student.COLUMN_COUNT;
+            return new RosterEntry(Student.MAPPER.map(rs, first), rs.getString(next), rs.getString(next + 1));
+        };
+    }
+
+    /** GPA totals of one student department in one semester */
+    public record GpaSummary(String department, String semester, int students, int enrollments,
+                             int gradedCredits, BigDecimal gradePoints) {
+
+        public static final RowMapper<GpaSummary> MAPPER = (rs, first) -> new GpaSummary(
+            rs.getString(first),
+            rs.getString(first + 1),
+            rs.getInt(first + 2),
+            rs.getInt(first + 3),
+            rs.getInt(first + 4),
+            rs.getBigDecimal(first + 5).setScale(2, RoundingMode.HALF_UP));
+
+        /** Credit-weighted GPA, or null without graded courses */
+        public BigDecimal gpa() {
+            return EnrollmentQueries.gpa(gradePoints, gradedCredits);
+        }
+    }
+
+    private record TranscriptRow(Student student, TranscriptLine line) { }
+
+    private record Group(String department, String semester) { }
+
+    // Students with all their enrollments (LEFT JOIN: students without any
+    // still get a row, with NULL course columns)
+    private static final String TRANSCRIPT_SQL =
+        "SELECT " + Queries.qualify("s", Student.COLUMNS) + ", " + Queries.qualify("c", Course.COLUMNS) +
+        ", e.semester, e.grade, g.points " +
+        "FROM students s " +
+        "LEFT JOIN enrollments e ON e.student_id = s.student_id " +
+        "LEFT JOIN courses c ON c.course_id = e.course_id " +
+        "LEFT JOIN grade_scale g ON g.grade = e.grade ";
+    // Semesters are named "2024 Spring", "2024 Fall": sort by year, then term
+    private static final String SEMESTER_ORDER =
+        "LEFT(e.semester, 4), CASE WHEN e.semester LIKE '% Spring' THEN 1 " +
+        "WHEN e.semester LIKE '% Summer' THEN 2 ELSE 3 END";
+    static final String TRANSCRIPT_BY_STUDENT_SQL =
+        TRANSCRIPT_SQL + "WHERE s.student_id = ? ORDER BY " + SEMESTER_ORDER + ", c.course_code";
+    static final String TRANSCRIPTS_BY_DEPARTMENT_SQL =
+        TRANSCRIPT_SQL + "WHERE s.department = ? ORDER BY s.student_id, " + SEMESTER_ORDER + ", c.course_code";
+
+    private static final String ROSTER_SQL =
+        "SELECT " + Queries.qualify("s", Student.COLUMNS) + ", e.semester, e.grade " +
+        "FROM enrollments e JOIN students s ON s.student_id = e.student_id ";
+    static final String ROSTER_BY_COURSE_SQL =
+        ROSTER_SQL + "WHERE e.course_id = ? ORDER BY " + SEMESTER_ORDER + ", s.student_name";
+    static final String ROSTER_BY_COURSE_SEMESTER_SQL =
+        ROSTER_SQL + "WHERE e.course_id = ? AND e.semester = ? ORDER BY s.student_name";
+
+    // Totals per (department, semester); GROUP BY s.department, e.semester
+    // is appended. The summary leaves out students without a department
+    // and enrollments without a semester, as its key cannot be NULL.
+    private static final String TOTALS_FROM =
+        " FROM enrollments e " +
+        "JOIN students s ON s.student_id = e.student_id " +
+        "JOIN courses c ON c.course_id = e.course_id " +
+        "LEFT JOIN grade_scale g ON g.grade = e.grade " +
+        "WHERE s.department IS NOT NULL AND e.semester IS NOT NULL";
+    private static final String GRADED_CREDITS = "COALESCE(SUM(CASE WHEN g.points IS NOT NULL THEN c.credits END), 0)";
+    private static final String GRADE_POINTS = "COALESCE(SUM(g.points * c.credits), 0)";
+    private static final String GROUP_TOTALS_SQL =
+        "SELECT s.department, e.semester, COUNT(DISTINCT e.student_id), COUNT(*), " +
+        GRADED_CREDITS + ", " + GRADE_POINTS + TOTALS_FROM;
+    private static final String SUMMARY_COLUMNS =
+        "department, semester, students, enrollments, graded_credits, grade_points";
+
+    static final String GPA_LIVE_SQL =
+        GROUP_TOTALS_SQL + " GROUP BY s.department, e.semester ORDER BY s.department, e.semester";
+    static final String GPA_SUMMARY_SQL =
+        "SELECT " + SUMMARY_COLUMNS + " FROM gpa_summary ORDER BY department, semester";
+
+    private static final String SUMMARY_CLEAR_SQL = "DELETE FROM gpa_summary";
+    private static final String SUMMARY_FILL_SQL =
+        "INSERT INTO gpa_summary (" + SUMMARY_COLUMNS + ") " + GROUP_TOTALS_SQL +
+        " GROUP BY s.department, e.semester";
+    private static final String GROUP_CLEAR_SQL =
+        "DELETE FROM gpa_summary WHERE department = ? AND semester = ?";
+    private static final String GROUP_FILL_SQL =
+        "INSERT INTO gpa_summary (" + SUMMARY_COLUMNS + ") " + GROUP_TOTALS_SQL +
+        " AND s.department = ? AND e.semester = ? GROUP BY s.department, e.semester";
+    private static final String COURSE_GROUPS_SQL =
+        "SELECT DISTINCT s.department, e.semester" + TOTALS_FROM +
+        " AND e.course_id = ?";
+
+    // Add (sign 1) or subtract (sign -1) one student's totals; a student
+    // counts once per (department, semester) group they have enrollments in
+    private static final String STUDENT_DELTA_SQL =
+        "INSERT INTO gpa_summary (" + SUMMARY_COLUMNS + ") " +
+        "SELECT s.department, e.semester, ?, ? * COUNT(*), ? * " + GRADED_CREDITS + ", ? * " + GRADE_POINTS +
+        TOTALS_FROM + " AND s.student_id = ?";
+    private static final String DELTA_GROUP_BY =
+        " GROUP BY s.department, e.semester ON DUPLICATE KEY UPDATE " +
+        "students = gpa_summary.students + VALUES(students), " +
+        "enrollments = gpa_summary.enrollments + VALUES(enrollments), " +
+        "graded_credits = gpa_summary.graded_credits + VALUES(graded_credits), " +
+        "grade_points = gpa_summary.grade_points + VALUES(grade_points)";
+    static final String STUDENT_SEMESTER_DELTA_SQL = STUDENT_DELTA_SQL + " AND e.semester = ?" + DELTA_GROUP_BY;
+    static final String STUDENT_ALL_DELTA_SQL = STUDENT_DELTA_SQL + DELTA_GROUP_BY;
+    private static final String SUMMARY_PRUNE_SQL = "DELETE FROM gpa_summary WHERE enrollments = 0";
+    private static final String LOCK_STUDENT_SQL = "SELECT student_id FROM students WHERE student_id = ? FOR UPDATE";
+
+    private EnrollmentQueries() {
+    }
+
+    /**
+     * A student's transcript
+     *
+     * @return empty if there is no such student
+     */
+    public static Optional<Transcript> transcript(int studentId) throws SQLException {
+        List<Transcript> transcripts = transcripts(TRANSCRIPT_BY_STUDENT_SQL, studentId);
+        return transcripts.isEmpty() ? Optional.empty() : Optional.of(transcripts.get(0));
+    }
+
+    /**
+     * Transcripts of every student in a department, by student ID, in one query
+     */
+    public static List<Transcript> transcriptsByDepartment(String department) throws SQLException {
+        return transcripts(TRANSCRIPTS_BY_DEPARTMENT_SQL, department);
+    }
+
+    /**
+     * Group joined rows (sorted by student) into transcripts
+     */
+    private static List<Transcript> transcripts(String sql, Object param) throws SQLException {
+        List<TranscriptRow> rows = Queries.list(sql, (rs, first) -> new TranscriptRow(
+            Student.MAPPER.map(rs, first),
+            TranscriptLine.MAPPER.map(rs, first + Student.COLUMN_COUNT)), param);
+
+        List<Transcript> transcripts = new ArrayList<>();
+        List<TranscriptLine> lines = null;
+        int studentId = -1;
+        for (TranscriptRow row : rows) {
+            if (row.student().studentId() != studentId) {
+                studentId = row.student().studentId();
+                lines = new ArrayList<>();
+                transcripts.add(new Transcript(row.student(), lines));
+            }
+            if (row.line() != null) {
+                lines.add(row.line());
+            }
+        }
+        return transcripts;
+    }
+
+    /**
+     * Everyone who has taken a course, by semester and name
+     */
+    public static List<RosterEntry> roster(int courseId) throws SQLException {
+        return Queries.list(ROSTER_BY_COURSE_SQL, RosterEntry.MAPPER, courseId);
+    }
+
+    /**
+     * The students of a course in one semester, by name
+     */
+    public static List<RosterEntry> roster(int courseId, String semester) throws SQLException {
+        return Queries.list(ROSTER_BY_COURSE_SEMESTER_SQL, RosterEntry.MAPPER, courseId, semester);
+    }
+
+    /**
+     * GPA per student department and semester, aggregated from the enrollments
+     */
+    public static List<GpaSummary> gpaByDepartmentAndSemester() throws SQLException {
+        return Queries.list(GPA_LIVE_SQL, GpaSummary.MAPPER);
+    }
+
+    /**
+     * GPA per student department and semester, read from gpa_summary
+     */
+    public static List<GpaSummary> gpaSummary() throws SQLException {
+        return Queries.list(GPA_SUMMARY_SQL, GpaSummary.MAPPER);
+    }
+
+    /**
+     * Recompute gpa_summary from the enrollments
+     *
+     * @return number of summary rows
+     */
+    public static int rebuildGpaSummary() throws SQLException {
+        return Queries.inTransaction(conn -> {
+            Queries.update(conn, SUMMARY_CLEAR_SQL);
+            return Queries.update(conn, SUMMARY_FILL_SQL);
+        });
+    }
+
+    /**
+     * Change one student's enrollments in one semester, keeping gpa_summary
+     * current, in one transaction
+     *
+     * The student's row is locked first, so changes to the same student
+     * are applied one after the other.
+     */
+    static <T> T changeEnrollments(int studentId, String semester, Queries.SqlWork<T> change)
+            throws SQLException {
+        if (semester == null) {
+            // Not part of the summary
+            return Queries.inTransaction(change);
+        }
+        return Queries.inTransaction(conn -> {
+            Queries.list(conn, LOCK_STUDENT_SQL, (rs, first) -> rs.getInt(first), studentId);
+            applyStudent(conn, STUDENT_SEMESTER_DELTA_SQL, -1, studentId, semester);
+            T result = change.run(conn);
+            applyStudent(conn, STUDENT_SEMESTER_DELTA_SQL, 1, studentId, semester);
+            Queries.update(conn, SUMMARY_PRUNE_SQL);
+            return result;
+        });
+    }
+
+    /**
+     * Change a student (department, deletion) keeping gpa_summary current,
+     * in one transaction
+     */
+    static <T> T changeStudent(int studentId, Queries.SqlWork<T> change) throws SQLException {
+        return Queries.inTransaction(conn -> {
+            Queries.list(conn, LOCK_STUDENT_SQL, (rs, first) -> rs.getInt(first), studentId);
+            applyStudent(conn, STUDENT_ALL_DELTA_SQL, -1, studentId);
+            T result = change.run(conn);
+            applyStudent(conn, STUDENT_ALL_DELTA_SQL, 1, studentId);
+            Queries.update(conn, SUMMARY_PRUNE_SQL);
+            return result;
+        });
+    }
+
+    /**
+     * Change a course (credits, deletion) keeping gpa_summary current, in
+     * one transaction
+     *
+     * A course's students can be in many groups, and whether a student
+     * still counts in a group depends on their other courses, so the
+     * groups are recomputed rather than adjusted.
+     */
+    static <T> T changeCourse(int courseId, Queries.SqlWork<T> change) throws SQLException {
+        return Queries.inTransaction(conn -> {
+            List<Group> groups = Queries.list(conn, COURSE_GROUPS_SQL,
+                (rs, first) -> new Group(rs.getString(first), rs.getString(first + 1)), courseId);
+            T result = change.run(conn);
+            for (Group group : groups) {
+                Queries.update(conn, GROUP_CLEAR_SQL, group.department(), group.semester());
+                Queries.update(conn, GROUP_FILL_SQL, group.department(), group.semester());
+            }
+            return result;
+        });
+    }
+
+    private static void applyStudent(Connection conn, String sql, int sign, Object... key) throws SQLException {
+        Object[] params = new Object[4 + key.length];
+        params[0] = sign;
+        params[1] = sign;
+        params[2] = sign;
+        params[3] = sign;
+        System.arraycopy(key, 0, params, 4, key.length);
+        Queries.update(conn, sql, params);
+    }
+
+    /**
+     * points / credits with two decimals, or null if credits is 0
+     */
+    static BigDecimal gpa(BigDecimal points, int credits) {
+        return credits == 0 ? null : points.divide(BigDecimal.valueOf(credits), 2, RoundingMode.HALF_UP);
+    }
+}
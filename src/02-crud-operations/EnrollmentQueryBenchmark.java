@@ -0,0 +1,295 @@
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * EnrollmentQueryBenchmark - Set-Based Reports on a Million Enrollments
+ *
+ * This program demonstrates:
+ * - The cost of N+1 lookups compared with one join (EnrollmentQueries)
+ * - A GROUP BY over every enrollment compared with a summary table
+ * - What keeping the summary table current costs per change
+ *
+ * The benchmark builds its own data set in an in-memory H2 database
+ * (MySQL mode) from resources/database-scripts/schema.sql, so no server
+ * is needed and the student database is not touched:
+ * - 10 departments with 50 courses each
+ * - one student per 10 enrollments, each taking 10 different courses
+ *   in semesters 2018 Spring to 2025 Fall, mostly graded
+ * The data comes from a fixed seed, so every run sees the same rows.
+ *
+ * Usage (from the project root, with the H2 jar on the classpath):
+ *   java -Xmx2g -cp <classes>:h2.jar EnrollmentQueryBenchmark [enrollments]
+ *   (default: 1,000,000)
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class EnrollmentQueryBenchmark {
+
+    private static final String[] DEPARTMENTS = {
+        "Computer Science", "Information Technology", "Software Engineering", "Mathematics", "Physics",
+        "Chemistry", "Biology", "Economics", "History", "Linguistics"
+    };
+    private static final String[] PREFIXES = {"CS", "IT", "SE", "MA", "PH", "CH", "BI", "EC", "HI", "LI"};
+    private static final int COURSES_PER_DEPARTMENT = 50;
+    private static final int COURSES_PER_STUDENT = 10;
+    // Grades drawn uniformly; null (not graded yet) and W count for no GPA
+    private static final String[] GRADES = {"A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F", "W", null};
+    private static final int BATCH_SIZE = 1000;
+    private static final int GRADE_CHANGES = 2000;
+
+    @FunctionalInterface
+    private interface Task<T> {
+        T run() throws SQLException;
+    }
+
+    private record Timed<T>(T result, double millis) { }
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws IOException, SQLException {
+        int enrollments = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int students = Math.max(1, enrollments / COURSES_PER_STUDENT);
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║   Enrollment Query Benchmark      ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+
+        // H2 would otherwise answer a repeated query from the previous
+        // result while the tables are unchanged
+        SchemaSelfCheck.createH2Database("enrollment_benchmark;OPTIMIZE_REUSE_RESULTS=FALSE", false);
+        try {
+            Timed<Integer> generated = time(() -> generate(students, new Random(42)));
+            Timed<Integer> rebuilt = time(EnrollmentQueries::rebuildGpaSummary);
+            System.out.printf("%n✓ %,d students, %,d courses, %,d enrollments generated in %.1f s%n",
+                            students, DEPARTMENTS.length * COURSES_PER_DEPARTMENT,
+                            generated.result(), generated.millis() / 1000);
+            System.out.printf("✓ gpa_summary built (%d rows) in %.0f ms%n%n", rebuilt.result(), rebuilt.millis());
+
+            transcripts();
+            rosters();
+            gpaReports();
+            gradeChanges(new Random(7), students);
+        } finally {
+            DatabaseConnector.closeConnection();
+        }
+    }
+
+    /**
+     * A department's transcripts: DAO lookups per student and per course
+     * against one join
+     */
+    private static void transcripts() throws SQLException {
+        String department = DEPARTMENTS[0];
+        System.out.println("📊 Transcripts of every " + department + " student");
+        System.out.println("=".repeat(50));
+
+        // Warm-up
+        EnrollmentQueries.transcriptsByDepartment(department);
+
+        long[] queries = new long[1];
+        Timed<Long> nPlusOne = time(() -> {
+            long lines = 0;
+            queries[0] = 1;
+            try (Stream<Student> students = StudentCRUD.streamStudentsByDepartment(department, 1000)) {
+                for (Student student : students.toList()) {
+                    queries[0]++;
+                    for (Enrollment enrollment : EnrollmentDAO.findByStudent(student.studentId())) {
+                        queries[0]++;
+                        CourseDAO.findById(enrollment.courseId()).orElseThrow();
+                        lines++;
+                    }
+                }
+            }
+            return lines;
+        });
+        Timed<List<EnrollmentQueries.Transcript>> joined =
+            time(() -> EnrollmentQueries.transcriptsByDepartment(department));
+        long joinedLines = joined.result().stream().mapToLong(transcript -> transcript.lines().size()).sum();
+
+        System.out.printf("N+1 lookups:  %,9.0f ms  (%,d queries, %,d lines)%n",
+                        nPlusOne.millis(), queries[0], nPlusOne.result());
+        System.out.printf("One join:     %,9.0f ms  (1 query, %,d lines)%n", joined.millis(), joinedLines);
+        check(nPlusOne.result() == joinedLines, "same transcript lines");
+        System.out.printf("✓ %.1fx faster%n%n", nPlusOne.millis() / joined.millis());
+    }
+
+    /**
+     * Rosters of many courses, one query each
+     */
+    private static void rosters() throws SQLException {
+        int courses = DEPARTMENTS.length * COURSES_PER_DEPARTMENT;
+        System.out.println("📊 Rosters of all " + courses + " courses");
+        System.out.println("=".repeat(50));
+
+        Timed<Long> rosters = time(() -> {
+            long entries = 0;
+            for (int courseId = 1; courseId <= courses; courseId++) {
+                entries += EnrollmentQueries.roster(courseId).size();
+            }
+            return entries;
+        });
+        System.out.printf("✓ %,d entries, %.2f ms per roster%n%n", rosters.result(), rosters.millis() / courses);
+    }
+
+    /**
+     * GPA per department and semester: GROUP BY against gpa_summary
+     */
+    private static void gpaReports() throws SQLException {
+        System.out.println("📊 GPA by department and semester");
+        System.out.println("=".repeat(50));
+
+        EnrollmentQueries.gpaByDepartmentAndSemester();
+        EnrollmentQueries.gpaSummary();
+        Timed<List<EnrollmentQueries.GpaSummary>> live = time(EnrollmentQueries::gpaByDepartmentAndSemester);
+        Timed<List<EnrollmentQueries.GpaSummary>> summary = time(EnrollmentQueries::gpaSummary);
+
+        System.out.printf("GROUP BY over enrollments: %,9.1f ms  (%d groups)%n", live.millis(), live.result().size());
+        System.out.printf("gpa_summary table:         %,9.1f ms  (%d rows)%n", summary.millis(), summary.result().size());
+        check(live.result().equals(summary.result()), "summary equals aggregate");
+        System.out.printf("✓ %.0fx faster%n%n", live.millis() / summary.millis());
+    }
+
+    /**
+     * The price of keeping gpa_summary current
+     */
+    private static void gradeChanges(Random random, int students) throws SQLException {
+        System.out.println("📊 " + GRADE_CHANGES + " grade changes");
+        System.out.println("=".repeat(50));
+
+        List<Enrollment> sample = new ArrayList<>();
+        while (sample.size() < GRADE_CHANGES) {
+            List<Enrollment> enrollments = EnrollmentDAO.findByStudent(1 + random.nextInt(students));
+            if (!enrollments.isEmpty()) {
+                sample.add(enrollments.get(random.nextInt(enrollments.size())));
+            }
+        }
+
+        Timed<Integer> plain = time(() -> {
+            int changed = 0;
+            for (Enrollment e : sample) {
+                changed += Queries.update(EnrollmentDAO.SET_GRADE_SQL, "B", e.studentId(), e.courseId(), e.semester());
+            }
+            return changed;
+        });
+        Timed<Integer> maintained = time(() -> {
+            int changed = 0;
+            for (Enrollment e : sample) {
+                changed += EnrollmentDAO.setGrade(e.studentId(), e.courseId(), e.semester(), "A-") ? 1 : 0;
+            }
+            return changed;
+        });
+        Timed<Integer> rebuild = time(EnrollmentQueries::rebuildGpaSummary);
+        // The plain updates bypassed gpa_summary, so compare after the rebuild
+        // and once more after maintained changes on top of it
+        check(EnrollmentQueries.gpaSummary().equals(EnrollmentQueries.gpaByDepartmentAndSemester()),
+              "rebuilt summary equals aggregate");
+        for (Enrollment e : sample) {
+            EnrollmentDAO.setGrade(e.studentId(), e.courseId(), e.semester(), e.grade());
+        }
+        check(EnrollmentQueries.gpaSummary().equals(EnrollmentQueries.gpaByDepartmentAndSemester()),
+              "maintained summary equals aggregate");
+
+        System.out.printf("UPDATE only:               %8.3f ms per change%n", plain.millis() / plain.result());
+        System.out.printf("UPDATE + summary delta:    %8.3f ms per change%n",
+                        maintained.millis() / maintained.result());
+        System.out.printf("Full rebuild:              %8.0f ms%n", rebuild.millis());
+        System.out.printf("✓ A rebuild costs as much as %,.0f maintained changes%n",
+                        rebuild.millis() / (maintained.millis() / maintained.result()));
+    }
+
+    /**
+     * Fill courses, students and enrollments in batches
+     *
+     * @return number of enrollments
+     */
+    private static int generate(int students, Random random) throws SQLException {
+        try (Connection conn = Queries.connection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(CourseDAO.INSERT_SQL)) {
+                for (int d = 0; d < DEPARTMENTS.length; d++) {
+                    for (int n = 0; n < COURSES_PER_DEPARTMENT; n++) {
+                        Queries.bind(insert, String.format("%s%03d", PREFIXES[d], 100 + n),
+                                     DEPARTMENTS[d] + " " + (n + 1), 3 + random.nextInt(2), DEPARTMENTS[d]);
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+
+            List<Student> batch = new ArrayList<>(students);
+            for (int i = 1; i <= students; i++) {
+                batch.add(Student.of(String.format("Student %07d", i), 18 + random.nextInt(10),
+                                     "student" + i + "@example.com", null,
+                                     DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]));
+            }
+            List<Student> created = new ArrayList<>(students);
+            StudentCRUD.insertStudents(conn, batch, BATCH_SIZE, created);
+            batch.clear();
+
+            int enrollments = insertEnrollments(conn, created, DEPARTMENTS.length * COURSES_PER_DEPARTMENT, random);
+
+            // Index statistics for the optimizer (MySQL keeps them up to date by itself)
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ANALYZE");
+            }
+            return enrollments;
+        }
+    }
+
+    private static int insertEnrollments(Connection conn, List<Student> students, int courses, Random random)
+            throws SQLException {
+        int inserted = 0;
+        conn.setAutoCommit(false);
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO enrollments (student_id, course_id, semester, grade) VALUES (?, ?, ?, ?)")) {
+            Set<Integer> taken = new HashSet<>();
+            for (Student student : students) {
+                taken.clear();
+                while (taken.size() < COURSES_PER_STUDENT) {
+                    int courseId = 1 + random.nextInt(courses);
+                    if (!taken.add(courseId)) {
+                        continue;
+                    }
+                    String semester = (2018 + random.nextInt(8)) + (random.nextBoolean() ? " Spring" : " Fall");
+                    Queries.bind(insert, student.studentId(), courseId, semester,
+                                 GRADES[random.nextInt(GRADES.length)]);
+                    insert.addBatch();
+                    if (++inserted % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        conn.commit();
+                    }
+                }
+            }
+            insert.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        return inserted;
+    }
+
+    private static <T> Timed<T> time(Task<T> task) throws SQLException {
+        long start = System.nanoTime();
+        T result = task.run();
+        return new Timed<>(result, (System.nanoTime() - start) / 1e6);
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) {
+            throw new IllegalStateException("Benchmark results differ: " + what);
+        }
+    }
+}
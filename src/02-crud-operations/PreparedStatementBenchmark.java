@@ -0,0 +1,196 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+/**
+ * PreparedStatementBenchmark - Prepare Cost With and Without the Statement Cache
+ *
+ * This program demonstrates:
+ * - Measuring the time spent in prepareStatement() per call
+ * - The per-connection statement cache of ConnectionPool
+ * - Why SQL text must be canonical: inlined values defeat the cache
+ *
+ * Every workload runs against the database in db.properties twice, once
+ * with db.statementCacheSize=0 and once with the cache enabled:
+ * - lookup:  borrow, prepare SELECT by id, execute, close
+ * - update:  the same with one UPDATE per column combination
+ *            (as StudentCRUD.updateStudent does)
+ * - literal: UPDATEs with the values written into the SQL text, so
+ *            every statement is different and nothing can be reused
+ *
+ * The benchmark creates and drops its own table (prepare_benchmark), so
+ * the student data is not touched. It works with MySQL and H2:
+ * - H2 parses and plans the SQL on every prepare, which the cache saves
+ * - MySQL Connector/J prepares on the client unless db.url contains
+ *   useServerPrepStmts=true; with it, every uncached prepare also costs
+ *   a round trip to the server
+ *
+ * Usage: java PreparedStatementBenchmark [operations]   (default: 20000)
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class PreparedStatementBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final String LOOKUP_SQL = "SELECT name, score FROM prepare_benchmark WHERE id = ?";
+    // Index = bit mask of the columns to set (1 = name, 2 = score)
+    private static final String[] UPDATE_SQL = {
+        null,
+        "UPDATE prepare_benchmark SET name = ? WHERE id = ?",
+        "UPDATE prepare_benchmark SET score = ? WHERE id = ?",
+        "UPDATE prepare_benchmark SET name = ?, score = ? WHERE id = ?",
+    };
+    private static final String[] WORKLOADS = {"lookup", "update", "literal"};
+
+    private record Result(double operationsPerSecond, double prepareMicros) { }
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws SQLException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║   Prepared Statement Benchmark    ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+
+        ConnectionPool uncached = DatabaseConnector.createPool(settings -> settings.statementCacheSize = 0);
+        ConnectionPool cached = DatabaseConnector.createPool(settings -> {
+            if (settings.statementCacheSize == 0) {
+                settings.statementCacheSize = 32;
+            }
+        });
+        if (uncached == null || cached == null) {
+            System.err.println("✗ Cannot connect; check resources/config/db.properties");
+            return;
+        }
+
+        try {
+            createTable(uncached);
+            try (Connection conn = uncached.getConnection()) {
+                System.out.println("\nDatabase: " + conn.getMetaData().getDatabaseProductName() +
+                                 " " + conn.getMetaData().getDatabaseProductVersion());
+            }
+            System.out.println("Operations per run: " + operations + " (after a warm-up run)\n");
+
+            System.out.printf("%-9s %-10s %14s %16s%n", "Workload", "Cache", "Operations/s", "Prepare µs/op");
+            System.out.println("=".repeat(52));
+            for (String workload : WORKLOADS) {
+                Result without = measure(uncached, workload, operations);
+                Result with = measure(cached, workload, operations);
+                System.out.printf("%-9s %-10s %,14.0f %16.2f%n", workload, "off",
+                                without.operationsPerSecond(), without.prepareMicros());
+                System.out.printf("%-9s %-10s %,14.0f %16.2f%n", workload,
+                                "size " + cached.getSettings().statementCacheSize,
+                                with.operationsPerSecond(), with.prepareMicros());
+                System.out.printf("%-9s ✓ %.1fx throughput, %.2f µs saved per prepare%n", "",
+                                with.operationsPerSecond() / without.operationsPerSecond(),
+                                without.prepareMicros() - with.prepareMicros());
+                System.out.println("-".repeat(52));
+            }
+            System.out.println("\n📊 Cached pool: " + cached.getStats());
+        } finally {
+            dropTable(uncached);
+            uncached.close();
+            cached.close();
+        }
+    }
+
+    /**
+     * Run a workload once to warm up, then once measured
+     */
+    private static Result measure(ConnectionPool pool, String workload, int operations) throws SQLException {
+        run(pool, workload, Math.max(1, operations / 4));
+        return run(pool, workload, operations);
+    }
+
+    private static Result run(ConnectionPool pool, String workload, int operations) throws SQLException {
+        Random random = new Random(7);
+        long prepareNanos = 0;
+        long checksum = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < operations; i++) {
+            int id = 1 + random.nextInt(ROWS);
+            int mask = 1 + i % 3;
+            String sql = switch (workload) {
+                case "lookup" -> LOOKUP_SQL;
+                case "update" -> UPDATE_SQL[mask];
+                default -> "UPDATE prepare_benchmark SET score = " + i + " WHERE id = " + id;
+            };
+
+            try (Connection conn = pool.getConnection()) {
+                long prepareStart = System.nanoTime();
+                PreparedStatement pstmt = conn.prepareStatement(sql);
+                prepareNanos += System.nanoTime() - prepareStart;
+
+                try (pstmt) {
+                    if (workload.equals("lookup")) {
+                        pstmt.setInt(1, id);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            if (rs.next()) {
+                                checksum += rs.getInt(2);
+                            }
+                        }
+                    } else if (workload.equals("update")) {
+                        int paramIndex = 1;
+                        if ((mask & 1) != 0) {
+                            pstmt.setString(paramIndex++, "row-" + i);
+                        }
+                        if ((mask & 2) != 0) {
+                            pstmt.setInt(paramIndex++, i);
+                        }
+                        pstmt.setInt(paramIndex, id);
+                        checksum += pstmt.executeUpdate();
+                    } else {
+                        checksum += pstmt.executeUpdate();
+                    }
+                }
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (checksum == 0) {
+            throw new IllegalStateException("Workload " + workload + " touched no rows");
+        }
+        return new Result(operations / seconds, prepareNanos / 1e3 / operations);
+    }
+
+    /**
+     * Create the scratch table and fill it with ROWS rows
+     */
+    private static void createTable(ConnectionPool pool) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DROP TABLE IF EXISTS prepare_benchmark");
+            stmt.executeUpdate("CREATE TABLE prepare_benchmark (" +
+                             "id INT PRIMARY KEY, name VARCHAR(50), score INT)");
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO prepare_benchmark (id, name, score) VALUES (?, ?, ?)")) {
+                for (int id = 1; id <= ROWS; id++) {
+                    insert.setInt(1, id);
+                    insert.setString(2, "row-" + id);
+                    insert.setInt(3, id);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    private static void dropTable(ConnectionPool pool) {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DROP TABLE IF EXISTS prepare_benchmark");
+        } catch (SQLException e) {
+            System.err.println("Could not drop prepare_benchmark: " + e.getMessage());
+        }
+    }
+}
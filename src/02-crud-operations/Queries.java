@@ -0,0 +1,165 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries - Small Helpers for Parameterized JDBC Queries
+ *
+ * This class demonstrates:
+ * - Borrowing a pooled connection per query and always returning it
+ * - Binding parameters in order with setObject()
+ * - Mapping rows with a RowMapper
+ * - Running several statements in one transaction
+ *
+ * Parameters are bound with setObject(), which JDBC 4.2 drivers (MySQL
+ * Connector/J 8, H2) support for String, Integer, BigDecimal, LocalDate
+ * and null.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public final class Queries {
+
+    private Queries() {
+    }
+
+    /**
+     * Run a query and map every row
+     */
+    public static <T> List<T> list(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        try (Connection conn = connection()) {
+            return list(conn, sql, mapper, params);
+        }
+    }
+
+    /**
+     * Run a query on a given connection and map every row
+     */
+    public static <T> List<T> list(Connection conn, String sql, RowMapper<T> mapper, Object... params)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            List<T> rows = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs, 1));
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Run a query and map the first row, if there is one
+     */
+    public static <T> Optional<T> first(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        try (Connection conn = connection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? Optional.of(mapper.map(rs, 1)) : Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Run an INSERT, UPDATE or DELETE
+     *
+     * @return the number of rows changed
+     */
+    public static int update(String sql, Object... params) throws SQLException {
+        try (Connection conn = connection()) {
+            return update(conn, sql, params);
+        }
+    }
+
+    /**
+     * Run an INSERT, UPDATE or DELETE on a given connection
+     *
+     * @return the number of rows changed
+     */
+    public static int update(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Work done on one connection, for inTransaction()
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Run work in one transaction on a pooled connection
+     *
+     * The transaction is committed if the work returns and rolled back if
+     * it throws.
+     */
+    public static <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        try (Connection conn = connection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Prefix each column of a column list with a table alias, for joins:
+     * qualify("s", "student_id, student_name") is "s.student_id, s.student_name"
+     */
+    public static String qualify(String alias, String columns) {
+        return alias + "." + columns.replace(", ", ", " + alias + ".");
+    }
+
+    /**
+     * Set parameters 1..n
+     */
+    public static void bind(PreparedStatement pstmt, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(i + 1, params[i]);
+        }
+    }
+
+    /**
+     * Borrow a connection from DatabaseConnector's pool
+     *
+     * @throws SQLException if no connection is available
+     */
+    public static Connection connection() throws SQLException {
+        Connection conn = DatabaseConnector.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection (see messages above)");
+        }
+        return conn;
+    }
+
+    /**
+     * Close a resource, reporting (not throwing) a failure
+     */
+    public static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            System.err.println("Error closing " + resource + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper - Turns the Current Row of a ResultSet into an Object
+ *
+ * This interface demonstrates:
+ * - A functional interface for mapping rows to records
+ * - Reading columns by position instead of by name
+ *
+ * A mapper reads its columns starting at position first, in the order of
+ * the column list declared next to it (for example Student.COLUMNS). Looking
+ * columns up by position avoids a name lookup for every value of every
+ * row, and the start position lets several mappers read one joined row:
+ *
+ *   SELECT s.<Student columns>, c.<Course columns> FROM ...
+ *   Student student = Student.MAPPER.map(rs, 1);
+ *   Course course = Course.MAPPER.map(rs, 1 + Student.COLUMN_COUNT);
+ *
+ * @param <T> the type each row becomes
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Map the current row
+     *
+     * @param rs result set positioned on a row
+     * @param first position of the mapper's first column (1-based)
+     */
+    T map(ResultSet rs, int first) throws SQLException;
+}
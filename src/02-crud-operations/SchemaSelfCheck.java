@@ -0,0 +1,385 @@
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * SchemaSelfCheck - Verify the Data Access Layer Against schema.sql
+ *
+ * This program demonstrates:
+ * - Running the real schema and sample data in an in-memory H2 database
+ * - Checking that each record's column list matches the table
+ * - Exercising every query path of StudentCRUD, CourseDAO, EnrollmentDAO
+ *   and EnrollmentQueries
+ * - Comparing the gpa_summary table with a live aggregate after changes
+ * - Reading query plans (EXPLAIN) to confirm that lookups use an index
+ *
+ * No MySQL server is needed: H2 runs in MySQL compatibility mode inside
+ * this JVM, and DatabaseConnector is pointed at it. The scripts in
+ * resources/database-scripts are executed as they are, except for the
+ * MySQL-only statements (CREATE DATABASE, USE, DESCRIBE).
+ *
+ * Usage (from the project root, with the H2 jar on the classpath):
+ *   java -cp <classes>:h2.jar SchemaSelfCheck
+ *
+ * The exit status is 0 if every check passes and 1 otherwise.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class SchemaSelfCheck {
+
+    private static final Path SCRIPTS = Path.of("resources", "database-scripts");
+    // "/* public.idx_student_department: department = ?1 */" in H2 plans
+    private static final Pattern INDEX_COMMENT = Pattern.compile("/\\* [\\w.]+\\.(\\w+): (.*?)\\*/", Pattern.DOTALL);
+
+    private static int checks;
+    private static int failures;
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Schema Self-Check (H2, MySQL mode) ===\n");
+
+        createH2Database("schema_check", true);
+
+        try (Connection conn = Queries.connection()) {
+            System.out.println("\n--- Row mappers ---");
+            checkColumns(conn, "students", Student.COLUMNS, Student.COLUMN_COUNT);
+            checkColumns(conn, "courses", Course.COLUMNS, Course.COLUMN_COUNT);
+            checkColumns(conn, "enrollments", Enrollment.COLUMNS, Enrollment.COLUMN_COUNT);
+
+            System.out.println("\n--- Index usage ---");
+            checkIndexed(conn, "student by id", StudentCRUD.SELECT_BY_ID_SQL, "student_id");
+            checkIndexed(conn, "student by email", StudentCRUD.SELECT_BY_EMAIL_SQL, "email");
+            checkIndexed(conn, "students by name prefix", StudentCRUD.SELECT_BY_NAME_PREFIX_SQL, "student_name");
+            checkIndexed(conn, "students by department", StudentCRUD.SELECT_BY_DEPARTMENT_SQL, "department");
+            checkIndexed(conn, "student page", StudentCRUD.SELECT_PAGE_SQL, "student_id");
+            checkIndexed(conn, "student update", StudentCRUD.UPDATE_SQL[1], "student_id");
+            checkIndexed(conn, "course by id", CourseDAO.SELECT_BY_ID_SQL, "course_id");
+            checkIndexed(conn, "course by code", CourseDAO.SELECT_BY_CODE_SQL, "course_code");
+            checkIndexed(conn, "enrollments by student", EnrollmentDAO.SELECT_BY_STUDENT_SQL, "student_id");
+            checkIndexed(conn, "enrollments by course", EnrollmentDAO.SELECT_BY_COURSE_SQL, "course_id");
+            checkIndexed(conn, "one enrollment", EnrollmentDAO.SELECT_ONE_SQL, "student_id");
+            checkIndexed(conn, "set grade", EnrollmentDAO.SET_GRADE_SQL, "student_id");
+            checkIndexed(conn, "transcripts by department",
+                         EnrollmentQueries.TRANSCRIPTS_BY_DEPARTMENT_SQL, "department");
+            checkIndexed(conn, "course roster", EnrollmentQueries.ROSTER_BY_COURSE_SQL, "course_id");
+        }
+
+        System.out.println("\n--- Student queries ---");
+        checkStudents();
+        System.out.println("\n--- Course queries ---");
+        checkCourses();
+        System.out.println("\n--- Enrollment queries ---");
+        checkEnrollments();
+        System.out.println("\n--- Reports ---");
+        checkReports();
+
+        DatabaseConnector.closeConnection();
+
+        System.out.println("\n" + "=".repeat(50));
+        if (failures == 0) {
+            System.out.println("✓ All " + checks + " checks passed");
+        } else {
+            System.out.println("✗ " + failures + " of " + checks + " checks failed");
+        }
+        System.out.println("=".repeat(50));
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Point DatabaseConnector at a new in-memory H2 database (MySQL mode)
+     * and run schema.sql in it
+     *
+     * @param name database name, optionally followed by H2 settings
+     *             (";SETTING=value")
+     * @param sampleData also run sample-data.sql
+     */
+    static void createH2Database(String name, boolean sampleData) throws IOException, SQLException {
+        Properties props = new Properties();
+        props.setProperty("db.url", "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        props.setProperty("db.username", "sa");
+        props.setProperty("db.password", "");
+        props.setProperty("db.driver", "org.h2.Driver");
+        DatabaseConnector.useProperties(props);
+
+        try (Connection conn = Queries.connection()) {
+            runScript(conn, SCRIPTS.resolve("schema.sql"));
+            if (sampleData) {
+                runScript(conn, SCRIPTS.resolve("sample-data.sql"));
+            }
+        }
+    }
+
+    /**
+     * Execute a MySQL script statement by statement
+     */
+    private static void runScript(Connection conn, Path script) throws IOException, SQLException {
+        String text = Files.readString(script, StandardCharsets.UTF_8).replaceAll("(?m)^\\s*--.*$", "");
+        int executed = 0;
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : text.split(";")) {
+                String statement = sql.strip();
+                String upper = statement.toUpperCase();
+                if (statement.isEmpty() || upper.startsWith("CREATE DATABASE")
+                        || upper.startsWith("USE ") || upper.startsWith("DESCRIBE ")) {
+                    continue;
+                }
+                stmt.execute(statement);
+                executed++;
+            }
+        }
+        System.out.println("✓ " + script + ": " + executed + " statements");
+    }
+
+    /**
+     * The record's column list must name real columns, COLUMN_COUNT of them
+     */
+    private static void checkColumns(Connection conn, String table, String columns, int columnCount)
+            throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT " + columns + " FROM " + table + " WHERE 1 = 0")) {
+            ResultSetMetaData meta = rs.getMetaData();
+            List<String> actual = new ArrayList<>();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                actual.add(meta.getColumnLabel(i).toLowerCase());
+            }
+            expect(table + " columns", List.of(columns.split(",\\s*")), actual);
+            expect(table + " COLUMN_COUNT", columnCount, actual.size());
+        } catch (SQLException e) {
+            fail(table + " columns: " + e.getMessage());
+        }
+    }
+
+    /**
+     * EXPLAIN a query and require an index lookup on the given column
+     */
+    private static void checkIndexed(Connection conn, String name, String sql, String column) throws SQLException {
+        try (PreparedStatement explain = conn.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = explain.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                explain.setObject(i, sql.contains("LIKE") && i == 1 ? "J%" : "1");
+            }
+            String plan;
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                plan = rs.getString(1);
+            }
+            Matcher index = INDEX_COMMENT.matcher(plan);
+            if (index.find() && !plan.contains("tableScan") && index.group(2).contains(column)) {
+                pass(name + " uses index " + index.group(1));
+            } else {
+                fail(name + " is not an index lookup on " + column + ":\n" + plan);
+            }
+        }
+    }
+
+    private static void checkStudents() throws SQLException {
+        expect("findStudentById(1)", "John Doe",
+            StudentCRUD.findStudentById(1).map(Student::name).orElse(null));
+        expect("findStudentById(999)", true, StudentCRUD.findStudentById(999).isEmpty());
+        expect("findStudentByEmail", 2,
+            StudentCRUD.findStudentByEmail("jane.smith@example.com").map(Student::studentId).orElse(null));
+        expect("findStudentsByNamePrefix(\"J\")", List.of("James Wilson", "Jane Smith", "John Doe"),
+            StudentCRUD.findStudentsByNamePrefix("J").stream().map(Student::name).toList());
+        expect("readStudentPage(0, 4)", List.of(1, 2, 3, 4), ids(StudentCRUD.readStudentPage(0, 4)));
+        expect("readStudentPage(8, 4)", List.of(9, 10), ids(StudentCRUD.readStudentPage(8, 4)));
+        try (Stream<Student> students = StudentCRUD.streamStudents(4)) {
+            expect("streamStudents", 10L, students.count());
+        }
+        try (Stream<Student> students = StudentCRUD.streamStudentsByDepartment("Computer Science", 2)) {
+            expect("streamStudentsByDepartment", 6L, students.count());
+        }
+        try (Stream<Student> students = StudentCRUD.pagedStudents(3)) {
+            expect("pagedStudents(3)", 10L, students.count());
+        }
+
+        Student john = StudentCRUD.findStudentById(1).orElseThrow();
+        expect("mapped gpa", new BigDecimal("3.75"), john.gpa());
+        expect("mapped age", 20, john.age());
+        expect("mapped enrollment date", "2023-09-01", String.valueOf(john.enrollmentDate()));
+
+        expect("createStudent", true,
+            StudentCRUD.createStudent("Test Student", 30, "test@example.com", 2.5, "Mathematics"));
+        Student created = StudentCRUD.findStudentByEmail("test@example.com").orElseThrow();
+        expect("default enrollment date", true, created.enrollmentDate() != null);
+        expect("updateStudent", true, StudentCRUD.updateStudent(created.studentId(), null, 3.5, "Physics"));
+        Student updated = StudentCRUD.findStudentById(created.studentId()).orElseThrow();
+        expect("updated gpa and department", "3.50 Physics", updated.gpa() + " " + updated.department());
+        expect("deleteStudent", true, StudentCRUD.deleteStudent(created.studentId()));
+        checkSummary("after student changes");
+
+        List<Student> batch = List.of(
+            Student.of("Batch One", 18, "b1@example.com", null, null),
+            Student.of("Batch Two", 19, "b2@example.com", new BigDecimal("3.10"), "Mathematics"),
+            Student.of("Batch Three", null, "b3@example.com", null, "Mathematics"));
+        List<Student> stored = StudentCRUD.createStudents(batch, 2);
+        expect("createStudents generated keys", 3L, stored.stream().mapToInt(Student::studentId).distinct()
+            .filter(id -> id > 10).count());
+        expect("batch row readable", "Batch Three",
+            StudentCRUD.findStudentById(stored.get(2).studentId()).map(Student::name).orElse(null));
+        for (Student student : stored) {
+            StudentCRUD.deleteStudent(student.studentId());
+        }
+    }
+
+    private static void checkCourses() throws SQLException {
+        expect("findAll", 10, CourseDAO.findAll().size());
+        expect("findByCode(\"CS202\")", "Database Systems 4",
+            CourseDAO.findByCode("CS202").map(c -> c.name() + " " + c.credits()).orElse(null));
+        expect("findById(1)", "CS101", CourseDAO.findById(1).map(Course::code).orElse(null));
+        expect("findByDepartment", List.of("SE101", "SE201"),
+            CourseDAO.findByDepartment("Software Engineering").stream().map(Course::code).toList());
+
+        expect("create", true, CourseDAO.create("MA101", "Calculus I", 4, "Mathematics"));
+        Course course = CourseDAO.findByCode("MA101").orElseThrow();
+        expect("update", true, CourseDAO.update(new Course(course.courseId(), course.code(),
+            "Calculus 1", 5, "Mathematics")));
+        expect("updated course", "Calculus 1 5",
+            CourseDAO.findById(course.courseId()).map(c -> c.name() + " " + c.credits()).orElse(null));
+        expectConstraint("duplicate course code", () -> CourseDAO.create("MA101", "Again", 3, null));
+        expect("delete", true, CourseDAO.delete(course.courseId()));
+    }
+
+    private static void checkReports() throws SQLException {
+        EnrollmentQueries.Transcript john = EnrollmentQueries.transcript(1).orElseThrow();
+        expect("transcript(1) courses, by semester", List.of("CS101", "CS102", "CS201"),
+            john.lines().stream().map(line -> line.course().code()).toList());
+        // (3 * 4.0 + 4 * 3.3 + 3 * 3.7) / 10
+        expect("transcript(1) gpa", new BigDecimal("3.63"), john.gpa());
+        expect("transcript(999)", true, EnrollmentQueries.transcript(999).isEmpty());
+
+        List<EnrollmentQueries.Transcript> department = EnrollmentQueries.transcriptsByDepartment("Computer Science");
+        List<EnrollmentQueries.Transcript> oneByOne = new ArrayList<>();
+        try (Stream<Student> students = StudentCRUD.streamStudentsByDepartment("Computer Science", 100)) {
+            for (int studentId : students.mapToInt(Student::studentId).sorted().toArray()) {
+                oneByOne.add(EnrollmentQueries.transcript(studentId).orElseThrow());
+            }
+        }
+        expect("transcriptsByDepartment matches per-student transcripts", oneByOne, department);
+
+        List<EnrollmentQueries.RosterEntry> roster = EnrollmentQueries.roster(1);
+        expect("roster(1)", 10, roster.size());
+        List<EnrollmentQueries.RosterEntry> fall = EnrollmentQueries.roster(1, "2023 Fall");
+        expect("roster(1, \"2023 Fall\")",
+            roster.stream().filter(entry -> entry.semester().equals("2023 Fall")).toList(), fall);
+
+        List<EnrollmentQueries.GpaSummary> live = EnrollmentQueries.gpaByDepartmentAndSemester();
+        expect("live GPA groups have enrollments", true,
+            !live.isEmpty() && live.stream().allMatch(group -> group.enrollments() > 0));
+        checkSummary("after sample-data.sql");
+
+        // Changes through every path that maintains gpa_summary
+        EnrollmentDAO.enroll(3, 4, "2023 Fall");
+        EnrollmentDAO.setGrade(3, 4, "2023 Fall", "C+");
+        EnrollmentDAO.enroll(5, 2, "2025 Spring");
+        EnrollmentDAO.setGrade(1, 1, "2023 Fall", "W");
+        checkSummary("after enroll and setGrade");
+        EnrollmentDAO.drop(5, 2, "2025 Spring");
+        checkSummary("after drop");
+        StudentCRUD.updateStudent(2, null, null, "Information Technology");
+        checkSummary("after a department change");
+        Course cs102 = CourseDAO.findByCode("CS102").orElseThrow();
+        CourseDAO.update(new Course(cs102.courseId(), cs102.code(), cs102.name(), 5, cs102.department()));
+        checkSummary("after a credits change");
+        CourseDAO.delete(CourseDAO.findByCode("CS401").orElseThrow().courseId());
+        checkSummary("after a course delete");
+        StudentCRUD.deleteStudent(7);
+        checkSummary("after a student delete");
+        expect("rebuildGpaSummary", EnrollmentQueries.gpaByDepartmentAndSemester().size(),
+            EnrollmentQueries.rebuildGpaSummary());
+        checkSummary("after rebuild");
+    }
+
+    /**
+     * gpa_summary must equal the aggregate computed from the enrollments
+     */
+    private static void checkSummary(String when) throws SQLException {
+        expect("gpa_summary " + when, EnrollmentQueries.gpaByDepartmentAndSemester(),
+            EnrollmentQueries.gpaSummary());
+    }
+
+    private static void checkEnrollments() throws SQLException {
+        expect("findByStudent(1)", 3, EnrollmentDAO.findByStudent(1).size());
+        expect("findByCourse(1)", 10, EnrollmentDAO.findByCourse(1).size());
+        expect("find(2, 4, \"2023 Fall\") grade", "A-",
+            EnrollmentDAO.find(2, 4, "2023 Fall").map(Enrollment::grade).orElse(null));
+
+        expect("enroll", true, EnrollmentDAO.enroll(4, 2, "2025 Spring"));
+        expect("new enrollment has no grade", null, EnrollmentDAO.find(4, 2, "2025 Spring").orElseThrow().grade());
+        expectConstraint("duplicate enrollment", () -> EnrollmentDAO.enroll(4, 2, "2025 Spring"));
+        expectConstraint("unknown student", () -> EnrollmentDAO.enroll(999, 2, "2025 Spring"));
+        expect("setGrade", true, EnrollmentDAO.setGrade(4, 2, "2025 Spring", "B+"));
+        expect("grade stored", "B+", EnrollmentDAO.find(4, 2, "2025 Spring").map(Enrollment::grade).orElse(null));
+        int enrollmentId = EnrollmentDAO.find(4, 2, "2025 Spring").orElseThrow().enrollmentId();
+        expect("findById", 4, EnrollmentDAO.findById(enrollmentId).map(Enrollment::studentId).orElse(null));
+        expect("drop", true, EnrollmentDAO.drop(4, 2, "2025 Spring"));
+        expect("drop again", false, EnrollmentDAO.drop(4, 2, "2025 Spring"));
+
+        StudentCRUD.createStudent("Cascade Test", 21, "cascade@example.com", 3.0, "Mathematics");
+        int studentId = StudentCRUD.findStudentByEmail("cascade@example.com").orElseThrow().studentId();
+        EnrollmentDAO.enroll(studentId, 1, "2025 Spring");
+        StudentCRUD.deleteStudent(studentId);
+        expect("enrollments deleted with student", 0, EnrollmentDAO.findByStudent(studentId).size());
+        checkSummary("after enrollment changes");
+    }
+
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    /**
+     * The action must fail with an integrity constraint violation (SQLState 23xxx)
+     */
+    private static void expectConstraint(String name, SqlAction action) {
+        try {
+            action.run();
+            fail(name + " was accepted");
+        } catch (SQLException e) {
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                pass(name + " rejected (" + e.getSQLState() + ")");
+            } else {
+                fail(name + " failed with " + e.getSQLState() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static List<Integer> ids(List<Student> students) {
+        return students.stream().map(Student::studentId).toList();
+    }
+
+    private static void expect(String name, Object expected, Object actual) {
+        if (Objects.equals(expected, actual)) {
+            pass(name);
+        } else {
+            fail(name + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static void pass(String message) {
+        checks++;
+        System.out.println("✓ " + message);
+    }
+
+    private static void fail(String message) {
+        checks++;
+        failures++;
+        System.out.println("✗ " + message);
+    }
+}
@@ -0,0 +1,52 @@
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Student - One Row of the students Table
+ *
+ * This class demonstrates:
+ * - A record as an immutable data carrier for database rows
+ * - Separating data from the code that stores it (StudentCRUD)
+ * - An index-based RowMapper declared next to its column list
+ *
+ * Fields follow resources/database-scripts/schema.sql. Nullable columns
+ * (age, gpa, department) use object types.
+ *
+ * New students have no ID yet (studentId 0) and may have no enrollment
+ * date, in which case the database uses the current date. withId() adds
+ * the generated ID after an insert.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public record Student(int studentId, String name, Integer age, String email,
+                      BigDecimal gpa, String department, LocalDate enrollmentDate) {
+
+    /** Columns in the order MAPPER reads them */
+    public static final String COLUMNS =
+        "student_id, student_name, age, email, gpa, department, enrollment_date";
+    public static final int COLUMN_COUNT = 7;
+
+    public static final RowMapper<Student> MAPPER = (rs, first) -> new Student(
+        rs.getInt(first),
+        rs.getString(first + 1),
+        rs.getObject(first + 2, Integer.class),
+        rs.getString(first + 3),
+        rs.getBigDecimal(first + 4),
+        rs.getString(first + 5),
+        rs.getObject(first + 6, LocalDate.class));
+
+    /**
+     * A student that is not stored yet
+     */
+    public static Student of(String name, Integer age, String email, BigDecimal gpa, String department) {
+        return new Student(0, name, age, email, gpa, department, null);
+    }
+
+    /**
+     * The same student with the ID the database assigned
+     */
+    public Student withId(int studentId) {
+        return new Student(studentId, name, age, email, gpa, department, enrollmentDate);
+    }
+}
@@ -0,0 +1,290 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StudentBulkLoader - Load Students from a CSV File in Batches
+ *
+ * This program demonstrates:
+ * - Streaming a large CSV file instead of reading it into memory
+ * - Batched inserts with one transaction per chunk (StudentCRUD)
+ * - Loading chunks in parallel on several pooled connections
+ * - Reporting throughput in rows per second
+ *
+ * The file has one student per line, with an optional header:
+ *   student_name,age,email,gpa,department
+ *   Alice Johnson,20,alice.j@email.com,3.60,Computer Science
+ * Fields may be quoted ("Smith, Jr."); age, gpa and department may be
+ * empty. The enrollment date is set to the current date.
+ *
+ * The reader cuts the file into chunks of batch-size rows. Each chunk is
+ * inserted with one executeBatch() and committed on its own, by one of
+ * the worker threads on a connection borrowed from the pool. A failed
+ * chunk is rolled back and reported with its line numbers; the other
+ * chunks are still loaded, so a rerun only needs the failed lines.
+ *
+ * Usage: java StudentBulkLoader <file.csv> [--batch-size N] [--threads N]
+ *        (defaults: 500 rows per batch, 1 thread)
+ *
+ * With MySQL, add rewriteBatchedStatements=true to db.url so that the
+ * driver sends each batch as a few multi-row INSERTs.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class StudentBulkLoader {
+
+    private static final int FIELDS = 5;
+
+    private final ConnectionPool pool;
+    private final int batchSize;
+    private final int threads;
+
+    private final LongAdder rowsLoaded = new LongAdder();
+    private final LongAdder rowsFailed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+    private long linesRejected;
+
+    /**
+     * @param pool connections to load with
+     * @param batchSize rows per batch and per transaction
+     * @param threads chunks loaded at the same time
+     */
+    public StudentBulkLoader(ConnectionPool pool, int batchSize, int threads) {
+        if (batchSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("batch size and threads must be at least 1");
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Load every student in a CSV file
+     *
+     * @return rows inserted
+     */
+    public long load(Path file) throws IOException, InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        // Bounds the chunks read ahead of the workers, so memory use does
+        // not grow with the file size
+        Semaphore inFlight = new Semaphore(threads * 2);
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Student> chunk = new ArrayList<>(batchSize);
+            long chunkFirstLine = 1;
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.startsWith("student_name"))) {
+                    continue;
+                }
+                Student student = parse(line, lineNumber);
+                if (student == null) {
+                    continue;
+                }
+                if (chunk.isEmpty()) {
+                    chunkFirstLine = lineNumber;
+                }
+                chunk.add(student);
+
+                if (chunk.size() == batchSize) {
+                    submit(workers, inFlight, chunk, chunkFirstLine, lineNumber);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(workers, inFlight, chunk, chunkFirstLine, lineNumber);
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.DAYS);
+        }
+        return rowsLoaded.sum();
+    }
+
+    private void submit(ExecutorService workers, Semaphore inFlight, List<Student> chunk,
+                        long firstLine, long lastLine) throws InterruptedException {
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                loadChunk(chunk, firstLine, lastLine);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Worker thread: insert one chunk on a pooled connection
+     */
+    private void loadChunk(List<Student> chunk, long firstLine, long lastLine) {
+        List<Student> created = new ArrayList<>(chunk.size());
+        try (Connection conn = pool.getConnection()) {
+            StudentCRUD.insertStudents(conn, chunk, batchSize, created);
+            batches.increment();
+        } catch (SQLException e) {
+            rowsFailed.add(chunk.size() - created.size());
+            errors.add("lines " + firstLine + "-" + lastLine + ": " + e.getMessage());
+        }
+        rowsLoaded.add(created.size());
+    }
+
+    /**
+     * Turn one CSV line into a student
+     *
+     * @return the student, or null if the line is invalid (it is reported)
+     */
+    private Student parse(String line, long lineNumber) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != FIELDS) {
+            reject(lineNumber, "expected " + FIELDS + " fields, found " + fields.size());
+            return null;
+        }
+        if (fields.get(0).isEmpty()) {
+            reject(lineNumber, "student_name is empty");
+            return null;
+        }
+        Integer age = null;
+        BigDecimal gpa = null;
+        try {
+            if (!fields.get(1).isEmpty()) {
+                age = Integer.valueOf(fields.get(1));
+            }
+            if (!fields.get(3).isEmpty()) {
+                gpa = new BigDecimal(fields.get(3));
+            }
+        } catch (NumberFormatException e) {
+            reject(lineNumber, "invalid number (age '" + fields.get(1) + "', gpa '" + fields.get(3) + "')");
+            return null;
+        }
+        return Student.of(fields.get(0), age, emptyAsNull(fields.get(2)), gpa, emptyAsNull(fields.get(4)));
+    }
+
+    private static String emptyAsNull(String field) {
+        return field.isEmpty() ? null : field;
+    }
+
+    private void reject(long lineNumber, String reason) {
+        linesRejected++;
+        errors.add("line " + lineNumber + ": " + reason);
+    }
+
+    /**
+     * Split a CSV line, honouring "quoted, fields" and "" escapes
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(FIELDS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.sum();
+    }
+
+    public long getLinesRejected() {
+        return linesRejected;
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public Queue<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: java StudentBulkLoader <file.csv> [--batch-size N] [--threads N]");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        int batchSize = StudentCRUD.DEFAULT_BATCH_SIZE;
+        int threads = 1;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--batch-size" -> batchSize = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+                }
+            }
+        }
+
+        System.out.println("=== Student Bulk Loader ===\n");
+        ConnectionPool pool = DatabaseConnector.getPool();
+        if (pool == null) {
+            return;
+        }
+        if (threads > pool.getSettings().maxConnections) {
+            System.out.println("⏳ Only " + pool.getSettings().maxConnections +
+                             " pooled connections (db.maxConnections); using that many threads");
+            threads = pool.getSettings().maxConnections;
+        }
+
+        System.out.println("Loading " + file + " in batches of " + batchSize +
+                         " rows on " + threads + " thread(s)...");
+        StudentBulkLoader loader = new StudentBulkLoader(pool, batchSize, threads);
+        long start = System.nanoTime();
+        long loaded = loader.load(file);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("\n" + "=".repeat(50));
+        System.out.printf("✓ %,d rows loaded in %.2f s (%,.0f rows/s)%n", loaded, seconds, loaded / seconds);
+        System.out.println("  Batches committed: " + loader.getBatches());
+        if (loader.getRowsFailed() > 0 || loader.getLinesRejected() > 0) {
+            System.out.println("✗ Rows in failed batches: " + loader.getRowsFailed());
+            System.out.println("✗ Lines rejected:         " + loader.getLinesRejected());
+            loader.getErrors().stream().limit(20).forEach(error -> System.out.println("  " + error));
+        }
+        System.out.println("=".repeat(50));
+
+        DatabaseConnector.closeConnection();
+    }
+}
@@ -1,4 +1,16 @@
+import java.math.BigDecimal;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * StudentCRUD - Complete CRUD Operations for Students
@@ -10,35 +22,85 @@ import java.sql.*;
  * - DELETE: Removing student records
  * - Prepared statements for security
  * - Transaction management
+ * - Constant SQL text, so the pool's statement cache can reuse statements
+ * - Batch inserts: one executeBatch() and one transaction per chunk
+ * - Streaming reads with a fetch size, and keyset pagination
+ * 
+ * The find/stream/read*Page methods return Student records and throw
+ * SQLException, so they can be used as a library; the methods that print
+ * (readAllStudents, searchByDepartment, ...) format them with
+ * StudentFormatter. Queries follow resources/database-scripts/schema.sql,
+ * and every lookup is served by one of its indexes (see SchemaSelfCheck).
  * 
  * @author BICT Advanced Java Course
  * @version 1.0
  */
 public class StudentCRUD {
     
+    /** Rows per executeBatch() and per transaction in createStudents() */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    /** Rows fetched per round trip by the printing methods */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+    /** Fetch size that makes MySQL Connector/J stream one row at a time */
+    public static final int MYSQL_STREAMING = Integer.MIN_VALUE;
+    
+    // The enrollment date defaults to today when the parameter is null
+    static final String INSERT_SQL =
+        "INSERT INTO students (student_name, age, email, gpa, department, enrollment_date) " +
+        "VALUES (?, ?, ?, ?, ?, COALESCE(?, CURRENT_DATE))";
+    static final String SELECT_ALL_SQL =
+        "SELECT " + Student.COLUMNS + " FROM students ORDER BY student_id";
+    static final String SELECT_BY_ID_SQL =
+        "SELECT " + Student.COLUMNS + " FROM students WHERE student_id = ?";
+    static final String SELECT_BY_EMAIL_SQL =
+        "SELECT " + Student.COLUMNS + " FROM students WHERE email = ?";
+    // A prefix LIKE (no leading %) can use idx_student_name
+    static final String SELECT_BY_NAME_PREFIX_SQL =
+        "SELECT " + Student.COLUMNS + " FROM students WHERE student_name LIKE ? ORDER BY student_name";
+    static final String SELECT_BY_DEPARTMENT_SQL =
+        "SELECT " + Student.COLUMNS + " FROM students WHERE department = ? ORDER BY student_name";
+    static final String SELECT_PAGE_SQL =
+        "SELECT " + Student.COLUMNS + " FROM students WHERE student_id > ? ORDER BY student_id LIMIT ?";
+    static final String DELETE_SQL = "DELETE FROM students WHERE student_id = ?";
+    
+    // Columns updateStudent() can change, in the order they appear in SQL
+    private static final String[] UPDATE_COLUMNS = {"email", "gpa", "department"};
+    // One UPDATE per combination of columns (index = bit mask of
+    // UPDATE_COLUMNS), built once so the same columns always give the same
+    // SQL text and therefore the same cached statement
+    static final String[] UPDATE_SQL = buildUpdateStatements();
+    
+    private static String[] buildUpdateStatements() {
+        String[] statements = new String[1 << UPDATE_COLUMNS.length];
+        for (int mask = 1; mask < statements.length; mask++) {
+            StringBuilder sql = new StringBuilder("UPDATE students SET ");
+            for (int i = 0; i < UPDATE_COLUMNS.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    if (sql.charAt(sql.length() - 1) == '?') sql.append(", ");
+                    sql.append(UPDATE_COLUMNS[i]).append(" = ?");
+                }
+            }
+            statements[mask] = sql.append(" WHERE student_id = ?").toString();
+        }
+        return statements;
+    }
+    
     /**
      * Create a new student record
      * 
-     * @param firstName student's first name
-     * @param lastName student's last name
-     * @param email student's email
-     * @param dateOfBirth student's birth date (YYYY-MM-DD)
-     * @param major student's major
+     * @param name student's full name
+     * @param age student's age
+     * @param email student's email (must be unique)
+     * @param gpa grade point average, 0.00 to 4.00
+     * @param department student's department
      * @return true if successful, false otherwise
      */
-    public static boolean createStudent(String firstName, String lastName, 
-                                       String email, String dateOfBirth, String major) {
-        String sql = "INSERT INTO students (first_name, last_name, email, date_of_birth, major) " +
-                    "VALUES (?, ?, ?, ?, ?)";
-        
+    public static boolean createStudent(String name, int age, String email,
+                                       double gpa, String department) {
         try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
             
-            pstmt.setString(1, firstName);
-            pstmt.setString(2, lastName);
-            pstmt.setString(3, email);
-            pstmt.setDate(4, Date.valueOf(dateOfBirth));
-            pstmt.setString(5, major);
+            Queries.bind(pstmt, name, age, email, BigDecimal.valueOf(gpa), department, null);
             
             int rowsAffected = pstmt.executeUpdate();
             
@@ -55,39 +117,272 @@ public class StudentCRUD {
     }
     
     /**
-     * Read and display all students
+     * Create many students with batched inserts
+     * 
+     * Rows are sent in batches of DEFAULT_BATCH_SIZE, each committed as
+     * one transaction.
+     * 
+     * @param students students to insert (their IDs are ignored)
+     * @return the inserted students with their generated IDs
      */
-    public static void readAllStudents() {
-        String sql = "SELECT student_id, first_name, last_name, email, date_of_birth, " +
-                    "major, enrollment_date FROM students ORDER BY student_id";
+    public static List<Student> createStudents(List<Student> students) {
+        return createStudents(students, DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * Create many students with batched inserts
+     * 
+     * Rows are sent in batches of batchSize, each committed as one
+     * transaction instead of one commit per row. If a batch fails, it is
+     * rolled back; the batches before it stay committed.
+     * 
+     * @param students students to insert (their IDs are ignored)
+     * @param batchSize rows per batch and per transaction
+     * @return the inserted students with their generated IDs (only the
+     *         committed ones if a batch failed)
+     */
+    public static List<Student> createStudents(List<Student> students, int batchSize) {
+        List<Student> created = new ArrayList<>(students.size());
         
-        try (Connection conn = DatabaseConnector.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseConnector.getConnection()) {
+            insertStudents(conn, students, batchSize, created);
+            System.out.println("✓ " + created.size() + " students created");
             
-            System.out.println("\n=== All Students ===");
-            System.out.println("-".repeat(100));
-            System.out.printf("%-5s %-15s %-15s %-30s %-12s %-20s %-12s%n",
-                            "ID", "First Name", "Last Name", "Email", "DOB", "Major", "Enrolled");
-            System.out.println("-".repeat(100));
+        } catch (SQLException e) {
+            System.err.println("Error creating students: " + e.getMessage());
+            System.err.println(created.size() + " of " + students.size() + " students were created");
+        }
+        
+        return created;
+    }
+    
+    /**
+     * Insert students on a given connection, one transaction per batch
+     * 
+     * @param created receives each committed student with its generated ID
+     * @throws SQLException if a batch fails (that batch is rolled back)
+     */
+    static void insertStudents(Connection conn, List<Student> students, int batchSize,
+                               List<Student> created) throws SQLException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            int count = 0;
-            while (rs.next()) {
-                System.out.printf("%-5d %-15s %-15s %-30s %-12s %-20s %-12s%n",
-                    rs.getInt("student_id"),
-                    rs.getString("first_name"),
-                    rs.getString("last_name"),
-                    rs.getString("email"),
-                    rs.getDate("date_of_birth"),
-                    rs.getString("major"),
-                    rs.getDate("enrollment_date"));
-                count++;
+            for (int from = 0; from < students.size(); from += batchSize) {
+                List<Student> batch = students.subList(from, Math.min(from + batchSize, students.size()));
+                
+                for (Student student : batch) {
+                    Queries.bind(pstmt, student.name(), student.age(), student.email(),
+                                 student.gpa(), student.department(), student.enrollmentDate());
+                    pstmt.addBatch();
+                }
+                
+                try {
+                    pstmt.executeBatch();
+                    
+                    // Generated keys come back in the order the rows were added
+                    List<Student> stored = new ArrayList<>(batch.size());
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        for (Student student : batch) {
+                            if (!keys.next()) {
+                                throw new SQLException("Fewer generated keys than inserted rows");
+                            }
+                            stored.add(student.withId(keys.getInt(1)));
+                        }
+                    }
+                    
+                    conn.commit();
+                    created.addAll(stored);
+                    
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
             }
             
-            System.out.println("-".repeat(100));
-            System.out.println("Total students: " + count);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+    
+    /**
+     * Find one student by ID
+     * 
+     * @param studentId the student's ID
+     * @return the student, or empty if there is none with that ID
+     * @throws SQLException if the query fails
+     */
+    public static Optional<Student> findStudentById(int studentId) throws SQLException {
+        return Queries.first(SELECT_BY_ID_SQL, Student.MAPPER, studentId);
+    }
+    
+    /**
+     * Find one student by email address
+     * 
+     * @throws SQLException if the query fails
+     */
+    public static Optional<Student> findStudentByEmail(String email) throws SQLException {
+        return Queries.first(SELECT_BY_EMAIL_SQL, Student.MAPPER, email);
+    }
+    
+    /**
+     * Students whose name starts with the given text, by name
+     * 
+     * @throws SQLException if the query fails
+     */
+    public static List<Student> findStudentsByNamePrefix(String prefix) throws SQLException {
+        return Queries.list(SELECT_BY_NAME_PREFIX_SQL, Student.MAPPER, prefix + "%");
+    }
+    
+    /**
+     * Stream all students in ID order without loading them all at once
+     * 
+     * The stream keeps a pooled connection and an open result set until
+     * it is closed, so always use it in try-with-resources:
+     * 
+     *   try (Stream<Student> students = StudentCRUD.streamStudents(1000)) { ... }
+     * 
+     * The driver fetches fetchSize rows per round trip. MySQL Connector/J
+     * ignores positive fetch sizes unless db.url contains
+     * useCursorFetch=true; pass MYSQL_STREAMING instead to receive rows
+     * one at a time. While MySQL streams a result, its connection cannot
+     * run any other statement.
+     * 
+     * Reading errors while the stream is consumed are thrown as
+     * IllegalStateException with the SQLException as cause.
+     * 
+     * @param fetchSize rows per round trip (or MYSQL_STREAMING on MySQL)
+     * @throws SQLException if the query cannot be started
+     */
+    public static Stream<Student> streamStudents(int fetchSize) throws SQLException {
+        return streamQuery(SELECT_ALL_SQL, fetchSize, null);
+    }
+    
+    /**
+     * Stream the students of a department, by name
+     * 
+     * @see #streamStudents(int)
+     */
+    public static Stream<Student> streamStudentsByDepartment(String department, int fetchSize)
+            throws SQLException {
+        return streamQuery(SELECT_BY_DEPARTMENT_SQL, fetchSize, department);
+    }
+    
+    private static Stream<Student> streamQuery(String sql, int fetchSize, String parameter) throws SQLException {
+        Connection conn = Queries.connection();
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            if (parameter != null) {
+                pstmt.setString(1, parameter);
+            }
+            ResultSet rs = pstmt.executeQuery();
             
-        } catch (SQLException e) {
+            Spliterator<Student> rows = new Spliterators.AbstractSpliterator<>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Student> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(Student.MAPPER.map(rs, 1));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Error reading students: " + e.getMessage(), e);
+                    }
+                }
+            };
+            
+            // A streaming MySQL result must be closed before the connection
+            // can be reset, so close in this order
+            PreparedStatement statement = pstmt;
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                Queries.closeQuietly(rs);
+                Queries.closeQuietly(statement);
+                Queries.closeQuietly(conn);
+            });
+            
+        } catch (SQLException | RuntimeException e) {
+            Queries.closeQuietly(pstmt);
+            Queries.closeQuietly(conn);
+            throw e;
+        }
+    }
+    
+    /**
+     * One page of students with IDs above afterStudentId (keyset pagination)
+     * 
+     * Pass 0 for the first page and the last ID of a page for the next
+     * one. Unlike OFFSET, the database seeks straight to the start of the
+     * page through the primary key, so later pages cost no more than the
+     * first, and rows inserted meanwhile do not shift the pages.
+     * 
+     * @param afterStudentId last ID of the previous page (0 for the first)
+     * @param pageSize maximum number of students on the page
+     * @return the page; shorter than pageSize only on the last page
+     * @throws SQLException if the query fails
+     */
+    public static List<Student> readStudentPage(int afterStudentId, int pageSize) throws SQLException {
+        return Queries.list(SELECT_PAGE_SQL, Student.MAPPER, afterStudentId, pageSize);
+    }
+    
+    /**
+     * Stream all students in ID order, one page at a time
+     * 
+     * Every page is read with its own borrowed connection, so consumers
+     * that take their time hold neither a connection nor an open cursor,
+     * and at most one page is in memory.
+     * 
+     * @param pageSize students per query
+     */
+    public static Stream<Student> pagedStudents(int pageSize) {
+        Spliterator<Student> pages = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private List<Student> page = List.of();
+            private int next;
+            private int lastId;
+            private boolean lastPage;
+            
+            @Override
+            public boolean tryAdvance(Consumer<? super Student> action) {
+                if (next == page.size()) {
+                    if (lastPage) {
+                        return false;
+                    }
+                    try {
+                        page = readStudentPage(lastId, pageSize);
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Error reading students: " + e.getMessage(), e);
+                    }
+                    next = 0;
+                    lastPage = page.size() < pageSize;
+                    if (page.isEmpty()) {
+                        return false;
+                    }
+                }
+                Student student = page.get(next++);
+                lastId = student.studentId();
+                action.accept(student);
+                return true;
+            }
+        };
+        return StreamSupport.stream(pages, false);
+    }
+    
+    /**
+     * Read and display all students
+     */
+    public static void readAllStudents() {
+        try (Stream<Student> students = streamStudents(DEFAULT_FETCH_SIZE)) {
+            StudentFormatter.printTable("All Students", students, System.out);
+            
+        } catch (SQLException | IllegalStateException e) {
             System.err.println("Error reading students: " + e.getMessage());
         }
     }
@@ -98,29 +393,15 @@ public class StudentCRUD {
      * @param studentId the student's ID
      */
     public static void readStudentById(int studentId) {
-        String sql = "SELECT * FROM students WHERE student_id = ?";
-        
-        try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, studentId);
-            ResultSet rs = pstmt.executeQuery();
+        try {
+            Optional<Student> student = findStudentById(studentId);
             
-            if (rs.next()) {
-                System.out.println("\n=== Student Details ===");
-                System.out.println("ID: " + rs.getInt("student_id"));
-                System.out.println("Name: " + rs.getString("first_name") + " " + 
-                                 rs.getString("last_name"));
-                System.out.println("Email: " + rs.getString("email"));
-                System.out.println("Date of Birth: " + rs.getDate("date_of_birth"));
-                System.out.println("Major: " + rs.getString("major"));
-                System.out.println("Enrollment Date: " + rs.getDate("enrollment_date"));
+            if (student.isPresent()) {
+                System.out.println(StudentFormatter.details(student.get()));
             } else {
                 System.out.println("Student with ID " + studentId + " not found.");
             }
             
-            rs.close();
-            
         } catch (SQLException e) {
             System.err.println("Error reading student: " + e.getMessage());
         }
@@ -131,41 +412,46 @@ public class StudentCRUD {
      * 
      * @param studentId student's ID
      * @param email new email (null to keep unchanged)
-     * @param major new major (null to keep unchanged)
+     * @param gpa new GPA (null to keep unchanged)
+     * @param department new department (null to keep unchanged)
      * @return true if successful, false otherwise
      */
-    public static boolean updateStudent(int studentId, String email, String major) {
-        StringBuilder sql = new StringBuilder("UPDATE students SET ");
-        boolean needsComma = false;
-        
-        if (email != null) {
-            sql.append("email = ?");
-            needsComma = true;
+    public static boolean updateStudent(int studentId, String email, Double gpa, String department) {
+        int mask = (email != null ? 1 : 0) | (gpa != null ? 2 : 0) | (department != null ? 4 : 0);
+        if (mask == 0) {
+            System.out.println("Nothing to update for student " + studentId + ".");
+            return false;
         }
         
-        if (major != null) {
-            if (needsComma) sql.append(", ");
-            sql.append("major = ?");
-        }
-        
-        sql.append(" WHERE student_id = ?");
-        
-        try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
-            
-            int paramIndex = 1;
-            
-            if (email != null) {
-                pstmt.setString(paramIndex++, email);
-            }
-            
-            if (major != null) {
-                pstmt.setString(paramIndex++, major);
+        Queries.SqlWork<Integer> update = conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL[mask])) {
+                
+                int paramIndex = 1;
+                
+                if (email != null) {
+                    pstmt.setString(paramIndex++, email);
+                }
+                
+                if (gpa != null) {
+                    pstmt.setBigDecimal(paramIndex++, BigDecimal.valueOf(gpa));
+                }
+                
+                if (department != null) {
+                    pstmt.setString(paramIndex++, department);
+                }
+                
+                pstmt.setInt(paramIndex, studentId);
+                
+                return pstmt.executeUpdate();
             }
-            
-            pstmt.setInt(paramIndex, studentId);
-            
-            int rowsAffected = pstmt.executeUpdate();
+        };
+        
+        try {
+            // A new department moves the student's grades to other
+            // gpa_summary rows
+            int rowsAffected = department != null
+                ? EnrollmentQueries.changeStudent(studentId, update)
+                : Queries.inTransaction(update);
             
             if (rowsAffected > 0) {
                 System.out.println("✓ Student updated successfully!");
@@ -182,42 +468,25 @@ public class StudentCRUD {
     }
     
     /**
-     * Delete a student record
+     * Delete a student record (and, by ON DELETE CASCADE, the student's
+     * enrollments, updating gpa_summary in the same transaction)
      * 
      * @param studentId student's ID to delete
      * @return true if successful, false otherwise
      */
     public static boolean deleteStudent(int studentId) {
-        // First check if student exists
-        String checkSql = "SELECT first_name, last_name FROM students WHERE student_id = ?";
-        String deleteSql = "DELETE FROM students WHERE student_id = ?";
-        
-        try (Connection conn = DatabaseConnector.getConnection()) {
-            
+        try {
             // Check if student exists
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
-                checkStmt.setInt(1, studentId);
-                ResultSet rs = checkStmt.executeQuery();
-                
-                if (!rs.next()) {
-                    System.out.println("Student with ID " + studentId + " not found.");
-                    rs.close();
-                    return false;
-                }
-                
-                String name = rs.getString("first_name") + " " + rs.getString("last_name");
-                rs.close();
-                
-                // Delete student
-                try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql)) {
-                    deleteStmt.setInt(1, studentId);
-                    int rowsAffected = deleteStmt.executeUpdate();
-                    
-                    if (rowsAffected > 0) {
-                        System.out.println("✓ Student deleted: " + name);
-                        return true;
-                    }
-                }
+            Optional<Student> student = findStudentById(studentId);
+            if (student.isEmpty()) {
+                System.out.println("Student with ID " + studentId + " not found.");
+                return false;
+            }
+            
+            // Delete student
+            if (EnrollmentQueries.changeStudent(studentId, conn -> Queries.update(conn, DELETE_SQL, studentId)) > 0) {
+                System.out.println("✓ Student deleted: " + student.get().name());
+                return true;
             }
             
         } catch (SQLException e) {
@@ -228,39 +497,25 @@ public class StudentCRUD {
     }
     
     /**
-     * Search students by major
+     * Search students by department
      * 
-     * @param major the major to search for
+     * @param department the department to search for
      */
-    public static void searchByMajor(String major) {
-        String sql = "SELECT student_id, first_name, last_name, email, major " +
-                    "FROM students WHERE major LIKE ? ORDER BY last_name";
-        
-        try (Connection conn = DatabaseConnector.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    public static void searchByDepartment(String department) {
+        try (Stream<Student> students = streamStudentsByDepartment(department, DEFAULT_FETCH_SIZE)) {
             
-            pstmt.setString(1, "%" + major + "%");
-            ResultSet rs = pstmt.executeQuery();
-            
-            System.out.println("\n=== Students in " + major + " ===");
+            System.out.println("\n=== Students in " + department + " ===");
             System.out.println("-".repeat(80));
             
             int count = 0;
-            while (rs.next()) {
-                System.out.printf("ID: %-5d | %s %s | %s%n",
-                    rs.getInt("student_id"),
-                    rs.getString("first_name"),
-                    rs.getString("last_name"),
-                    rs.getString("email"));
-                count++;
+            for (Iterator<Student> it = students.iterator(); it.hasNext(); count++) {
+                System.out.println(StudentFormatter.summary(it.next()));
             }
             
             System.out.println("-".repeat(80));
             System.out.println("Found " + count + " student(s)");
             
-            rs.close();
-            
-        } catch (SQLException e) {
+        } catch (SQLException | IllegalStateException e) {
             System.err.println("Error searching students: " + e.getMessage());
         }
     }
@@ -278,17 +533,36 @@ public class StudentCRUD {
         System.out.println("\n--- Reading Student ID: 1 ---");
         readStudentById(1);
         
-        // Search by major
-        searchByMajor("Computer Science");
+        // Search by department
+        searchByDepartment("Computer Science");
+        
+        // Keyset pagination
+        System.out.println("\n--- First Page of Students (3 per page) ---");
+        try {
+            for (Student student : readStudentPage(0, 3)) {
+                System.out.println(StudentFormatter.summary(student));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading page: " + e.getMessage());
+        }
+        
+        // Scan every student page by page, keeping one page in memory
+        System.out.println("\n--- Students per Department ---");
+        try (Stream<Student> students = pagedStudents(500)) {
+            students.collect(Collectors.groupingBy(s -> String.valueOf(s.department()), TreeMap::new,
+                                                   Collectors.counting()))
+                .forEach((department, count) -> System.out.printf("%-25s %d%n", department, count));
+        } catch (IllegalStateException e) {
+            System.err.println("Error scanning students: " + e.getMessage());
+        }
         
         // Create new student
         System.out.println("\n--- Creating New Student ---");
-        createStudent("Alice", "Johnson", "alice.j@email.com", 
-                     "2003-05-15", "Computer Science");
+        createStudent("Alice Johnson", 20, "alice.j@email.com", 3.60, "Computer Science");
         
         // Update student
         System.out.println("\n--- Updating Student ---");
-        updateStudent(1, "new.email@college.edu", null);
+        updateStudent(1, "new.email@college.edu", null, null);
         
         // Verify update
         readStudentById(1);
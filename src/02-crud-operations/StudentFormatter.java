@@ -0,0 +1,86 @@
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * StudentFormatter - Console Output for Student Records
+ *
+ * This class demonstrates:
+ * - Keeping presentation separate from data access
+ * - Printing a stream of rows one at a time, in constant memory
+ *
+ * StudentCRUD returns Student records; this class turns them into text.
+ * Nothing here touches the database.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public final class StudentFormatter {
+
+    private static final String TABLE_FORMAT = "%-5s %-20s %-4s %-28s %-5s %-24s %-12s%n";
+    private static final int TABLE_WIDTH = 104;
+
+    private StudentFormatter() {
+    }
+
+    /**
+     * Print students as a table with a header and a total line
+     *
+     * @return number of students printed
+     */
+    public static long printTable(String title, Stream<Student> students, PrintStream out) {
+        out.println("\n=== " + title + " ===");
+        out.println("-".repeat(TABLE_WIDTH));
+        out.printf(TABLE_FORMAT, "ID", "Name", "Age", "Email", "GPA", "Department", "Enrolled");
+        out.println("-".repeat(TABLE_WIDTH));
+
+        long count = 0;
+        for (Iterator<Student> it = students.iterator(); it.hasNext(); ) {
+            out.print(tableRow(it.next()));
+            count++;
+        }
+
+        out.println("-".repeat(TABLE_WIDTH));
+        out.println("Total students: " + count);
+        return count;
+    }
+
+    /**
+     * One table line (with line separator)
+     */
+    public static String tableRow(Student student) {
+        return String.format(TABLE_FORMAT,
+            student.studentId(),
+            student.name(),
+            nullAsEmpty(student.age()),
+            nullAsEmpty(student.email()),
+            nullAsEmpty(student.gpa()),
+            nullAsEmpty(student.department()),
+            student.enrollmentDate());
+    }
+
+    /**
+     * Short line for search results
+     */
+    public static String summary(Student student) {
+        return String.format("ID: %-5d | %s | %s", student.studentId(), student.name(), student.email());
+    }
+
+    /**
+     * All fields, one per line
+     */
+    public static String details(Student student) {
+        return "\n=== Student Details ===\n" +
+            "ID: " + student.studentId() + "\n" +
+            "Name: " + student.name() + "\n" +
+            "Age: " + nullAsEmpty(student.age()) + "\n" +
+            "Email: " + nullAsEmpty(student.email()) + "\n" +
+            "GPA: " + nullAsEmpty(student.gpa()) + "\n" +
+            "Department: " + nullAsEmpty(student.department()) + "\n" +
+            "Enrollment Date: " + student.enrollmentDate();
+    }
+
+    private static Object nullAsEmpty(Object value) {
+        return value == null ? "" : value;
+    }
+}
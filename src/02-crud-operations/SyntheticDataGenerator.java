@@ -0,0 +1,624 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * SyntheticDataGenerator - Realistic Test Data at Any Scale
+ *
+ * This program demonstrates:
+ * - Deterministic generation: the same seed always gives the same rows
+ * - Writing millions of rows with batched JDBC inserts on several threads
+ * - Writing CSV files for MySQL's LOAD DATA, the fastest bulk path
+ * - Reporting throughput in rows per second
+ *
+ * It generates the tables of resources/database-scripts/schema.sql
+ * (courses, students, enrollments) and the user table of the
+ * spring-boot-crud application (id, name, age):
+ * - courses spread over 10 departments, worth 2 to 4 credits
+ * - students with names, unique emails, a GPA around 3.0, a department
+ *   (some much larger than others) and a start date from 2015 on
+ * - enrollments per student varying around the average, mostly in the
+ *   student's department, in semesters after the student started, with
+ *   letter grades (the current semester is not graded yet)
+ *
+ * Every row is generated from the seed and its own index, not from the
+ * rows before it. The output is therefore the same for any number of
+ * threads and any batch size, and chunks can be generated in parallel.
+ * IDs are generated too (after the highest ID already in the table), so
+ * enrollments can refer to students and courses without a lookup.
+ *
+ * Usage: java SyntheticDataGenerator [options]
+ *   --students N      students to generate (default 100,000)
+ *   --courses N       courses to generate (default 500)
+ *   --enrollments N   average enrollments per student (default 10)
+ *   --users N         spring-boot-crud users to generate (default 0)
+ *   --seed N          random seed (default 42)
+ *   --batch-size N    rows per batch and transaction (default 1,000)
+ *   --threads N       generating and writing threads (default 4)
+ *   --csv DIR         write CSV files to DIR instead of the database
+ *
+ * The database is the one in db.properties. Users go to the table
+ * `user`, so point db.url at the SpringCRUD database to generate them
+ * (with --students 0 --courses 0). Inserting rows directly bypasses the
+ * GPA summary; the generator rebuilds it when it has added enrollments.
+ * With MySQL, add rewriteBatchedStatements=true to db.url.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class SyntheticDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+        "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Daniel", "Nancy", "Matthew", "Lisa", "Anthony", "Betty", "Mark", "Sandra", "Kasun", "Nimali",
+        "Ahmed", "Fatima", "Wei", "Mei", "Raj", "Priya", "Carlos", "Maria", "Yuki", "Olga"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee",
+        "Perera", "Silva", "Fernando", "Khan", "Chen", "Wang", "Patel", "Singh", "Kim", "Nguyen",
+        "Ivanova", "Tanaka", "Schmidt", "Rossi", "Dubois", "O'Brien", "Novak", "Costa", "Jansen", "Berg"
+    };
+    private static final String[] DEPARTMENTS = {
+        "Computer Science", "Information Technology", "Software Engineering", "Mathematics", "Physics",
+        "Business", "Economics", "Biology", "Chemistry", "Linguistics"
+    };
+    private static final String[] PREFIXES = {"CS", "IT", "SE", "MA", "PH", "BU", "EC", "BI", "CH", "LI"};
+    // Students per department, relative
+    private static final int[] DEPARTMENT_WEIGHTS = {25, 15, 12, 10, 8, 8, 7, 6, 5, 4};
+    private static final String[] SUBJECTS = {
+        "Programming", "Networks", "Software Design", "Algebra", "Mechanics",
+        "Management", "Markets", "Genetics", "Organic Chemistry", "Syntax"
+    };
+    private static final String[] LEVELS = {"Introduction to", "Foundations of", "Applied", "Advanced", "Topics in"};
+    private static final String[] GRADES = {"A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F", "W"};
+    private static final int[] GRADE_WEIGHTS = {15, 12, 12, 13, 10, 9, 8, 6, 4, 4, 4, 3};
+    private static final int FIRST_YEAR = 2015;
+    private static final int CURRENT_YEAR = 2025;
+    // Percentage of a student's courses taken in their own department
+    private static final int OWN_DEPARTMENT = 70;
+
+    /** A generated table, in the order rows must be written (foreign keys) */
+    private enum Table {
+        COURSES("courses", "course_id", "course_id, course_code, course_name, credits, department"),
+        STUDENTS("students", "student_id", "student_id, student_name, age, email, gpa, department, enrollment_date"),
+        ENROLLMENTS("enrollments", "enrollment_id",
+                    "enrollment_id, student_id, course_id, semester, grade, enrollment_date"),
+        USERS("`user`", "id", "id, name, age");
+
+        final String name;
+        final String idColumn;
+        final String columns;
+
+        Table(String name, String idColumn, String columns) {
+            this.name = name;
+            this.idColumn = idColumn;
+            this.columns = columns;
+        }
+
+        String insertSql() {
+            int count = columns.split(", ").length;
+            return "INSERT INTO " + name + " (" + columns + ") VALUES (" + "?, ".repeat(count - 1) + "?)";
+        }
+
+        String fileName() {
+            return name().toLowerCase() + ".csv";
+        }
+    }
+
+    /** What one chunk produced: its row count and, for CSV output, its text */
+    private record Chunk(long rows, String csv) { }
+
+    private final long seed;
+    private final int students;
+    private final int courses;
+    private final int enrollmentsPerStudent;
+    private final int users;
+    private final int batchSize;
+    private final int threads;
+    private final Path csvDirectory;
+
+    private final long[] firstId = new long[Table.values().length];
+    // Index of each student's first enrollment; entry [students] is the total
+    private long[] enrollmentOffsets;
+
+    /**
+     * @param csvDirectory where to write CSV files, or null to insert into
+     *                     the database
+     */
+    public SyntheticDataGenerator(long seed, int students, int courses, int enrollmentsPerStudent, int users,
+                                  int batchSize, int threads, Path csvDirectory) {
+        if (students < 0 || courses < 0 || enrollmentsPerStudent < 0 || users < 0) {
+            throw new IllegalArgumentException("row counts must not be negative");
+        }
+        if (batchSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("batch size and threads must be at least 1");
+        }
+        if (students > 0 && enrollmentsPerStudent > 0 && courses == 0) {
+            throw new IllegalArgumentException("enrollments need courses (--courses)");
+        }
+        this.seed = seed;
+        this.students = students;
+        this.courses = courses;
+        this.enrollmentsPerStudent = Math.min(enrollmentsPerStudent, courses);
+        this.users = users;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.csvDirectory = csvDirectory;
+        Arrays.fill(firstId, 1);
+    }
+
+    /**
+     * Generate every table and report its throughput
+     */
+    public void run() throws IOException, SQLException, InterruptedException {
+        if (csvDirectory == null) {
+            readFirstIds();
+        } else {
+            Files.createDirectories(csvDirectory);
+        }
+        computeEnrollmentOffsets();
+
+        System.out.printf("%-12s %12s %10s %14s%n", "Table", "Rows", "Seconds", "Rows/s");
+        System.out.println("=".repeat(51));
+        long total = 0;
+        long start = System.nanoTime();
+        for (Table table : Table.values()) {
+            long units = units(table);
+            if (units == 0 || rows(table) == 0) {
+                continue;
+            }
+            long tableStart = System.nanoTime();
+            long rows = write(table, units);
+            double seconds = (System.nanoTime() - tableStart) / 1e9;
+            System.out.printf("%-12s %,12d %10.2f %,14.0f%n", table.name.replace("`", ""), rows, seconds,
+                            rows / seconds);
+            total += rows;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("-".repeat(51));
+        System.out.printf("%-12s %,12d %10.2f %,14.0f%n", "Total", total, seconds, total / seconds);
+
+        if (csvDirectory != null) {
+            printLoadStatements();
+        } else if (rows(Table.ENROLLMENTS) > 0) {
+            long rebuildStart = System.nanoTime();
+            int groups = EnrollmentQueries.rebuildGpaSummary();
+            System.out.printf("%n✓ gpa_summary rebuilt (%d rows) in %.2f s%n",
+                            groups, (System.nanoTime() - rebuildStart) / 1e9);
+        }
+    }
+
+    /**
+     * Units a table is generated in: rows, except enrollments, which are
+     * generated per student
+     */
+    private long units(Table table) {
+        return switch (table) {
+            case COURSES -> courses;
+            case STUDENTS -> students;
+            case ENROLLMENTS -> enrollmentsPerStudent == 0 ? 0 : students;
+            case USERS -> users;
+        };
+    }
+
+    private long rows(Table table) {
+        return table == Table.ENROLLMENTS ? enrollmentOffsets[students] : units(table);
+    }
+
+    /**
+     * Generate a table in chunks on the worker threads, writing the chunks
+     * in order (CSV) or each on its own pooled connection (JDBC)
+     */
+    private long write(Table table, long units) throws IOException, SQLException, InterruptedException {
+        long unitsPerChunk = table == Table.ENROLLMENTS
+            ? Math.max(1, batchSize / Math.max(1, enrollmentsPerStudent))
+            : batchSize;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        // Bounds the chunks generated ahead of the writer
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        long rows = 0;
+
+        try (BufferedWriter out = csvDirectory == null ? null
+                : Files.newBufferedWriter(csvDirectory.resolve(table.fileName()), StandardCharsets.UTF_8)) {
+            if (out != null) {
+                out.write(table.columns.replace(", ", ","));
+                out.newLine();
+            }
+            for (long from = 0; from < units; from += unitsPerChunk) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(units, from + unitsPerChunk);
+                Callable<Chunk> task = out == null
+                    ? () -> insertChunk(table, chunkFrom, chunkTo)
+                    : () -> csvChunk(table, chunkFrom, chunkTo);
+                pending.add(workers.submit(task));
+                if (pending.size() >= threads * 2) {
+                    rows += finish(pending.poll(), out);
+                }
+            }
+            while (!pending.isEmpty()) {
+                rows += finish(pending.poll(), out);
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            workers.shutdownNow();
+        }
+        return rows;
+    }
+
+    private static long finish(Future<Chunk> future, BufferedWriter out)
+            throws IOException, SQLException, InterruptedException {
+        Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        if (out != null) {
+            out.write(chunk.csv());
+        }
+        return chunk.rows();
+    }
+
+    /**
+     * Worker thread: insert one chunk with batches on a pooled connection
+     */
+    private Chunk insertChunk(Table table, long from, long to) throws SQLException {
+        long[] rows = new long[1];
+        try (Connection conn = Queries.connection();
+             PreparedStatement pstmt = conn.prepareStatement(table.insertSql())) {
+            conn.setAutoCommit(false);
+            try {
+                SqlRowConsumer consumer = row -> {
+                    Queries.bind(pstmt, row);
+                    pstmt.addBatch();
+                    if (++rows[0] % batchSize == 0) {
+                        pstmt.executeBatch();
+                        conn.commit();
+                    }
+                };
+                generate(table, from, to, consumer);
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return new Chunk(rows[0], null);
+    }
+
+    /**
+     * Worker thread: turn one chunk into CSV lines
+     */
+    private Chunk csvChunk(Table table, long from, long to) throws SQLException {
+        StringBuilder csv = new StringBuilder();
+        long[] rows = new long[1];
+        generate(table, from, to, row -> {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                appendCsv(csv, row[i]);
+            }
+            csv.append('\n');
+            rows[0]++;
+        });
+        return new Chunk(rows[0], csv.toString());
+    }
+
+    /**
+     * NULL as \N and text with commas or quotes in quotes, as LOAD DATA reads them
+     */
+    private static void appendCsv(StringBuilder csv, Object value) {
+        if (value == null) {
+            csv.append("\\N");
+        } else if (value instanceof String text && (text.indexOf(',') >= 0 || text.indexOf('"') >= 0)) {
+            csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else {
+            csv.append(value);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlRowConsumer {
+        void accept(Object[] row) throws SQLException;
+    }
+
+    /**
+     * Generate the rows of units [from, to) of a table
+     */
+    private void generate(Table table, long from, long to, SqlRowConsumer consumer) throws SQLException {
+        for (long unit = from; unit < to; unit++) {
+            switch (table) {
+                case COURSES -> consumer.accept(course(unit));
+                case STUDENTS -> consumer.accept(student(unit));
+                case ENROLLMENTS -> {
+                    List<Object[]> rows = new ArrayList<>();
+                    enrollments(unit, rows::add);
+                    for (Object[] row : rows) {
+                        consumer.accept(row);
+                    }
+                }
+                case USERS -> consumer.accept(user(unit));
+            }
+        }
+    }
+
+    /**
+     * Course k belongs to department k % 10, so the courses of a
+     * department can be found without a lookup
+     */
+    private Object[] course(long k) {
+        SplittableRandom random = random(Table.COURSES, k);
+        int department = (int) (k % DEPARTMENTS.length);
+        int credits = pick(random, new int[] {10, 60, 30}) + 2;
+        long courseId = firstId[Table.COURSES.ordinal()] + k;
+        return new Object[] {
+            courseId,
+            // Unique, and never like the hand-made codes (CS101)
+            PREFIXES[department] + "-" + courseId,
+            LEVELS[random.nextInt(LEVELS.length)] + " " + SUBJECTS[department],
+            credits,
+            DEPARTMENTS[department]
+        };
+    }
+
+    private Object[] student(long i) {
+        SplittableRandom random = random(Table.STUDENTS, i);
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        long studentId = firstId[Table.STUDENTS.ordinal()] + i;
+        int age = 17 + (int) Math.min(40, Math.abs(gaussian(random) * 4));
+        BigDecimal gpa = random.nextInt(100) < 5 ? null : BigDecimal.valueOf(
+            Math.max(0.0, Math.min(4.0, 3.0 + gaussian(random) * 0.5))).setScale(2, RoundingMode.HALF_UP);
+        int department = pick(random, DEPARTMENT_WEIGHTS);
+        LocalDate started = LocalDate.of(FIRST_YEAR + random.nextInt(CURRENT_YEAR - FIRST_YEAR + 1),
+                                         random.nextBoolean() ? 9 : 1, 1 + random.nextInt(14));
+        return new Object[] {
+            studentId,
+            first + " " + last,
+            age,
+            (first + "." + last).toLowerCase().replace("'", "") + studentId + "@example.edu",
+            gpa,
+            DEPARTMENTS[department],
+            started
+        };
+    }
+
+    /**
+     * Number of enrollments of student i: between half and one and a half
+     * times the average
+     */
+    private int enrollmentCount(SplittableRandom random) {
+        int low = Math.max(1, enrollmentsPerStudent / 2);
+        int high = Math.min(courses, enrollmentsPerStudent + enrollmentsPerStudent / 2);
+        return low + random.nextInt(high - low + 1);
+    }
+
+    private void computeEnrollmentOffsets() {
+        enrollmentOffsets = new long[students + 1];
+        if (units(Table.ENROLLMENTS) == 0) {
+            return;
+        }
+        for (int i = 0; i < students; i++) {
+            enrollmentOffsets[i + 1] = enrollmentOffsets[i] + enrollmentCount(random(Table.ENROLLMENTS, i));
+        }
+    }
+
+    private void enrollments(long i, Consumer<Object[]> rows) {
+        SplittableRandom random = random(Table.ENROLLMENTS, i);
+        int count = enrollmentCount(random);
+        Object[] student = student(i);
+        String department = (String) student[5];
+        int departmentIndex = List.of(DEPARTMENTS).indexOf(department);
+        LocalDate started = (LocalDate) student[6];
+        long coursesInDepartment = (courses - departmentIndex + DEPARTMENTS.length - 1) / DEPARTMENTS.length;
+
+        long[] taken = new long[count];
+        for (int n = 0; n < count; n++) {
+            long course;
+            do {
+                course = coursesInDepartment > 0 && random.nextInt(100) < OWN_DEPARTMENT
+                    ? departmentIndex + DEPARTMENTS.length * random.nextLong(coursesInDepartment)
+                    : random.nextLong(courses);
+            } while (contains(taken, n, course));
+            taken[n] = course;
+
+            int year = Math.min(CURRENT_YEAR, started.getYear() + random.nextInt(5));
+            // No spring semester before a September start
+            boolean fall = random.nextBoolean() || (year == started.getYear() && started.getMonthValue() >= 9);
+            boolean current = year == CURRENT_YEAR && fall;
+            rows.accept(new Object[] {
+                firstId[Table.ENROLLMENTS.ordinal()] + enrollmentOffsets[(int) i] + n,
+                student[0],
+                firstId[Table.COURSES.ordinal()] + course,
+                year + (fall ? " Fall" : " Spring"),
+                current ? null : GRADES[pick(random, GRADE_WEIGHTS)],
+                LocalDate.of(year, fall ? 9 : 1, fall ? 1 : 15)
+            });
+        }
+    }
+
+    private Object[] user(long u) {
+        SplittableRandom random = random(Table.USERS, u);
+        return new Object[] {
+            firstId[Table.USERS.ordinal()] + u,
+            FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+            18 + random.nextInt(63)
+        };
+    }
+
+    private static boolean contains(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The random numbers of one row, derived from the seed, the table and
+     * the row's index only
+     */
+    private SplittableRandom random(Table table, long index) {
+        return new SplittableRandom(mix(mix(seed + table.ordinal()) + index));
+    }
+
+    /**
+     * SplitMix64 finalizer: neighbouring inputs give unrelated outputs
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    /**
+     * Index drawn with the given relative weights
+     */
+    private static int pick(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int r = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * New IDs start after the highest ID in each table that will be written
+     */
+    private void readFirstIds() throws SQLException {
+        try (Connection conn = Queries.connection();
+             Statement stmt = conn.createStatement()) {
+            for (Table table : Table.values()) {
+                if (units(table) == 0) {
+                    continue;
+                }
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT COALESCE(MAX(" + table.idColumn + "), 0) + 1 FROM " + table.name)) {
+                    rs.next();
+                    firstId[table.ordinal()] = rs.getLong(1);
+                }
+            }
+        }
+    }
+
+    private void printLoadStatements() {
+        System.out.println("\n✓ CSV files written to " + csvDirectory.toAbsolutePath());
+        System.out.println("Load them in this order (mysql --local-infile=1), then rebuild gpa_summary");
+        System.out.println("(EnrollmentQueries.rebuildGpaSummary() or the query in sample-data.sql):\n");
+        for (Table table : Table.values()) {
+            if (units(table) == 0 || rows(table) == 0) {
+                continue;
+            }
+            System.out.println("LOAD DATA LOCAL INFILE '" +
+                             csvDirectory.resolve(table.fileName()).toAbsolutePath() + "'");
+            System.out.println("  INTO TABLE " + table.name);
+            System.out.println("  FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"'");
+            System.out.println("  LINES TERMINATED BY '\\n' IGNORE 1 LINES");
+            System.out.println("  (" + table.columns + ");");
+        }
+    }
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws IOException, SQLException, InterruptedException {
+        long seed = 42;
+        int students = 100_000;
+        int courses = 500;
+        int enrollments = 10;
+        int users = 0;
+        int batchSize = 1000;
+        int threads = 4;
+        Path csv = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--students" -> students = Integer.parseInt(args[++i]);
+                case "--courses" -> courses = Integer.parseInt(args[++i]);
+                case "--enrollments" -> enrollments = Integer.parseInt(args[++i]);
+                case "--users" -> users = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--batch-size" -> batchSize = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--csv" -> csv = Path.of(args[++i]);
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: java SyntheticDataGenerator [--students N] [--courses N] " +
+                                     "[--enrollments N] [--users N] [--seed N] [--batch-size N] " +
+                                     "[--threads N] [--csv DIR]");
+                    return;
+                }
+            }
+        }
+
+        System.out.println("=== Synthetic Data Generator ===\n");
+        if (csv == null) {
+            ConnectionPool pool = DatabaseConnector.getPool();
+            if (pool == null) {
+                return;
+            }
+            if (threads > pool.getSettings().maxConnections) {
+                System.out.println("⏳ Only " + pool.getSettings().maxConnections +
+                                 " pooled connections (db.maxConnections); using that many threads");
+                threads = pool.getSettings().maxConnections;
+            }
+        }
+        System.out.println("Seed " + seed + ", " + threads + " thread(s), batches of " + batchSize + " rows\n");
+
+        try {
+            new SyntheticDataGenerator(seed, students, courses, enrollments, users, batchSize, threads, csv).run();
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+        } finally {
+            if (csv == null) {
+                DatabaseConnector.closeConnection();
+            }
+        }
+    }
+}
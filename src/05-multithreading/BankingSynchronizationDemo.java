@@ -1,9 +1,16 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
 /**
  * BankingSynchronizationDemo - Advanced Thread Synchronization
  * 
  * This program demonstrates:
- * - Synchronized methods
- * - wait() and notify() for inter-thread communication
+ * - Lock-free balance updates with compare-and-set (LedgerAccount)
+ * - Waiting withdrawals that are paid in arrival order
+ * - Atomic transfers between accounts without deadlock (StripedLedger)
+ * - Balances that survive a restart (DurableLedger and its write-ahead log)
  * - Producer-Consumer pattern
  * - Thread coordination in banking scenario
  * - Avoiding deadlock and race conditions
@@ -12,102 +19,77 @@
  * 
  * Scenario: Multiple customers depositing and withdrawing from shared account
  * 
+ * The original version kept the balance in a double behind synchronized
+ * getters and setters, and each Customer waited on its own monitor. A
+ * deposit by one customer could never notify() a withdrawal waiting in
+ * another, and two customers could both read the balance before either
+ * wrote it back. LedgerAccount makes each update one atomic step and
+ * wakes exactly the withdrawals a deposit pays for.
+ * 
  * @author BICT Advanced Java Course
  * @version 1.0
  */
 
-/**
- * Account - Shared resource representing bank account
- */
-class Account {
-    private double balance = 0.0;
-    
-    public synchronized double getBalance() {
-        return balance;
-    }
-    
-    public synchronized void setBalance(double balance) {
-        this.balance = balance;
-    }
-    
-    /**
-     * Display current balance with formatting
-     */
-    public synchronized void displayBalance() {
-        System.out.printf("💰 Current Balance: $%.2f%n", balance);
-    }
-}
-
 /**
  * Customer - Represents a bank customer performing transactions
  */
 class Customer {
-    private double pendingWithdrawal = 0.0;
-    private final Account account;
+    private final LedgerAccount account;
     private final String customerName;
     
-    public Customer(Account account, String customerName) {
+    public Customer(LedgerAccount account, String customerName) {
         this.account = account;
         this.customerName = customerName;
     }
     
     /**
-     * Withdraw money from account (synchronized with wait/notify)
-     * If insufficient balance, wait until deposit occurs
+     * Withdraw money from account
+     * If insufficient balance, wait until deposits cover it
      */
-    public synchronized void withdrawMoney(double amount) {
-        System.out.println("\n🏦 [" + customerName + "] Attempting to withdraw: $" + amount);
+    public void withdrawMoney(long cents) {
+        System.out.println("\n🏦 [" + customerName + "] Attempting to withdraw: " + LedgerAccount.format(cents));
         
-        double currentBalance = account.getBalance();
-        pendingWithdrawal = amount;
-        
-        // Wait if insufficient balance
-        while (currentBalance < amount) {
+        if (!account.tryWithdraw(cents)) {
             System.out.println("⚠️  [" + customerName + "] Insufficient balance!");
-            System.out.printf("   Available: $%.2f | Required: $%.2f%n", 
-                currentBalance, amount);
+            System.out.printf("   Available: %s | Required: %s%n", 
+                LedgerAccount.format(account.getBalance()), LedgerAccount.format(cents));
             System.out.println("   Waiting for deposit...");
             
             try {
-                wait(); // Release lock and wait for notify
+                account.withdraw(cents); // Parks until a deposit pays this withdrawal
             } catch (InterruptedException e) {
                 System.err.println("Withdrawal interrupted: " + e.getMessage());
+                Thread.currentThread().interrupt();
                 return;
             }
-            
-            currentBalance = account.getBalance();
         }
         
-        // Sufficient balance - proceed with withdrawal
-        currentBalance -= amount;
-        account.setBalance(currentBalance);
         System.out.println("✅ [" + customerName + "] Withdrawal successful!");
-        System.out.printf("   Withdrew: $%.2f | Remaining: $%.2f%n", 
-            amount, currentBalance);
-        pendingWithdrawal = 0.0;
+        System.out.printf("   Withdrew: %s | Remaining: %s%n", 
+            LedgerAccount.format(cents), LedgerAccount.format(account.getBalance()));
     }
     
     /**
-     * Deposit money to account (synchronized with notify)
+     * Deposit money to account (pays waiting withdrawals it covers)
      */
-    public synchronized void depositMoney(double amount) {
-        System.out.println("\n💵 [" + customerName + "] Depositing: $" + amount);
+    public void depositMoney(long cents) {
+        System.out.println("\n💵 [" + customerName + "] Depositing: " + LedgerAccount.format(cents));
         
-        double currentBalance = account.getBalance();
-        currentBalance += amount;
-        account.setBalance(currentBalance);
+        int waitingBefore = account.getWaitingWithdrawals();
+        long newBalance = account.deposit(cents);
+        int waitingAfter = account.getWaitingWithdrawals();
         
         System.out.println("✅ [" + customerName + "] Deposit successful!");
-        System.out.printf("   Deposited: $%.2f | New Balance: $%.2f%n", 
-            amount, currentBalance);
-        
-        // Check if deposit covers pending withdrawal
-        if (pendingWithdrawal > 0 && currentBalance >= pendingWithdrawal) {
-            System.out.println("🔔 [" + customerName + "] Notifying waiting withdrawal...");
-            notify(); // Wake up waiting withdrawal thread
-        } else if (pendingWithdrawal > 0) {
-            System.out.printf("⚠️  [" + customerName + "] Still insufficient for pending withdrawal of $%.2f%n", 
-                pendingWithdrawal);
+        System.out.printf("   Deposited: %s | New Balance: %s%n", 
+            LedgerAccount.format(cents), LedgerAccount.format(newBalance));
+        
+        // Check if deposit covered waiting withdrawals
+        if (waitingAfter < waitingBefore) {
+            System.out.println("🔔 [" + customerName + "] Deposit paid " + (waitingBefore - waitingAfter) +
+                " waiting withdrawal(s)");
+        } else if (waitingAfter > 0) {
+            System.out.println("⚠️  [" + customerName + "] Still insufficient for " + waitingAfter +
+                " waiting withdrawal(s)");
         }
     }
 }
@@ -122,19 +104,19 @@ public class BankingSynchronizationDemo {
         System.out.println("║   Basic Banking Synchronization Demo      ║");
         System.out.println("╚════════════════════════════════════════════╝");
         
-        Account sharedAccount = new Account();
+        LedgerAccount sharedAccount = new LedgerAccount("Shared");
         Customer customer = new Customer(sharedAccount, "Alice");
         
         // Thread 1: Try to withdraw (will wait)
         Thread withdrawThread = new Thread(() -> {
-            customer.withdrawMoney(15000);
+            customer.withdrawMoney(dollars(15000));
         }, "Withdraw-Thread");
         
         // Thread 2: Deposit (insufficient)
         Thread deposit1Thread = new Thread(() -> {
             try {
                 Thread.sleep(1000); // Delay to let withdrawal start
-                customer.depositMoney(10000);
+                customer.depositMoney(dollars(10000));
             } catch (InterruptedException e) {
                 e.printStackTrace();
             }
@@ -144,7 +126,7 @@ public class BankingSynchronizationDemo {
         Thread deposit2Thread = new Thread(() -> {
             try {
                 Thread.sleep(2000); // Delay for second deposit
-                customer.depositMoney(10000);
+                customer.depositMoney(dollars(10000));
             } catch (InterruptedException e) {
                 e.printStackTrace();
             }
@@ -163,7 +145,7 @@ public class BankingSynchronizationDemo {
         }
         
         System.out.println("\n" + "=".repeat(50));
-        sharedAccount.displayBalance();
+        displayBalance(sharedAccount);
         System.out.println("=".repeat(50));
     }
     
@@ -175,11 +157,9 @@ public class BankingSynchronizationDemo {
         System.out.println("║  Multi-Customer Concurrent Transactions    ║");
         System.out.println("╚════════════════════════════════════════════╝");
         
-        Account sharedAccount = new Account();
-        
         // Initial balance
-        sharedAccount.setBalance(5000);
-        System.out.println("🏦 Initial Balance: $5000.00\n");
+        LedgerAccount sharedAccount = new LedgerAccount("Shared", dollars(5000));
+        System.out.println("🏦 Initial Balance: " + LedgerAccount.format(sharedAccount.getBalance()) + "\n");
         
         Customer bob = new Customer(sharedAccount, "Bob");
         Customer charlie = new Customer(sharedAccount, "Charlie");
@@ -187,15 +167,15 @@ public class BankingSynchronizationDemo {
         
         // Create multiple transaction threads
         Thread[] threads = {
-            new Thread(() -> bob.depositMoney(3000), "Bob-Deposit"),
-            new Thread(() -> charlie.withdrawMoney(6000), "Charlie-Withdraw"),
+            new Thread(() -> bob.depositMoney(dollars(3000)), "Bob-Deposit"),
+            new Thread(() -> charlie.withdrawMoney(dollars(6000)), "Charlie-Withdraw"),
             new Thread(() -> {
                 try { Thread.sleep(1500); } catch (InterruptedException e) {}
-                diana.depositMoney(4000);
+                diana.depositMoney(dollars(4000));
             }, "Diana-Deposit"),
             new Thread(() -> {
                 try { Thread.sleep(3000); } catch (InterruptedException e) {}
-                bob.withdrawMoney(2000);
+                bob.withdrawMoney(dollars(2000));
             }, "Bob-Withdraw")
         };
         
@@ -214,16 +194,148 @@ public class BankingSynchronizationDemo {
         }
         
         System.out.println("\n" + "=".repeat(50));
-        sharedAccount.displayBalance();
+        displayBalance(sharedAccount);
+        System.out.println("=".repeat(50));
+    }
+    
+    /**
+     * Simulate customers transferring money between their own accounts
+     * 
+     * Bob and Charlie send money to each other at the same time, the
+     * classic recipe for a deadlock when each transfer locks its source
+     * account first. StripedLedger always locks in ascending order instead.
+     */
+    public static void transferScenario() {
+        System.out.println("\n\n╔════════════════════════════════════════════╗");
+        System.out.println("║  Concurrent Transfers Between Accounts     ║");
+        System.out.println("╚════════════════════════════════════════════╝");
+        
+        String[] names = {"Bob", "Charlie", "Diana"};
+        StripedLedger ledger = new StripedLedger(names.length, dollars(1000));
+        long openingTotal = ledger.totalBalance();
+        System.out.println("🏦 Each account opens with " + LedgerAccount.format(dollars(1000)) + "\n");
+        
+        int rounds = 10_000;
+        Thread[] threads = {
+            new Thread(() -> {
+                for (int i = 0; i < rounds; i++) {
+                    ledger.transfer(0, 1, dollars(5)); // Bob -> Charlie
+                }
+            }, "Bob-Transfers"),
+            new Thread(() -> {
+                for (int i = 0; i < rounds; i++) {
+                    ledger.transfer(1, 0, dollars(3)); // Charlie -> Bob
+                }
+            }, "Charlie-Transfers"),
+            new Thread(() -> {
+                // Diana splits a payment between Bob and Charlie: both or neither
+                for (int i = 0; i < rounds / 100; i++) {
+                    ledger.transferAll(
+                        new StripedLedger.Transfer(2, 0, dollars(2)),
+                        new StripedLedger.Transfer(2, 1, dollars(2)));
+                }
+            }, "Diana-Transfers")
+        };
+        
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        
+        System.out.println("✅ All transfer threads finished (no deadlock)");
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("   %-8s %s%n", names[i], LedgerAccount.format(ledger.getBalance(i)));
+        }
+        
+        System.out.println("\n" + "=".repeat(50));
+        long total = ledger.totalBalance();
+        System.out.println("💰 Total Balance: " + LedgerAccount.format(total) +
+            (total == openingTotal ? " (unchanged ✓)" : " (CHANGED ✗)"));
         System.out.println("=".repeat(50));
     }
     
+    /**
+     * Close the bank and open it again: balances come back from disk
+     */
+    public static void restartScenario() {
+        System.out.println("\n\n╔════════════════════════════════════════════╗");
+        System.out.println("║  Durable Ledger Across a Restart           ║");
+        System.out.println("╚════════════════════════════════════════════╝");
+        
+        String[] names = {"Bob", "Charlie", "Diana"};
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("ledger-demo");
+            try (DurableLedger ledger = DurableLedger.open(directory, names.length, dollars(1000),
+                    LedgerJournal.Durability.GROUP)) {
+                ledger.deposit(0, dollars(250));
+                ledger.transfer(1, 2, dollars(400));
+                ledger.withdraw(2, dollars(100));
+                System.out.println("✅ 3 transactions logged, closing the bank for the night...");
+            }
+            
+            try (DurableLedger ledger = DurableLedger.open(directory, names.length, dollars(1000),
+                    LedgerJournal.Durability.GROUP)) {
+                System.out.println("🔄 Reopened: replayed " + ledger.getRecovery().records() + " log records");
+                for (int i = 0; i < names.length; i++) {
+                    System.out.printf("   %-8s %s%n", names[i], LedgerAccount.format(ledger.getBalance(i)));
+                }
+                ledger.snapshot();
+                System.out.println("📸 Snapshot written, old log deleted");
+            }
+            
+            try (DurableLedger ledger = DurableLedger.open(directory, names.length, dollars(1000),
+                    LedgerJournal.Durability.GROUP)) {
+                System.out.println("🔄 Reopened from the snapshot: replayed " +
+                    ledger.getRecovery().records() + " log records");
+                System.out.println("\n" + "=".repeat(50));
+                System.out.println("💰 Total Balance: " + LedgerAccount.format(ledger.totalBalance()));
+                System.out.println("=".repeat(50));
+            }
+        } catch (IOException e) {
+            System.err.println("Ledger error: " + e.getMessage());
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+    
+    private static void deleteDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+            Files.delete(directory);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + directory + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Display current balance with formatting
+     */
+    private static void displayBalance(LedgerAccount account) {
+        System.out.println("💰 Current Balance: " + LedgerAccount.format(account.getBalance()));
+    }
+    
+    private static long dollars(long amount) {
+        return amount * 100;
+    }
+    
     /**
      * Main method demonstrating thread synchronization
      */
     public static void main(String[] args) {
         System.out.println("\n🏦 Banking Synchronization Demonstration");
-        System.out.println("Advanced Threading: wait(), notify(), synchronized\n");
+        System.out.println("Advanced Threading: compare-and-set, parking, fair waiting\n");
         
         // Demo 1: Basic scenario
         basicScenario();
@@ -231,12 +343,20 @@ public class BankingSynchronizationDemo {
         // Demo 2: Multi-customer scenario
         multiCustomerScenario();
         
+        // Demo 3: Transfers between accounts
+        transferScenario();
+        
+        // Demo 4: Surviving a restart
+        restartScenario();
+        
         System.out.println("\n" + "=".repeat(50));
         System.out.println("Banking Demo Completed!");
         System.out.println("Key Concepts Demonstrated:");
-        System.out.println("  ✓ Synchronized methods");
-        System.out.println("  ✓ wait() - Thread waiting mechanism");
-        System.out.println("  ✓ notify() - Inter-thread communication");
+        System.out.println("  ✓ Compare-and-set - Lock-free balance updates");
+        System.out.println("  ✓ park()/unpark() - Thread waiting mechanism");
+        System.out.println("  ✓ First-come, first-served waiting withdrawals");
+        System.out.println("  ✓ Ordered lock acquisition - Deadlock-free transfers");
+        System.out.println("  ✓ Write-ahead log - Balances that survive a restart");
         System.out.println("  ✓ Producer-Consumer pattern");
         System.out.println("  ✓ Race condition prevention");
         System.out.println("  ✓ Thread coordination");
@@ -1,3 +1,7 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
 /**
  * BasicThreadDemo - Basic Thread Creation and Execution
  *
@@ -6,6 +10,10 @@
  * - Overriding run() method
  * - Thread naming with setName()
  * - Starting threads with start()
+ * - The same work as tasks on a TaskExecutor instead of raw threads
+ *
+ * Usage: java BasicThreadDemo [platform|work-stealing|virtual]
+ *   with no argument each worker gets its own Thread
  *
  * Original: Java-Design-Patterns/ThreadEX/
  * 
@@ -21,12 +29,19 @@ class MythreadEX extends Thread {
 
     @Override
     public void run() {
+        runSteps(this.getName());
+    }
+
+    /**
+     * The worker's steps, shared with the executor version of the demo
+     */
+    static void runSteps(String name) {
         String str = "Thread Started Running...";
-        System.out.println("🔹 " + this.getName() + ": " + str);
+        System.out.println("🔹 " + name + ": " + str);
         
         // Simulate some work
         for (int i = 1; i <= 5; i++) {
-            System.out.println("   " + this.getName() + " - Step " + i);
+            System.out.println("   " + name + " - Step " + i);
             try {
                 Thread.sleep(300); // Pause 300ms
             } catch (InterruptedException e) {
@@ -34,7 +49,7 @@ class MythreadEX extends Thread {
             }
         }
         
-        System.out.println("✅ " + this.getName() + " completed execution!\n");
+        System.out.println("✅ " + name + " completed execution!\n");
     }
 }
 
@@ -49,6 +64,40 @@ public class BasicThreadDemo {
         System.out.println("║   Thread Extension Example             ║");
         System.out.println("╚════════════════════════════════════════╝\n");
 
+        if (args.length > 0) {
+            runOnExecutor(args[0]);
+        } else {
+            runOnThreads();
+        }
+        
+        System.out.println("=".repeat(50));
+        System.out.println("✅ All Threads Completed Successfully!");
+        System.out.println("=".repeat(50));
+        
+        // Key Concepts
+        System.out.println("\n📚 KEY CONCEPTS:");
+        System.out.println("• Extending Thread: Creates custom thread by inheritance");
+        System.out.println("• run(): Contains thread execution logic");
+        System.out.println("• start(): Begins thread execution (don't call run() directly!)");
+        System.out.println("• setName(): Assigns readable name to thread");
+        System.out.println("• getName(): Retrieves thread name");
+        
+        System.out.println("\n⚠️  IMPORTANT:");
+        System.out.println("• Always call start() to begin thread (not run())");
+        System.out.println("• start() creates new thread and calls run()");
+        System.out.println("• Calling run() directly executes in current thread");
+        
+        System.out.println("\n💡 THREAD LIFECYCLE:");
+        System.out.println("1. NEW: Thread created but not started");
+        System.out.println("2. RUNNABLE: Thread.start() called, ready to run");
+        System.out.println("3. RUNNING: Thread executing run() method");
+        System.out.println("4. TERMINATED: Thread completed execution");
+    }
+
+    /**
+     * Each worker runs on its own Thread, started and joined by hand
+     */
+    private static void runOnThreads() {
         System.out.println("📌 Creating custom threads by extending Thread class...\n");
 
         // Create and configure first thread
@@ -78,28 +127,30 @@ public class BasicThreadDemo {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+    }
+
+    /**
+     * The same workers as tasks on a two-thread (or virtual) executor
+     */
+    private static void runOnExecutor(String kind) {
+        System.out.println("📌 Submitting the workers as tasks to a " + kind + " executor...\n");
         
-        System.out.println("=".repeat(50));
-        System.out.println("✅ All Threads Completed Successfully!");
-        System.out.println("=".repeat(50));
-        
-        // Key Concepts
-        System.out.println("\n📚 KEY CONCEPTS:");
-        System.out.println("• Extending Thread: Creates custom thread by inheritance");
-        System.out.println("• run(): Contains thread execution logic");
-        System.out.println("• start(): Begins thread execution (don't call run() directly!)");
-        System.out.println("• setName(): Assigns readable name to thread");
-        System.out.println("• getName(): Retrieves thread name");
-        
-        System.out.println("\n⚠️  IMPORTANT:");
-        System.out.println("• Always call start() to begin thread (not run())");
-        System.out.println("• start() creates new thread and calls run()");
-        System.out.println("• Calling run() directly executes in current thread");
-        
-        System.out.println("\n💡 THREAD LIFECYCLE:");
-        System.out.println("1. NEW: Thread created but not started");
-        System.out.println("2. RUNNABLE: Thread.start() called, ready to run");
-        System.out.println("3. RUNNING: Thread executing run() method");
-        System.out.println("4. TERMINATED: Thread completed execution");
+        try (TaskExecutor executor = TaskExecutor.of(kind, 2, 100);
+             TaskScope scope = new TaskScope(executor)) {
+            List<TaskExecutor.Handle<Void>> handles = new ArrayList<>();
+            for (String name : new String[] {"FirstThread", "SecondThread", "ThirdThread"}) {
+                handles.add(scope.fork(name, () -> MythreadEX.runSteps(name)));
+            }
+            scope.join();
+            
+            // With two pool threads the third task waits for a free one
+            for (TaskExecutor.Handle<Void> handle : handles) {
+                System.out.printf("📊 %-12s waited %4d ms, ran %4d ms%n", handle.name(),
+                    handle.queueNanos() / 1_000_000, handle.runNanos() / 1_000_000);
+            }
+            System.out.println();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
     }
 }
@@ -0,0 +1,289 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * DurableLedger - A StripedLedger That Survives Restarts
+ *
+ * This class demonstrates:
+ * - Logging every accepted change to a write-ahead log (LedgerJournal)
+ * - Acknowledging a change only once the log has it (per durability mode)
+ * - Snapshots that let the log be trimmed
+ * - Startup recovery: load the snapshot, then replay the log after it
+ *
+ * Files in the directory:
+ *   ledger.snapshot  every balance, plus the log generation and sequence
+ *                    where replay must continue
+ *   *.wal            LedgerJournal generations
+ *
+ * An operation changes the balances in memory, appends its record and
+ * then waits for the journal's commit(). Others may see the new balance
+ * before it is durable, but the caller is only answered afterwards. A
+ * rejected withdrawal or transfer changes nothing and writes nothing.
+ *
+ * The record is appended while the account locks are still held (a
+ * StripedLedger commit hook), so changes to one account reach the log in
+ * the order they were applied. A crash keeps a prefix of the log, and
+ * replaying any prefix gives balances that really existed: a withdrawal
+ * is never logged before the deposit that paid for it. If the append
+ * fails, the change is undone in memory. Records are replayed as plain
+ * additions and subtractions, without the balance checks.
+ *
+ * A snapshot copies all balances and rotates the log to a new generation
+ * in the same instant: operations hold the snapshot lock's shared side
+ * from applying a change until its record is appended. The snapshot is
+ * written to a temporary file, forced and renamed over the old one; only
+ * then are older log generations deleted.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class DurableLedger implements AutoCloseable {
+
+    private static final String SNAPSHOT_FILE = "ledger.snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x4C444752; // "LDGR"
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+
+    private final Path directory;
+    private final StripedLedger ledger;
+    private final LedgerJournal journal;
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final LedgerJournal.Recovery recovery;
+
+    private DurableLedger(Path directory, StripedLedger ledger, LedgerJournal journal,
+                          LedgerJournal.Recovery recovery) {
+        this.directory = directory;
+        this.ledger = ledger;
+        this.journal = journal;
+        this.recovery = recovery;
+    }
+
+    /**
+     * Open the ledger in a directory, recovering what is on disk
+     *
+     * @param accounts number of accounts (must match an existing snapshot)
+     * @param openingCents balance of every account when nothing is on disk yet
+     */
+    public static DurableLedger open(Path directory, int accounts, long openingCents,
+                                     LedgerJournal.Durability durability) throws IOException {
+        return open(directory, accounts, openingCents, durability, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param flushIntervalMillis how often ASYNC mode forces the log
+     */
+    public static DurableLedger open(Path directory, int accounts, long openingCents,
+                                     LedgerJournal.Durability durability,
+                                     long flushIntervalMillis) throws IOException {
+        Files.createDirectories(directory);
+        long[] balances = new long[accounts];
+        long generation = 0;
+        long sequence = 0;
+
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotFile)) {
+            ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+            generation = readSnapshot(snapshotFile, snapshot, balances);
+            sequence = snapshot.getLong(Integer.BYTES + Long.BYTES);
+        } else {
+            Arrays.fill(balances, openingCents);
+        }
+
+        LedgerJournal.Recovery recovery;
+        try {
+            recovery = LedgerJournal.replay(directory, generation, sequence, entry -> apply(balances, entry));
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        for (int account = 0; account < accounts; account++) {
+            if (balances[account] < 0) {
+                throw new IOException("Account " + account + " is negative after replay");
+            }
+        }
+
+        LedgerJournal journal = new LedgerJournal(directory, recovery.generation(),
+            recovery.nextSequence(), durability, flushIntervalMillis);
+        return new DurableLedger(directory, new StripedLedger(balances, StripedLedger.DEFAULT_STRIPES),
+            journal, recovery);
+    }
+
+    private static void apply(long[] balances, LedgerJournal.Entry entry) {
+        if (entry.account() < 0 || entry.account() >= balances.length
+                || (entry.type() == LedgerJournal.TRANSFER
+                    && (entry.other() < 0 || entry.other() >= balances.length))) {
+            throw new IllegalStateException("Record " + entry.sequence() + " names an unknown account");
+        }
+        switch (entry.type()) {
+            case LedgerJournal.DEPOSIT -> balances[entry.account()] += entry.cents();
+            case LedgerJournal.WITHDRAW -> balances[entry.account()] -= entry.cents();
+            default -> {
+                balances[entry.account()] -= entry.cents();
+                balances[entry.other()] += entry.cents();
+            }
+        }
+    }
+
+    /**
+     * Add money to an account
+     */
+    public void deposit(int account, long cents) throws IOException {
+        long[] sequence = new long[1]; // set by the commit hook, under the account locks
+        snapshotLock.readLock().lock();
+        try {
+            ledger.deposit(account, cents,
+                () -> sequence[0] = journal.append(LedgerJournal.DEPOSIT, account, -1, cents));
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        journal.commit(sequence[0]);
+    }
+
+    /**
+     * Take money out of an account
+     *
+     * @return true if taken, false if the balance was too low
+     */
+    public boolean withdraw(int account, long cents) throws IOException {
+        long[] sequence = new long[1]; // set by the commit hook, under the account locks
+        snapshotLock.readLock().lock();
+        try {
+            if (!ledger.withdraw(account, cents,
+                    () -> sequence[0] = journal.append(LedgerJournal.WITHDRAW, account, -1, cents))) {
+                return false;
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        journal.commit(sequence[0]);
+        return true;
+    }
+
+    /**
+     * Move money between two accounts
+     *
+     * @return true if moved, false if the source balance was too low
+     */
+    public boolean transfer(int from, int to, long cents) throws IOException {
+        long[] sequence = new long[1]; // set by the commit hook, under the account locks
+        snapshotLock.readLock().lock();
+        try {
+            if (!ledger.transfer(from, to, cents,
+                    () -> sequence[0] = journal.append(LedgerJournal.TRANSFER, from, to, cents))) {
+                return false;
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        journal.commit(sequence[0]);
+        return true;
+    }
+
+    /**
+     * Write all balances to disk and delete the log they make unnecessary
+     */
+    public synchronized void snapshot() throws IOException {
+        long[] balances;
+        long generation;
+        long sequence;
+        snapshotLock.writeLock().lock();
+        try {
+            balances = ledger.snapshot();
+            generation = journal.rotate();
+            sequence = journal.getNextSequence();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        ByteBuffer snapshot = ByteBuffer.allocate(Integer.BYTES * 3 + Long.BYTES * (2 + balances.length));
+        snapshot.putInt(SNAPSHOT_MAGIC).putLong(generation).putLong(sequence).putInt(balances.length);
+        for (long balance : balances) {
+            snapshot.putLong(balance);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(snapshot.array(), 0, snapshot.position());
+        snapshot.putInt((int) crc.getValue());
+        snapshot.flip();
+
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (snapshot.hasRemaining()) {
+                out.write(snapshot);
+            }
+            out.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        LedgerJournal.forceDirectory(directory);
+        journal.deleteBefore(generation);
+    }
+
+    /**
+     * Check a snapshot and copy its balances
+     *
+     * @return the log generation replay starts from
+     */
+    private static long readSnapshot(Path file, ByteBuffer snapshot, long[] balances) throws IOException {
+        int header = Integer.BYTES * 2 + Long.BYTES * 2;
+        if (snapshot.limit() < header + Integer.BYTES || snapshot.getInt(0) != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a ledger snapshot: " + file);
+        }
+        int accounts = snapshot.getInt(Integer.BYTES + Long.BYTES * 2);
+        if (accounts != balances.length) {
+            throw new IOException("Snapshot has " + accounts + " accounts, expected " + balances.length);
+        }
+        int crcPosition = header + Long.BYTES * accounts;
+        if (snapshot.limit() != crcPosition + Integer.BYTES) {
+            throw new IOException("Snapshot has the wrong size: " + file);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(snapshot.array(), 0, crcPosition);
+        if (snapshot.getInt(crcPosition) != (int) crc.getValue()) {
+            throw new IOException("Snapshot checksum mismatch: " + file);
+        }
+        for (int i = 0; i < accounts; i++) {
+            balances[i] = snapshot.getLong(header + Long.BYTES * i);
+        }
+        return snapshot.getLong(Integer.BYTES);
+    }
+
+    public long getBalance(int account) {
+        return ledger.getBalance(account);
+    }
+
+    public long totalBalance() {
+        return ledger.totalBalance();
+    }
+
+    public long[] balances() {
+        return ledger.snapshot();
+    }
+
+    public int getAccountCount() {
+        return ledger.getAccountCount();
+    }
+
+    public LedgerJournal getJournal() {
+        return journal;
+    }
+
+    /** What startup found on disk */
+    public LedgerJournal.Recovery getRecovery() {
+        return recovery;
+    }
+
+    /**
+     * Force the log and close it (no snapshot is taken)
+     */
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+}
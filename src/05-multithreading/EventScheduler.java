@@ -0,0 +1,194 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntConsumer;
+
+/**
+ * EventScheduler - Discrete-Event Simulation on a Virtual Clock
+ *
+ * This class demonstrates:
+ * - A priority queue of timestamped events instead of sleeping threads
+ * - A virtual clock that jumps from one event to the next
+ * - Deterministic results: same events, same order, every run
+ * - Running independent simulations in parallel across cores
+ *
+ * An event is an action scheduled for a point in simulated time. run()
+ * repeatedly takes the earliest event, sets the clock to its time and runs
+ * it; the action may schedule further events. Events due at the same time
+ * run in the order they were scheduled, so a simulation that uses seeded
+ * randomness produces exactly the same output on every run.
+ *
+ * Nothing waits in real time, so a simulated day of one-second timer
+ * ticks takes milliseconds. A scheduler is not thread-safe: a simulation
+ * runs on one thread. To use more cores, run several independent
+ * simulations at once with runAll().
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class EventScheduler {
+
+    /**
+     * A scheduled action; cancel() stops it from running
+     */
+    public static final class Event {
+        private final long time;
+        private final long order;
+        private final Runnable action;
+        private boolean cancelled;
+
+        private Event(long time, long order, Runnable action) {
+            this.time = time;
+            this.order = order;
+            this.action = action;
+        }
+
+        public long time() {
+            return time;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final PriorityQueue<Event> queue = new PriorityQueue<>(
+        Comparator.comparingLong((Event e) -> e.time).thenComparingLong(e -> e.order));
+    private long now;
+    private long order;
+    private long executed;
+
+    /**
+     * Current simulated time in milliseconds
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Run an action after a delay of simulated time
+     */
+    public Event schedule(long delayMillis, Runnable action) {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("Delay must not be negative: " + delayMillis);
+        }
+        return scheduleAt(now + delayMillis, action);
+    }
+
+    /**
+     * Run an action at a point in simulated time (not in the past)
+     */
+    public Event scheduleAt(long timeMillis, Runnable action) {
+        if (timeMillis < now) {
+            throw new IllegalArgumentException("Time " + timeMillis + " is before now (" + now + ")");
+        }
+        Event event = new Event(timeMillis, order++, action);
+        queue.add(event);
+        return event;
+    }
+
+    /**
+     * Run an action a number of times, every period, the first after delayMillis
+     *
+     * The action receives the repetition number, starting at 0. Cancelling
+     * the returned event stops the remaining repetitions.
+     */
+    public Event repeat(long delayMillis, long periodMillis, int times, IntConsumer action) {
+        if (periodMillis <= 0 || times <= 0) {
+            throw new IllegalArgumentException("Period and times must be positive");
+        }
+        Event[] control = new Event[1];
+        Runnable[] tick = new Runnable[1];
+        int[] count = {0};
+        tick[0] = () -> {
+            if (control[0].cancelled) {
+                return; // cancelled after the first repetition
+            }
+            action.accept(count[0]++);
+            if (count[0] < times) {
+                schedule(periodMillis, tick[0]);
+            }
+        };
+        control[0] = schedule(delayMillis, tick[0]);
+        return control[0];
+    }
+
+    /**
+     * Run events until none are left
+     *
+     * @return the number of events run
+     */
+    public long run() {
+        return runUntil(Long.MAX_VALUE);
+    }
+
+    /**
+     * Run the events due up to and including the given time
+     *
+     * Afterwards the clock reads that time (unless it is Long.MAX_VALUE,
+     * in which case it stays at the last event).
+     *
+     * @return the number of events run
+     */
+    public long runUntil(long timeMillis) {
+        long before = executed;
+        while (!queue.isEmpty() && queue.peek().time <= timeMillis) {
+            Event event = queue.poll();
+            if (event.cancelled) {
+                continue;
+            }
+            now = event.time;
+            executed++;
+            event.action.run();
+        }
+        if (timeMillis != Long.MAX_VALUE && timeMillis > now) {
+            now = timeMillis;
+        }
+        return executed - before;
+    }
+
+    /**
+     * Events run so far
+     */
+    public long getExecutedEvents() {
+        return executed;
+    }
+
+    /**
+     * Events still scheduled (including cancelled ones not yet discarded)
+     */
+    public int getPendingEvents() {
+        return queue.size();
+    }
+
+    /**
+     * Run independent simulations in parallel and collect their results
+     *
+     * Each simulation should create and run its own EventScheduler. The
+     * results come back in the order of the list, whatever order the
+     * simulations finish in, and the first failure cancels the rest.
+     */
+    public static <T> List<T> runAll(List<? extends Callable<T>> simulations, int parallelism)
+            throws InterruptedException, ExecutionException {
+        List<TaskExecutor.Handle<T>> handles = new ArrayList<>();
+        try (TaskExecutor executor = TaskExecutor.workStealing(parallelism, Math.max(1, simulations.size()));
+             TaskScope scope = new TaskScope(executor)) {
+            for (int i = 0; i < simulations.size(); i++) {
+                handles.add(scope.fork("simulation-" + i, simulations.get(i)));
+            }
+            scope.join();
+        }
+        List<T> results = new ArrayList<>();
+        for (TaskExecutor.Handle<T> handle : handles) {
+            results.add(handle.get());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,172 @@
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntFunction;
+
+/**
+ * ExecutorComparison - The Demos' Workloads on Each TaskExecutor
+ *
+ * This program demonstrates:
+ * - Running the same tasks on platform, work-stealing and virtual threads
+ * - Throughput and queue/run latency for blocking versus CPU-bound work
+ * - Back-pressure: queued tasks never exceed the in-flight limit
+ * - Structured cancellation: one failure cancels the rest of a scope
+ *
+ * Workloads (each task is one unit of the demo it comes from):
+ * - sleep:   BasicThreadDemo/RunnableThreadDemo steps, five 1 ms pauses
+ * - ledger:  BankingSynchronizationDemo, 100 deposits and withdrawals
+ *            on one shared LedgerAccount
+ * - compute: ThreadCalculationDemo, summing 0..200,000
+ *
+ * Expect virtual threads to win the sleep workload by a wide margin (a
+ * sleeping virtual thread does not hold an OS thread) and to be no faster
+ * on the CPU-bound ones, where the number of cores is the limit.
+ *
+ * Usage: java ExecutorComparison [tasks] [poolThreads] [maxInFlight]
+ *   defaults: 10,000 tasks, 4 threads per core (at least 8), 1,000 in flight
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class ExecutorComparison {
+
+    private static final String[] KINDS = {"platform", "work-stealing", "virtual"};
+
+    /**
+     * A named workload: task number -> task
+     */
+    private record Workload(String name, IntFunction<Callable<Long>> task) {
+    }
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+            : Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+        int maxInFlight = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║     Task Executor Comparison      ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+        System.out.printf("Tasks: %,d | Pool threads: %d | Max in flight: %,d%n%n", tasks, threads, maxInFlight);
+
+        LedgerAccount shared = new LedgerAccount("shared", 1_000_000);
+        List<Workload> workloads = List.of(
+            new Workload("sleep", i -> () -> {
+                for (int step = 0; step < 5; step++) {
+                    Thread.sleep(1);
+                }
+                return 5L;
+            }),
+            new Workload("ledger", i -> () -> {
+                for (int n = 0; n < 100; n++) {
+                    shared.deposit(100);
+                    shared.withdraw(100);
+                }
+                return 200L;
+            }),
+            new Workload("compute", i -> () -> ParallelReducer.SUM.reduceRange(0, 200_001))
+        );
+
+        // Warm up the JIT on a small run of every workload
+        for (String kind : KINDS) {
+            for (Workload workload : workloads) {
+                run(kind, workload, Math.min(tasks, 1_000), threads, maxInFlight, false);
+            }
+        }
+
+        boolean ok = true;
+        for (Workload workload : workloads) {
+            System.out.println("📊 Workload: " + workload.name());
+            System.out.printf("%-20s %12s %18s %18s %11s%n",
+                "Executor", "Tasks/s", "Queue p50/p99 µs", "Run p50/p99 µs", "Max queued");
+            System.out.println("=".repeat(83));
+            for (String kind : KINDS) {
+                TaskExecutor.Stats stats = run(kind, workload, tasks, threads, maxInFlight, true);
+                ok &= stats.maxQueued() <= maxInFlight && stats.completed() == tasks;
+            }
+            System.out.println();
+        }
+
+        check("Queued tasks never exceeded the in-flight limit and every task completed", ok);
+        ok &= checkCancellation(threads, maxInFlight);
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run every task of a workload in one scope, optionally printing a result row
+     */
+    private static TaskExecutor.Stats run(String kind, Workload workload, int tasks,
+                                          int threads, int maxInFlight, boolean print) throws Exception {
+        TaskExecutor.Stats stats;
+        long start = System.nanoTime();
+        try (TaskExecutor executor = TaskExecutor.of(kind, threads, maxInFlight)) {
+            try (TaskScope scope = new TaskScope(executor)) {
+                for (int i = 0; i < tasks; i++) {
+                    scope.fork(workload.name() + "-" + i, workload.task().apply(i));
+                }
+                scope.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            stats = executor.stats();
+            if (print) {
+                System.out.printf("%-20s %12s %18s %18s %11d%n", executor.name(),
+                    String.format("%,.0f", tasks / seconds),
+                    stats.queueP50Micros() + " / " + stats.queueP99Micros(),
+                    stats.runP50Micros() + " / " + stats.runP99Micros(), stats.maxQueued());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * One failing task must cancel a scope full of long sleeps quickly
+     */
+    private static boolean checkCancellation(int threads, int maxInFlight) throws Exception {
+        System.out.println("\n🛑 Structured cancellation: 500 tasks sleeping 10 s, one fails after 50 ms");
+        System.out.println("=".repeat(83));
+        boolean ok = true;
+        for (String kind : KINDS) {
+            long start = System.nanoTime();
+            String outcome;
+            TaskExecutor.Stats stats;
+            try (TaskExecutor executor = TaskExecutor.of(kind, threads, maxInFlight)) {
+                try (TaskScope scope = new TaskScope(executor)) {
+                    // Forked first: a FIFO pool would otherwise queue it behind the sleepers
+                    scope.fork("failing", () -> {
+                        Thread.sleep(50);
+                        throw new IllegalStateException("simulated failure");
+                    });
+                    for (int i = 0; i < 500; i++) {
+                        scope.fork("sleeper-" + i, () -> {
+                            Thread.sleep(10_000);
+                            return null;
+                        });
+                    }
+                    scope.join(Duration.ofSeconds(30));
+                    outcome = "no failure reported";
+                } catch (ExecutionException e) {
+                    outcome = "failed with " + e.getCause().getMessage();
+                }
+                stats = executor.stats();
+            }
+            double millis = (System.nanoTime() - start) / 1e6;
+            boolean passed = millis < 5_000 && stats.cancelled() == 500 && stats.failed() == 1;
+            ok &= passed;
+            System.out.printf("%s %-20s %s, %d cancelled, %.0f ms%n", passed ? "✓" : "✗",
+                kind, outcome, stats.cancelled(), millis);
+        }
+        System.out.println();
+        return ok;
+    }
+
+    private static boolean check(String description, boolean passed) {
+        System.out.println((passed ? "✓ " : "✗ ") + description);
+        return passed;
+    }
+}
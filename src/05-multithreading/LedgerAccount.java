@@ -0,0 +1,300 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LedgerAccount - Lock-Free Account Balance with Fair Waiting Withdrawals
+ *
+ * This class demonstrates:
+ * - Money as a long number of cents (no rounding errors from double)
+ * - Compare-and-set (CAS) updates through a VarHandle instead of locks
+ * - Parking threads in a FIFO queue instead of wait()/notify()
+ * - Handing money directly to the longest-waiting withdrawal
+ *
+ * Deposits and withdrawals that can be served at once never block: they
+ * read the balance, compute the new one and CAS it in, retrying if
+ * another thread changed it in between.
+ *
+ * A withdrawal larger than the balance joins a queue and parks. Every
+ * deposit then serves the queue in order: while the balance covers the
+ * first waiter, it takes that amount out on the waiter's behalf and
+ * unparks it. Unlike notify(), which wakes an arbitrary thread waiting on
+ * the monitor (possibly one whose withdrawal still cannot be paid), only
+ * a waiter that has been paid is woken, and in the order they arrived.
+ * While anyone is waiting, new withdrawals queue behind them, so a large
+ * withdrawal is not overtaken forever by small ones.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class LedgerAccount {
+
+    private static final VarHandle BALANCE;
+    private static final VarHandle SERVING;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BALANCE = lookup.findVarHandle(LedgerAccount.class, "balance", long.class);
+            SERVING = lookup.findVarHandle(LedgerAccount.class, "serving", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * A parked withdrawal
+     */
+    private static final class Waiter {
+        private static final VarHandle STATE;
+        private static final int WAITING = 0;
+        private static final int PAID = 1;
+        private static final int CANCELLED = 2;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Waiter.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final Thread thread;
+        final long cents;
+        volatile int state = WAITING;
+
+        Waiter(Thread thread, long cents) {
+            this.thread = thread;
+            this.cents = cents;
+        }
+
+        boolean complete(int newState) {
+            return STATE.compareAndSet(this, WAITING, newState);
+        }
+    }
+
+    private final String id;
+    private volatile long balance;
+    // True while one thread is paying out to the waiters
+    private volatile boolean serving;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final LongAdder casRetries = new LongAdder();
+
+    public LedgerAccount(String id) {
+        this(id, 0);
+    }
+
+    public LedgerAccount(String id, long openingCents) {
+        if (openingCents < 0) {
+            throw new IllegalArgumentException("opening balance must not be negative");
+        }
+        this.id = id;
+        this.balance = openingCents;
+    }
+
+    /**
+     * Add money and pay any waiting withdrawals it now covers
+     *
+     * @return the balance after the deposit (and after paying waiters)
+     */
+    public long deposit(long cents) {
+        requirePositive(cents);
+        long current = balance;
+        while (!BALANCE.compareAndSet(this, current, Math.addExact(current, cents))) {
+            casRetries.increment();
+            current = balance;
+        }
+        serveWaiters();
+        return balance;
+    }
+
+    /**
+     * Withdraw if the balance covers it and nobody is waiting
+     *
+     * @return true if the money was taken out
+     */
+    public boolean tryWithdraw(long cents) {
+        requirePositive(cents);
+        return waiters.isEmpty() && debit(cents);
+    }
+
+    /**
+     * Withdraw, waiting (in arrival order) until deposits cover it
+     *
+     * @throws InterruptedException if interrupted before being paid
+     *         (nothing is withdrawn then)
+     */
+    public void withdraw(long cents) throws InterruptedException {
+        if (!withdraw(cents, 0, false)) {
+            throw new IllegalStateException("untimed withdrawal returned unpaid");
+        }
+    }
+
+    /**
+     * Withdraw, waiting at most the given time
+     *
+     * @return true if paid, false if the time ran out (nothing withdrawn)
+     */
+    public boolean withdraw(long cents, long timeout, TimeUnit unit) throws InterruptedException {
+        return withdraw(cents, unit.toNanos(timeout), true);
+    }
+
+    private boolean withdraw(long cents, long nanos, boolean timed) throws InterruptedException {
+        requirePositive(cents);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (tryWithdraw(cents)) {
+            return true;
+        }
+
+        Waiter waiter = new Waiter(Thread.currentThread(), cents);
+        waiters.add(waiter);
+        // The balance may have grown between the attempt and joining
+        serveWaiters();
+
+        long deadline = System.nanoTime() + nanos;
+        while (waiter.state == Waiter.WAITING) {
+            if (timed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    if (cancel(waiter)) {
+                        return false;
+                    }
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+            if (Thread.interrupted()) {
+                if (cancel(waiter)) {
+                    throw new InterruptedException();
+                }
+                // Paid just before the interrupt: keep the money, keep the flag
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Give up waiting, unless a deposit has paid us already
+     */
+    private boolean cancel(Waiter waiter) {
+        if (!waiter.complete(Waiter.CANCELLED)) {
+            return false;
+        }
+        waiters.remove(waiter);
+        // A smaller withdrawal behind us may be payable now
+        serveWaiters();
+        return true;
+    }
+
+    /**
+     * Pay waiters in order while the balance covers the first one
+     *
+     * One thread serves at a time. A thread that finds another one serving
+     * leaves it the work; the server checks the queue again after it stops,
+     * so a deposit made meanwhile is not missed.
+     */
+    private void serveWaiters() {
+        while (!waiters.isEmpty() && SERVING.compareAndSet(this, false, true)) {
+            try {
+                Waiter first;
+                while ((first = waiters.peek()) != null) {
+                    if (first.state == Waiter.CANCELLED) {
+                        waiters.remove(first);
+                        continue;
+                    }
+                    if (!debit(first.cents)) {
+                        break;
+                    }
+                    waiters.poll();
+                    if (first.complete(Waiter.PAID)) {
+                        LockSupport.unpark(first.thread);
+                    } else {
+                        // Cancelled between the check and the payment: refund
+                        credit(first.cents);
+                    }
+                }
+            } finally {
+                serving = false;
+            }
+            Waiter first = waiters.peek();
+            if (first == null || (first.state == Waiter.WAITING && balance < first.cents)) {
+                return;
+            }
+        }
+    }
+
+    private boolean debit(long cents) {
+        long current = balance;
+        while (current >= cents) {
+            if (BALANCE.compareAndSet(this, current, current - cents)) {
+                return true;
+            }
+            casRetries.increment();
+            current = balance;
+        }
+        return false;
+    }
+
+    private void credit(long cents) {
+        long current = balance;
+        while (!BALANCE.compareAndSet(this, current, current + cents)) {
+            current = balance;
+        }
+    }
+
+    private static void requirePositive(long cents) {
+        if (cents <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + cents);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    /** Withdrawals currently waiting for money */
+    public int getWaitingWithdrawals() {
+        return (int) waiters.stream().filter(waiter -> waiter.state == Waiter.WAITING).count();
+    }
+
+    /** CAS attempts that lost a race and had to retry (a contention measure) */
+    public long getCasRetries() {
+        return casRetries.sum();
+    }
+
+    /**
+     * Cents from a decimal amount: cents("12.34") is 1234
+     *
+     * @throws ArithmeticException with more than two decimals
+     */
+    public static long cents(String amount) {
+        return new BigDecimal(amount).movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Format cents as dollars: format(123456) is "$1,234.56"
+     */
+    public static String format(long cents) {
+        return String.format("%s$%,d.%02d", cents < 0 ? "-" : "", Math.abs(cents) / 100, Math.abs(cents) % 100);
+    }
+
+    @Override
+    public String toString() {
+        return id + " " + format(balance);
+    }
+}
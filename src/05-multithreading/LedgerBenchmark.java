@@ -0,0 +1,193 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LedgerBenchmark - Lock-Free LedgerAccount versus a Monitor-Based Account
+ *
+ * This program demonstrates:
+ * - Measuring throughput as the number of threads grows from 1 to 64
+ * - How a synchronized account serialises every thread on one lock
+ * - Counting CAS retries as a measure of contention
+ * - Checking that no money is created or lost under contention
+ *
+ * Every thread repeatedly deposits a random amount and then withdraws the
+ * same amount from one shared account. Depositing first means the balance
+ * always covers every pending withdrawal, so no thread waits forever and
+ * the numbers measure the cost of the balance updates themselves.
+ *
+ * The monitor account is the design BankingSynchronizationDemo used before
+ * LedgerAccount, with its wake-up bug fixed: synchronized methods, a
+ * notifyAll() on every deposit and a wait() loop in withdraw.
+ *
+ * Usage: java LedgerBenchmark [milliseconds per run]   (default: 1000)
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class LedgerBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    private static final long OPENING_CENTS = 1_000_000;
+    private static final int MAX_AMOUNT_CENTS = 10_000;
+
+    /**
+     * The operations both accounts support
+     */
+    private interface Account {
+        void deposit(long cents);
+
+        void withdraw(long cents) throws InterruptedException;
+
+        long getBalance();
+    }
+
+    /**
+     * Baseline: one lock around the balance, wait()/notifyAll() for waiting
+     */
+    private static final class MonitorAccount implements Account {
+        private long balance;
+
+        MonitorAccount(long openingCents) {
+            this.balance = openingCents;
+        }
+
+        @Override
+        public synchronized void deposit(long cents) {
+            balance += cents;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void withdraw(long cents) throws InterruptedException {
+            while (balance < cents) {
+                wait();
+            }
+            balance -= cents;
+        }
+
+        @Override
+        public synchronized long getBalance() {
+            return balance;
+        }
+    }
+
+    /**
+     * LedgerAccount seen through the benchmark interface
+     */
+    private static final class Ledger implements Account {
+        private final LedgerAccount account = new LedgerAccount("bench", OPENING_CENTS);
+
+        @Override
+        public void deposit(long cents) {
+            account.deposit(cents);
+        }
+
+        @Override
+        public void withdraw(long cents) throws InterruptedException {
+            account.withdraw(cents);
+        }
+
+        @Override
+        public long getBalance() {
+            return account.getBalance();
+        }
+    }
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║     Ledger Account Benchmark      ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+        System.out.println("Each operation is one deposit or one withdrawal on a shared account");
+        System.out.println("Run time per measurement: " + millis + " ms (after a warm-up run)\n");
+
+        // Warm up both implementations so the JIT has compiled the hot paths
+        run(new Ledger(), 4, millis);
+        run(new MonitorAccount(OPENING_CENTS), 4, millis);
+
+        System.out.printf("%-8s %15s %15s %8s %14s%n", "Threads", "Ledger ops/s", "Monitor ops/s", "Ratio", "CAS retry/op");
+        System.out.println("=".repeat(64));
+        boolean balanced = true;
+        for (int threads : THREAD_COUNTS) {
+            Ledger ledger = new Ledger();
+            long ledgerOps = run(ledger, threads, millis);
+            MonitorAccount monitor = new MonitorAccount(OPENING_CENTS);
+            long monitorOps = run(monitor, threads, millis);
+
+            double seconds = millis / 1000.0;
+            System.out.printf("%-8d %15s %15s %7.2fx %14.4f%n", threads,
+                String.format("%,.0f", ledgerOps / seconds), String.format("%,.0f", monitorOps / seconds),
+                (double) ledgerOps / Math.max(1, monitorOps),
+                (double) ledger.account.getCasRetries() / Math.max(1, ledgerOps));
+
+            balanced &= checkBalance("ledger", ledger, threads);
+            balanced &= checkBalance("monitor", monitor, threads);
+        }
+        System.out.println("=".repeat(64));
+        System.out.println(balanced
+            ? "✓ Every run ended with the opening balance (no money created or lost)"
+            : "✗ Balance check failed");
+        if (!balanced) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run the deposit/withdraw workload and count completed operations
+     */
+    private static long run(Account account, int threads, long millis) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        StopFlag stop = new StopFlag();
+
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                try {
+                    start.await();
+                    while (!stop.stopped) {
+                        long cents = 1 + random.nextInt(MAX_AMOUNT_CENTS);
+                        account.deposit(cents);
+                        account.withdraw(cents);
+                        done += 2;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                operations.add(done);
+            }, "Ledger-Worker-" + i);
+            workers[i].start();
+        }
+
+        start.countDown();
+        Thread.sleep(millis);
+        stop.stopped = true;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum();
+    }
+
+    /**
+     * Tells the workers when the measurement time is over
+     */
+    private static final class StopFlag {
+        volatile boolean stopped;
+    }
+
+    private static boolean checkBalance(String name, Account account, int threads) {
+        if (account.getBalance() == OPENING_CENTS) {
+            return true;
+        }
+        System.out.println("✗ " + name + " with " + threads + " threads ended at "
+            + LedgerAccount.format(account.getBalance()) + ", expected " + LedgerAccount.format(OPENING_CENTS));
+        return false;
+    }
+}
@@ -0,0 +1,513 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * LedgerJournal - Write-Ahead Log of Ledger Changes with Group Commit
+ *
+ * This class demonstrates:
+ * - An append-only log of fixed-size, checksummed records
+ * - Three durability modes: force per record, group commit, asynchronous
+ * - Group commit: one waiting thread forces the file for everyone waiting
+ * - Recovering after a crash by replaying records up to the first torn one
+ *
+ * Every change gets a sequence number: 0, 1, 2, ... The log is split into
+ * generations, one file each, named after the generation number:
+ *   00000000000000000000.wal
+ * A new generation starts when DurableLedger takes a snapshot, so older
+ * files can be deleted once the snapshot is safely on disk.
+ *
+ * Record layout (RECORD_BYTES = 29 bytes, big-endian):
+ *   long sequence | byte type | int account | int other | long cents | int CRC32C
+ *
+ * Durability modes (how long commit() waits):
+ * - SYNC:  every append writes and forces the file before returning, one
+ *          force per record, while other appenders wait their turn
+ * - GROUP: appends only fill a buffer; commit() waits until a force covers
+ *          the record. The first waiting thread becomes the leader, writes
+ *          everything buffered so far and forces once; records appended
+ *          meanwhile go into the next batch
+ * - ASYNC: commit() returns at once; a flusher thread forces the file every
+ *          flushIntervalMillis, so a crash can lose that much acknowledged work
+ *
+ * After an I/O error the journal refuses further appends: the file may no
+ * longer match what callers were told.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class LedgerJournal implements AutoCloseable {
+
+    public enum Durability { SYNC, GROUP, ASYNC }
+
+    public static final byte DEPOSIT = 1;
+    public static final byte WITHDRAW = 2;
+    public static final byte TRANSFER = 3;
+
+    static final int RECORD_BYTES = 29;
+    private static final int CHECKED_BYTES = RECORD_BYTES - Integer.BYTES;
+    private static final int BUFFER_RECORDS = 4096;
+    private static final String SUFFIX = ".wal";
+
+    /**
+     * One replayed record
+     */
+    public record Entry(long sequence, byte type, int account, int other, long cents) {
+    }
+
+    /**
+     * Outcome of replaying the log on startup
+     *
+     * @param generation the newest generation found (appends continue there)
+     * @param nextSequence the sequence the next record will get
+     * @param records how many records were replayed
+     * @param truncatedBytes bytes of a torn last record that were cut off
+     */
+    public record Recovery(long generation, long nextSequence, long records, long truncatedBytes) {
+    }
+
+    private final Path directory;
+    private final Durability durability;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushDone = lock.newCondition();
+    private final ScheduledExecutorService flusher;
+
+    // Guarded by lock
+    private FileChannel channel;
+    private long generation;
+    private ByteBuffer pending = ByteBuffer.allocateDirect(RECORD_BYTES * BUFFER_RECORDS);
+    private ByteBuffer spare = ByteBuffer.allocateDirect(RECORD_BYTES * BUFFER_RECORDS);
+    private long nextSequence;
+    private long writtenSequence;  // records below this are in the file
+    private boolean flushing;      // a thread is writing outside the lock
+    private IOException failure;
+    private boolean closed;
+    private long forces;
+
+    // Records below this are forced to disk (read without the lock)
+    private volatile long durableSequence;
+
+    /**
+     * Open a generation's file for appending
+     *
+     * @param generation from Recovery.generation()
+     * @param nextSequence from Recovery.nextSequence()
+     * @param flushIntervalMillis how often ASYNC mode forces the file
+     */
+    public LedgerJournal(Path directory, long generation, long nextSequence,
+                         Durability durability, long flushIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.durability = durability;
+        this.generation = generation;
+        this.nextSequence = nextSequence;
+        this.writtenSequence = nextSequence;
+        this.durableSequence = nextSequence;
+        this.channel = openForAppend(directory, generation);
+
+        if (durability == Durability.ASYNC) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "LedgerJournal-Flusher");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(this::forceQuietly, flushIntervalMillis,
+                flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Replay every valid record from a generation and sequence onwards
+     *
+     * A torn or corrupt record at the end of the newest file (a crash in
+     * the middle of a write) is cut off. Anywhere else it means records
+     * after it cannot be trusted, and recovery fails.
+     */
+    public static Recovery replay(Path directory, long fromGeneration, long fromSequence,
+                                  Consumer<Entry> apply) throws IOException {
+        List<Long> generations = generations(directory);
+        long newest = generations.isEmpty() ? fromGeneration
+            : Math.max(fromGeneration, generations.get(generations.size() - 1));
+        long sequence = fromSequence;
+        long records = 0;
+        long truncated = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * BUFFER_RECORDS);
+
+        for (long generation : generations) {
+            if (generation < fromGeneration) {
+                continue;
+            }
+            Path file = fileOf(directory, generation);
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long validEnd = 0;
+                boolean corrupt = false;
+                buffer.clear();
+                while (!corrupt && in.read(buffer) > 0) {
+                    buffer.flip();
+                    while (buffer.remaining() >= RECORD_BYTES) {
+                        Entry entry = decode(buffer, sequence);
+                        if (entry == null) {
+                            corrupt = true;
+                            break;
+                        }
+                        apply.accept(entry);
+                        sequence++;
+                        records++;
+                        validEnd += RECORD_BYTES;
+                    }
+                    buffer.compact();
+                }
+
+                long size = in.size();
+                if (validEnd < size) {
+                    if (generation != newest) {
+                        throw new IOException("Corrupt record in " + file + " at byte " + validEnd);
+                    }
+                    truncated = size - validEnd;
+                    in.truncate(validEnd);
+                    in.force(true);
+                }
+            }
+        }
+        return new Recovery(newest, sequence, records, truncated);
+    }
+
+    /**
+     * Decode the next record, or null if it is damaged or out of sequence
+     */
+    private static Entry decode(ByteBuffer buffer, long expectedSequence) {
+        int start = buffer.position();
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start, CHECKED_BYTES));
+        long sequence = buffer.getLong();
+        byte type = buffer.get();
+        int account = buffer.getInt();
+        int other = buffer.getInt();
+        long cents = buffer.getLong();
+        int checksum = buffer.getInt();
+        if (checksum != (int) crc.getValue() || sequence != expectedSequence
+                || type < DEPOSIT || type > TRANSFER || cents <= 0) {
+            buffer.position(start);
+            return null;
+        }
+        return new Entry(sequence, type, account, other, cents);
+    }
+
+    /**
+     * Add a record to the log
+     *
+     * Call commit() with the returned sequence (after releasing any locks
+     * other appenders need) before telling anyone the change happened.
+     *
+     * @param other the second account of a transfer, -1 otherwise
+     * @return the record's sequence number
+     */
+    public long append(byte type, int account, int other, long cents) throws IOException {
+        lock.lock();
+        try {
+            checkUsable();
+            while (pending.remaining() < RECORD_BYTES) {
+                flushLocked(false);
+            }
+            long sequence = nextSequence++;
+            int start = pending.position();
+            pending.putLong(sequence).put(type).putInt(account).putInt(other).putLong(cents);
+            CRC32C crc = new CRC32C();
+            crc.update(pending.slice(start, CHECKED_BYTES));
+            pending.putInt((int) crc.getValue());
+
+            if (durability == Durability.SYNC) {
+                syncLocked();
+            }
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until a record is as durable as the mode promises
+     */
+    public void commit(long sequence) throws IOException {
+        if (durability == Durability.ASYNC || durableSequence > sequence) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durableSequence <= sequence) {
+                checkUsable();
+                if (flushing) {
+                    // The leader's batch may already include our record
+                    flushDone.awaitUninterruptibly();
+                } else {
+                    flushLocked(true);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Force everything appended so far, whatever the mode
+     */
+    public void force() throws IOException {
+        lock.lock();
+        try {
+            checkUsable();
+            flushLocked(true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Force the current file and continue in a new generation
+     *
+     * @return the new generation
+     */
+    public long rotate() throws IOException {
+        lock.lock();
+        try {
+            checkUsable();
+            flushLocked(true);
+            channel.close();
+            generation++;
+            channel = openForAppend(directory, generation);
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete the files of generations older than the given one
+     */
+    public void deleteBefore(long keepGeneration) throws IOException {
+        for (long old : generations(directory)) {
+            if (old < keepGeneration) {
+                Files.deleteIfExists(fileOf(directory, old));
+            }
+        }
+    }
+
+    /**
+     * SYNC mode: write and force while holding the lock, one record at a time
+     */
+    private void syncLocked() throws IOException {
+        try {
+            pending.flip();
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+            pending.clear();
+            channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        forces++;
+        writtenSequence = nextSequence;
+        durableSequence = nextSequence;
+    }
+
+    /**
+     * Write the buffered records, and force them if asked
+     *
+     * Called with the lock held. The lock is released during the I/O so
+     * other threads can keep appending into the second buffer; only one
+     * thread writes at a time (the flushing flag), which keeps the file in
+     * sequence order.
+     */
+    private void flushLocked(boolean force) throws IOException {
+        while (flushing) {
+            flushDone.awaitUninterruptibly();
+        }
+        checkUsable();
+        if (pending.position() == 0 && (!force || durableSequence == writtenSequence)) {
+            return;
+        }
+
+        flushing = true;
+        ByteBuffer batch = pending;
+        pending = spare;
+        spare = batch;
+        long upTo = nextSequence;
+        IOException error = null;
+        lock.unlock();
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            if (force) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+            batch.clear();
+            flushing = false;
+            if (error != null) {
+                failure = error;
+            } else {
+                writtenSequence = upTo;
+                if (force) {
+                    durableSequence = upTo;
+                    forces++;
+                }
+            }
+            flushDone.signalAll();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * ASYNC flusher thread: force whatever was appended since the last run
+     */
+    private void forceQuietly() {
+        lock.lock();
+        try {
+            if (!closed && failure == null) {
+                flushLocked(true);
+            }
+        } catch (IOException e) {
+            System.err.println("Journal flush failed: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new IOException("Journal failed earlier: " + failure.getMessage(), failure);
+        }
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public long getNextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Number of times the file was forced to disk */
+    public long getForces() {
+        lock.lock();
+        try {
+            return forces;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Force pending records and close the file
+     */
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            try {
+                if (failure == null) {
+                    flushLocked(true);
+                }
+            } finally {
+                closed = true;
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "LedgerJournal[" + durability + ", generation=" + generation +
+                ", next=" + nextSequence + ", durable=" + durableSequence + ", forces=" + forces + "]";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static FileChannel openForAppend(Path directory, long generation) throws IOException {
+        Path file = fileOf(directory, generation);
+        boolean created = !Files.exists(file);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        if (created) {
+            forceDirectory(directory);
+        }
+        return channel;
+    }
+
+    /**
+     * Make a new or renamed file's directory entry durable
+     *
+     * Needed on Linux; not every platform can open a directory, and there
+     * it is skipped.
+     */
+    static void forceDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported here (e.g. Windows)
+        }
+    }
+
+    private static Path fileOf(Path directory, long generation) {
+        return directory.resolve(String.format("%020d", generation) + SUFFIX);
+    }
+
+    private static List<Long> generations(Path directory) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                generations.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+}
@@ -0,0 +1,228 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MeasuredExecutor - TaskExecutor on Top of Any ExecutorService
+ *
+ * This class demonstrates:
+ * - Wrapping tasks in a FutureTask subclass to time them
+ * - A Semaphore as a bound on tasks in flight
+ * - Counting queued and running tasks without locks
+ *
+ * Every task moves QUEUED -> RUNNING -> FINISHED, or QUEUED -> FINISHED
+ * when it is cancelled before a thread picks it up. A compare-and-set
+ * decides which of the two happens, so a task is counted exactly once.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+class MeasuredExecutor implements TaskExecutor {
+
+    // Power-of-two buckets in microseconds, as in ChatLoadTest
+    private static final int BUCKETS = 40;
+
+    private final String name;
+    private final ExecutorService service;
+    private final Semaphore slots;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxQueued = new AtomicInteger();
+    private final AtomicLongArray queueBuckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray runBuckets = new AtomicLongArray(BUCKETS);
+
+    MeasuredExecutor(String name, ExecutorService service, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.name = name;
+        this.service = service;
+        this.slots = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public <T> Handle<T> submit(String taskName, Callable<T> task) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to submit " + taskName);
+        }
+        MeasuredTask<T> measured = new MeasuredTask<>(taskName, task);
+        submitted.increment();
+        maxQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+        try {
+            service.execute(measured);
+        } catch (RejectedExecutionException e) {
+            measured.cancel(false); // gives the slot back through done()
+            throw e;
+        }
+        return measured;
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats(name, submitted.sum(), completed.sum(), failed.sum(), cancelled.sum(),
+            queued.get(), running.get(), maxQueued.get(),
+            percentile(queueBuckets, 0.50), percentile(queueBuckets, 0.99),
+            percentile(runBuckets, 0.50), percentile(runBuckets, 0.99));
+    }
+
+    @Override
+    public void close() {
+        service.shutdown();
+        try {
+            while (!service.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.err.println(name + ": still waiting for " + running.get() + " running tasks");
+            }
+        } catch (InterruptedException e) {
+            service.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TaskExecutor[" + name + "]";
+    }
+
+    private void finished(MeasuredTask<?> task, boolean ran) {
+        if (ran) {
+            running.decrementAndGet();
+            record(queueBuckets, task.startNanos - task.submitNanos);
+            record(runBuckets, task.endNanos - task.startNanos);
+        } else {
+            queued.decrementAndGet();
+        }
+        switch (task.state()) {
+            case SUCCESS -> completed.increment();
+            case FAILED -> failed.increment();
+            default -> cancelled.increment();
+        }
+        slots.release();
+    }
+
+    private static void record(AtomicLongArray buckets, long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+    }
+
+    /**
+     * Upper bound (in microseconds) of the bucket holding the percentile
+     */
+    private static long percentile(AtomicLongArray buckets, double fraction) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << BUCKETS;
+    }
+
+    /**
+     * A task with timestamps and a single place where it is counted
+     */
+    private final class MeasuredTask<T> extends FutureTask<T> implements Handle<T> {
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int FINISHED = 2;
+
+        private final String taskName;
+        private final AtomicInteger phase = new AtomicInteger(QUEUED);
+        private final CountDownLatch exited = new CountDownLatch(1);
+        private final long submitNanos = System.nanoTime();
+        private volatile long startNanos;
+        private volatile long endNanos;
+
+        MeasuredTask(String taskName, Callable<T> callable) {
+            super(callable);
+            this.taskName = taskName;
+        }
+
+        @Override
+        public void run() {
+            if (!phase.compareAndSet(QUEUED, RUNNING)) {
+                return; // cancelled while queued
+            }
+            startNanos = System.nanoTime();
+            queued.decrementAndGet();
+            running.incrementAndGet();
+            try {
+                super.run();
+            } finally {
+                endNanos = System.nanoTime();
+                phase.set(FINISHED);
+                finished(this, true);
+                exited.countDown();
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (phase.compareAndSet(QUEUED, FINISHED)) {
+                startNanos = endNanos = System.nanoTime();
+                finished(this, false);
+                exited.countDown();
+            }
+        }
+
+        @Override
+        public String name() {
+            return taskName;
+        }
+
+        @Override
+        public long queueNanos() {
+            long start = startNanos;
+            return start == 0 ? System.nanoTime() - submitNanos : start - submitNanos;
+        }
+
+        @Override
+        public long runNanos() {
+            long start = startNanos;
+            long end = endNanos;
+            if (start == 0) {
+                return 0;
+            }
+            return (end == 0 ? System.nanoTime() : end) - start;
+        }
+
+        @Override
+        public void awaitExit() throws InterruptedException {
+            exited.await();
+        }
+
+        @Override
+        public String toString() {
+            return taskName + " [" + state() + "]";
+        }
+    }
+}
@@ -0,0 +1,562 @@
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ParallelReducer - Fork/Join Reductions over Ranges and Arrays
+ *
+ * This class demonstrates:
+ * - Splitting work recursively with ForkJoinPool and RecursiveTask
+ * - Pluggable associative operations (sum, product, min, max)
+ * - Detecting long overflow, or avoiding it with BigInteger
+ * - Adaptive granularity: split more while other workers are idle
+ *
+ * A reduction combines many values into one with an associative operation
+ * such as +. Because (a + b) + c equals a + (b + c), the input can be cut
+ * in halves, each half reduced on its own thread and the two results
+ * combined. Each half is cut again until pieces are small enough to
+ * reduce with a plain loop.
+ *
+ * How small is small enough? Too many tiny tasks cost more to schedule
+ * than they save; too few big ones leave cores idle when one piece runs
+ * longer. A task therefore keeps splitting while it is bigger than
+ * size / (parallelism * LEAVES_PER_WORKER). Once it is within four times
+ * that size, it only splits if few of its tasks are still queued
+ * (getSurplusQueuedTaskCount): many queued tasks mean no worker is idle
+ * and waiting to steal one.
+ *
+ * Sources: a range of longs (from inclusive, to exclusive), a long[] or
+ * an int[]. Each operation has its own loop for each source, so the loop
+ * works on primitives and the JIT can compile it tightly.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class ParallelReducer {
+
+    /**
+     * An associative operation with its loops for each source
+     *
+     * combine(a, combine(b, c)) must equal combine(combine(a, b), c), and
+     * reducing an empty piece must give a value combine() ignores.
+     */
+    public interface Operation<R> {
+        String name();
+
+        R reduceRange(long from, long to);
+
+        R reduce(long[] values, int from, int to);
+
+        R reduce(int[] values, int from, int to);
+
+        R combine(R left, R right);
+
+        /**
+         * The value that combined with anything gives itself (0 for a
+         * product), or null if there is none
+         *
+         * When one piece reduces to it, an ArithmeticException from
+         * another piece is ignored, so the answer does not depend on
+         * where the input was cut.
+         */
+        default R absorbing() {
+            return null;
+        }
+    }
+
+    /** Sum as a long; throws ArithmeticException on overflow */
+    public static final Operation<Long> SUM = new ExactSum();
+    /** Sum as a BigInteger (never overflows) */
+    public static final Operation<BigInteger> BIG_SUM = new BigSum();
+    /**
+     * Product as a long: 0 if any value is 0, otherwise the product, or
+     * ArithmeticException if its magnitude does not fit in a long
+     *
+     * Long.MIN_VALUE counts as not fitting: its magnitude is one more than
+     * Long.MAX_VALUE, so some cuts of the input would overflow on the way
+     * and others not.
+     */
+    public static final Operation<Long> PRODUCT = new ExactProduct();
+    /** Product as a BigInteger (never overflows) */
+    public static final Operation<BigInteger> BIG_PRODUCT = new BigProduct();
+    /** Smallest value; Long.MAX_VALUE for empty input */
+    public static final Operation<Long> MIN = new Min();
+    /** Largest value; Long.MIN_VALUE for empty input */
+    public static final Operation<Long> MAX = new Max();
+
+    // Target number of leaf tasks per worker thread
+    private static final int LEAVES_PER_WORKER = 8;
+    // Never split pieces below this size
+    private static final int MIN_LEAF = 1024;
+    // Stop splitting when this many of our own tasks are queued
+    private static final int SURPLUS_LIMIT = 3;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Use the common pool (one worker per core, minus one)
+     */
+    public ParallelReducer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelReducer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Reduce the values from (inclusive) to to (exclusive)
+     */
+    public <R> R reduce(long from, long to, Operation<R> operation) {
+        if (to < from) {
+            throw new IllegalArgumentException("empty range must have to >= from: " + from + ".." + to);
+        }
+        Math.subtractExact(to, from); // the size must fit in a long
+        return pool.invoke(new RangeTask<>(operation, from, to, leafSize(to - from)));
+    }
+
+    public <R> R reduce(long[] values, Operation<R> operation) {
+        return pool.invoke(new LongArrayTask<>(operation, values, 0, values.length, leafSize(values.length)));
+    }
+
+    public <R> R reduce(int[] values, Operation<R> operation) {
+        return pool.invoke(new IntArrayTask<>(operation, values, 0, values.length, leafSize(values.length)));
+    }
+
+    private long leafSize(long size) {
+        return Math.max(MIN_LEAF, size / ((long) pool.getParallelism() * LEAVES_PER_WORKER));
+    }
+
+    /**
+     * Whether a piece of this size should be split further
+     */
+    private static boolean shouldSplit(long size, long leafSize) {
+        return size > leafSize
+            && (size >= leafSize * 4 || RecursiveTask.getSurplusQueuedTaskCount() <= SURPLUS_LIMIT);
+    }
+
+    /**
+     * Reduce the left half here while the right half is forked, then
+     * combine them
+     *
+     * A half that overflowed does not matter if the other half is the
+     * operation's absorbing value (0 for PRODUCT).
+     */
+    private static <R> R forkAndCombine(Operation<R> operation, RecursiveTask<R> left, RecursiveTask<R> right) {
+        right.fork();
+        R leftResult;
+        try {
+            leftResult = left.invoke();
+        } catch (ArithmeticException e) {
+            R rightResult = right.join();
+            if (rightResult != null && rightResult.equals(operation.absorbing())) {
+                return rightResult;
+            }
+            throw e;
+        }
+        R rightResult;
+        try {
+            rightResult = right.join();
+        } catch (ArithmeticException e) {
+            if (leftResult != null && leftResult.equals(operation.absorbing())) {
+                return leftResult;
+            }
+            throw e;
+        }
+        return operation.combine(leftResult, rightResult);
+    }
+
+    private static final class RangeTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Operation<R> operation; // tasks are never serialized
+        private final long from;
+        private final long to;
+        private final long leafSize;
+
+        RangeTask(Operation<R> operation, long from, long to, long leafSize) {
+            this.operation = operation;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected R compute() {
+            long size = to - from;
+            if (!shouldSplit(size, leafSize)) {
+                return operation.reduceRange(from, to);
+            }
+            long middle = from + size / 2;
+            return forkAndCombine(operation, new RangeTask<>(operation, from, middle, leafSize),
+                new RangeTask<>(operation, middle, to, leafSize));
+        }
+    }
+
+    private static final class LongArrayTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Operation<R> operation;
+        private final long[] values;
+        private final int from;
+        private final int to;
+        private final long leafSize;
+
+        LongArrayTask(Operation<R> operation, long[] values, int from, int to, long leafSize) {
+            this.operation = operation;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected R compute() {
+            if (!shouldSplit(to - from, leafSize)) {
+                return operation.reduce(values, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            return forkAndCombine(operation, new LongArrayTask<>(operation, values, from, middle, leafSize),
+                new LongArrayTask<>(operation, values, middle, to, leafSize));
+        }
+    }
+
+    private static final class IntArrayTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Operation<R> operation;
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final long leafSize;
+
+        IntArrayTask(Operation<R> operation, int[] values, int from, int to, long leafSize) {
+            this.operation = operation;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected R compute() {
+            if (!shouldSplit(to - from, leafSize)) {
+                return operation.reduce(values, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            return forkAndCombine(operation, new IntArrayTask<>(operation, values, from, middle, leafSize),
+                new IntArrayTask<>(operation, values, middle, to, leafSize));
+        }
+    }
+
+    private static final class ExactSum implements Operation<Long> {
+        @Override
+        public String name() {
+            return "sum";
+        }
+
+        @Override
+        public Long reduceRange(long from, long to) {
+            long sum = 0;
+            for (long i = from; i < to; i++) {
+                sum = Math.addExact(sum, i);
+            }
+            return sum;
+        }
+
+        @Override
+        public Long reduce(long[] values, int from, int to) {
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                sum = Math.addExact(sum, values[i]);
+            }
+            return sum;
+        }
+
+        @Override
+        public Long reduce(int[] values, int from, int to) {
+            // Fewer than 2^32 ints cannot overflow a long
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += values[i];
+            }
+            return sum;
+        }
+
+        @Override
+        public Long combine(Long left, Long right) {
+            return Math.addExact(left, right);
+        }
+    }
+
+    private static final class ExactProduct implements Operation<Long> {
+        @Override
+        public String name() {
+            return "product";
+        }
+
+        @Override
+        public Long reduceRange(long from, long to) {
+            if (from <= 0 && 0 < to) {
+                return 0L; // zero is a factor
+            }
+            long product = 1;
+            for (long i = from; i < to; i++) {
+                product = multiply(product, i);
+            }
+            return product;
+        }
+
+        @Override
+        public Long reduce(long[] values, int from, int to) {
+            long product = 1;
+            for (int i = from; i < to; i++) {
+                try {
+                    product = multiply(product, values[i]);
+                } catch (ArithmeticException e) {
+                    // A zero later in the piece still makes it 0
+                    for (int j = i + 1; j < to; j++) {
+                        if (values[j] == 0) {
+                            return 0L;
+                        }
+                    }
+                    throw e;
+                }
+            }
+            return product;
+        }
+
+        @Override
+        public Long reduce(int[] values, int from, int to) {
+            long product = 1;
+            for (int i = from; i < to; i++) {
+                try {
+                    product = multiply(product, values[i]);
+                } catch (ArithmeticException e) {
+                    for (int j = i + 1; j < to; j++) {
+                        if (values[j] == 0) {
+                            return 0L;
+                        }
+                    }
+                    throw e;
+                }
+            }
+            return product;
+        }
+
+        @Override
+        public Long combine(Long left, Long right) {
+            return multiply(left, right);
+        }
+
+        @Override
+        public Long absorbing() {
+            return 0L;
+        }
+
+        /**
+         * Without zeros, every partial product is at most as large as the
+         * whole one, so a partial product that does not fit means the whole
+         * one does not either, however the input was cut
+         */
+        private static long multiply(long a, long b) {
+            long product = Math.multiplyExact(a, b);
+            if (product == Long.MIN_VALUE) {
+                throw new ArithmeticException("long overflow");
+            }
+            return product;
+        }
+    }
+
+    /**
+     * Adds in a long and moves the total into a BigInteger only when the
+     * next addition would overflow
+     */
+    private static final class BigSum implements Operation<BigInteger> {
+        @Override
+        public String name() {
+            return "big sum";
+        }
+
+        @Override
+        public BigInteger reduceRange(long from, long to) {
+            BigInteger total = BigInteger.ZERO;
+            long sum = 0;
+            for (long i = from; i < to; i++) {
+                long next = sum + i;
+                if (((sum ^ next) & (i ^ next)) < 0) { // overflowed
+                    total = total.add(BigInteger.valueOf(sum));
+                    next = i;
+                }
+                sum = next;
+            }
+            return total.add(BigInteger.valueOf(sum));
+        }
+
+        @Override
+        public BigInteger reduce(long[] values, int from, int to) {
+            BigInteger total = BigInteger.ZERO;
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                long value = values[i];
+                long next = sum + value;
+                if (((sum ^ next) & (value ^ next)) < 0) {
+                    total = total.add(BigInteger.valueOf(sum));
+                    next = value;
+                }
+                sum = next;
+            }
+            return total.add(BigInteger.valueOf(sum));
+        }
+
+        @Override
+        public BigInteger reduce(int[] values, int from, int to) {
+            return BigInteger.valueOf(SUM.reduce(values, from, to));
+        }
+
+        @Override
+        public BigInteger combine(BigInteger left, BigInteger right) {
+            return left.add(right);
+        }
+    }
+
+    /**
+     * Multiplies in a long and moves the product into a BigInteger only
+     * when the next multiplication would overflow
+     */
+    private static final class BigProduct implements Operation<BigInteger> {
+        @Override
+        public String name() {
+            return "big product";
+        }
+
+        @Override
+        public BigInteger reduceRange(long from, long to) {
+            BigInteger total = BigInteger.ONE;
+            long product = 1;
+            for (long i = from; i < to; i++) {
+                long high = Math.multiplyHigh(product, i);
+                long low = product * i;
+                if (high != (low >> 63)) { // does not fit in a long
+                    total = total.multiply(BigInteger.valueOf(product));
+                    low = i;
+                }
+                product = low;
+            }
+            return total.multiply(BigInteger.valueOf(product));
+        }
+
+        @Override
+        public BigInteger reduce(long[] values, int from, int to) {
+            BigInteger total = BigInteger.ONE;
+            long product = 1;
+            for (int i = from; i < to; i++) {
+                long value = values[i];
+                long high = Math.multiplyHigh(product, value);
+                long low = product * value;
+                if (high != (low >> 63)) {
+                    total = total.multiply(BigInteger.valueOf(product));
+                    low = value;
+                }
+                product = low;
+            }
+            return total.multiply(BigInteger.valueOf(product));
+        }
+
+        @Override
+        public BigInteger reduce(int[] values, int from, int to) {
+            BigInteger total = BigInteger.ONE;
+            long product = 1;
+            for (int i = from; i < to; i++) {
+                long value = values[i];
+                long high = Math.multiplyHigh(product, value);
+                long low = product * value;
+                if (high != (low >> 63)) {
+                    total = total.multiply(BigInteger.valueOf(product));
+                    low = value;
+                }
+                product = low;
+            }
+            return total.multiply(BigInteger.valueOf(product));
+        }
+
+        @Override
+        public BigInteger combine(BigInteger left, BigInteger right) {
+            return left.multiply(right);
+        }
+    }
+
+    private static final class Min implements Operation<Long> {
+        @Override
+        public String name() {
+            return "min";
+        }
+
+        @Override
+        public Long reduceRange(long from, long to) {
+            return from < to ? from : Long.MAX_VALUE;
+        }
+
+        @Override
+        public Long reduce(long[] values, int from, int to) {
+            long min = Long.MAX_VALUE;
+            for (int i = from; i < to; i++) {
+                min = Math.min(min, values[i]);
+            }
+            return min;
+        }
+
+        @Override
+        public Long reduce(int[] values, int from, int to) {
+            long min = Long.MAX_VALUE;
+            for (int i = from; i < to; i++) {
+                min = Math.min(min, values[i]);
+            }
+            return min;
+        }
+
+        @Override
+        public Long combine(Long left, Long right) {
+            return Math.min(left, right);
+        }
+    }
+
+    private static final class Max implements Operation<Long> {
+        @Override
+        public String name() {
+            return "max";
+        }
+
+        @Override
+        public Long reduceRange(long from, long to) {
+            return from < to ? to - 1 : Long.MIN_VALUE;
+        }
+
+        @Override
+        public Long reduce(long[] values, int from, int to) {
+            long max = Long.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                max = Math.max(max, values[i]);
+            }
+            return max;
+        }
+
+        @Override
+        public Long reduce(int[] values, int from, int to) {
+            long max = Long.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                max = Math.max(max, values[i]);
+            }
+            return max;
+        }
+
+        @Override
+        public Long combine(Long left, Long right) {
+            return Math.max(left, right);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * ParallelReducerBenchmark - Fork/Join Reductions versus Loops and Streams
+ *
+ * This program demonstrates:
+ * - Measuring speed-up as the number of worker threads grows
+ * - Comparing a hand-written fork/join reduction with parallel streams
+ * - Running a parallel stream in a chosen ForkJoinPool
+ * - Checking that all versions compute the same result
+ * - Checking that PRODUCT gives the same answer however the input is cut
+ *
+ * Each workload runs three ways:
+ * - sequential: the operation's own loop over the whole input, one thread
+ * - fork/join:  ParallelReducer on a pool with the given parallelism
+ * - stream:     the equivalent parallel stream, run inside the same pool
+ *               (a stream started from a pool worker uses that pool)
+ *
+ * Note that LongStream.sum() does not detect overflow, while
+ * ParallelReducer.SUM checks every addition.
+ *
+ * Usage: java ParallelReducerBenchmark [scale]   (default: 1.0)
+ *   scale multiplies every input size
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class ParallelReducerBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * One workload in its three versions
+     */
+    private record Workload(String name, Supplier<Object> sequential,
+                            Function<ParallelReducer, Object> forkJoin,
+                            Supplier<Object> stream) {
+    }
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) {
+        double scale = args.length > 0 ? Double.parseDouble(args[0]) : 1.0;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║   Parallel Reduction Benchmark    ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+        System.out.println("Available cores: " + cores + " | Best of " + MEASURED_ROUNDS + " rounds\n");
+
+        long rangeEnd = (long) (300_000_000 * scale);
+        long[] values = new Random(42).longs((int) (20_000_000 * scale)).toArray();
+        long factorialOf = (long) (30_000 * scale);
+
+        List<Workload> workloads = List.of(
+            new Workload(String.format("sum 0..%,d", rangeEnd),
+                () -> ParallelReducer.SUM.reduceRange(0, rangeEnd),
+                reducer -> reducer.reduce(0, rangeEnd, ParallelReducer.SUM),
+                () -> LongStream.range(0, rangeEnd).parallel().sum()),
+            new Workload(String.format("min of %,d longs", values.length),
+                () -> ParallelReducer.MIN.reduce(values, 0, values.length),
+                reducer -> reducer.reduce(values, ParallelReducer.MIN),
+                () -> Arrays.stream(values).parallel().min().orElse(Long.MAX_VALUE)),
+            new Workload(String.format("%,d! (BigInteger)", factorialOf),
+                () -> ParallelReducer.BIG_PRODUCT.reduceRange(1, factorialOf + 1),
+                reducer -> reducer.reduce(1, factorialOf + 1, ParallelReducer.BIG_PRODUCT),
+                () -> LongStream.rangeClosed(1, factorialOf).parallel()
+                    .mapToObj(BigInteger::valueOf).reduce(BigInteger.ONE, BigInteger::multiply))
+        );
+
+        System.out.printf("%-24s %6s %12s %12s %12s %9s%n",
+            "Workload", "Cores", "Sequential", "Fork/join", "Stream", "Speed-up");
+        System.out.println("=".repeat(80));
+        boolean consistent = true;
+        for (Workload workload : workloads) {
+            Object[] expected = new Object[1];
+            double sequential = bestMillis(() -> expected[0] = workload.sequential().get());
+            for (int parallelism : coreCounts(cores)) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                ParallelReducer reducer = new ParallelReducer(pool);
+                Object[] results = new Object[2];
+                double forkJoin = bestMillis(() -> results[0] = workload.forkJoin().apply(reducer));
+                double stream = bestMillis(() -> results[1] = pool.submit(workload.stream()::get).join());
+                pool.shutdown();
+
+                boolean same = Objects.equals(expected[0], results[0]) && Objects.equals(expected[0], results[1]);
+                consistent &= same;
+                System.out.printf("%-24s %6d %9.1f ms %9.1f ms %9.1f ms %8.2fx%s%n", workload.name(),
+                    parallelism, sequential, forkJoin, stream, sequential / forkJoin,
+                    same ? "" : "  ✗ results differ");
+            }
+            System.out.println("-".repeat(80));
+        }
+        consistent &= checkProductAnyCut(Math.max(cores, 4));
+        System.out.println(consistent
+            ? "✓ All versions computed the same results"
+            : "✗ Some results differ");
+        if (!consistent) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Overflowing runs of 3s with a zero at the very end must give 0, and
+     * without the zero must throw, on every run and like the plain loop,
+     * even though the pieces are cut differently each time
+     */
+    private static boolean checkProductAnyCut(int parallelism) {
+        long[] withZero = new long[100_000];
+        Arrays.fill(withZero, 3);
+        withZero[withZero.length - 1] = 0;
+        long[] withoutZero = new long[100_000];
+        Arrays.fill(withoutZero, 3);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        ParallelReducer reducer = new ParallelReducer(pool);
+        boolean same = ParallelReducer.PRODUCT.reduce(withZero, 0, withZero.length) == 0;
+        for (int run = 0; run < 200; run++) {
+            same &= reducer.reduce(withZero, ParallelReducer.PRODUCT) == 0;
+            try {
+                reducer.reduce(withoutZero, ParallelReducer.PRODUCT);
+                same = false;
+            } catch (ArithmeticException e) {
+                // expected every time
+            }
+        }
+        pool.shutdown();
+        System.out.println(same
+            ? "✓ PRODUCT gave the same answer on 200 differently cut runs"
+            : "✗ PRODUCT depends on where the input is cut");
+        return same;
+    }
+
+    /**
+     * 1, 2, 4, ... up to the number of cores (always including it)
+     */
+    private static List<Integer> coreCounts(int cores) {
+        List<Integer> counts = new ArrayList<>();
+        for (int count = 1; count < cores; count *= 2) {
+            counts.add(count);
+        }
+        counts.add(cores);
+        return counts;
+    }
+
+    private static double bestMillis(Runnable run) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            run.run();
+            double millis = (System.nanoTime() - start) / 1e6;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.min(best, millis);
+            }
+        }
+        return best;
+    }
+}
@@ -1,66 +1,95 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * RaceTrackDemo - Synchronized Methods and Thread Coordination
+ * RaceTrackDemo - Semaphores and Thread Coordination
  * 
  * This program demonstrates:
- * - Synchronized methods preventing race conditions
+ * - Per-stage Semaphores limiting how many cars share a stage
  * - Multiple threads accessing shared resource
- * - Thread-safe execution
+ * - Thread-safe counters without synchronized methods
  * - Thread naming and identification
- * - Critical section protection
+ * - Simulating thousands of cars on virtual threads with TrackSimulation
  * 
  * Original: RacerCarDemo practical
  * 
  * Scenario: Multiple race cars competing on a common track section
  * 
+ * Usage: java RaceTrackDemo [simulatedCars]   (default: 5,000)
+ * 
  * @author BICT Advanced Java Course
  * @version 1.0
  */
 
 /**
  * RaceTrack - Shared resource representing common track section
- * Only one car can pass through at a time (synchronized)
+ * Each stage holds a limited number of cars (one Semaphore per stage),
+ * so cars follow each other through the stages instead of taking turns
+ * on the whole section
  */
 class RaceTrack implements Runnable {
-    private int carsFinished = 0;
+    private final AtomicInteger carsFinished = new AtomicInteger();
     private static final int TRACK_STAGES = 5;
+    private final Semaphore[] stages = new Semaphore[TRACK_STAGES];
+    
+    public RaceTrack(int carsPerStage) {
+        for (int i = 0; i < TRACK_STAGES; i++) {
+            stages[i] = new Semaphore(carsPerStage, true); // fair: first come, first in
+        }
+    }
     
     /**
-     * Synchronized run method - ensures only one car on track at a time
+     * Not synchronized - the stage semaphores decide who may drive where
      */
     @Override
-    public synchronized void run() {
+    public void run() {
         navigateCommonSection();
     }
     
     /**
-     * Cars must navigate this common section one at a time
+     * Cars enter the next stage before leaving the current one
      */
     private void navigateCommonSection() {
         String carName = Thread.currentThread().getName();
         
         System.out.println("\n🏁 [" + carName + "] Entering common track section...");
         
-        for (int stage = 1; stage <= TRACK_STAGES; stage++) {
-            System.out.printf("   🚗 [%s] Stage %d/%d%n", carName, stage, TRACK_STAGES);
-            
-            try {
+        Semaphore held = null;
+        try {
+            for (int stage = 1; stage <= TRACK_STAGES; stage++) {
+                Semaphore next = stages[stage - 1];
+                next.acquire(); // wait for room in the next stage...
+                if (held != null) {
+                    held.release(); // ...before giving up this one
+                }
+                held = next;
+                System.out.printf("   🚗 [%s] Stage %d/%d%n", carName, stage, TRACK_STAGES);
+                
                 // Simulate time to navigate each stage
                 Thread.sleep(500);
-            } catch (InterruptedException e) {
-                System.err.println("Race interrupted for " + carName);
-                return;
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Race interrupted for " + carName);
+            return;
+        } finally {
+            if (held != null) {
+                held.release();
             }
         }
         
-        carsFinished++;
-        System.out.println("✅ [" + carName + "] Completed track! Position: #" + carsFinished);
+        int position = carsFinished.incrementAndGet();
+        System.out.println("✅ [" + carName + "] Completed track! Position: #" + position);
     }
     
     /**
      * Get total cars that finished
      */
-    public synchronized int getCarsFinished() {
-        return carsFinished;
+    public int getCarsFinished() {
+        return carsFinished.get();
     }
 }
 
@@ -68,9 +97,11 @@ class RaceTrack implements Runnable {
  * RaceCar - Represents a racing car that creates competitor threads
  */
 class RaceCar implements Runnable {
+    private final int carsPerStage;
     private final String[] carNames;
     
-    public RaceCar(String... carNames) {
+    public RaceCar(int carsPerStage, String... carNames) {
+        this.carsPerStage = carsPerStage;
         this.carNames = carNames;
     }
     
@@ -78,7 +109,7 @@ class RaceCar implements Runnable {
     public void run() {
         System.out.println("🏎️  Starting race with " + carNames.length + " cars!");
         
-        RaceTrack track = new RaceTrack();
+        RaceTrack track = new RaceTrack(carsPerStage);
         Thread[] carThreads = new Thread[carNames.length];
         
         // Create and start threads for each car
@@ -114,10 +145,10 @@ public class RaceTrackDemo {
      */
     public static void basicRace() {
         System.out.println("╔════════════════════════════════════════════╗");
-        System.out.println("║      Basic Race - Synchronized Track      ║");
+        System.out.println("║     Basic Race - One Car per Stage        ║");
         System.out.println("╚════════════════════════════════════════════╝");
         
-        RaceCar race = new RaceCar("Ferrari", "Lamborghini", "Porsche");
+        RaceCar race = new RaceCar(1, "Ferrari", "Lamborghini", "Porsche");
         Thread raceThread = new Thread(race, "Race-Controller");
         raceThread.start();
         
@@ -129,21 +160,21 @@ public class RaceTrackDemo {
     }
     
     /**
-     * Demonstrate what happens without synchronization
+     * Compare one lock around the track with a semaphore per stage
      */
-    public static void demonstrateUnsynchronized() {
+    public static void compareWithSynchronized() {
         System.out.println("\n\n╔════════════════════════════════════════════╗");
-        System.out.println("║   Unsynchronized Access Demonstration     ║");
+        System.out.println("║   Synchronized vs Per-Stage Semaphores    ║");
         System.out.println("╚════════════════════════════════════════════╝");
         
-        System.out.println("⚠️  Without synchronization, output would be:");
-        System.out.println("   - Interleaved and confusing");
-        System.out.println("   - Race conditions possible");
-        System.out.println("   - Unpredictable results");
-        System.out.println("\n✅ With synchronized methods:");
-        System.out.println("   - Orderly execution");
-        System.out.println("   - Thread-safe access");
-        System.out.println("   - Predictable results\n");
+        System.out.println("⚠️  A synchronized run() around the whole section:");
+        System.out.println("   - Only one car on the track at a time");
+        System.out.println("   - 3 cars x 5 stages x 500 ms = 7.5 s");
+        System.out.println("   - Adding cars only adds waiting");
+        System.out.println("\n✅ With one Semaphore per stage:");
+        System.out.println("   - Cars follow each other through the stages");
+        System.out.println("   - Each stage still admits a safe number of cars");
+        System.out.println("   - The same 3 cars finish in about 3.5 s\n");
     }
     
     /**
@@ -154,7 +185,7 @@ public class RaceTrackDemo {
         System.out.println("║     Large Race - 5 Cars Competition       ║");
         System.out.println("╚════════════════════════════════════════════╝");
         
-        RaceCar race = new RaceCar(
+        RaceCar race = new RaceCar(2,
             "Red Bull Racing",
             "Mercedes AMG",
             "McLaren",
@@ -173,30 +204,109 @@ public class RaceTrackDemo {
     }
     
     /**
-     * Main method demonstrating synchronized thread coordination
+     * Demonstrate thousands of cars on virtual threads in simulated time
+     */
+    public static void simulatedRace(int cars) {
+        System.out.println("\n╔════════════════════════════════════════════╗");
+        System.out.println("║    Simulated Race - Virtual Threads       ║");
+        System.out.println("╚════════════════════════════════════════════╝");
+        
+        List<TrackSimulation.Stage> stages = List.of(
+            new TrackSimulation.Stage("Start straight", 20, 2_000),
+            new TrackSimulation.Stage("Chicane", 6, 1_500),
+            new TrackSimulation.Stage("Back straight", 20, 3_000),
+            new TrackSimulation.Stage("Hairpin", 2, 600),
+            new TrackSimulation.Stage("Pit straight", 20, 2_500)
+        );
+        TrackSimulation simulation = new TrackSimulation(TrackClock.simulated(), stages, 42);
+        
+        System.out.printf("🏎️  %,d cars, one starting every 100 ms of track time%n%n", cars);
+        TrackSimulation.Report report;
+        try {
+            report = simulation.run(cars, 100);
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+            return;
+        }
+        
+        System.out.printf("%-16s %8s %8s %12s %10s %9s %9s %10s%n",
+            "Stage", "Capacity", "Cars", "Avg wait", "Max wait", "Max cars", "Cars/s", "Occupied");
+        System.out.println("=".repeat(90));
+        for (TrackSimulation.StageReport stage : report.stages()) {
+            System.out.printf("%-16s %8d %,8d %10.1f s %8.1f s %9d %9.2f %9.0f%%%n",
+                stage.name(), stage.capacity(), stage.cars(), stage.waitMillisAvg() / 1000.0,
+                stage.waitMillisMax() / 1000.0, stage.maxCars(), stage.carsPerSecond(),
+                stage.occupancy() * 100);
+        }
+        System.out.println("=".repeat(90));
+        
+        // The hairpin is the bottleneck: 2 cars per 600 ms
+        double hairpin = report.stages().get(3).carsPerSecond();
+        System.out.printf("📊 %,d cars raced %.1f minutes of track time in %,d ms of real time%n",
+            report.cars(), report.trackMillis() / 60_000.0, report.wallMillis());
+        System.out.printf("%s Hairpin throughput %.2f cars/s (capacity / stage time = %.2f)%n",
+            Math.abs(hairpin - 2 / 0.6) < 0.1 * (2 / 0.6) ? "✓" : "✗", hairpin, 2 / 0.6);
+        
+        // The same race as discrete events: one thread, same result every run
+        TrackSimulation.Report events = simulation.simulate(cars, 100);
+        boolean repeatable = events.stages().equals(simulation.simulate(cars, 100).stages());
+        System.out.printf("%n📊 Event-driven engine: %.1f minutes of track time in %,d ms%n",
+            events.trackMillis() / 60_000.0, events.wallMillis());
+        System.out.println(repeatable
+            ? "✓ Two event-driven runs with the same seed gave identical results"
+            : "✗ Event-driven runs differ");
+        
+        // Independent races with other seeds, in parallel across the cores
+        List<Callable<TrackSimulation.Report>> races = new ArrayList<>();
+        for (long seed = 1; seed <= 8; seed++) {
+            TrackSimulation race = new TrackSimulation(TrackClock.simulated(), stages, seed);
+            races.add(() -> race.simulate(cars, 100));
+        }
+        try {
+            long start = System.nanoTime();
+            List<TrackSimulation.Report> reports = EventScheduler.runAll(races, Runtime.getRuntime().availableProcessors());
+            long fastest = Long.MAX_VALUE;
+            long slowest = 0;
+            for (TrackSimulation.Report race : reports) {
+                fastest = Math.min(fastest, race.trackMillis());
+                slowest = Math.max(slowest, race.trackMillis());
+            }
+            System.out.printf("📊 %d seeds in parallel in %,d ms: race length %.1f to %.1f minutes%n",
+                reports.size(), (System.nanoTime() - start) / 1_000_000, fastest / 60_000.0, slowest / 60_000.0);
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Main method demonstrating semaphore-based thread coordination
      */
     public static void main(String[] args) {
         System.out.println("\n🏁 Race Track Synchronization Demonstration");
-        System.out.println("Advanced Threading: synchronized, Thread Coordination\n");
+        System.out.println("Advanced Threading: Semaphores, Virtual Threads, Thread Coordination\n");
         
         // Demo 1: Basic 3-car race
         basicRace();
         
-        // Demo 2: Explain synchronization benefits
-        demonstrateUnsynchronized();
+        // Demo 2: Compare one lock with per-stage semaphores
+        compareWithSynchronized();
         
         // Demo 3: Larger 5-car race
         largeRace();
         
+        // Demo 4: Thousands of cars in simulated time
+        simulatedRace(args.length > 0 ? Integer.parseInt(args[0]) : 5_000);
+        
         System.out.println("\n" + "=".repeat(50));
         System.out.println("Race Track Demo Completed!");
         System.out.println("Key Concepts Demonstrated:");
-        System.out.println("  ✓ Synchronized methods");
-        System.out.println("  ✓ Critical section protection");
+        System.out.println("  ✓ Semaphores limiting each stage");
+        System.out.println("  ✓ Holding one stage while waiting for the next");
         System.out.println("  ✓ Thread-safe shared resources");
         System.out.println("  ✓ Thread.join() for coordination");
         System.out.println("  ✓ Multiple threads competing for resource");
-        System.out.println("  ✓ Preventing race conditions");
+        System.out.println("  ✓ Virtual threads and a simulated clock");
+        System.out.println("  ✓ Discrete-event simulation with EventScheduler");
         System.out.println("=".repeat(50));
     }
 }
@@ -1,3 +1,5 @@
+import java.util.concurrent.ExecutionException;
+
 /**
  * RunnableThreadDemo - Runnable Interface Implementation
  *
@@ -6,6 +8,10 @@
  * - Thread object creation and starting
  * - Getting thread name and ID
  * - Multiple threads executing concurrently
+ * - Handing the same Runnables to a TaskExecutor instead
+ *
+ * Usage: java RunnableThreadDemo [platform|work-stealing|virtual]
+ *   with no argument each Runnable gets its own Thread
  *
  * Original: Java-Design-Patterns/RunnableThread/
  * 
@@ -50,12 +56,17 @@ public class RunnableThreadDemo {
         System.out.println("║   Multiple Threads with Runnable       ║");
         System.out.println("╚════════════════════════════════════════╝\n");
 
-        System.out.println("📌 Creating threads using Runnable interface...\n");
-
         // Create Runnable instances
         MyThreadInter g1 = new MyThreadInter();
         MyThreadInter g2 = new MyThreadInter();
         
+        if (args.length > 0) {
+            runOnExecutor(args[0], g1, g2);
+            return;
+        }
+        
+        System.out.println("📌 Creating threads using Runnable interface...\n");
+
         // Create Thread objects with Runnable
         Thread t1 = new Thread(g1, "Worker-1");
         Thread t2 = new Thread(g2, "Worker-2");
@@ -90,4 +101,33 @@ public class RunnableThreadDemo {
         System.out.println("✓ Runnable: Better for task-based design");
         System.out.println("✓ Thread: Simpler but limits inheritance");
     }
+
+    /**
+     * Run the Runnables as tasks; the names printed are the executor's threads
+     */
+    private static void runOnExecutor(String kind, Runnable... workers) {
+        System.out.println("📌 Submitting Runnables to a " + kind + " executor...\n");
+        
+        try (TaskExecutor executor = TaskExecutor.of(kind, 2, 100)) {
+            try (TaskScope scope = new TaskScope(executor)) {
+                for (int i = 0; i < workers.length; i++) {
+                    scope.fork("Worker-" + (i + 1), workers[i]);
+                }
+                scope.join();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+            
+            TaskExecutor.Stats stats = executor.stats();
+            System.out.println("=".repeat(50));
+            System.out.printf("✅ %s ran %d tasks (run p99 ≤ %d ms)%n", executor.name(),
+                stats.completed(), stats.runP99Micros() / 1000);
+            System.out.println("=".repeat(50));
+        }
+        
+        System.out.println("\n💡 EXECUTOR vs NEW THREAD:");
+        System.out.println("✓ Executor: threads are reused, no join() per thread");
+        System.out.println("✓ Executor: the number of threads (or tasks in flight) is bounded");
+        System.out.println("✓ Virtual threads: cheap enough for one thread per task");
+    }
 }
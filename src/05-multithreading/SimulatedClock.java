@@ -0,0 +1,198 @@
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SimulatedClock - Discrete-Time Clock for Many Concurrent Cars
+ *
+ * This class demonstrates:
+ * - Advancing time only when every participant is blocked
+ * - A priority queue of wake-up times
+ * - Semaphore-like gates that hand permits over in FIFO order
+ * - One Condition per waiting thread, so a wake-up is never lost
+ *
+ * The clock counts the registered cars that are not waiting ("active").
+ * When that count drops to zero, nothing can happen until somebody wakes
+ * up, so the clock jumps to the earliest wake-up time and wakes every car
+ * due at that moment. A released gate permit goes straight to the car at
+ * the head of the gate's queue, which becomes active again before the
+ * releasing car can wait, so time never moves past a car that could run.
+ *
+ * All state is guarded by one lock; the cars do only a few operations each
+ * per stage, so thousands of virtual threads share it without trouble.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+class SimulatedClock implements TrackClock {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> timers = new PriorityQueue<>(
+        Comparator.comparingLong((Waiter w) -> w.wakeAt).thenComparingLong(w -> w.order));
+    private long now;
+    private long order;
+    private int active;
+
+    @Override
+    public long now() {
+        lock.lock();
+        try {
+            return now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (millis <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(null);
+            waiter.wakeAt = now + millis;
+            timers.add(waiter);
+            await(waiter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Gate gate(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        return new SimulatedGate(capacity);
+    }
+
+    @Override
+    public void register(int cars) {
+        lock.lock();
+        try {
+            active += cars;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deregister() {
+        lock.lock();
+        try {
+            active--;
+            advanceIfIdle();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until woken; the caller holds the lock and has queued the waiter
+     */
+    private void await(Waiter waiter) throws InterruptedException {
+        active--;
+        advanceIfIdle();
+        try {
+            while (!waiter.released) {
+                waiter.ready.await();
+            }
+        } catch (InterruptedException e) {
+            if (!waiter.released) {
+                if (waiter.gate == null) {
+                    timers.remove(waiter);
+                } else {
+                    waiter.gate.queue.remove(waiter);
+                }
+                active++;
+            } else if (waiter.gate != null) {
+                waiter.gate.releaseLocked(); // woken with a permit we no longer want
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Jump to the next wake-up while nobody can make progress
+     */
+    private void advanceIfIdle() {
+        while (active == 0 && !timers.isEmpty()) {
+            long next = timers.peek().wakeAt;
+            now = next;
+            while (!timers.isEmpty() && timers.peek().wakeAt == next) {
+                wake(timers.poll());
+            }
+        }
+    }
+
+    private void wake(Waiter waiter) {
+        waiter.released = true;
+        active++;
+        waiter.ready.signal();
+    }
+
+    /**
+     * A thread waiting for a time or for a gate permit
+     */
+    private final class Waiter {
+        final Condition ready = lock.newCondition();
+        final SimulatedGate gate;
+        final long order = SimulatedClock.this.order++;
+        long wakeAt;
+        boolean released;
+
+        Waiter(SimulatedGate gate) {
+            this.gate = gate;
+        }
+    }
+
+    /**
+     * FIFO gate: a released permit goes to the longest-waiting car
+     */
+    private final class SimulatedGate implements Gate {
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        private int free;
+
+        SimulatedGate(int capacity) {
+            this.free = capacity;
+        }
+
+        @Override
+        public void acquire() throws InterruptedException {
+            lock.lock();
+            try {
+                if (free > 0 && queue.isEmpty()) {
+                    free--;
+                    return;
+                }
+                Waiter waiter = new Waiter(this);
+                queue.add(waiter);
+                await(waiter);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void release() {
+            lock.lock();
+            try {
+                releaseLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void releaseLocked() {
+            Waiter next = queue.poll();
+            if (next != null) {
+                wake(next);
+            } else {
+                free++;
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * StripedLedger - Atomic Transfers Between Many Accounts with Lock Striping
+ *
+ * This class demonstrates:
+ * - Lock striping: a fixed set of locks, each guarding many accounts
+ * - Deadlock-free locking by always acquiring locks in ascending order
+ * - Transfers (and batches of transfers) that apply completely or not at all
+ * - Reading a consistent total while transfers are running
+ *
+ * Account i is guarded by stripe i % stripes. One lock per account would
+ * cost an object per account; one lock for the whole ledger would let only
+ * one transfer run at a time. About a thousand stripes keep memory small
+ * while two random transfers rarely need the same lock.
+ *
+ * A transfer needs the locks of both accounts. If one thread locks A then
+ * B while another locks B then A, each can end up holding the lock the
+ * other is waiting for: a deadlock. Here every operation sorts the stripes
+ * it needs and locks them lowest first, so no cycle of waiting threads
+ * can form.
+ *
+ * Balances are long cents and can never go below zero: a transfer the
+ * source cannot cover, or one that would overflow the destination's
+ * balance, is rejected without changing anything.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class StripedLedger {
+
+    public static final int DEFAULT_STRIPES = 1024;
+
+    /**
+     * One leg of a batch: move cents from one account to another
+     */
+    public record Transfer(int from, int to, long cents) {
+        public Transfer {
+            checkTransfer(from, to, cents);
+        }
+    }
+
+    /**
+     * Runs right after a change is applied, while its locks are still held
+     *
+     * If it throws, the change is undone before the locks are released
+     * and the exception is passed on. DurableLedger logs changes this way,
+     * so its log has them in the order they were applied.
+     */
+    @FunctionalInterface
+    public interface Commit<E extends Exception> {
+        void run() throws E;
+    }
+
+    private final long[] balances;
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Create accounts 0 to accounts - 1, each with the opening balance
+     */
+    public StripedLedger(int accounts, long openingCents) {
+        this(accounts, openingCents, DEFAULT_STRIPES);
+    }
+
+    public StripedLedger(int accounts, long openingCents, int stripeCount) {
+        if (accounts <= 0 || stripeCount <= 0) {
+            throw new IllegalArgumentException("accounts and stripes must be positive");
+        }
+        if (openingCents < 0) {
+            throw new IllegalArgumentException("opening balance must not be negative");
+        }
+        balances = new long[accounts];
+        Arrays.fill(balances, openingCents);
+        stripes = newStripes(Math.min(stripeCount, accounts));
+    }
+
+    /**
+     * Create one account per entry, with the given balances (for example
+     * balances restored from disk)
+     */
+    public StripedLedger(long[] openingBalances, int stripeCount) {
+        if (openingBalances.length == 0 || stripeCount <= 0) {
+            throw new IllegalArgumentException("accounts and stripes must be positive");
+        }
+        for (long balance : openingBalances) {
+            if (balance < 0) {
+                throw new IllegalArgumentException("opening balance must not be negative");
+            }
+        }
+        balances = openingBalances.clone();
+        stripes = newStripes(Math.min(stripeCount, openingBalances.length));
+    }
+
+    private static ReentrantLock[] newStripes(int count) {
+        ReentrantLock[] stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    /**
+     * Move money from one account to another
+     *
+     * @return true if moved, false if the source balance was too low or
+     *         the destination balance would overflow
+     */
+    public boolean transfer(int from, int to, long cents) {
+        return transfer(from, to, cents, null);
+    }
+
+    /**
+     * Move money, running commit (if not null) before the locks are released
+     */
+    public <E extends Exception> boolean transfer(int from, int to, long cents, Commit<E> commit) throws E {
+        checkTransfer(from, to, cents);
+        checkAccount(from);
+        checkAccount(to);
+        int first = stripeOf(from);
+        int second = stripeOf(to);
+        if (first > second) {
+            int swap = first;
+            first = second;
+            second = swap;
+        }
+
+        stripes[first].lock();
+        try {
+            if (second != first) {
+                stripes[second].lock();
+            }
+            try {
+                if (balances[from] < cents) {
+                    return false;
+                }
+                long credited;
+                try {
+                    credited = Math.addExact(balances[to], cents);
+                } catch (ArithmeticException e) {
+                    return false;
+                }
+                balances[from] -= cents;
+                balances[to] = credited;
+                runCommit(commit, () -> {
+                    balances[to] -= cents;
+                    balances[from] += cents;
+                });
+                return true;
+            } finally {
+                if (second != first) {
+                    stripes[second].unlock();
+                }
+            }
+        } finally {
+            stripes[first].unlock();
+        }
+    }
+
+    /**
+     * Apply several transfers as one: either all of them or none
+     *
+     * Legs are applied in the given order, so money received by an earlier
+     * leg can pay for a later one.
+     *
+     * @return true if applied, false if some leg could not be covered or
+     *         would overflow its destination balance
+     */
+    public boolean transferAll(Transfer... transfers) {
+        int[] needed = new int[transfers.length * 2];
+        for (int i = 0; i < transfers.length; i++) {
+            checkAccount(transfers[i].from());
+            checkAccount(transfers[i].to());
+            needed[2 * i] = stripeOf(transfers[i].from());
+            needed[2 * i + 1] = stripeOf(transfers[i].to());
+        }
+        int[] ordered = Arrays.stream(needed).sorted().distinct().toArray();
+
+        int locked = 0;
+        try {
+            for (int stripe : ordered) {
+                stripes[stripe].lock();
+                locked++;
+            }
+            int applied = 0;
+            for (Transfer transfer : transfers) {
+                if (balances[transfer.from()] < transfer.cents()) {
+                    break;
+                }
+                long credited;
+                try {
+                    credited = Math.addExact(balances[transfer.to()], transfer.cents());
+                } catch (ArithmeticException e) {
+                    break;
+                }
+                balances[transfer.from()] -= transfer.cents();
+                balances[transfer.to()] = credited;
+                applied++;
+            }
+            if (applied == transfers.length) {
+                return true;
+            }
+            // Undo the legs already applied, newest first
+            for (int i = applied - 1; i >= 0; i--) {
+                balances[transfers[i].to()] -= transfers[i].cents();
+                balances[transfers[i].from()] += transfers[i].cents();
+            }
+            return false;
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[ordered[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Add money to an account from outside the ledger
+     */
+    public void deposit(int account, long cents) {
+        deposit(account, cents, null);
+    }
+
+    /**
+     * Add money, running commit (if not null) before the lock is released
+     */
+    public <E extends Exception> void deposit(int account, long cents, Commit<E> commit) throws E {
+        checkAccount(account);
+        if (cents <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + cents);
+        }
+        ReentrantLock lock = stripes[stripeOf(account)];
+        lock.lock();
+        try {
+            balances[account] = Math.addExact(balances[account], cents);
+            runCommit(commit, () -> balances[account] -= cents);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take money out of an account
+     *
+     * @return true if taken, false if the balance was too low
+     */
+    public boolean withdraw(int account, long cents) {
+        return withdraw(account, cents, null);
+    }
+
+    /**
+     * Take money out, running commit (if not null) before the lock is released
+     */
+    public <E extends Exception> boolean withdraw(int account, long cents, Commit<E> commit) throws E {
+        checkAccount(account);
+        if (cents <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + cents);
+        }
+        ReentrantLock lock = stripes[stripeOf(account)];
+        lock.lock();
+        try {
+            if (balances[account] < cents) {
+                return false;
+            }
+            balances[account] -= cents;
+            runCommit(commit, () -> balances[account] += cents);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBalance(int account) {
+        checkAccount(account);
+        ReentrantLock lock = stripes[stripeOf(account)];
+        lock.lock();
+        try {
+            return balances[account];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sum of all balances at one instant
+     *
+     * Takes every stripe (in order), so it waits for running transfers and
+     * blocks new ones while it adds up. Meant for checks, not hot paths.
+     */
+    public long totalBalance() {
+        return withAllLocked(() -> {
+            long total = 0;
+            for (long balance : balances) {
+                total += balance;
+            }
+            return total;
+        });
+    }
+
+    /**
+     * Copy of all balances at one instant
+     */
+    public long[] snapshot() {
+        return withAllLocked(balances::clone);
+    }
+
+    /**
+     * Run a commit hook; if it throws, undo the change and pass the exception on
+     */
+    private static <E extends Exception> void runCommit(Commit<E> commit, Runnable undo) throws E {
+        if (commit == null) {
+            return;
+        }
+        boolean committed = false;
+        try {
+            commit.run();
+            committed = true;
+        } finally {
+            if (!committed) {
+                undo.run();
+            }
+        }
+    }
+
+    private <T> T withAllLocked(Supplier<T> action) {
+        int locked = 0;
+        try {
+            for (ReentrantLock stripe : stripes) {
+                stripe.lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    public int getAccountCount() {
+        return balances.length;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    private int stripeOf(int account) {
+        return account % stripes.length;
+    }
+
+    private static void checkTransfer(int from, int to, long cents) {
+        if (from == to) {
+            throw new IllegalArgumentException("cannot transfer to the same account: " + from);
+        }
+        if (cents <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + cents);
+        }
+    }
+
+    private void checkAccount(int account) {
+        if (account < 0 || account >= balances.length) {
+            throw new IndexOutOfBoundsException("no account " + account);
+        }
+    }
+}
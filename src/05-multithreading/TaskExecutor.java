@@ -0,0 +1,137 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TaskExecutor - One Interface for Pooled, Work-Stealing and Virtual Threads
+ *
+ * This interface demonstrates:
+ * - Running tasks without creating and joining a Thread per task
+ * - Bounding the number of tasks in flight (back-pressure on submit)
+ * - Measuring every task: time waiting in the queue and time running
+ * - Swapping the thread model without changing the workload
+ *
+ * Three kinds of executor:
+ * - platform:     a fixed pool of ordinary (platform) threads sharing one
+ *                 FIFO queue, like Executors.newFixedThreadPool
+ * - work-stealing: a ForkJoinPool; each worker has its own queue and idle
+ *                 workers steal from busy ones
+ * - virtual:      one virtual thread per task. A virtual thread that blocks
+ *                 (sleep, I/O, locks) frees its carrier thread, so
+ *                 thousands of blocking tasks are cheap
+ *
+ * Every executor admits at most maxInFlight tasks (queued plus running);
+ * submit() waits for a slot when that many are in flight, so a fast
+ * producer cannot fill memory with queued tasks.
+ *
+ * Use TaskScope to run a group of tasks that must finish (or be
+ * cancelled) together.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public interface TaskExecutor extends AutoCloseable {
+
+    /**
+     * A submitted task: a Future that also knows its name and timings
+     */
+    interface Handle<T> extends Future<T> {
+        String name();
+
+        /** Nanoseconds between submit and start (or until cancelled unstarted) */
+        long queueNanos();
+
+        /** Nanoseconds the task ran (0 if it never started) */
+        long runNanos();
+
+        /**
+         * Wait until the task is finished and its thread has left it
+         *
+         * Unlike get(), this also waits for a cancelled task that was
+         * running to notice the interrupt and return.
+         */
+        void awaitExit() throws InterruptedException;
+    }
+
+    /**
+     * Counters and latency percentiles since the executor was created
+     *
+     * Percentiles come from power-of-two buckets, so each is an upper bound
+     * within a factor of two.
+     */
+    record Stats(String executor, long submitted, long completed, long failed, long cancelled,
+                 int queued, int running, int maxQueued,
+                 long queueP50Micros, long queueP99Micros, long runP50Micros, long runP99Micros) {
+    }
+
+    String name();
+
+    /**
+     * Submit a task, waiting for a free slot if maxInFlight tasks are in flight
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the
+     *         executor is closed, or the caller is interrupted while waiting
+     */
+    <T> Handle<T> submit(String name, Callable<T> task);
+
+    default Handle<Void> submit(String name, Runnable task) {
+        return submit(name, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    Stats stats();
+
+    /**
+     * Stop accepting tasks and wait for the submitted ones to finish
+     */
+    @Override
+    void close();
+
+    /**
+     * Fixed pool of platform threads with one shared queue
+     */
+    static TaskExecutor platform(int threads, int maxInFlight) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), r -> new Thread(r, "platform-" + count.incrementAndGet()));
+        return new MeasuredExecutor("platform(" + threads + ")", pool, maxInFlight);
+    }
+
+    /**
+     * ForkJoinPool with one work-stealing queue per worker
+     */
+    static TaskExecutor workStealing(int parallelism, int maxInFlight) {
+        return new MeasuredExecutor("work-stealing(" + parallelism + ")",
+            new ForkJoinPool(parallelism), maxInFlight);
+    }
+
+    /**
+     * A new virtual thread for every task
+     */
+    static TaskExecutor virtual(int maxInFlight) {
+        return new MeasuredExecutor("virtual",
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("virtual-", 1).factory()), maxInFlight);
+    }
+
+    /**
+     * Create an executor by kind: "platform", "work-stealing" or "virtual"
+     *
+     * @param threads pool size for the pooled kinds
+     */
+    static TaskExecutor of(String kind, int threads, int maxInFlight) {
+        return switch (kind) {
+            case "platform" -> platform(threads, maxInFlight);
+            case "work-stealing" -> workStealing(threads, maxInFlight);
+            case "virtual" -> virtual(maxInFlight);
+            default -> throw new IllegalArgumentException(
+                "Unknown executor '" + kind + "' (use platform, work-stealing or virtual)");
+        };
+    }
+}
@@ -0,0 +1,229 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * TaskScope - Structured Cancellation for a Group of Tasks
+ *
+ * This class demonstrates:
+ * - Tasks that cannot outlive the block of code that started them
+ * - Cancelling the remaining tasks when one fails (fail fast)
+ * - Cancelling everything when a deadline passes
+ *
+ * Typical use:
+ * <pre>
+ *   try (TaskScope scope = new TaskScope(executor)) {
+ *       TaskExecutor.Handle&lt;Long&gt; a = scope.fork("a", () -&gt; work(1));
+ *       TaskExecutor.Handle&lt;Long&gt; b = scope.fork("b", () -&gt; work(2));
+ *       scope.join();                // throws if a or b failed
+ *       return a.get() + b.get();
+ *   }
+ * </pre>
+ *
+ * When one task throws, the scope records the first exception and cancels
+ * (interrupts) the others. close() cancels whatever is still running and
+ * waits until every task's thread has left it, so after the try block no
+ * task of the scope is still running.
+ *
+ * This is the idea behind the JDK's StructuredTaskScope, which is still a
+ * preview API in Java 21, built from ordinary executor tasks.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class TaskScope implements AutoCloseable {
+
+    private final TaskExecutor executor;
+    private final List<TaskExecutor.Handle<?>> tasks = new ArrayList<>();
+    private Throwable failure;
+    private ScopedTask<?> failedTask;
+    private boolean cancelled;
+    private boolean closed;
+
+    public TaskScope(TaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Start a task in this scope
+     *
+     * @throws IllegalStateException if the scope is closed or cancelled, or a task failed
+     */
+    public <T> TaskExecutor.Handle<T> fork(String name, Callable<T> task) {
+        synchronized (this) {
+            if (closed || cancelled) {
+                throw new IllegalStateException("Scope is " + (closed ? "closed" : "cancelled"));
+            }
+            if (failure != null) {
+                throw new IllegalStateException("A task in this scope already failed", failure);
+            }
+        }
+        ScopedTask<T> scoped = new ScopedTask<>(task);
+        TaskExecutor.Handle<T> handle = executor.submit(name, scoped);
+        boolean cancel;
+        synchronized (this) {
+            scoped.handle = handle;
+            tasks.add(handle);
+            // Another task may have failed while this one was submitted
+            cancel = (failure != null && failedTask != scoped) || cancelled || closed;
+        }
+        if (cancel) {
+            handle.cancel(true);
+        }
+        return handle;
+    }
+
+    /**
+     * Start a task that returns no result in this scope
+     */
+    public TaskExecutor.Handle<Void> fork(String name, Runnable task) {
+        return fork(name, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wait for every task; throw the first failure, if any
+     */
+    public void join() throws InterruptedException, ExecutionException {
+        for (TaskExecutor.Handle<?> task : snapshot()) {
+            task.awaitExit();
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Wait at most the given time; on timeout cancel every task
+     *
+     * @throws TimeoutException if tasks were still running at the deadline
+     */
+    public void join(Duration timeout) throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (TaskExecutor.Handle<?> task : snapshot()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !awaitGet(task, remaining)) {
+                cancelAll();
+                throw new TimeoutException("Scope did not finish within " + timeout.toMillis() + " ms");
+            }
+            task.awaitExit();
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Cancel (interrupt) every task that has not finished yet
+     */
+    public void cancelAll() {
+        synchronized (this) {
+            cancelled = true;
+        }
+        cancelAllExcept(null);
+    }
+
+    /**
+     * Cancel unfinished tasks and wait until all of them have stopped
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        cancelAll();
+        boolean interrupted = false;
+        for (TaskExecutor.Handle<?> task : snapshot()) {
+            while (true) {
+                try {
+                    task.awaitExit();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void failed(ScopedTask<?> task, Throwable e) {
+        TaskExecutor.Handle<?> self;
+        synchronized (this) {
+            // After a cancel, tasks fail because they were interrupted
+            if (failure != null || cancelled) {
+                return;
+            }
+            failure = e;
+            failedTask = task;
+            self = task.handle; // null if fork() has not registered it yet
+        }
+        // The failed task stays failed rather than being reported as cancelled
+        cancelAllExcept(self);
+    }
+
+    private void cancelAllExcept(TaskExecutor.Handle<?> keep) {
+        for (TaskExecutor.Handle<?> task : snapshot()) {
+            if (task != keep) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    private void throwIfFailed() throws ExecutionException {
+        Throwable first;
+        synchronized (this) {
+            first = failure;
+        }
+        if (first != null) {
+            throw new ExecutionException(first);
+        }
+    }
+
+    /**
+     * Wait for a task to complete, not counting how it completed
+     *
+     * @return false on timeout
+     */
+    private static boolean awaitGet(TaskExecutor.Handle<?> task, long nanos) throws InterruptedException {
+        try {
+            task.get(nanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | CancellationException e) {
+            // Failures are reported through throwIfFailed()
+        } catch (TimeoutException e) {
+            return false;
+        }
+        return true;
+    }
+
+    private synchronized List<TaskExecutor.Handle<?>> snapshot() {
+        return new ArrayList<>(tasks);
+    }
+
+    /**
+     * The caller's task, reporting its exception to the scope
+     */
+    private final class ScopedTask<T> implements Callable<T> {
+        private final Callable<T> task;
+        private TaskExecutor.Handle<T> handle; // guarded by the scope
+
+        ScopedTask(Callable<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public T call() throws Exception {
+            try {
+                return task.call();
+            } catch (Throwable e) {
+                // An Error fails the scope too, or join() would report success
+                failed(this, e);
+                throw e;
+            }
+        }
+    }
+}
@@ -1,11 +1,30 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
 /**
  * ThreadCalculationDemo - Multiple Threading Examples
  *
  * Demonstrates:
+ * - Parallel sum, product, min and max with fork/join (ParallelReducer)
  * - Thread extending Thread class
  * - Synchronized methods with Runnable
  * - Thread priorities and sleep
  * - Sum, multiplication, and timer examples
+ * - Timers as events on a simulated clock (EventScheduler)
+ * 
+ * The sum and multiplication examples used to start one dedicated thread
+ * each for a ten-number loop. They now run on ParallelReducer, which
+ * splits large inputs across a ForkJoinPool.
+ *
+ * The timer demo runs on an EventScheduler, so its output is the same on
+ * every run and takes milliseconds instead of 11 seconds.
+ *
+ * Usage: java ThreadCalculationDemo [real-time]
+ *   real-time runs the timers as sleeping threads, as before
  *
  * Original: Java-Design-Patterns/SumThread/
  * 
@@ -13,44 +32,6 @@
  * @version 1.0
  */
 
-/**
- * ThreadDev - Thread for Sum Calculation
- * Extends Thread class directly
- */
-class ThreadDev extends Thread {
-
-    @Override
-    public void run() {
-        int sum = 0;
-        System.out.println("➕ Starting sum calculation in: " + getName());
-        
-        for (int i = 0; i < 11; i++) {
-            sum += i;
-        }
-        
-        System.out.println("✅ Sum Result: " + sum + " [Thread: " + getName() + ", ID: " + threadId() + "]\n");
-    }
-}
-
-/**
- * ThreadMultiplication - Thread for Multiplication
- * Calculates factorial
- */
-class ThreadMultiplication extends Thread {
-    
-    @Override
-    public void run() {
-        int multiplier = 1;
-        System.out.println("✖️  Starting multiplication in: " + getName());
-        
-        for (int i = 1; i < 11; i++) {
-            multiplier *= i;
-        }
-        
-        System.out.println("✅ Multiplication Result: " + multiplier + " [Thread: " + getName() + ", ID: " + threadId() + "]\n");
-    }
-}
-
 /**
  * Timer - Simple Timer Thread
  * Counts with sleep intervals
@@ -75,6 +56,16 @@ class Timer extends Thread {
         
         System.out.println("✅ Timer completed in: " + getName() + "\n");
     }
+    
+    /**
+     * The same counts as events on a simulated clock - no thread, no sleep
+     */
+    static void schedule(EventScheduler scheduler, String name) {
+        System.out.println("⏱️  Timer starting in: " + name + "\n");
+        scheduler.repeat(0, 1000, 11, count ->
+            System.out.println("   ⏰ Timer Count: " + count + " [" + name + "] t=" + scheduler.now() + " ms"));
+        scheduler.schedule(11 * 1000, () -> System.out.println("✅ Timer completed in: " + name + "\n"));
+    }
 }
 
 /**
@@ -110,6 +101,22 @@ class MyTimer implements Runnable {
         
         System.out.println("✅ " + Thread.currentThread().getName() + " completed!\n");
     }
+    
+    /**
+     * printNumbers() as events: a count every 500 simulated ms
+     *
+     * @param then runs when this timer is done, like leaving the
+     *             synchronized method lets the next thread in
+     */
+    static void schedulePrintNumbers(EventScheduler scheduler, String name, Runnable then) {
+        System.out.println("🔒 Synchronized timer starting: " + name + "\n");
+        scheduler.repeat(0, 500, 11, count ->
+            System.out.println("   " + name + " - Time: " + count + " t=" + scheduler.now() + " ms"));
+        scheduler.schedule(11 * 500, () -> {
+            System.out.println("✅ " + name + " completed!\n");
+            then.run();
+        });
+    }
 }
 
 /**
@@ -123,28 +130,75 @@ public class ThreadCalculationDemo {
         System.out.println("║   Sum, Multiplication, Timer Examples  ║");
         System.out.println("╚════════════════════════════════════════╝\n");
 
-        System.out.println("🎯 DEMO 1: Thread Calculations\n");
+        System.out.println("🎯 DEMO 1: Parallel Calculations (Fork/Join)\n");
+        
+        ParallelReducer reducer = new ParallelReducer();
+        System.out.println("⚙️  Fork/join pool parallelism: " + reducer.getParallelism() + "\n");
         
-        // Sum and Multiplication threads
-        ThreadDev sum = new ThreadDev();
-        sum.setName("SumThread");
-        sum.start();
+        // The original examples: 0 + 1 + ... + 10 and 1 * 2 * ... * 10
+        System.out.println("✅ Sum Result (0..10): " + reducer.reduce(0, 11, ParallelReducer.SUM));
+        System.out.println("✅ Multiplication Result (1..10): " + reducer.reduce(1, 11, ParallelReducer.PRODUCT) + "\n");
         
-        ThreadMultiplication mul = new ThreadMultiplication();
-        mul.setName("MultiplyThread");
-        mul.start();
+        // Large inputs are split across the pool's worker threads
+        long n = 100_000_000;
+        long start = System.nanoTime();
+        long total = reducer.reduce(0, n + 1, ParallelReducer.SUM);
+        System.out.printf("➕ Sum 0..%,d = %,d (%.1f ms)%n", n, total, millisSince(start));
         
         try {
-            sum.join();
-            mul.join();
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            reducer.reduce(1, 22, ParallelReducer.PRODUCT);
+        } catch (ArithmeticException e) {
+            System.out.println("⚠️  21! does not fit in a long (" + e.getClass().getSimpleName() + ")");
         }
+        start = System.nanoTime();
+        BigInteger factorial = reducer.reduce(1, 20_001, ParallelReducer.BIG_PRODUCT);
+        System.out.printf("✖️  20,000! computed with BigInteger: %,d digits (%.1f ms)%n",
+            factorial.toString().length(), millisSince(start));
+        
+        int[] readings = new Random(42).ints(10_000_000, -1_000_000, 1_000_000).toArray();
+        start = System.nanoTime();
+        long min = reducer.reduce(readings, ParallelReducer.MIN);
+        long max = reducer.reduce(readings, ParallelReducer.MAX);
+        System.out.printf("📊 Min/max of %,d readings: %,d / %,d (%.1f ms)%n%n",
+            readings.length, min, max, millisSince(start));
         
         System.out.println("─".repeat(50) + "\n");
         System.out.println("🎯 DEMO 2: Synchronized Timer\n");
         
+        if (args.length > 0 && args[0].equals("real-time")) {
+            runTimerThreads();
+        } else {
+            runSimulatedTimers();
+        }
+        
+        System.out.println("─".repeat(50) + "\n");
+        System.out.println("🎯 DEMO 3: Simulated Days in Parallel\n");
+        
+        simulateDays(8);
+        
+        System.out.println("=".repeat(50));
+        System.out.println("✅ All Threading Demos Completed!");
+        System.out.println("=".repeat(50));
+        
+        // Key Concepts
+        System.out.println("\n📚 KEY CONCEPTS:");
+        System.out.println("• ForkJoinPool: Splits a calculation across worker threads");
+        System.out.println("• Thread.sleep(): Pauses thread execution");
+        System.out.println("• EventScheduler: Simulated time, no sleeping threads");
+        System.out.println("• synchronized: Ensures one thread access at a time");
+        System.out.println("• join(): Waits for thread completion");
+        System.out.println("• setPriority(): Suggests thread execution priority");
+        
+        System.out.println("\n💡 THREAD SAFETY:");
+        System.out.println("✓ Synchronized methods prevent race conditions");
+        System.out.println("✓ Only ONE thread can execute synchronized method at once");
+        System.out.println("✓ Other threads wait until current thread completes");
+    }
+    
+    /**
+     * Two threads share one MyTimer and take turns on its synchronized method
+     */
+    private static void runTimerThreads() {
         // Synchronized timer with Runnable
         MyTimer timerTask = new MyTimer();
         
@@ -164,21 +218,62 @@ public class ThreadCalculationDemo {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+    }
+    
+    /**
+     * The same timers, plus a Timer, as events: same output on every run
+     */
+    private static void runSimulatedTimers() {
+        EventScheduler scheduler = new EventScheduler();
+        long start = System.nanoTime();
         
-        System.out.println("=".repeat(50));
-        System.out.println("✅ All Threading Demos Completed!");
-        System.out.println("=".repeat(50));
+        // Timer-B starts when Timer-A is done, as if waiting for the monitor
+        MyTimer.schedulePrintNumbers(scheduler, "Timer-A",
+            () -> MyTimer.schedulePrintNumbers(scheduler, "Timer-B", () -> { }));
+        Timer.schedule(scheduler, "Timer-Clock");
+        scheduler.run();
         
-        // Key Concepts
-        System.out.println("\n📚 KEY CONCEPTS:");
-        System.out.println("• Thread.sleep(): Pauses thread execution");
-        System.out.println("• synchronized: Ensures one thread access at a time");
-        System.out.println("• join(): Waits for thread completion");
-        System.out.println("• setPriority(): Suggests thread execution priority");
+        System.out.printf("⏱️  %.1f s of simulated time, %d events, in %.1f ms%n%n",
+            scheduler.now() / 1000.0, scheduler.getExecutedEvents(), millisSince(start));
+    }
+    
+    /**
+     * Independent simulations of a day of one-second ticks, one per core
+     */
+    private static void simulateDays(int days) {
+        List<Callable<Long>> simulations = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            long seed = day;
+            simulations.add(() -> {
+                // A tick every second; each tick adds a seeded random reading
+                EventScheduler scheduler = new EventScheduler();
+                Random random = new Random(seed);
+                long[] total = {0};
+                scheduler.repeat(0, 1000, 24 * 60 * 60, tick -> total[0] += random.nextInt(100));
+                scheduler.run();
+                return total[0];
+            });
+        }
         
-        System.out.println("\n💡 THREAD SAFETY:");
-        System.out.println("✓ Synchronized methods prevent race conditions");
-        System.out.println("✓ Only ONE thread can execute synchronized method at once");
-        System.out.println("✓ Other threads wait until current thread completes");
+        int cores = Runtime.getRuntime().availableProcessors();
+        try {
+            long start = System.nanoTime();
+            List<Long> first = EventScheduler.runAll(simulations, cores);
+            double millis = millisSince(start);
+            List<Long> second = EventScheduler.runAll(simulations, cores);
+            System.out.printf("📅 %d simulated days (%,d events) on %d cores in %.1f ms%n",
+                days, days * 24L * 60 * 60, cores, millis);
+            System.out.println("   Day totals: " + first);
+            System.out.println(first.equals(second)
+                ? "✓ A second run produced exactly the same totals"
+                : "✗ Runs differ: " + second);
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        System.out.println();
+    }
+    
+    private static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e6;
     }
 }
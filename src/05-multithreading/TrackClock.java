@@ -0,0 +1,103 @@
+import java.util.concurrent.Semaphore;
+
+/**
+ * TrackClock - Real or Simulated Time for a Track Simulation
+ *
+ * This interface demonstrates:
+ * - Hiding the source of time behind an interface
+ * - Running the same concurrent code in real time or in simulated time
+ * - Capacity gates that cooperate with the clock
+ *
+ * Two clocks:
+ * - real():      sleep() really sleeps and a gate is a fair Semaphore
+ * - simulated(): time only moves when every registered car is waiting,
+ *                and then jumps straight to the next wake-up. A race that
+ *                takes hours of track time finishes in milliseconds
+ *
+ * A simulated clock must know how many cars take part, so cars are
+ * registered before they start and deregister when they are done. Cars
+ * waiting for a gate also count as waiting, which is why gates come from
+ * the clock instead of being plain Semaphores.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public interface TrackClock {
+
+    /**
+     * Admits at most a fixed number of cars at a time, in arrival order
+     */
+    interface Gate {
+        void acquire() throws InterruptedException;
+
+        void release();
+    }
+
+    /**
+     * Milliseconds since the clock was created
+     */
+    long now();
+
+    void sleep(long millis) throws InterruptedException;
+
+    Gate gate(int capacity);
+
+    /**
+     * Announce cars before they start (no effect on the real clock)
+     */
+    void register(int cars);
+
+    /**
+     * A registered car has finished (no effect on the real clock)
+     */
+    void deregister();
+
+    static TrackClock real() {
+        return new RealTrackClock();
+    }
+
+    static TrackClock simulated() {
+        return new SimulatedClock();
+    }
+}
+
+/**
+ * Wall-clock time, Thread.sleep and fair semaphores
+ */
+class RealTrackClock implements TrackClock {
+    private final long start = System.nanoTime();
+
+    @Override
+    public long now() {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    @Override
+    public Gate gate(int capacity) {
+        Semaphore permits = new Semaphore(capacity, true);
+        return new Gate() {
+            @Override
+            public void acquire() throws InterruptedException {
+                permits.acquire();
+            }
+
+            @Override
+            public void release() {
+                permits.release();
+            }
+        };
+    }
+
+    @Override
+    public void register(int cars) {
+    }
+
+    @Override
+    public void deregister() {
+    }
+}
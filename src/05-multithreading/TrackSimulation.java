@@ -0,0 +1,312 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TrackSimulation - Cars Flowing Through a Pipeline of Track Stages
+ *
+ * This class demonstrates:
+ * - A capacity limit per stage instead of one lock around the whole track
+ * - Cars moving through the stages concurrently, like a pipeline
+ * - One virtual thread per car, thousands of cars at once
+ * - Measuring throughput, waiting time and occupancy per stage
+ *
+ * A car waits for room in the next stage while it still holds its place in
+ * the current one (it cannot leave the track in between), then drives the
+ * stage for the stage's time, give or take a seeded random 25%. A slow,
+ * narrow stage therefore backs cars up into the stages before it, and the
+ * whole track runs at the pace of its bottleneck: capacity / stage time.
+ *
+ * Run it with TrackClock.simulated() to race thousands of cars over hours
+ * of track time in well under a second of real time, or with
+ * TrackClock.real() to watch the same code use real sleeps. simulate()
+ * runs the same race as discrete events on an EventScheduler: one thread,
+ * no clock, and exactly the same result for the same seed every time.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class TrackSimulation {
+
+    /**
+     * One section of the track
+     *
+     * @param capacity cars allowed in the stage at the same time
+     * @param millis   average time to drive the stage
+     */
+    public record Stage(String name, int capacity, long millis) {
+        public Stage {
+            if (capacity <= 0 || millis < 0) {
+                throw new IllegalArgumentException("Stage " + name + " needs capacity > 0 and millis >= 0");
+            }
+        }
+    }
+
+    /**
+     * Results for one stage
+     *
+     * @param waitMillisAvg  average time a car waited to enter the stage
+     * @param carsPerSecond  cars through the stage per second of track time
+     * @param occupancy      share of the stage's places in use, 0..1
+     */
+    public record StageReport(String name, int capacity, long cars, double waitMillisAvg, long waitMillisMax,
+                              int maxCars, double carsPerSecond, double occupancy) {
+    }
+
+    /**
+     * Results for the whole race
+     *
+     * @param trackMillis time on the clock from the start to the last finish
+     * @param wallMillis  real time the simulation took
+     */
+    public record Report(int cars, long trackMillis, long wallMillis, List<StageReport> stages) {
+    }
+
+    private static final double JITTER = 0.25;
+
+    private final TrackClock clock;
+    private final List<Stage> stages;
+    private final long seed;
+
+    public TrackSimulation(TrackClock clock, List<Stage> stages, long seed) {
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("A track needs at least one stage");
+        }
+        this.clock = clock;
+        this.stages = List.copyOf(stages);
+        this.seed = seed;
+    }
+
+    /**
+     * Race the given number of cars, one starting every startIntervalMillis
+     *
+     * Every car runs on its own virtual thread. The clock is used by one
+     * race at a time.
+     */
+    public Report run(int cars, long startIntervalMillis) throws InterruptedException, ExecutionException {
+        List<StageState> states = new ArrayList<>();
+        for (Stage stage : stages) {
+            states.add(new StageState(stage, clock.gate(stage.capacity())));
+        }
+
+        long wallStart = System.nanoTime();
+        long start = clock.now();
+        // Register every car first, so simulated time waits for late starters
+        clock.register(cars);
+        try (TaskExecutor executor = TaskExecutor.virtual(Math.max(1, cars));
+             TaskScope scope = new TaskScope(executor)) {
+            for (int car = 0; car < cars; car++) {
+                long startAt = car * startIntervalMillis;
+                Random random = new Random(seed + car);
+                scope.fork("car-" + car, () -> {
+                    drive(states, start + startAt, random);
+                    return null;
+                });
+            }
+            scope.join();
+        }
+        long trackMillis = clock.now() - start;
+
+        List<StageReport> reports = new ArrayList<>();
+        for (StageState state : states) {
+            reports.add(state.report());
+        }
+        return new Report(cars, trackMillis, (System.nanoTime() - wallStart) / 1_000_000, reports);
+    }
+
+    /**
+     * One car: wait for its start, then drive every stage in order
+     */
+    private void drive(List<StageState> states, long startAt, Random random) throws InterruptedException {
+        StageState held = null;
+        long enteredAt = 0;
+        try {
+            clock.sleep(startAt - clock.now());
+            for (StageState next : states) {
+                long arrived = clock.now();
+                next.gate.acquire();
+                long now = clock.now();
+                if (held != null) {
+                    held.leave(now - enteredAt, now);
+                    held.gate.release();
+                }
+                held = next;
+                enteredAt = now;
+                next.enter(now - arrived, now);
+
+                clock.sleep(drivingMillis(next.stage, random));
+            }
+        } finally {
+            if (held != null) {
+                long now = clock.now();
+                held.leave(now - enteredAt, now);
+                held.gate.release();
+            }
+            clock.deregister();
+        }
+    }
+
+    /**
+     * The same race as run(), as discrete events on one thread
+     *
+     * The clock passed to the constructor is not used; time comes from a
+     * new EventScheduler. Safe to call from several threads at once.
+     */
+    public Report simulate(int cars, long startIntervalMillis) {
+        long wallStart = System.nanoTime();
+        EventScheduler scheduler = new EventScheduler();
+        EventRace race = new EventRace(scheduler);
+        for (int car = 0; car < cars; car++) {
+            EventCar eventCar = new EventCar(new Random(seed + car));
+            scheduler.scheduleAt(car * startIntervalMillis, () -> race.request(eventCar, 0));
+        }
+        scheduler.run();
+
+        List<StageReport> reports = new ArrayList<>();
+        for (StageState state : race.states) {
+            reports.add(state.report());
+        }
+        return new Report(cars, scheduler.now(), (System.nanoTime() - wallStart) / 1_000_000, reports);
+    }
+
+    /**
+     * Stage time give or take JITTER; one random number per stage per car
+     */
+    private static long drivingMillis(Stage stage, Random random) {
+        return Math.round(stage.millis() * (1 + JITTER * (2 * random.nextDouble() - 1)));
+    }
+
+    /**
+     * A car in the event-driven race
+     */
+    private static final class EventCar {
+        private final Random random;
+        private int stage = -1;
+        private long arrivedAt;
+        private long enteredAt;
+
+        EventCar(Random random) {
+            this.random = random;
+        }
+    }
+
+    /**
+     * Stage places and FIFO queues for simulate(), driven by events
+     *
+     * request -> (wait in the queue) -> admit -> drive -> request next stage,
+     * and a place handed back goes straight to the first car in the queue.
+     */
+    private final class EventRace {
+        private final EventScheduler scheduler;
+        private final List<StageState> states = new ArrayList<>();
+        private final List<ArrayDeque<EventCar>> queues = new ArrayList<>();
+        private final int[] free;
+
+        EventRace(EventScheduler scheduler) {
+            this.scheduler = scheduler;
+            this.free = new int[stages.size()];
+            for (int i = 0; i < stages.size(); i++) {
+                states.add(new StageState(stages.get(i), null));
+                queues.add(new ArrayDeque<>());
+                free[i] = stages.get(i).capacity();
+            }
+        }
+
+        void request(EventCar car, int stage) {
+            car.arrivedAt = scheduler.now();
+            if (free[stage] > 0 && queues.get(stage).isEmpty()) {
+                free[stage]--;
+                admit(car, stage);
+            } else {
+                queues.get(stage).add(car);
+            }
+        }
+
+        /**
+         * The car has a place in the stage: leave the previous one and drive
+         */
+        private void admit(EventCar car, int stage) {
+            long now = scheduler.now();
+            if (car.stage >= 0) {
+                leave(car);
+            }
+            StageState state = states.get(stage);
+            car.stage = stage;
+            car.enteredAt = now;
+            state.enter(now - car.arrivedAt, now);
+            scheduler.schedule(drivingMillis(state.stage, car.random), () -> driven(car));
+        }
+
+        private void driven(EventCar car) {
+            if (car.stage == states.size() - 1) {
+                leave(car);
+            } else {
+                request(car, car.stage + 1);
+            }
+        }
+
+        private void leave(EventCar car) {
+            long now = scheduler.now();
+            int stage = car.stage;
+            states.get(stage).leave(now - car.enteredAt, now);
+            EventCar next = queues.get(stage).poll();
+            if (next != null) {
+                admit(next, stage);
+            } else {
+                free[stage]++;
+            }
+        }
+    }
+
+    /**
+     * A stage's gate (null in simulate()) and counters
+     */
+    private static final class StageState {
+        private final Stage stage;
+        private final TrackClock.Gate gate;
+        private final LongAdder cars = new LongAdder();
+        private final LongAdder waitMillis = new LongAdder();
+        private final LongAdder occupiedMillis = new LongAdder();
+        private final AtomicLong maxWaitMillis = new AtomicLong();
+        private final AtomicLong firstEntry = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastExit = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger inside = new AtomicInteger();
+        private final AtomicInteger maxInside = new AtomicInteger();
+
+        StageState(Stage stage, TrackClock.Gate gate) {
+            this.stage = stage;
+            this.gate = gate;
+        }
+
+        void enter(long waited, long now) {
+            cars.increment();
+            waitMillis.add(waited);
+            maxWaitMillis.accumulateAndGet(waited, Math::max);
+            firstEntry.accumulateAndGet(now, Math::min);
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+        }
+
+        /**
+         * A car occupies its place until it is in the next stage
+         */
+        void leave(long occupied, long now) {
+            inside.decrementAndGet();
+            occupiedMillis.add(occupied);
+            lastExit.accumulateAndGet(now, Math::max);
+        }
+
+        StageReport report() {
+            long count = cars.sum();
+            long span = Math.max(1, lastExit.get() - firstEntry.get());
+            return new StageReport(stage.name(), stage.capacity(), count,
+                count == 0 ? 0 : (double) waitMillis.sum() / count, maxWaitMillis.get(), maxInside.get(),
+                count == 0 ? 0 : count * 1000.0 / span,
+                count == 0 ? 0 : (double) occupiedMillis.sum() / ((double) span * stage.capacity()));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TransferStressTest - Millions of Concurrent Transfers on a StripedLedger
+ *
+ * This program demonstrates:
+ * - Hammering a striped ledger with random transfers from every core
+ * - Checking invariants while the load runs, not only afterwards
+ * - Detecting deadlocks with ThreadMXBean instead of hanging forever
+ *
+ * Worker threads move random amounts between random accounts. One
+ * operation in BATCH_EVERY is a three-account batch (transferAll), so
+ * lock sets of different sizes overlap. Each worker records the net
+ * change it made to every account.
+ *
+ * Checks:
+ * - While running: an auditor repeatedly sums all balances, which must
+ *   always equal the opening total (money is only moved, never made)
+ * - At the end: no balance is negative, and every account equals its
+ *   opening balance plus the net changes the workers recorded for it
+ * - Throughout: if the workers do not finish in time, the JVM is asked
+ *   for deadlocked threads and the test fails
+ *
+ * Usage: java TransferStressTest [transfers] [accounts] [threads] [stripes]
+ *   defaults: 5,000,000 transfers, 100,000 accounts, one thread per core,
+ *   StripedLedger.DEFAULT_STRIPES stripes
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class TransferStressTest {
+
+    private static final long OPENING_CENTS = 10_000;
+    private static final int MAX_AMOUNT_CENTS = 5_000;
+    private static final int BATCH_EVERY = 50;
+    private static final long TIMEOUT_MINUTES = 10;
+
+    private static final LongAdder applied = new LongAdder();
+    private static final LongAdder rejected = new LongAdder();
+    private static final LongAdder batches = new LongAdder();
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long transfers = args.length > 0 ? Long.parseLong(args[0]) : 5_000_000;
+        int accounts = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int stripeCount = args.length > 3 ? Integer.parseInt(args[3]) : StripedLedger.DEFAULT_STRIPES;
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║     Transfer Stress Test          ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+
+        StripedLedger ledger = new StripedLedger(accounts, OPENING_CENTS, stripeCount);
+        long expectedTotal = accounts * OPENING_CENTS;
+        System.out.printf("Transfers: %,d | Accounts: %,d | Threads: %d | Stripes: %d%n",
+            transfers, accounts, threads, ledger.getStripeCount());
+        System.out.println("Opening total: " + LedgerAccount.format(expectedTotal) + "\n");
+
+        long[][] net = new long[threads][];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long share = transfers / threads + (t < transfers % threads ? 1 : 0);
+            int worker = t;
+            net[t] = new long[accounts];
+            workers[t] = new Thread(() -> runWorker(ledger, share, new SplittableRandom(42 + worker), net[worker]),
+                "Transfer-Worker-" + t);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder audits = new LongAdder();
+        LongAdder auditFailures = new LongAdder();
+        Thread auditor = new Thread(() -> {
+            while (running.get()) {
+                long total = ledger.totalBalance();
+                audits.increment();
+                if (total != expectedTotal) {
+                    auditFailures.increment();
+                    System.out.println("✗ Audit saw total " + LedgerAccount.format(total));
+                }
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "Transfer-Auditor");
+
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        auditor.start();
+
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(TIMEOUT_MINUTES);
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            if (worker.isAlive()) {
+                reportDeadlock();
+                System.exit(1);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        auditor.join();
+
+        System.out.println("📊 Results");
+        System.out.println("=".repeat(50));
+        System.out.printf("Applied:        %,d%n", applied.sum());
+        System.out.printf("Rejected:       %,d (source balance too low)%n", rejected.sum());
+        System.out.printf("Batches:        %,d%n", batches.sum());
+        System.out.printf("Time:           %.2f s%n", seconds);
+        System.out.printf("Throughput:     %,.0f transfers/s%n", transfers / seconds);
+        System.out.printf("Audits:         %,d while running%n", audits.sum());
+        System.out.println("=".repeat(50));
+
+        boolean ok = check("Every operation was applied or rejected", applied.sum() + rejected.sum() == transfers);
+        ok &= check("Total balance never changed while running", auditFailures.sum() == 0);
+        ok &= check("Final total equals the opening total", ledger.totalBalance() == expectedTotal);
+
+        long[] balances = ledger.snapshot();
+        int negative = 0;
+        int mismatched = 0;
+        for (int account = 0; account < accounts; account++) {
+            long expected = OPENING_CENTS;
+            for (long[] changes : net) {
+                expected += changes[account];
+            }
+            if (balances[account] < 0) {
+                negative++;
+            }
+            if (balances[account] != expected) {
+                mismatched++;
+            }
+        }
+        ok &= check("No account is negative", negative == 0);
+        ok &= check("Every account matches the changes made to it (" + mismatched + " mismatched)",
+            mismatched == 0);
+
+        System.out.println(ok ? "\n✓ All invariants held" : "\n✗ Invariant violated");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static void runWorker(StripedLedger ledger, long operations, SplittableRandom random, long[] net) {
+        int accounts = ledger.getAccountCount();
+        long appliedHere = 0;
+        long rejectedHere = 0;
+        long batchesHere = 0;
+
+        for (long i = 0; i < operations; i++) {
+            int from = random.nextInt(accounts);
+            int to = otherAccount(random, accounts, from);
+            long cents = 1 + random.nextInt(MAX_AMOUNT_CENTS);
+
+            if (i % BATCH_EVERY == 0 && accounts > 2) {
+                // from -> to -> third, with the middle account passing most of it on
+                int third = otherAccount(random, accounts, from);
+                while (third == to) {
+                    third = otherAccount(random, accounts, from);
+                }
+                long onward = 1 + random.nextInt((int) cents);
+                batchesHere++;
+                if (ledger.transferAll(new StripedLedger.Transfer(from, to, cents),
+                        new StripedLedger.Transfer(to, third, onward))) {
+                    net[from] -= cents;
+                    net[to] += cents - onward;
+                    net[third] += onward;
+                    appliedHere++;
+                } else {
+                    rejectedHere++;
+                }
+            } else if (ledger.transfer(from, to, cents)) {
+                net[from] -= cents;
+                net[to] += cents;
+                appliedHere++;
+            } else {
+                rejectedHere++;
+            }
+        }
+
+        applied.add(appliedHere);
+        rejected.add(rejectedHere);
+        batches.add(batchesHere);
+    }
+
+    private static int otherAccount(SplittableRandom random, int accounts, int not) {
+        int account = random.nextInt(accounts - 1);
+        return account >= not ? account + 1 : account;
+    }
+
+    private static boolean check(String description, boolean passed) {
+        System.out.println((passed ? "✓ " : "✗ ") + description);
+        return passed;
+    }
+
+    /**
+     * Print the threads the JVM reports as deadlocked (if any)
+     */
+    private static void reportDeadlock() {
+        System.out.println("✗ Workers did not finish within " + TIMEOUT_MINUTES + " minutes");
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        long[] deadlocked = threadBean.findDeadlockedThreads();
+        if (deadlocked == null) {
+            System.out.println("   No deadlock found (too slow rather than stuck?)");
+            return;
+        }
+        for (ThreadInfo info : threadBean.getThreadInfo(deadlocked, true, true)) {
+            System.out.println("   " + info.getThreadName() + " waits for " + info.getLockName()
+                + " held by " + info.getLockOwnerName());
+        }
+    }
+}
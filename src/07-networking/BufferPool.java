@@ -0,0 +1,90 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * BufferPool - Reusable Direct ByteBuffers in a Few Size Classes
+ *
+ * This class demonstrates:
+ * - Direct buffers that the kernel can read without an extra copy
+ * - Recycling buffers instead of allocating one per message
+ * - Size classes to limit wasted space
+ *
+ * Direct buffers are expensive to allocate and are only freed by the
+ * garbage collector, so the pool keeps released buffers for reuse.
+ * The pool is not thread-safe: ChatServer uses it only from its
+ * selector thread.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class BufferPool {
+
+    private static final int[] SIZE_CLASSES = {256, 4 * 1024, ChatConnection.MAX_FRAME};
+
+    private final ArrayDeque<ByteBuffer>[] free;
+    private final int maxPooledPerClass;
+    private long allocated;
+    private long reused;
+
+    /**
+     * @param maxPooledPerClass how many idle buffers to keep per size class
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BufferPool(int maxPooledPerClass) {
+        this.maxPooledPerClass = maxPooledPerClass;
+        this.free = new ArrayDeque[SIZE_CLASSES.length];
+        for (int i = 0; i < free.length; i++) {
+            free[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Get a cleared direct buffer with at least the given capacity
+     */
+    public ByteBuffer acquire(int size) {
+        int sizeClass = sizeClass(size);
+        if (sizeClass < 0) {
+            allocated++;
+            return ByteBuffer.allocateDirect(size);
+        }
+        ByteBuffer buffer = free[sizeClass].poll();
+        if (buffer != null) {
+            reused++;
+            return buffer.clear();
+        }
+        allocated++;
+        return ByteBuffer.allocateDirect(SIZE_CLASSES[sizeClass]);
+    }
+
+    /**
+     * Return a buffer to the pool (oversized buffers are left to the GC)
+     */
+    public void release(ByteBuffer buffer) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (buffer.capacity() == SIZE_CLASSES[i]) {
+                if (free[i].size() < maxPooledPerClass) {
+                    free[i].push(buffer);
+                }
+                return;
+            }
+        }
+    }
+
+    private static int sizeClass(int size) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (size <= SIZE_CLASSES[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        int idle = 0;
+        for (ArrayDeque<ByteBuffer> q : free) {
+            idle += q.size();
+        }
+        return "BufferPool[allocated=" + allocated + ", reused=" + reused + ", idle=" + idle + "]";
+    }
+}
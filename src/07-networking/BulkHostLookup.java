@@ -0,0 +1,405 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BulkHostLookup - Resolving Large Host Name Lists from a File or stdin
+ *
+ * This program demonstrates:
+ * - Streaming input and output, so memory does not grow with the list
+ * - Bounded concurrency: at most N lookups in flight, on virtual threads
+ * - Writing results in input order or as they complete
+ * - Progress and throughput reporting while the batch runs
+ *
+ * One host name per line; blank lines and lines starting with '#' are
+ * skipped. Every name is resolved through a DnsResolver, so repeated names
+ * come from its cache, and the results are written as CSV or NDJSON
+ * (one JSON object per line) with the addresses, time taken and error.
+ *
+ * A Semaphore with one permit per concurrent lookup is taken when a name
+ * is read and given back only when its result has been written. That one
+ * limit bounds the lookups in flight, the results waiting to be written
+ * and therefore the memory, however long the input is:
+ * - completion order: each lookup queues its result when it finishes;
+ *   fast answers are written at once
+ * - input order: futures are queued as names are read and the writer
+ *   waits for each in turn; a slow name holds back the ones after it
+ *   (for at most the resolver timeout)
+ *
+ * Usage: java BulkHostLookup [options] [inputFile]   (stdin if no file or "-")
+ *   --format csv|ndjson         default csv
+ *   --order input|completion    default input
+ *   --concurrency N             default 256
+ *   --timeout-ms N              default 5000
+ *   --output FILE               default stdout
+ * Progress goes to stderr, so stdout can be piped.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class BulkHostLookup {
+
+    public enum Format { CSV, NDJSON }
+
+    public enum Order { INPUT, COMPLETION }
+
+    /**
+     * Batch settings
+     *
+     * @param progressMillis how often to report progress, 0 for never
+     */
+    public record Options(Format format, Order order, int concurrency, long progressMillis) {
+        public Options {
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("concurrency must be positive");
+            }
+        }
+
+        public static Options defaults() {
+            return new Options(Format.CSV, Order.INPUT, 256, 1000);
+        }
+    }
+
+    /**
+     * Totals for one batch
+     */
+    public record Summary(long names, long resolved, long notFound, long timedOut, long failed,
+                          long millis, DnsResolver.Stats resolverStats) {
+        public double namesPerSecond() {
+            return millis == 0 ? 0 : names * 1000.0 / millis;
+        }
+    }
+
+    /**
+     * A name, its line number and (once known) its result
+     */
+    private record Item(long line, String host, DnsResolver.Result result) {
+    }
+
+    // Tells the writer that no more items will come
+    private static final CompletableFuture<Item> END = CompletableFuture.completedFuture(null);
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws Exception {
+        Format format = Format.CSV;
+        Order order = Order.INPUT;
+        int concurrency = 256;
+        long timeoutMillis = 5000;
+        String inputFile = null;
+        String outputFile = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.startsWith("--") && i + 1 == args.length) {
+                usage("Missing value for " + option);
+                return;
+            }
+            try {
+                switch (option) {
+                    case "--format" -> format = Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--order" -> order = Order.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                    case "--timeout-ms" -> timeoutMillis = Long.parseLong(args[++i]);
+                    case "--output" -> outputFile = args[++i];
+                    default -> {
+                        if (option.startsWith("--")) {
+                            usage("Unknown option: " + option);
+                            return;
+                        }
+                        inputFile = option;
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                usage("Bad value for " + option + ": " + args[i]);
+                return;
+            }
+        }
+
+        DnsResolver resolver = new DnsResolver(InetAddress::getAllByName, Duration.ofSeconds(30),
+            Duration.ofSeconds(10), 10_000, Duration.ofMillis(timeoutMillis));
+        Options options = new Options(format, order, concurrency, 1000);
+
+        System.err.println("╔═══════════════════════════════════╗");
+        System.err.println("║     Bulk Host Lookup              ║");
+        System.err.println("╚═══════════════════════════════════╝");
+        System.err.printf("Input: %s | Output: %s | %s, %s order | %d concurrent lookups%n%n",
+            inputFile == null || inputFile.equals("-") ? "stdin" : inputFile,
+            outputFile == null ? "stdout" : outputFile,
+            format, order.name().toLowerCase(Locale.ROOT), concurrency);
+
+        try (BufferedReader in = inputFile == null || inputFile.equals("-")
+                 ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                 : Files.newBufferedReader(Path.of(inputFile));
+             Writer out = outputFile == null
+                 ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                 : Files.newBufferedWriter(Path.of(outputFile))) {
+            Summary summary = run(in, out, options, resolver, System.err);
+            printSummary(summary, System.err);
+        }
+    }
+
+    /**
+     * Resolve every name read from in and write one result per name to out
+     *
+     * Returns once everything has been written (out is flushed, not closed).
+     *
+     * @param progress where progress lines go, or null for none
+     */
+    public static Summary run(Reader in, Writer out, Options options, DnsResolver resolver, PrintStream progress)
+            throws IOException, InterruptedException {
+        BufferedReader reader = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        Semaphore permits = new Semaphore(options.concurrency());
+        // Permits are taken before queueing, so the queue never holds more than concurrency items
+        BlockingQueue<CompletableFuture<Item>> queue = new ArrayBlockingQueue<>(options.concurrency() + 1);
+        LongAdder read = new LongAdder();
+        long[] counts = new long[DnsResolver.Status.values().length];
+        AtomicReference<Throwable> writeError = new AtomicReference<>();
+        long start = System.nanoTime();
+
+        if (options.format() == Format.CSV) {
+            out.write("line,host,status,source,millis,addresses,error\n");
+        }
+
+        Thread writer = Thread.ofVirtual().name("bulk-writer").start(() -> {
+            while (true) {
+                Item item;
+                try {
+                    item = queue.take().join();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (item == null) {
+                    return;
+                }
+                try {
+                    synchronized (counts) {
+                        counts[item.result().status().ordinal()]++;
+                    }
+                    if (writeError.get() == null) {
+                        out.write(options.format() == Format.CSV ? toCsv(item) : toJson(item));
+                    }
+                } catch (Throwable e) {
+                    writeError.compareAndSet(null, e); // keep draining so the reader never blocks
+                } finally {
+                    permits.release();
+                }
+            }
+        });
+
+        Thread reporter = null;
+        if (progress != null && options.progressMillis() > 0) {
+            reporter = Thread.ofVirtual().name("bulk-progress").start(() -> {
+                try {
+                    while (true) {
+                        Thread.sleep(options.progressMillis());
+                        reportProgress(progress, read.sum(), written(counts), start, resolver);
+                    }
+                } catch (InterruptedException e) {
+                    // batch finished
+                }
+            });
+        }
+
+        try {
+            long line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                String host = text.strip();
+                if (host.isEmpty() || host.startsWith("#")) {
+                    continue;
+                }
+                permits.acquire();
+                read.increment();
+                long lineNumber = line;
+                if (options.order() == Order.INPUT) {
+                    CompletableFuture<Item> pending = new CompletableFuture<>();
+                    queue.put(pending);
+                    Thread.ofVirtual().start(() -> pending.complete(lookUp(lineNumber, host, resolver)));
+                } else {
+                    Thread.ofVirtual().start(() ->
+                        queue.add(CompletableFuture.completedFuture(lookUp(lineNumber, host, resolver))));
+                }
+            }
+        } finally {
+            // Wait for every permit, i.e. every result written, then stop the writer
+            permits.acquire(options.concurrency());
+            queue.put(END);
+            writer.join();
+            if (reporter != null) {
+                reporter.interrupt();
+                reporter.join();
+            }
+        }
+
+        Throwable failure = writeError.get();
+        if (failure instanceof IOException e) {
+            throw e;
+        }
+        if (failure != null) {
+            throw new IOException("Writing a result failed", failure);
+        }
+        out.flush();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        synchronized (counts) {
+            return new Summary(read.sum(), counts[DnsResolver.Status.RESOLVED.ordinal()],
+                counts[DnsResolver.Status.NOT_FOUND.ordinal()], counts[DnsResolver.Status.TIMED_OUT.ordinal()],
+                counts[DnsResolver.Status.FAILED.ordinal()], millis, resolver.stats());
+        }
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: java BulkHostLookup [--format csv|ndjson] [--order input|completion] " +
+                           "[--concurrency N] [--timeout-ms N] [--output FILE] [inputFile]");
+    }
+
+    /**
+     * Resolve one name; never throws, since an item that never arrives
+     * would keep its permit and the writer waiting forever
+     */
+    private static Item lookUp(long line, String host, DnsResolver resolver) {
+        DnsResolver.Result result;
+        try {
+            result = resolver.resolve(host);
+        } catch (RuntimeException | Error e) {
+            result = new DnsResolver.Result(host, DnsResolver.Status.FAILED, List.of(), DnsResolver.Source.LOOKUP,
+                0, e.toString());
+        }
+        return new Item(line, host, result);
+    }
+
+    private static void reportProgress(PrintStream progress, long read, long written, long start,
+                                       DnsResolver resolver) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        DnsResolver.Stats stats = resolver.stats();
+        progress.printf("⏳ %,d written | %,.0f names/s | %,d in flight | cache hits %.0f%% | lookup p99 %,d µs%n",
+            written, written / seconds, read - written, stats.hitRatio() * 100, stats.lookupP99Micros());
+    }
+
+    public static void printSummary(Summary summary, PrintStream out) {
+        DnsResolver.Stats stats = summary.resolverStats();
+        out.println("\n📊 Bulk Lookup Summary");
+        out.println("=".repeat(50));
+        out.printf("Names:         %,d in %,d ms (%,.0f names/s)%n",
+            summary.names(), summary.millis(), summary.namesPerSecond());
+        out.printf("Resolved:      %,d%n", summary.resolved());
+        out.printf("Not found:     %,d%n", summary.notFound());
+        out.printf("Timed out:     %,d%n", summary.timedOut());
+        out.printf("Failed:        %,d%n", summary.failed());
+        out.printf("Cache hits:    %.1f%% (%,d lookups, %,d shared)%n",
+            stats.hitRatio() * 100, stats.misses(), stats.shared());
+        out.printf("Lookup p50/99: %,d / %,d µs%n", stats.lookupP50Micros(), stats.lookupP99Micros());
+        out.println("=".repeat(50));
+    }
+
+    private static long written(long[] counts) {
+        synchronized (counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Output formats
+    // ------------------------------------------------------------------
+
+    private static String toCsv(Item item) {
+        DnsResolver.Result result = item.result();
+        return item.line() + "," + csvField(item.host()) + "," + result.status() + "," + result.source() + ","
+            + millis(result) + "," + csvField(addresses(result.addresses(), " ")) + ","
+            + csvField(result.error() == null ? "" : result.error()) + "\n";
+    }
+
+    private static String toJson(Item item) {
+        DnsResolver.Result result = item.result();
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("{\"line\":").append(item.line())
+            .append(",\"host\":").append(jsonString(item.host()))
+            .append(",\"status\":\"").append(result.status())
+            .append("\",\"source\":\"").append(result.source())
+            .append("\",\"millis\":").append(millis(result))
+            .append(",\"addresses\":[");
+        List<InetAddress> addresses = result.addresses();
+        for (int i = 0; i < addresses.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(addresses.get(i).getHostAddress()).append('"');
+        }
+        sb.append("],\"error\":").append(result.error() == null ? "null" : jsonString(result.error()))
+            .append("}\n");
+        return sb.toString();
+    }
+
+    private static String millis(DnsResolver.Result result) {
+        return String.format(Locale.ROOT, "%.3f", result.nanos() / 1e6);
+    }
+
+    private static String addresses(List<InetAddress> addresses, String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (InetAddress address : addresses) {
+            if (sb.length() > 0) {
+                sb.append(separator);
+            }
+            sb.append(address.getHostAddress());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Quote a CSV field if it contains a comma, quote or line break (RFC 4180)
+     */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -1,144 +1,486 @@
 import java.io.*;
 import java.net.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * ChatClient - Simple Chat Client using Sockets
- * 
+ * ChatClient - Full-Duplex Chat Client using Sockets
+ *
  * This program demonstrates:
  * - Socket connection to server
  * - DataInputStream and DataOutputStream
- * - Bidirectional communication
- * - Client-server protocol
+ * - Full-duplex communication with separate reader and writer threads
+ * - A bounded inbox that applies back-pressure to the server
+ * - Batched writes: everything queued is written with one flush
+ * - Headless bot mode with thousands of clients on virtual threads
+ * - Optional binary frames (ChatFrameCodec) with heartbeats
  * - Error handling for network operations
- * 
+ *
+ * The reader thread keeps receiving broadcasts while the user is typing,
+ * so the client no longer stalls when the server pushes more messages
+ * than it was sent. Messages wait in the inbox until they are consumed;
+ * when the inbox is full the reader stops reading and TCP flow control
+ * slows the server down.
+ *
+ * With --binary the greeting offers binary frames. If the server accepts,
+ * messages are no longer limited to 64 KB, large ones are compressed, and
+ * both sides send heartbeats so a dead connection is noticed.
+ *
+ * Usage:
+ *   java ChatClient [--binary] [--replay OFFSET]
+ *                                             interactive chat, optionally
+ *                                             replaying history first
+ *   java ChatClient --bots N [--rooms R] [--messages M] [--interval MS]
+ *                            [--binary] [--host H] [--port P]
+ *                                             N simulated clients
+ *
  * Original: MyChatClient practical
- * 
+ *
  * @author BICT Advanced Java Course
  * @version 1.0
  */
 public class ChatClient {
-    
+
     private static final String SERVER_HOST = "localhost";
     private static final int SERVER_PORT = 55555;
-    
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int MAX_BATCH = 256;
+    private static final String GREETING = "Client: Hello Server! Ready to chat.";
+
+    // Marks the end of the inbox / outbox (compared by identity)
+    private static final String END = new String("<end>");
+
+    private final String host;
+    private final int port;
+    private final boolean offerBinary;
+    private final ChatFrameCodec readCodec = new ChatFrameCodec();
+    private final ChatFrameCodec writeCodec = new ChatFrameCodec();
+    private final BlockingQueue<String> inbox = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<String> outbox = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
     private Socket socket;
     private DataOutputStream outputStream;
     private DataInputStream inputStream;
-    private Scanner scanner;
-    
+    private Thread readerThread;
+    private Thread writerThread;
+    private boolean binary;
+    private volatile boolean endOfInbox;
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    public ChatClient() {
+        this(SERVER_HOST, SERVER_PORT, false);
+    }
+
+    /**
+     * @param offerBinary ask the server for binary frames
+     */
+    public ChatClient(String host, int port, boolean offerBinary) {
+        this.host = host;
+        this.port = port;
+        this.offerBinary = offerBinary;
+    }
+
+    /**
+     * Open the connection, greet the server and start the reader and
+     * writer threads
+     *
+     * The server's welcome message is the first message in the inbox.
+     */
+    public void connect() throws IOException {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        // The greeting and welcome always use writeUTF
+        outputStream.writeUTF(offerBinary ? GREETING + " " + ChatFrameCodec.PROTOCOL_OFFER : GREETING);
+        outputStream.flush();
+        messagesSent.increment();
+        String welcome = inputStream.readUTF();
+        messagesReceived.increment();
+        inbox.add(welcome);
+
+        binary = offerBinary && welcome.endsWith(ChatFrameCodec.PROTOCOL_OFFER);
+        if (binary) {
+            // The server sends heartbeats, so silence means a dead connection
+            socket.setSoTimeout((int) ChatFrameCodec.DEFAULT_IDLE_TIMEOUT_MILLIS);
+        }
+
+        readerThread = Thread.ofVirtual().name("chat-reader").start(this::readLoop);
+        writerThread = Thread.ofVirtual().name("chat-writer").start(this::writeLoop);
+    }
+
+    /**
+     * Queue a message for sending (blocks while the outbox is full)
+     */
+    public void send(String message) throws InterruptedException {
+        outbox.put(message);
+    }
+
+    /**
+     * Next received message, waiting if necessary
+     *
+     * @return the message, or null once the connection has closed
+     */
+    public String receive() throws InterruptedException {
+        if (endOfInbox) {
+            return null;
+        }
+        String message = inbox.take();
+        if (message == END) {
+            endOfInbox = true;
+            return null;
+        }
+        return message;
+    }
+
+    /**
+     * Reader thread: move messages from the socket into the inbox
+     */
+    private void readLoop() {
+        try {
+            while (true) {
+                String message;
+                if (binary) {
+                    ChatFrameCodec.Frame frame = readCodec.read(inputStream);
+                    if (frame.type() == ChatFrameCodec.Type.HEARTBEAT) {
+                        continue;
+                    }
+                    if (frame.type() == ChatFrameCodec.Type.BYE) {
+                        break;
+                    }
+                    message = frame.payload();
+                } else {
+                    message = inputStream.readUTF();
+                }
+                messagesReceived.increment();
+                inbox.put(message);
+            }
+        } catch (IOException e) {
+            // EOF or closed socket ends the inbox
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            inbox.put(END);
+        } catch (InterruptedException e) {
+            // close() gave up on the inbox
+        }
+    }
+
+    /**
+     * Writer thread: write everything queued, then flush once
+     *
+     * In binary mode a heartbeat goes out when nothing was sent for a
+     * heartbeat interval.
+     */
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            boolean ending = false;
+            while (!ending) {
+                String first = binary
+                    ? outbox.poll(ChatFrameCodec.DEFAULT_HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS)
+                    : outbox.take();
+                if (first == null) {
+                    writeCodec.write(ChatFrameCodec.Frame.HEARTBEAT, outputStream);
+                    outputStream.flush();
+                    continue;
+                }
+                batch.add(first);
+                outbox.drainTo(batch, MAX_BATCH - 1);
+
+                int written = 0;
+                for (String message : batch) {
+                    if (message == END) {
+                        if (binary) {
+                            writeCodec.write(ChatFrameCodec.Frame.BYE, outputStream);
+                        }
+                        ending = true;
+                        break;
+                    }
+                    if (writeMessage(message)) {
+                        written++;
+                    }
+                }
+                outputStream.flush();
+                messagesSent.add(written);
+                flushes.increment();
+                batch.clear();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Connection lost or closed; unsent messages are discarded
+        }
+    }
+
+    /**
+     * Write one message in the negotiated framing
+     *
+     * @return false if the message is too long for the framing
+     */
+    private boolean writeMessage(String message) throws IOException {
+        try {
+            if (binary) {
+                writeCodec.write(ChatFrameCodec.Frame.message("", -1, message), outputStream);
+            } else {
+                outputStream.writeUTF(message);
+            }
+            return true;
+        } catch (UTFDataFormatException | ProtocolException e) {
+            // Nothing was written, so the stream is still usable
+            System.err.println("Message not sent: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
     /**
-     * Connect to server and start chat
+     * Send what is still queued and close the connection
      */
+    public void close() {
+        try {
+            if (writerThread != null) {
+                outbox.offer(END, 1, TimeUnit.SECONDS);
+                writerThread.join(1000);
+            }
+            if (socket != null) socket.close();
+            if (readerThread != null) {
+                readerThread.interrupt();
+                readerThread.join(1000);
+            }
+        } catch (IOException e) {
+            System.err.println("Error during cleanup: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getMessagesSent() {
+        return messagesSent.sum();
+    }
+
+    public long getMessagesReceived() {
+        return messagesReceived.sum();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
     public void connectToServer() {
+        connectToServer(-1);
+    }
+
+    /**
+     * Connect to server and start an interactive chat
+     *
+     * @param replayFrom history offset to replay after connecting, or -1
+     */
+    public void connectToServer(long replayFrom) {
         System.out.println("╔═══════════════════════════════════╗");
         System.out.println("║     Chat Client - BICT Course     ║");
         System.out.println("╚═══════════════════════════════════╝\n");
-        
+
         try {
             // Connect to server
-            System.out.println("⏳ Connecting to server at " + SERVER_HOST + ":" + SERVER_PORT);
-            socket = new Socket(SERVER_HOST, SERVER_PORT);
-            System.out.println("✓ Connected to server!\n");
-            
-            // Setup streams
-            outputStream = new DataOutputStream(socket.getOutputStream());
-            inputStream = new DataInputStream(socket.getInputStream());
-            scanner = new Scanner(System.in);
-            
-            // Send initial greeting
-            String greeting = "Client: Hello Server! Ready to chat.";
-            outputStream.writeUTF(greeting);
-            outputStream.flush();
-            System.out.println("📤 " + greeting);
-            
-            // Receive server response
-            String serverGreeting = inputStream.readUTF();
-            System.out.println("📩 " + serverGreeting + "\n");
-            
+            System.out.println("⏳ Connecting to server at " + host + ":" + port);
+            connect();
+            System.out.println("✓ Connected to server" + (binary ? " (binary frames)" : "") + "!\n");
+            System.out.println("📤 " + GREETING);
+            if (replayFrom >= 0) {
+                send("Client: /replay " + replayFrom);
+            }
+
+            // Print incoming messages while the user types
+            Thread printer = Thread.ofVirtual().name("chat-printer").start(this::printLoop);
+
             // Start chat loop
             chatLoop();
-            
+            printer.interrupt();
+
         } catch (UnknownHostException e) {
-            System.err.println("Error: Unknown host - " + SERVER_HOST);
+            System.err.println("Error: Unknown host - " + host);
         } catch (ConnectException e) {
             System.err.println("Error: Cannot connect to server.");
             System.err.println("Make sure ChatServer is running first!");
         } catch (IOException e) {
             System.err.println("Client error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } finally {
-            cleanup();
+            close();
+            System.out.println("\n✓ Connection closed.");
         }
     }
-    
+
     /**
-     * Main chat loop for exchanging messages
+     * Main chat loop: send every line the user types
      */
-    private void chatLoop() {
+    private void chatLoop() throws InterruptedException {
         System.out.println("=".repeat(50));
         System.out.println("Chat started! Type 'bye' to exit.");
         System.out.println("=".repeat(50) + "\n");
-        
-        while (true) {
-            try {
-                // Send message to server
-                System.out.print("You: ");
-                String clientMsg = scanner.nextLine();
-                outputStream.writeUTF("Client: " + clientMsg);
-                outputStream.flush();
-                
-                // Check if client wants to disconnect
-                if (clientMsg.equalsIgnoreCase("bye")) {
-                    System.out.println("\n✓ Disconnecting from server.");
-                    break;
-                }
-                
-                // Receive message from server
-                String serverMsg = inputStream.readUTF();
-                System.out.println("📩 " + serverMsg);
-                
-                // Check if server disconnected
-                if (serverMsg.toLowerCase().contains("bye")) {
-                    System.out.println("\n✓ Server disconnected.");
-                    break;
-                }
-                
-            } catch (IOException e) {
-                System.err.println("Communication error: " + e.getMessage());
+
+        Scanner scanner = new Scanner(System.in);
+        while (scanner.hasNextLine()) {
+            String clientMsg = scanner.nextLine();
+            if (endOfInbox) {
+                break;
+            }
+            send("Client: " + clientMsg);
+
+            // Check if client wants to disconnect
+            if (clientMsg.equalsIgnoreCase("bye")) {
+                System.out.println("\n✓ Disconnecting from server.");
                 break;
             }
         }
     }
-    
+
     /**
-     * Clean up resources
+     * Print messages as they arrive
      */
-    private void cleanup() {
+    private void printLoop() {
         try {
-            if (inputStream != null) inputStream.close();
-            if (outputStream != null) outputStream.close();
-            if (socket != null) socket.close();
-            if (scanner != null) scanner.close();
-            System.out.println("\n✓ Connection closed.");
-        } catch (IOException e) {
-            System.err.println("Error during cleanup: " + e.getMessage());
+            String serverMsg;
+            while ((serverMsg = receive()) != null) {
+                System.out.println("📩 " + serverMsg);
+            }
+            System.out.println("\n✓ Server disconnected. Press Enter to exit.");
+        } catch (InterruptedException e) {
+            // Chat loop finished
+        }
+    }
+
+    /**
+     * Run many headless clients in this JVM to load the server
+     */
+    private static void runBots(String host, int port, int bots, int rooms, int messages,
+                                long intervalMillis, boolean binary) throws InterruptedException {
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║     Chat Client - Bot Mode        ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+        System.out.printf("Bots: %d | Rooms: %d | Messages/bot: %d | Interval: %d ms | Framing: %s%n%n",
+            bots, rooms, messages, intervalMillis, binary ? "binary" : "writeUTF");
+
+        AtomicInteger connected = new AtomicInteger();
+        LongAdder errors = new LongAdder();
+        LongAdder received = new LongAdder();
+        List<ChatClient> clients = new CopyOnWriteArrayList<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < bots; i++) {
+                String room = "room-" + (i % rooms);
+                executor.submit(() -> {
+                    ChatClient bot = new ChatClient(host, port, binary);
+                    try {
+                        bot.connect();
+                        clients.add(bot);
+                        connected.incrementAndGet();
+                        Thread.ofVirtual().start(() -> {
+                            try {
+                                while (bot.receive() != null) {
+                                    received.increment();
+                                }
+                            } catch (InterruptedException e) {
+                                // Bot stopped
+                            }
+                        });
+                        bot.send("Client: /join " + room);
+                        for (int m = 0; m < messages; m++) {
+                            Thread.sleep(intervalMillis);
+                            bot.send("Client: message " + m);
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        errors.increment();
+                    }
+                });
+            }
+        }
+
+        // Let the last broadcasts arrive (until deliveries stop growing)
+        long lastReceived = -1;
+        long lastChange = System.nanoTime();
+        while (System.nanoTime() - lastChange < 1_000_000_000L) {
+            long now = received.sum();
+            if (now != lastReceived) {
+                lastReceived = now;
+                lastChange = System.nanoTime();
+            }
+            Thread.sleep(100);
+        }
+        double seconds = (lastChange - start) / 1e9;
+
+        long sent = 0;
+        long flushes = 0;
+        for (ChatClient bot : clients) {
+            bot.close();
+            sent += bot.getMessagesSent();
+            flushes += bot.getFlushes();
         }
+
+        System.out.println("\n" + "=".repeat(50));
+        System.out.println("Bot Results");
+        System.out.println("=".repeat(50));
+        System.out.printf("Connected bots:      %d%n", connected.get());
+        System.out.printf("Errors:              %d%n", errors.sum());
+        System.out.printf("Messages sent:       %d in %d flushes (%.2f per flush)%n",
+            sent, flushes, flushes == 0 ? 0.0 : (double) sent / flushes);
+        System.out.printf("Messages received:   %d (%.0f msg/s)%n", received.sum(), received.sum() / seconds);
+        System.out.println("=".repeat(50));
     }
-    
+
     /**
      * Main method
      */
-    public static void main(String[] args) {
-        ChatClient client = new ChatClient();
-        
+    public static void main(String[] args) throws InterruptedException {
+        String host = SERVER_HOST;
+        int port = SERVER_PORT;
+        int bots = 0;
+        int rooms = 10;
+        int messages = 20;
+        long interval = 50;
+        long replayFrom = -1;
+        boolean binary = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--binary" -> binary = true;
+                case "--host" -> host = args[++i];
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--bots" -> bots = Integer.parseInt(args[++i]);
+                case "--rooms" -> rooms = Integer.parseInt(args[++i]);
+                case "--messages" -> messages = Integer.parseInt(args[++i]);
+                case "--interval" -> interval = Long.parseLong(args[++i]);
+                case "--replay" -> replayFrom = Long.parseLong(args[++i]);
+                default -> System.err.println("Unknown option: " + args[i]);
+            }
+        }
+
+        if (bots > 0) {
+            runBots(host, port, bots, rooms, messages, interval, binary);
+            return;
+        }
+
+        ChatClient client = new ChatClient(host, port, binary);
+
         System.out.println("Starting Chat Client...");
         System.out.println("Instructions:");
         System.out.println("  1. Make sure ChatServer is running");
         System.out.println("  2. Type your messages and press Enter");
         System.out.println("  3. Type 'bye' to disconnect\n");
-        
-        client.connectToServer();
-        
+
+        client.connectToServer(replayFrom);
+
         System.out.println("\nChat Client stopped.");
     }
 }
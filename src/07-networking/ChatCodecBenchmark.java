@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * ChatCodecBenchmark - writeUTF Framing versus Binary ChatFrameCodec
+ *
+ * This program demonstrates:
+ * - Comparing bytes on the wire for different message sizes
+ * - Measuring encode and decode throughput with warm-up rounds
+ * - When per-frame compression pays off (and when it does not)
+ *
+ * Three framings are compared for each payload:
+ * - writeUTF: 2-byte length + modified UTF-8 (ModifiedUtf8)
+ * - binary:   ChatFrameCodec without compression
+ * - deflate:  ChatFrameCodec, deflating payloads of 1 KB and more
+ *
+ * Usage: java ChatCodecBenchmark [iterations]   (default: 200000)
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class ChatCodecBenchmark {
+
+    private static final String ROOM = "lobby";
+    private static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║     Chat Codec Benchmark          ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+        System.out.println("Iterations per test: " + iterations + " (scaled down for large payloads)\n");
+
+        Random random = new Random(42);
+        String[][] payloads = {
+            {"short chat line", "[lobby] client-17: see you at the lab at 3?"},
+            {"1 KB of prose", prose(random, 1024)},
+            {"16 KB of prose", prose(random, 16 * 1024)},
+            {"16 KB of random text", randomText(random, 16 * 1024)},
+            {"200 KB of prose", prose(random, 200 * 1024)},
+        };
+
+        ChatFrameCodec plain = new ChatFrameCodec(Integer.MAX_VALUE);
+        ChatFrameCodec deflating = new ChatFrameCodec(ChatFrameCodec.DEFAULT_COMPRESS_THRESHOLD);
+
+        System.out.printf("%-22s %-9s %10s %14s %14s%n", "Payload", "Framing", "Bytes", "Encode/s", "Decode/s");
+        System.out.println("=".repeat(73));
+        for (String[] payload : payloads) {
+            String text = payload[1];
+            // Keep the run time roughly constant across sizes
+            int n = (int) Math.max(200, iterations * 64L / Math.max(64, text.length()));
+
+            benchmarkUtf(payload[0], text, n);
+            benchmarkBinary(payload[0], "binary", plain, text, n);
+            benchmarkBinary(payload[0], "deflate", deflating, text, n);
+            System.out.println("-".repeat(73));
+        }
+    }
+
+    private static void benchmarkUtf(String name, String text, int n) throws IOException {
+        if (ModifiedUtf8.encodedLength(text) > ModifiedUtf8.MAX_LENGTH) {
+            System.out.printf("%-22s %-9s %10s %14s %14s%n", name, "writeUTF", "too long", "-", "-");
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(ChatConnection.MAX_FRAME);
+        double encodeRate = 0;
+        double decodeRate = 0;
+        int bytes = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                buffer.clear();
+                ModifiedUtf8.encodeFrame(text, buffer);
+            }
+            encodeRate = n / ((System.nanoTime() - start) / 1e9);
+            bytes = buffer.position();
+
+            long checksum = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                buffer.position(0).limit(bytes);
+                int length = buffer.getShort() & 0xFFFF;
+                checksum += ModifiedUtf8.decode(buffer, length).length();
+            }
+            decodeRate = n / ((System.nanoTime() - start) / 1e9);
+            check(checksum, n, text);
+        }
+        System.out.printf("%-22s %-9s %,10d %,14.0f %,14.0f%n", name, "writeUTF", bytes, encodeRate, decodeRate);
+    }
+
+    private static void benchmarkBinary(String name, String framing, ChatFrameCodec codec,
+                                        String text, int n) throws IOException {
+        ChatFrameCodec.Frame frame = ChatFrameCodec.Frame.message(ROOM, 12345, text);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(ChatFrameCodec.MAX_FRAME_LENGTH + Integer.BYTES);
+        double encodeRate = 0;
+        double decodeRate = 0;
+        int bytes = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                buffer.clear();
+                codec.encode(frame, size -> buffer);
+            }
+            encodeRate = n / ((System.nanoTime() - start) / 1e9);
+            bytes = buffer.position();
+
+            long checksum = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                buffer.position(0).limit(bytes);
+                checksum += codec.decode(buffer).payload().length();
+            }
+            decodeRate = n / ((System.nanoTime() - start) / 1e9);
+            check(checksum, n, text);
+        }
+        System.out.printf("%-22s %-9s %,10d %,14.0f %,14.0f%n", name, framing, bytes, encodeRate, decodeRate);
+    }
+
+    private static void check(long checksum, int n, String text) {
+        if (checksum != (long) n * text.length()) {
+            throw new IllegalStateException("Decoded text does not match");
+        }
+    }
+
+    /**
+     * Text built from a small vocabulary, which compresses well
+     */
+    private static String prose(Random random, int length) {
+        String[] words = {"the", "server", "client", "message", "room", "broadcast", "frame",
+            "buffer", "socket", "thread", "queue", "latency", "java", "chat", "hello", "world"};
+        StringBuilder sb = new StringBuilder(length + 16);
+        while (sb.length() < length) {
+            sb.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+    /**
+     * Random letters and digits, which compress poorly
+     */
+    private static String randomText(Random random, int length) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,300 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * ChatConnection - State of One Client Connected to the NIO ChatServer
+ *
+ * This class demonstrates:
+ * - Non-blocking reads into a per-connection ByteBuffer
+ * - Decoding DataOutputStream.writeUTF frames from a byte stream
+ * - Switching to binary ChatFrameCodec frames after negotiation
+ * - Tracking read/write activity for heartbeats and idle timeouts
+ * - A bounded outbound queue of shared, reference-counted frames
+ * - Gathering writes that send many queued frames in one system call
+ *
+ * A writeUTF frame is a 2-byte unsigned length followed by that many
+ * bytes of modified UTF-8, so a frame is at most 65537 bytes long.
+ * Binary frames can be longer; the read buffer grows when one arrives.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class ChatConnection {
+
+    /** Largest possible writeUTF frame: 2-byte length + 65535 bytes */
+    static final int MAX_FRAME = 2 + 0xFFFF;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final String name;
+    private final int maxQueuedFrames;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(MAX_FRAME);
+    private ChatFrameCodec codec;
+    private long lastReadNanos = System.nanoTime();
+    private long lastWriteNanos = System.nanoTime();
+    private final ArrayDeque<SharedFrame> outbound = new ArrayDeque<>();
+
+    private int headWritten;
+    private boolean flushScheduled;
+    private long replayOffset = -1;
+    private long replayEnd;
+    private String room;
+    private boolean greeted;
+
+    /**
+     * @param maxQueuedFrames frames allowed to wait for this client before
+     *                        it is treated as a slow consumer
+     */
+    public ChatConnection(SocketChannel channel, SelectionKey key, String name, int maxQueuedFrames) {
+        this.channel = channel;
+        this.key = key;
+        this.name = name;
+        this.maxQueuedFrames = maxQueuedFrames;
+    }
+
+    /**
+     * Read whatever is available and decode complete messages
+     *
+     * @param sink receives each decoded message
+     * @return false if the client closed the connection
+     */
+    public boolean read(MessageSink sink) throws IOException {
+        int n = channel.read(readBuffer);
+        if (n < 0) {
+            return false;
+        }
+        lastReadNanos = System.nanoTime();
+
+        // The sink may switch to binary frames in the middle of a buffer
+        readBuffer.flip();
+        while (codec == null ? readUtfFrame(sink) : readBinaryFrame(sink)) {
+            if (!isOpen()) {
+                return true;
+            }
+        }
+        readBuffer.compact();
+        return true;
+    }
+
+    private boolean readUtfFrame(MessageSink sink) throws IOException {
+        if (readBuffer.remaining() < 2) {
+            return false;
+        }
+        int length = readBuffer.getShort(readBuffer.position()) & 0xFFFF;
+        if (readBuffer.remaining() < 2 + length) {
+            return false;
+        }
+        readBuffer.position(readBuffer.position() + 2);
+        sink.onMessage(this, ModifiedUtf8.decode(readBuffer, length));
+        return true;
+    }
+
+    private boolean readBinaryFrame(MessageSink sink) throws IOException {
+        ChatFrameCodec.Frame frame = codec.decode(readBuffer);
+        if (frame == null) {
+            int needed = ChatFrameCodec.requiredBytes(readBuffer);
+            if (needed > readBuffer.capacity()) {
+                // Grow for a frame larger than the buffer
+                ByteBuffer larger = ByteBuffer.allocate(needed);
+                larger.put(readBuffer).flip();
+                readBuffer = larger;
+            }
+            return false;
+        }
+        switch (frame.type()) {
+            case MESSAGE -> sink.onMessage(this, frame.payload());
+            case BYE -> sink.onMessage(this, "bye");
+            case HEARTBEAT -> { }
+        }
+        return true;
+    }
+
+    /**
+     * Use binary frames in both directions from now on
+     *
+     * @param codec shared codec of the selector thread
+     */
+    public void useBinaryFrames(ChatFrameCodec codec) {
+        this.codec = codec;
+    }
+
+    public boolean isBinary() {
+        return codec != null;
+    }
+
+    /**
+     * Queue a shared frame for this client
+     *
+     * @return false if the queue is full (the frame is not queued)
+     */
+    public boolean send(SharedFrame frame) {
+        if (outbound.size() >= maxQueuedFrames) {
+            return false;
+        }
+        outbound.add(frame.retain());
+        return true;
+    }
+
+    /**
+     * Write queued frames with gathering writes until done or the socket is full
+     *
+     * @param scratch reusable array for the gathering write (selector thread only)
+     * @return true if everything was written
+     */
+    public boolean flush(ByteBuffer[] scratch) throws IOException {
+        while (!outbound.isEmpty()) {
+            int count = 0;
+            long offered = 0;
+            for (SharedFrame frame : outbound) {
+                if (count == scratch.length) {
+                    break;
+                }
+                scratch[count] = frame.viewFrom(count == 0 ? headWritten : 0);
+                offered += scratch[count].remaining();
+                count++;
+            }
+
+            long written = channel.write(scratch, 0, count);
+            Arrays.fill(scratch, 0, count, null);
+            if (written > 0) {
+                lastWriteNanos = System.nanoTime();
+            }
+            boolean socketFull = written < offered;
+
+            // Release every frame that went out completely
+            while (written > 0) {
+                SharedFrame head = outbound.peek();
+                int remaining = head.length() - headWritten;
+                if (written >= remaining) {
+                    written -= remaining;
+                    outbound.poll().release();
+                    headWritten = 0;
+                } else {
+                    headWritten += (int) written;
+                    written = 0;
+                }
+            }
+
+            if (socketFull) {
+                // Wait for OP_WRITE before trying again
+                break;
+            }
+        }
+
+        boolean done = outbound.isEmpty();
+        if (key.isValid()) {
+            int ops = key.interestOps();
+            int wanted = done ? ops & ~SelectionKey.OP_WRITE : ops | SelectionKey.OP_WRITE;
+            if (wanted != ops) {
+                key.interestOps(wanted);
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Close the socket and drop every queued frame
+     */
+    public void close() {
+        key.cancel();
+        SharedFrame frame;
+        while ((frame = outbound.poll()) != null) {
+            frame.release();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing " + name + ": " + e.getMessage());
+        }
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public boolean isGreeted() {
+        return greeted;
+    }
+
+    public void setGreeted(boolean greeted) {
+        this.greeted = greeted;
+    }
+
+    /**
+     * Make sure the selector reports OP_WRITE for this client
+     */
+    public void requestWrite() {
+        if (key.isValid() && (key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    public boolean isFlushScheduled() {
+        return flushScheduled;
+    }
+
+    public void setFlushScheduled(boolean flushScheduled) {
+        this.flushScheduled = flushScheduled;
+    }
+
+    /**
+     * Replay history offsets [from, to) to this client
+     *
+     * Messages after "to" reach the client live, so they are not replayed.
+     */
+    public void startReplay(long from, long to) {
+        this.replayOffset = from;
+        this.replayEnd = to;
+    }
+
+    /**
+     * Next history offset to replay to this client, or -1 if not replaying
+     */
+    public long getReplayOffset() {
+        return replayOffset;
+    }
+
+    public long getReplayEnd() {
+        return replayEnd;
+    }
+
+    public void setReplayOffset(long replayOffset) {
+        this.replayOffset = replayOffset >= replayEnd ? -1 : replayOffset;
+    }
+
+    public long getLastReadNanos() {
+        return lastReadNanos;
+    }
+
+    public long getLastWriteNanos() {
+        return lastWriteNanos;
+    }
+
+    public int getPendingFrames() {
+        return outbound.size();
+    }
+
+    /**
+     * Callback for decoded inbound messages
+     */
+    @FunctionalInterface
+    public interface MessageSink {
+        void onMessage(ChatConnection from, String message) throws IOException;
+    }
+}
@@ -0,0 +1,303 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * ChatFrameCodec - Versioned Binary Frames for the Chat Protocol
+ *
+ * This class demonstrates:
+ * - A length-prefixed binary frame format with a version and a type
+ * - Standard UTF-8 payloads without the 64 KB limit of writeUTF
+ * - Optional per-frame Deflate compression for large payloads
+ * - Defensive decoding (length limits, unknown versions and types)
+ *
+ * Frame layout (big-endian):
+ *   int    length     bytes that follow this field
+ *   byte   version    currently 1
+ *   byte   type       MESSAGE, HEARTBEAT or BYE
+ *   byte   flags      bit 0: payload is deflated
+ *   byte   roomLength then roomLength bytes of UTF-8 room name
+ *   long   sequence   history offset of the message, or -1
+ *   [int   originalLength]   only for deflated payloads
+ *   ...    payload    UTF-8 text (deflated if flagged)
+ *
+ * A client asks for binary frames by ending its writeUTF greeting with
+ * PROTOCOL_OFFER. A server that understands it ends its writeUTF welcome
+ * with the same marker, and both sides use binary frames from then on.
+ * An old server ignores the marker, so the client stays on writeUTF.
+ *
+ * A codec instance keeps a Deflater, an Inflater and scratch space, so
+ * it must only be used by one thread at a time.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public final class ChatFrameCodec {
+
+    public static final byte VERSION = 1;
+    public static final String PROTOCOL_OFFER = "[protocol=binary/1]";
+    public static final int MAX_FRAME_LENGTH = 1 << 20;
+    public static final int DEFAULT_COMPRESS_THRESHOLD = 1024;
+    public static final long DEFAULT_HEARTBEAT_MILLIS = 10_000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30_000;
+
+    private static final int FLAG_DEFLATED = 1;
+    // version + type + flags + roomLength + sequence
+    private static final int FIXED_HEADER = 1 + 1 + 1 + 1 + 8;
+
+    /**
+     * Kinds of frames
+     */
+    public enum Type {
+        MESSAGE(1), HEARTBEAT(2), BYE(3);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type fromCode(byte code) throws ProtocolException {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new ProtocolException("Unknown frame type " + code);
+        }
+    }
+
+    /**
+     * One decoded frame
+     *
+     * @param room room the message belongs to ("" if none)
+     * @param sequence history offset, or -1 if the message is not kept
+     */
+    public record Frame(Type type, String room, long sequence, String payload) {
+
+        public static final Frame HEARTBEAT = new Frame(Type.HEARTBEAT, "", -1, "");
+        public static final Frame BYE = new Frame(Type.BYE, "", -1, "");
+
+        public static Frame message(String room, long sequence, String payload) {
+            return new Frame(Type.MESSAGE, room, sequence, payload);
+        }
+    }
+
+    private final int compressThreshold;
+    // Created on first use: zlib state is large and most frames are small
+    private Deflater deflater;
+    private Inflater inflater;
+    private byte[] compressed = new byte[0];
+    private long framesDeflated;
+    private long bytesSaved;
+
+    public ChatFrameCodec() {
+        this(DEFAULT_COMPRESS_THRESHOLD);
+    }
+
+    /**
+     * @param compressThreshold payloads of at least this many bytes are
+     *                          deflated (Integer.MAX_VALUE disables it)
+     */
+    public ChatFrameCodec(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * Encode a frame into a buffer obtained from the allocator
+     *
+     * @param allocator returns a buffer with at least the requested space
+     * @return the buffer, positioned after the frame
+     * @throws ProtocolException if the frame is larger than MAX_FRAME_LENGTH
+     */
+    public ByteBuffer encode(Frame frame, IntFunction<ByteBuffer> allocator) throws ProtocolException {
+        byte[] room = frame.room().getBytes(StandardCharsets.UTF_8);
+        if (room.length > 255) {
+            throw new ProtocolException("Room name too long: " + room.length + " bytes");
+        }
+        byte[] payload = frame.payload().getBytes(StandardCharsets.UTF_8);
+
+        byte[] body = payload;
+        int bodyLength = payload.length;
+        int flags = 0;
+        int deflatedLength = payload.length >= compressThreshold ? deflate(payload) : -1;
+        if (deflatedLength >= 0) {
+            body = compressed;
+            bodyLength = deflatedLength;
+            flags = FLAG_DEFLATED;
+            framesDeflated++;
+            bytesSaved += payload.length - deflatedLength - Integer.BYTES;
+        }
+
+        int length = FIXED_HEADER + room.length + (flags == FLAG_DEFLATED ? Integer.BYTES : 0) + bodyLength;
+        if (length > MAX_FRAME_LENGTH) {
+            throw new ProtocolException("Frame too long: " + length + " bytes");
+        }
+
+        ByteBuffer dst = allocator.apply(Integer.BYTES + length);
+        dst.putInt(length)
+            .put(VERSION)
+            .put(frame.type().code)
+            .put((byte) flags)
+            .put((byte) room.length)
+            .put(room)
+            .putLong(frame.sequence());
+        if (flags == FLAG_DEFLATED) {
+            dst.putInt(payload.length);
+        }
+        dst.put(body, 0, bodyLength);
+        return dst;
+    }
+
+    /**
+     * Deflate a payload into the scratch array
+     *
+     * @return the compressed length, or -1 if compression does not pay off
+     */
+    private int deflate(byte[] payload) {
+        if (compressed.length < payload.length) {
+            compressed = new byte[payload.length];
+        }
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        deflater.reset();
+        deflater.setInput(payload);
+        deflater.finish();
+        int length = deflater.deflate(compressed, 0, payload.length);
+        if (!deflater.finished() || length + Integer.BYTES >= payload.length) {
+            return -1;
+        }
+        return length;
+    }
+
+    /**
+     * Decode one frame from the buffer if it is complete
+     *
+     * @return the frame, or null if more bytes are needed (the position
+     *         is then unchanged)
+     * @throws ProtocolException if the bytes are not a valid frame
+     */
+    public Frame decode(ByteBuffer src) throws ProtocolException {
+        int needed = requiredBytes(src);
+        if (needed < 0 || src.remaining() < needed) {
+            return null;
+        }
+        int end = src.position() + needed;
+        src.position(src.position() + Integer.BYTES);
+
+        byte version = src.get();
+        if (version != VERSION) {
+            throw new ProtocolException("Unsupported frame version " + version);
+        }
+        Type type = Type.fromCode(src.get());
+        int flags = src.get();
+        int roomLength = src.get() & 0xFF;
+        if (src.position() + roomLength + Long.BYTES > end) {
+            throw new ProtocolException("Room name exceeds frame");
+        }
+        String room = utf8(src, roomLength);
+        long sequence = src.getLong();
+
+        String payload;
+        if ((flags & FLAG_DEFLATED) != 0) {
+            payload = inflate(src, end);
+        } else {
+            payload = utf8(src, end - src.position());
+        }
+        src.position(end);
+        return new Frame(type, room, sequence, payload);
+    }
+
+    /**
+     * Total size of the frame at the buffer's position
+     *
+     * @return length prefix + length, or -1 if the prefix is incomplete
+     * @throws ProtocolException if the length is out of range
+     */
+    public static int requiredBytes(ByteBuffer src) throws ProtocolException {
+        if (src.remaining() < Integer.BYTES) {
+            return -1;
+        }
+        return Integer.BYTES + checkLength(src.getInt(src.position()));
+    }
+
+    private static int checkLength(int length) throws ProtocolException {
+        if (length < FIXED_HEADER || length > MAX_FRAME_LENGTH) {
+            throw new ProtocolException("Invalid frame length " + length);
+        }
+        return length;
+    }
+
+    private String inflate(ByteBuffer src, int end) throws ProtocolException {
+        if (end - src.position() < Integer.BYTES) {
+            throw new ProtocolException("Truncated deflated payload");
+        }
+        int originalLength = src.getInt();
+        if (originalLength < 0 || originalLength > MAX_FRAME_LENGTH) {
+            throw new ProtocolException("Invalid payload length " + originalLength);
+        }
+        byte[] payload = new byte[originalLength];
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        inflater.reset();
+        inflater.setInput(src.slice(src.position(), end - src.position()));
+        try {
+            int n = inflater.inflate(payload);
+            if (n != originalLength || !inflater.finished()) {
+                throw new ProtocolException("Deflated payload does not match its length");
+            }
+        } catch (DataFormatException e) {
+            throw new ProtocolException("Corrupt deflated payload: " + e.getMessage());
+        }
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    private static String utf8(ByteBuffer src, int length) {
+        String text;
+        if (src.hasArray()) {
+            text = new String(src.array(), src.arrayOffset() + src.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            src.get(src.position(), bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+        }
+        src.position(src.position() + length);
+        return text;
+    }
+
+    /**
+     * Write a frame to a stream (blocking clients)
+     */
+    public void write(Frame frame, DataOutputStream out) throws IOException {
+        ByteBuffer buffer = encode(frame, ByteBuffer::allocate);
+        out.write(buffer.array(), 0, buffer.position());
+    }
+
+    /**
+     * Read one frame from a stream (blocking clients)
+     */
+    public Frame read(DataInputStream in) throws IOException {
+        int length = checkLength(in.readInt());
+        byte[] bytes = new byte[Integer.BYTES + length];
+        ByteBuffer.wrap(bytes).putInt(length);
+        in.readFully(bytes, Integer.BYTES, length);
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    public long getFramesDeflated() {
+        return framesDeflated;
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+}
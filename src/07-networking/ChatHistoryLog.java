@@ -0,0 +1,403 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * ChatHistoryLog - Append-Only Chat History in Memory-Mapped Segments
+ *
+ * This class demonstrates:
+ * - Memory-mapped files (MappedByteBuffer) for appends and reads
+ * - Fixed-size log segments with an offset index per segment
+ * - Roll-over to a new segment and retention by size and age
+ * - Group commit: one force() per interval instead of one per message
+ * - Zero-copy replay: stored frames are sent straight from the mapping
+ *
+ * Every message gets an offset: 0, 1, 2, ... across all segments. A
+ * segment is a pair of files named after the offset of its first message:
+ *   00000000000000000000.log    writeUTF frames exactly as sent on the wire
+ *   00000000000000000000.index  per message: end position in .log and a
+ *                               CRC32C of the frame (two ints)
+ *
+ * Appends become durable when the flusher thread forces the mappings,
+ * every flushIntervalMillis. Until then the operating system may write
+ * the pages of either file first, so after a crash an index entry can
+ * point at log bytes that never reached the disk. Recovery therefore
+ * checks every frame against the checksum in its entry and cuts the
+ * segment at the first one that does not match: what survives a crash is
+ * always an intact prefix of the messages, but messages appended since
+ * the last force may be gone.
+ *
+ * Appends and reads must come from one thread (the ChatServer selector
+ * thread). The flusher thread runs the periodic force() and also applies
+ * retention, so segments expire by age even while nobody is chatting;
+ * the segment map is locked whenever either thread uses it. A frame read
+ * before its segment is deleted stays readable: the mapping outlives the
+ * file.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class ChatHistoryLog implements AutoCloseable {
+
+    private static final String LOG_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".index";
+    private static final int MIN_SEGMENT_BYTES = ChatConnection.MAX_FRAME;
+    // Budget for the index: one entry per 16 bytes of log on average
+    private static final int BYTES_PER_INDEX_ENTRY = 16;
+    // An index entry: end position, then the frame's checksum
+    private static final int INDEX_ENTRY_SIZE = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long retentionBytes;
+    private final long retentionMillis;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final List<Segment> sealedUnforced = new ArrayList<>();
+    private final ScheduledExecutorService flusher;
+
+    private volatile Segment active;
+    private volatile long appended;
+    private long forcedUpTo;  // value of appended at the last force (flusher thread)
+    private long forces;
+    private long deletedSegments;
+
+    /**
+     * Open (or create) the log in a directory and start the flusher
+     *
+     * @param directory where segment files live
+     * @param segmentBytes size of each .log file
+     * @param retentionBytes delete old segments while the log is larger
+     * @param retentionMillis delete segments whose last message is older (0 = keep)
+     * @param flushIntervalMillis how often appends are forced to disk
+     */
+    public ChatHistoryLog(Path directory, int segmentBytes, long retentionBytes,
+                          long retentionMillis, long flushIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = Math.max(segmentBytes, MIN_SEGMENT_BYTES);
+        this.retentionBytes = retentionBytes;
+        this.retentionMillis = retentionMillis;
+
+        Files.createDirectories(directory);
+        recover();
+        applyRetention();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ChatHistory-Flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::maintain, flushIntervalMillis,
+            flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open every existing segment and continue after the last message
+     */
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + LOG_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long baseOffset = Long.parseLong(name.substring(0, name.length() - LOG_SUFFIX.length()));
+                Segment segment = Segment.open(directory, baseOffset, segmentBytes);
+                segments.put(baseOffset, segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            active = Segment.open(directory, 0, segmentBytes);
+            segments.put(0L, active);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+    }
+
+    /**
+     * Append one frame to the log
+     *
+     * @return the offset of the message
+     */
+    public long append(SharedFrame frame) throws IOException {
+        ByteBuffer bytes = frame.viewFrom(0);
+        if (!active.append(bytes)) {
+            roll();
+            if (!active.append(frame.viewFrom(0))) {
+                throw new IOException("Frame of " + frame.length() + " bytes does not fit in a segment");
+            }
+        }
+        appended++;
+        return endOffset() - 1;
+    }
+
+    /**
+     * The stored frame at an offset, shared straight from the mapping
+     *
+     * @return the frame, or null if the offset was deleted or not yet written
+     */
+    public SharedFrame read(long offset) {
+        Segment segment;
+        synchronized (segments) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+            if (entry == null) {
+                return null;
+            }
+            segment = entry.getValue();
+        }
+        int index = (int) (offset - segment.baseOffset);
+        if (index >= segment.count) {
+            return null;
+        }
+        return SharedFrame.wrap(segment.frame(index));
+    }
+
+    /** Offset of the oldest message still in the log */
+    public long startOffset() {
+        synchronized (segments) {
+            return segments.firstKey();
+        }
+    }
+
+    /** Offset the next appended message will get */
+    public long endOffset() {
+        return active.baseOffset + active.count;
+    }
+
+    /**
+     * Seal the active segment and start a new one
+     */
+    private void roll() throws IOException {
+        Segment sealed = active;
+        synchronized (sealedUnforced) {
+            sealedUnforced.add(sealed);
+        }
+        long baseOffset = endOffset();
+        Segment next = Segment.open(directory, baseOffset, segmentBytes);
+        synchronized (segments) {
+            segments.put(baseOffset, next);
+            active = next;
+        }
+        applyRetention();
+    }
+
+    /**
+     * Delete the oldest segments beyond the size or age limit
+     */
+    private void applyRetention() throws IOException {
+        long now = System.currentTimeMillis();
+        synchronized (segments) {
+            // The active segment is the last one, so it is never deleted
+            while (segments.size() > 1) {
+                Segment oldest = segments.firstEntry().getValue();
+                boolean tooBig = (long) segments.size() * segmentBytes > retentionBytes;
+                boolean tooOld = retentionMillis > 0 && now - oldest.lastWriteMillis > retentionMillis;
+                if (!tooBig && !tooOld) {
+                    break;
+                }
+                segments.pollFirstEntry();
+                synchronized (sealedUnforced) {
+                    sealedUnforced.remove(oldest);
+                }
+                oldest.delete();
+                deletedSegments++;
+            }
+        }
+    }
+
+    /**
+     * Flusher thread: force recent appends, then drop expired segments
+     */
+    private void maintain() {
+        forceDirty();
+        try {
+            applyRetention();
+        } catch (IOException e) {
+            System.err.println("Error deleting old history segments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flusher thread: force everything appended since the last run
+     */
+    private void forceDirty() {
+        List<Segment> sealed;
+        synchronized (sealedUnforced) {
+            sealed = new ArrayList<>(sealedUnforced);
+            sealedUnforced.clear();
+        }
+        long upTo = appended;
+        if (sealed.isEmpty() && upTo == forcedUpTo) {
+            return;
+        }
+        for (Segment segment : sealed) {
+            segment.force();
+        }
+        active.force();
+        forcedUpTo = upTo;
+        forces++;
+    }
+
+    /**
+     * Force pending appends and close all segments
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        forceDirty();
+        synchronized (segments) {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (segments) {
+            return "ChatHistoryLog[offsets=" + startOffset() + ".." + endOffset() +
+                ", segments=" + segments.size() + ", deleted=" + deletedSegments +
+                ", appended=" + appended + ", forces=" + forces + "]";
+        }
+    }
+
+    /**
+     * One .log/.index file pair
+     */
+    private static final class Segment {
+        final long baseOffset;
+        long lastWriteMillis;
+        private final Path logPath;
+        private final Path indexPath;
+        private final FileChannel logChannel;
+        private final FileChannel indexChannel;
+        private final MappedByteBuffer log;
+        private final MappedByteBuffer index;
+        private final int maxMessages;
+        int count;
+        private int writePosition;
+
+        private Segment(long baseOffset, long lastWriteMillis, Path logPath, Path indexPath,
+                        FileChannel logChannel, FileChannel indexChannel,
+                        MappedByteBuffer log, MappedByteBuffer index) {
+            this.baseOffset = baseOffset;
+            this.lastWriteMillis = lastWriteMillis;
+            this.logPath = logPath;
+            this.indexPath = indexPath;
+            this.logChannel = logChannel;
+            this.indexChannel = indexChannel;
+            this.log = log;
+            this.index = index;
+            this.maxMessages = index.capacity() / INDEX_ENTRY_SIZE;
+
+            // The first zero entry, or the first frame whose bytes do not
+            // match its checksum, marks the end of the written messages
+            while (count < maxMessages) {
+                int end = index.getInt(count * INDEX_ENTRY_SIZE);
+                if (end <= writePosition || end > log.capacity()
+                        || index.getInt(count * INDEX_ENTRY_SIZE + Integer.BYTES)
+                            != checksum(log, writePosition, end - writePosition)) {
+                    break;
+                }
+                writePosition = end;
+                count++;
+            }
+            // Entries after a cut must not come back once new ones are appended
+            for (int i = count * INDEX_ENTRY_SIZE; i < maxMessages * INDEX_ENTRY_SIZE; i += Integer.BYTES) {
+                if (index.getInt(i) != 0) {
+                    index.putInt(i, 0);
+                }
+            }
+        }
+
+        private static int checksum(ByteBuffer log, int position, int length) {
+            CRC32C crc = new CRC32C();
+            crc.update(log.slice(position, length));
+            return (int) crc.getValue();
+        }
+
+        /**
+         * Map a segment's files, creating them at full size if needed
+         */
+        static Segment open(Path directory, long baseOffset, int segmentBytes) throws IOException {
+            String name = String.format("%020d", baseOffset);
+            Path logPath = directory.resolve(name + LOG_SUFFIX);
+            Path indexPath = directory.resolve(name + INDEX_SUFFIX);
+            boolean created = !Files.exists(logPath);
+
+            FileChannel logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileChannel indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int logSize = created ? segmentBytes : (int) logChannel.size();
+            int indexSize = (logSize / BYTES_PER_INDEX_ENTRY) * INDEX_ENTRY_SIZE;
+
+            MappedByteBuffer log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, logSize);
+            MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexSize);
+            long lastWriteMillis = created ? System.currentTimeMillis()
+                : Files.getLastModifiedTime(logPath).toMillis();
+            return new Segment(baseOffset, lastWriteMillis, logPath, indexPath,
+                logChannel, indexChannel, log, index);
+        }
+
+        /**
+         * Copy a frame into the log and record it in the index
+         *
+         * @return false if the segment is full
+         */
+        boolean append(ByteBuffer frame) {
+            int length = frame.remaining();
+            if (count == maxMessages || writePosition + length > log.capacity()) {
+                return false;
+            }
+            log.put(writePosition, frame, frame.position(), length);
+            // Checksum first: a non-zero end position is what marks the entry as written
+            index.putInt(count * INDEX_ENTRY_SIZE + Integer.BYTES, checksum(log, writePosition, length));
+            writePosition += length;
+            index.putInt(count * INDEX_ENTRY_SIZE, writePosition);
+            count++;
+            lastWriteMillis = System.currentTimeMillis();
+            return true;
+        }
+
+        /**
+         * View of one stored frame (no bytes are copied)
+         */
+        ByteBuffer frame(int i) {
+            int start = i == 0 ? 0 : index.getInt((i - 1) * INDEX_ENTRY_SIZE);
+            int end = index.getInt(i * INDEX_ENTRY_SIZE);
+            return log.slice(start, end - start);
+        }
+
+        void force() {
+            log.force();
+            index.force();
+        }
+
+        void close() {
+            try {
+                logChannel.close();
+                indexChannel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing " + logPath + ": " + e.getMessage());
+            }
+        }
+
+        void delete() throws IOException {
+            close();
+            Files.deleteIfExists(logPath);
+            Files.deleteIfExists(indexPath);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+import java.io.*;
+import java.net.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ChatLoadTest - Load Test for the Multi-Client ChatServer
+ *
+ * This program demonstrates:
+ * - Simulating thousands of socket clients with virtual threads
+ * - Measuring connection count, message rate and fan-out latency
+ * - Using the same writeUTF protocol as ChatClient
+ *
+ * Every simulated client connects, greets the server, joins one of the
+ * test rooms and sends a number of timestamped messages. Receivers compute
+ * the fan-out latency from the timestamp, which works because all clients
+ * run in this JVM and share the same System.nanoTime() clock.
+ *
+ * Usage: java ChatLoadTest [clients] [rooms] [messagesPerClient] [intervalMillis]
+ *   defaults: 1000 clients, 10 rooms, 20 messages, 50 ms between messages
+ *
+ * Start ChatServer first. For more than ~1000 clients raise the open file
+ * limit (ulimit -n) for both JVMs.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class ChatLoadTest {
+
+    private static final String SERVER_HOST = "localhost";
+    private static final int SERVER_PORT = 55555;
+    private static final String PAYLOAD_TAG = "LOAD ";
+
+    // Power-of-two latency buckets in microseconds
+    private static final int BUCKETS = 40;
+    private static final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+
+    private static final AtomicInteger connected = new AtomicInteger();
+    private static final LongAdder sent = new LongAdder();
+    private static final LongAdder delivered = new LongAdder();
+    private static final LongAdder errors = new LongAdder();
+    // Set once the test has finished and the connections are being closed
+    private static volatile boolean finishing;
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int rooms = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int messages = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long intervalMillis = args.length > 3 ? Long.parseLong(args[3]) : 50;
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║     Chat Server Load Test         ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+        System.out.printf("Clients: %d | Rooms: %d | Messages/client: %d | Interval: %d ms%n%n",
+            clients, rooms, messages, intervalMillis);
+
+        CountDownLatch allJoined = new CountDownLatch(clients);
+        CountDownLatch startSending = new CountDownLatch(1);
+        List<Socket> sockets = new ArrayList<>();
+
+        long connectStart = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                String room = "room-" + (i % rooms);
+                executor.submit(() -> runClient(room, messages, intervalMillis,
+                    allJoined, startSending, sockets));
+            }
+
+            allJoined.await(60, TimeUnit.SECONDS);
+            double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+            System.out.printf("✓ Connected clients: %d (%.2f s)%n", connected.get(), connectSeconds);
+
+            long sendStart = System.nanoTime();
+            startSending.countDown();
+
+            // Progress until every client has sent its messages
+            long expectedSent = (long) connected.get() * messages;
+            while (sent.sum() < expectedSent && errors.sum() < clients) {
+                Thread.sleep(1000);
+                System.out.printf("   sent=%d delivered=%d%n", sent.sum(), delivered.sum());
+            }
+            // Let the last broadcasts arrive (until deliveries stop growing)
+            long lastDelivered = -1;
+            long lastChange = System.nanoTime();
+            while (System.nanoTime() - lastChange < 1_000_000_000L) {
+                long now = delivered.sum();
+                if (now != lastDelivered) {
+                    lastDelivered = now;
+                    lastChange = System.nanoTime();
+                }
+                Thread.sleep(100);
+            }
+            double seconds = (lastChange - sendStart) / 1e9;
+
+            // Half-close so the server hangs up and the receivers see EOF
+            finishing = true;
+            synchronized (sockets) {
+                for (Socket s : sockets) {
+                    try {
+                        s.shutdownOutput();
+                    } catch (IOException e) {
+                        // The server already closed this one
+                    }
+                }
+            }
+            report(seconds);
+        }
+    }
+
+    /**
+     * One simulated client: connect, greet, join a room, send, and receive
+     */
+    private static void runClient(String room, int messages, long intervalMillis,
+                                  CountDownLatch allJoined, CountDownLatch startSending,
+                                  List<Socket> sockets) {
+        boolean joined = false;
+        try {
+            Socket socket = new Socket(SERVER_HOST, SERVER_PORT);
+            socket.setTcpNoDelay(true);
+            synchronized (sockets) {
+                sockets.add(socket);
+            }
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream()));
+
+            out.writeUTF("Client: Hello Server! Ready to chat.");
+            out.writeUTF("Client: /join " + room);
+            out.flush();
+            in.readUTF(); // welcome message
+
+            connected.incrementAndGet();
+            allJoined.countDown();
+            joined = true;
+
+            // Receive broadcasts on a separate virtual thread
+            Thread.ofVirtual().start(() -> receiveLoop(in));
+
+            startSending.await();
+            for (int m = 0; m < messages; m++) {
+                out.writeUTF("Client: " + PAYLOAD_TAG + System.nanoTime());
+                out.flush();
+                sent.increment();
+                Thread.sleep(intervalMillis);
+            }
+        } catch (IOException | InterruptedException e) {
+            errors.increment();
+        } finally {
+            if (!joined) {
+                allJoined.countDown();
+            }
+        }
+    }
+
+    /**
+     * Count deliveries and record latency of timestamped messages
+     */
+    private static void receiveLoop(DataInputStream in) {
+        String msg;
+        while ((msg = readMessage(in)) != null) {
+            int tag = msg.indexOf(PAYLOAD_TAG);
+            if (tag < 0) {
+                continue;
+            }
+            long sentAt = Long.parseLong(msg.substring(tag + PAYLOAD_TAG.length()));
+            long micros = (System.nanoTime() - sentAt) / 1_000;
+            latencyBuckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+            delivered.increment();
+        }
+    }
+
+    /**
+     * Read one message, or null once the server has closed the connection
+     *
+     * EOF is the normal end once the test is finishing; before that the
+     * connection was lost, which counts as a client error.
+     */
+    private static String readMessage(DataInputStream in) {
+        try {
+            return in.readUTF();
+        } catch (IOException e) {
+            if (!finishing) {
+                errors.increment();
+                System.err.println("✗ Connection lost during the test: " + e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Print throughput and latency percentiles
+     */
+    private static void report(double seconds) {
+        System.out.println("\n" + "=".repeat(50));
+        System.out.println("Load Test Results");
+        System.out.println("=".repeat(50));
+        System.out.printf("Connected clients:   %d%n", connected.get());
+        System.out.printf("Client errors:       %d%n", errors.sum());
+        System.out.printf("Messages sent:       %d (%.0f msg/s)%n", sent.sum(), sent.sum() / seconds);
+        System.out.printf("Messages delivered:  %d (%.0f msg/s)%n", delivered.sum(), delivered.sum() / seconds);
+        System.out.printf("Fan-out latency:     p50 ≤ %d µs | p99 ≤ %d µs | max ≤ %d µs%n",
+            percentile(0.50), percentile(0.99), percentile(1.0));
+        System.out.println("=".repeat(50));
+    }
+
+    private static long percentile(double fraction) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += latencyBuckets.get(i);
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * fraction));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += latencyBuckets.get(i);
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 0;
+    }
+}
@@ -1,145 +1,733 @@
 import java.io.*;
 import java.net.*;
-import java.util.Scanner;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
- * ChatServer - Simple Chat Server using Sockets
- * 
+ * ChatServer - Multi-Client Chat Server using NIO
+ *
  * This program demonstrates:
- * - ServerSocket for accepting connections
- * - Socket communication
- * - DataInputStream and DataOutputStream
- * - Bidirectional communication
- * - Simple chat protocol
- * 
+ * - ServerSocketChannel for accepting connections
+ * - Selector-based non-blocking I/O (one thread, many clients)
+ * - DataOutputStream.writeUTF compatible framing
+ * - Chat rooms with broadcast to every member
+ * - Encode-once broadcast from pooled direct buffers
+ * - Bounded per-client queues that never block the broadcaster
+ * - Optional persistent history with replay (see ChatHistoryLog)
+ * - Negotiated binary framing with heartbeats (see ChatFrameCodec)
+ *
+ * Protocol (compatible with ChatClient):
+ * - The first message of a client is its greeting; the server answers
+ *   with a welcome message and puts the client in the "lobby" room.
+ *   A greeting ending in ChatFrameCodec.PROTOCOL_OFFER switches the
+ *   client to binary frames after the welcome; such clients get
+ *   heartbeats and are disconnected after the idle timeout. Clients
+ *   that stay on writeUTF have no idle timeout.
+ * - Every other message is broadcast to all clients in the sender's
+ *   room, including the sender, so alternating clients get a reply.
+ * - "/join <room>" moves the client to another room.
+ * - "/rooms" lists the rooms and their member counts.
+ * - "/replay <offset>" resends the chat history from that offset
+ *   (only when the server runs with --history).
+ * - "bye" disconnects the client.
+ *
+ * Lines typed on the server console are broadcast to every room;
+ * "/stats" prints server statistics and "bye" shuts the server down.
+ *
+ * Usage: java ChatServer [--max-queue N] [--slow-consumer drop|disconnect]
+ *                        [--history DIR] [--history-segment-mb N]
+ *                        [--history-retention-mb N] [--history-retention-hours N]
+ *                        [--history-flush-ms N] [--heartbeat-ms N] [--idle-timeout-ms N]
+ *   --max-queue N    frames that may wait for one client (default: 1024)
+ *   --slow-consumer  what to do when that queue is full (default: drop)
+ *   --history DIR    keep chat messages in a memory-mapped log in DIR
+ *   --history-*      segment size (16), retention size (1024) and age
+ *                    (0 = no limit), and group-commit interval (200 ms)
+ *   --heartbeat-ms   heartbeat interval for binary clients (10000)
+ *   --idle-timeout-ms  disconnect silent binary clients after (30000)
+ *
  * Original: MyChatServer practical
- * 
+ *
  * @author BICT Advanced Java Course
  * @version 1.0
  */
 public class ChatServer {
-    
+
+    /**
+     * What to do with a client whose outbound queue is full
+     */
+    public enum SlowConsumerPolicy {
+        /** Skip the new message for that client only */
+        DROP,
+        /** Close the connection of that client */
+        DISCONNECT
+    }
+
     private static final int PORT = 55555;
-    private ServerSocket serverSocket;
-    private Socket clientSocket;
-    private DataOutputStream outputStream;
-    private DataInputStream inputStream;
-    private Scanner scanner;
-    
+    private static final String DEFAULT_ROOM = "lobby";
+    private static final int MAX_GATHER = 64;
+    private static final int MAX_ROOM_NAME = 64;
+    private static final String WELCOME = "Server: Hello Client! Welcome to the chat server.";
+
+    private final Map<String, Set<ChatConnection>> rooms = new HashMap<>();
+    private final Queue<String> consoleMessages = new ConcurrentLinkedQueue<>();
+    private final int maxQueuedFrames;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final ChatHistoryLog history;
+    private final long heartbeatNanos;
+    private final long idleTimeoutNanos;
+
+    // Only touched by the selector thread
+    private final BufferPool bufferPool = new BufferPool(4096);
+    private final ByteBuffer[] gatherScratch = new ByteBuffer[MAX_GATHER];
+    private final List<ChatConnection> pendingFlush = new ArrayList<>();
+    private final List<ChatConnection> slowConsumers = new ArrayList<>();
+    private final ChatFrameCodec codec = new ChatFrameCodec();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running;
+    private int nextClientId = 1;
+    private int connectedClients;
+    private long messagesReceived;
+    private long framesQueued;
+    private long framesDropped;
+    private long slowConsumerDisconnects;
+    private long framesReplayed;
+    private long framesTooLong;
+    private int binaryClients;
+    private long heartbeatsSent;
+    private long idleDisconnects;
+    private long lastIdleCheck = System.nanoTime();
+
+    public ChatServer() {
+        this(1024, SlowConsumerPolicy.DROP, null);
+    }
+
+    public ChatServer(int maxQueuedFrames, SlowConsumerPolicy slowConsumerPolicy, ChatHistoryLog history) {
+        this(maxQueuedFrames, slowConsumerPolicy, history,
+            ChatFrameCodec.DEFAULT_HEARTBEAT_MILLIS, ChatFrameCodec.DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param maxQueuedFrames frames that may wait for one client
+     * @param slowConsumerPolicy what to do when a client's queue is full
+     * @param history log for chat messages, or null to keep no history
+     * @param heartbeatMillis heartbeat interval for binary clients
+     * @param idleTimeoutMillis disconnect binary clients silent for this long
+     */
+    public ChatServer(int maxQueuedFrames, SlowConsumerPolicy slowConsumerPolicy, ChatHistoryLog history,
+                      long heartbeatMillis, long idleTimeoutMillis) {
+        this.maxQueuedFrames = maxQueuedFrames;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.history = history;
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    }
+
     /**
-     * Initialize server resources
+     * Initialize server resources and run the event loop
      */
     public void startServer() {
         System.out.println("╔═══════════════════════════════════╗");
         System.out.println("║     Chat Server - BICT Course     ║");
         System.out.println("╚═══════════════════════════════════╝\n");
-        
+
         try {
-            // Create server socket
-            serverSocket = new ServerSocket(PORT);
+            // Create non-blocking server channel
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(PORT), 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            running = true;
+
             System.out.println("✓ Server started on port " + PORT);
-            System.out.println("⏳ Waiting for client connection...\n");
-            
-            // Accept client connection
-            clientSocket = serverSocket.accept();
-            System.out.println("✓ Client connected from: " + 
-                             clientSocket.getInetAddress().getHostAddress());
-            System.out.println();
-            
-            // Setup streams
-            outputStream = new DataOutputStream(clientSocket.getOutputStream());
-            inputStream = new DataInputStream(clientSocket.getInputStream());
-            scanner = new Scanner(System.in);
-            
-            // Initial greeting
-            String welcomeMsg = inputStream.readUTF();
-            System.out.println("📩 " + welcomeMsg);
-            
-            String greeting = "Server: Hello Client! Welcome to the chat server.";
-            outputStream.writeUTF(greeting);
-            outputStream.flush();
-            System.out.println("📤 " + greeting + "\n");
-            
-            // Start chat loop
-            chatLoop();
-            
+            System.out.println("  Outbound queue: " + maxQueuedFrames + " frames, slow consumers: " +
+                slowConsumerPolicy.name().toLowerCase());
+            if (history != null) {
+                System.out.println("  History: " + history);
+            }
+            System.out.println("⏳ Waiting for client connections...\n");
+
+            startConsoleReader();
+
+            // Start event loop
+            eventLoop();
+
         } catch (IOException e) {
             System.err.println("Server error: " + e.getMessage());
         } finally {
             cleanup();
         }
     }
-    
+
     /**
-     * Main chat loop for exchanging messages
+     * Main event loop - accepts, reads and writes for every client
      */
-    private void chatLoop() {
+    private void eventLoop() throws IOException {
         System.out.println("=".repeat(50));
-        System.out.println("Chat started! Type 'bye' to exit.");
+        System.out.println("Chat started! Type a message to broadcast, 'bye' to exit.");
         System.out.println("=".repeat(50) + "\n");
-        
-        while (true) {
-            try {
-                // Receive message from client
-                String clientMsg = inputStream.readUTF();
-                System.out.println("📩 " + clientMsg);
-                
-                // Check if client wants to disconnect
-                if (clientMsg.toLowerCase().contains("bye")) {
-                    System.out.println("\n✓ Client disconnected.");
-                    break;
+
+        long selectTimeout = Math.max(1, TimeUnit.NANOSECONDS.toMillis(heartbeatNanos) / 2);
+        while (running) {
+            selector.select(selectTimeout);
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    acceptClient();
+                    continue;
+                }
+
+                ChatConnection conn = (ChatConnection) key.attachment();
+                try {
+                    if (key.isReadable() && !conn.read(this::handleMessage)) {
+                        disconnect(conn, "closed connection");
+                        continue;
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        conn.flush(gatherScratch);
+                        continueReplay(conn);
+                    }
+                } catch (IOException e) {
+                    disconnect(conn, "error: " + e.getMessage());
                 }
-                
-                // Send message to client
-                System.out.print("You: ");
-                String serverMsg = scanner.nextLine();
-                outputStream.writeUTF("Server: " + serverMsg);
-                outputStream.flush();
-                
-                // Check if server wants to disconnect
-                if (serverMsg.equalsIgnoreCase("bye")) {
+            }
+
+            // Messages typed on the server console
+            String consoleMsg;
+            while ((consoleMsg = consoleMessages.poll()) != null) {
+                if (consoleMsg.equalsIgnoreCase("bye")) {
                     System.out.println("\n✓ Server shutting down.");
-                    break;
+                    broadcastAll("Server: bye");
+                    running = false;
+                } else if (consoleMsg.equals("/stats")) {
+                    printStats();
+                } else {
+                    broadcastAll("Server: " + consoleMsg);
+                }
+            }
+
+            long now = System.nanoTime();
+            if (now - lastIdleCheck >= heartbeatNanos / 2) {
+                lastIdleCheck = now;
+                checkIdleConnections(now);
+            }
+
+            // One gathering write per client for everything queued this round
+            flushPending();
+        }
+    }
+
+    /**
+     * Send heartbeats to quiet binary clients and drop silent ones
+     */
+    private void checkIdleConnections(long now) {
+        List<ChatConnection> idle = new ArrayList<>();
+        SharedFrame heartbeat = null;
+        for (SelectionKey key : selector.keys()) {
+            if (!(key.attachment() instanceof ChatConnection conn) || !conn.isBinary() || !conn.isOpen()) {
+                continue;
+            }
+            if (now - conn.getLastReadNanos() > idleTimeoutNanos) {
+                idle.add(conn);
+            } else if (now - conn.getLastWriteNanos() >= heartbeatNanos && conn.getPendingFrames() == 0) {
+                if (heartbeat == null) {
+                    heartbeat = encodeControl(ChatFrameCodec.Frame.HEARTBEAT);
+                }
+                deliver(conn, heartbeat);
+                heartbeatsSent++;
+            }
+        }
+        if (heartbeat != null) {
+            heartbeat.release();
+        }
+        for (ChatConnection conn : idle) {
+            idleDisconnects++;
+            disconnect(conn, "timed out (no heartbeat)");
+        }
+        disconnectSlowConsumers();
+    }
+
+    /**
+     * Accept all pending connections
+     */
+    private void acceptClient() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+
+            String name = "client-" + nextClientId++;
+            key.attach(new ChatConnection(channel, key, name, maxQueuedFrames));
+            connectedClients++;
+
+            if (connectedClients <= 10 || connectedClients % 1000 == 0) {
+                System.out.println("✓ " + name + " connected from: " +
+                    ((InetSocketAddress) channel.getRemoteAddress()).getAddress().getHostAddress() +
+                    " (" + connectedClients + " online)");
+            }
+        }
+    }
+
+    /**
+     * Handle one decoded message from a client
+     */
+    private void handleMessage(ChatConnection conn, String message) {
+        if (!conn.isOpen()) {
+            return;
+        }
+        messagesReceived++;
+
+        // Initial greeting
+        if (!conn.isGreeted()) {
+            conn.setGreeted(true);
+            if (message.endsWith(ChatFrameCodec.PROTOCOL_OFFER)) {
+                // Accept the offer in writeUTF, then switch
+                sendTo(conn, WELCOME + " " + ChatFrameCodec.PROTOCOL_OFFER);
+                conn.useBinaryFrames(codec);
+                binaryClients++;
+            } else {
+                sendTo(conn, WELCOME);
+            }
+            if (history != null) {
+                sendTo(conn, "Server: History holds offsets " + history.startOffset() + " to " +
+                    history.endOffset() + " (exclusive), use /replay <offset>");
+            }
+            joinRoom(conn, DEFAULT_ROOM);
+            return;
+        }
+
+        // ChatClient prefixes messages with "Client: "
+        String text = message.startsWith("Client: ") ? message.substring(8) : message;
+
+        if (text.equalsIgnoreCase("bye")) {
+            disconnect(conn, "said bye");
+        } else if (text.startsWith("/join ")) {
+            joinRoom(conn, text.substring(6).trim());
+        } else if (text.equals("/rooms")) {
+            StringBuilder sb = new StringBuilder("Server: Rooms -");
+            rooms.forEach((name, members) -> sb.append(' ').append(name).append('(').append(members.size()).append(')'));
+            sendTo(conn, sb.toString());
+        } else if (text.startsWith("/replay")) {
+            startReplay(conn, text.substring(7).trim());
+        } else if (!broadcast(conn.getRoom(), "[" + conn.getRoom() + "] " + conn.getName() + ": " + text, true)) {
+            sendTo(conn, "Server: Message too long for some clients, not delivered to them.");
+        }
+    }
+
+    /**
+     * Move a connection into a room, announcing it to the members
+     */
+    private void joinRoom(ChatConnection conn, String room) {
+        if (room.isEmpty()) {
+            room = DEFAULT_ROOM;
+        }
+        if (room.length() > MAX_ROOM_NAME) {
+            sendTo(conn, "Server: Room names are limited to " + MAX_ROOM_NAME + " characters.");
+            return;
+        }
+        leaveRoom(conn);
+        conn.setRoom(room);
+        rooms.computeIfAbsent(room, r -> new LinkedHashSet<>()).add(conn);
+        broadcast(room, "Server: " + conn.getName() + " joined [" + room + "]", false);
+    }
+
+    private void leaveRoom(ChatConnection conn) {
+        String room = conn.getRoom();
+        if (room == null) {
+            return;
+        }
+        Set<ChatConnection> members = rooms.get(room);
+        if (members != null) {
+            members.remove(conn);
+            if (members.isEmpty()) {
+                rooms.remove(room);
+            }
+        }
+        conn.setRoom(null);
+    }
+
+    /**
+     * Send a message to every member of a room
+     *
+     * The message is encoded at most once per framing (writeUTF and
+     * binary) into pooled direct buffers which all members share; the
+     * buffers return to the pool after the last write. The history log
+     * stores the writeUTF frame, and its offset becomes the sequence
+     * number of the binary frame.
+     *
+     * @param record also append the message to the history log
+     * @return false if the message was too long for some members
+     */
+    private boolean broadcast(String room, String message, boolean record) {
+        Set<ChatConnection> members = rooms.get(room);
+        if (members == null) {
+            return true;
+        }
+        SharedFrame utfFrame = null;
+        SharedFrame binaryFrame = null;
+        boolean utfTooLong = false;
+        boolean binaryTooLong = false;
+        long sequence = -1;
+
+        if (record && history != null) {
+            utfFrame = encode(false, room, sequence, message);
+            utfTooLong = utfFrame == null;
+            if (utfFrame != null) {
+                try {
+                    sequence = history.append(utfFrame);
+                } catch (IOException e) {
+                    System.err.println("History append failed: " + e.getMessage());
                 }
-                
+            }
+        }
+
+        int skipped = 0;
+        for (ChatConnection member : members) {
+            SharedFrame frame;
+            if (member.isBinary()) {
+                if (binaryFrame == null && !binaryTooLong) {
+                    binaryFrame = encode(true, room, sequence, message);
+                    binaryTooLong = binaryFrame == null;
+                }
+                frame = binaryFrame;
+            } else {
+                if (utfFrame == null && !utfTooLong) {
+                    utfFrame = encode(false, room, sequence, message);
+                    utfTooLong = utfFrame == null;
+                }
+                frame = utfFrame;
+            }
+            if (frame != null) {
+                deliver(member, frame);
+            } else {
+                skipped++;
+            }
+        }
+        if (utfFrame != null) utfFrame.release();
+        if (binaryFrame != null) binaryFrame.release();
+        framesTooLong += skipped;
+        disconnectSlowConsumers();
+        return skipped == 0;
+    }
+
+    /**
+     * Encode a message in one of the two framings
+     *
+     * @return the frame, or null if the message is too long for the framing
+     */
+    private SharedFrame encode(boolean binary, String room, long sequence, String message) {
+        try {
+            if (binary) {
+                return SharedFrame.encode(bufferPool, codec, ChatFrameCodec.Frame.message(room, sequence, message));
+            }
+            return SharedFrame.encode(bufferPool, message);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private SharedFrame encodeControl(ChatFrameCodec.Frame frame) {
+        try {
+            return SharedFrame.encode(bufferPool, codec, frame);
+        } catch (IOException e) {
+            throw new IllegalStateException("Control frame cannot be encoded", e);
+        }
+    }
+
+    private void broadcastAll(String message) {
+        for (String room : new ArrayList<>(rooms.keySet())) {
+            broadcast(room, message, false);
+        }
+        flushPending();
+    }
+
+    private void sendTo(ChatConnection conn, String message) {
+        SharedFrame frame = encode(conn.isBinary(), "", -1, message);
+        if (frame == null) {
+            System.err.println("Cannot send to " + conn.getName() + ": message too long");
+            return;
+        }
+        deliver(conn, frame);
+        frame.release();
+        disconnectSlowConsumers();
+    }
+
+    /**
+     * Queue a frame for one client without ever blocking
+     */
+    private void deliver(ChatConnection conn, SharedFrame frame) {
+        if (conn.send(frame)) {
+            framesQueued++;
+            if (!conn.isFlushScheduled()) {
+                conn.setFlushScheduled(true);
+                pendingFlush.add(conn);
+            }
+        } else if (slowConsumerPolicy == SlowConsumerPolicy.DROP) {
+            framesDropped++;
+        } else {
+            framesDropped++;
+            slowConsumers.add(conn);
+        }
+    }
+
+    private void disconnectSlowConsumers() {
+        while (!slowConsumers.isEmpty()) {
+            ChatConnection conn = slowConsumers.remove(slowConsumers.size() - 1);
+            if (conn.isOpen()) {
+                slowConsumerDisconnects++;
+                disconnect(conn, "disconnected (slow consumer, " + conn.getPendingFrames() + " frames queued)");
+            }
+        }
+    }
+
+    /**
+     * Write out everything queued during this event-loop round
+     */
+    private void flushPending() {
+        // Disconnects may queue more frames, so the size is re-read each pass
+        for (int i = 0; i < pendingFlush.size(); i++) {
+            ChatConnection conn = pendingFlush.get(i);
+            conn.setFlushScheduled(false);
+            if (!conn.isOpen()) {
+                continue;
+            }
+            try {
+                conn.flush(gatherScratch);
+                continueReplay(conn);
             } catch (IOException e) {
-                System.err.println("Communication error: " + e.getMessage());
-                break;
+                disconnect(conn, "error: " + e.getMessage());
+            }
+        }
+        pendingFlush.clear();
+    }
+
+    /**
+     * Handle "/replay <offset>": start streaming history to a client
+     */
+    private void startReplay(ChatConnection conn, String argument) {
+        if (history == null) {
+            sendTo(conn, "Server: History is not enabled on this server.");
+            return;
+        }
+        long offset;
+        try {
+            offset = argument.isEmpty() ? history.startOffset() : Long.parseLong(argument);
+        } catch (NumberFormatException e) {
+            sendTo(conn, "Server: Usage: /replay <offset>");
+            return;
+        }
+        if (offset < history.startOffset()) {
+            sendTo(conn, "Server: History before offset " + history.startOffset() + " has expired.");
+            offset = history.startOffset();
+        }
+        long end = history.endOffset();
+        if (offset >= end) {
+            sendTo(conn, "Server: No history from offset " + offset + " (next offset is " + end + ")");
+            return;
+        }
+        sendTo(conn, "Server: Replaying offsets " + offset + " to " + end + " (exclusive)");
+        conn.startReplay(offset, end);
+        continueReplay(conn);
+    }
+
+    /**
+     * Queue more history for a replaying client
+     *
+     * Only half of the client's queue is filled at a time so live
+     * messages still fit; the rest follows on the next OP_WRITE. The
+     * frames are slices of the memory-mapped log, so nothing is copied.
+     */
+    private void continueReplay(ChatConnection conn) {
+        long offset = conn.getReplayOffset();
+        if (offset < 0 || !conn.isOpen()) {
+            return;
+        }
+        if (offset < history.startOffset()) {
+            // Deleted by retention while replaying
+            offset = history.startOffset();
+        }
+        int budget = Math.max(1, maxQueuedFrames / 2) - conn.getPendingFrames();
+        long end = conn.getReplayEnd();
+        while (budget-- > 0 && offset < end) {
+            SharedFrame frame = history.read(offset);
+            if (conn.isBinary()) {
+                frame = toBinary(frame, offset);
+            }
+            if (frame != null) {
+                conn.send(frame);
+                frame.release();
+                framesReplayed++;
             }
+            offset++;
+        }
+        conn.setReplayOffset(offset);
+        conn.requestWrite();
+    }
+
+    /**
+     * Re-encode a stored writeUTF frame for a binary client
+     *
+     * Stored frames can only be sent as they are to writeUTF clients;
+     * binary clients get a copy with the history offset as sequence.
+     */
+    private SharedFrame toBinary(SharedFrame stored, long offset) {
+        try {
+            String text = ModifiedUtf8.decode(stored.viewFrom(2), stored.length() - 2);
+            String room = text.startsWith("[") && text.indexOf(']') > 0 ? text.substring(1, text.indexOf(']')) : "";
+            return encode(true, room, offset, text);
+        } catch (UTFDataFormatException e) {
+            System.err.println("Corrupt history entry at offset " + offset + ": " + e.getMessage());
+            return null;
+        } finally {
+            stored.release();
+        }
+    }
+
+    /**
+     * Remove a client from its room and close the socket
+     */
+    private void disconnect(ChatConnection conn, String reason) {
+        if (!conn.isOpen()) {
+            return;
+        }
+        String room = conn.getRoom();
+        leaveRoom(conn);
+        conn.close();
+        connectedClients--;
+        if (conn.isBinary()) {
+            binaryClients--;
+        }
+
+        if (connectedClients < 10 || connectedClients % 1000 == 0) {
+            System.out.println("✓ " + conn.getName() + " " + reason + " (" + connectedClients + " online)");
+        }
+        if (room != null) {
+            broadcast(room, "Server: " + conn.getName() + " left [" + room + "]", false);
         }
     }
-    
+
+    /**
+     * Print connection, traffic and buffer statistics
+     */
+    private void printStats() {
+        System.out.println("\n📊 Server Statistics");
+        System.out.println("  • Clients online: " + connectedClients + " (" + binaryClients + " binary) in " +
+            rooms.size() + " room(s)");
+        System.out.println("  • Messages received: " + messagesReceived);
+        System.out.println("  • Frames queued: " + framesQueued + " | dropped: " + framesDropped +
+            " | slow consumers disconnected: " + slowConsumerDisconnects + " | too long: " + framesTooLong);
+        System.out.println("  • Heartbeats sent: " + heartbeatsSent + " | idle disconnects: " + idleDisconnects +
+            " | frames deflated: " + codec.getFramesDeflated() + " (" + codec.getBytesSaved() + " bytes saved)");
+        System.out.println("  • " + bufferPool);
+        if (history != null) {
+            System.out.println("  • Frames replayed: " + framesReplayed + " | " + history);
+        }
+    }
+
+    /**
+     * Read server console lines on a daemon thread
+     */
+    private void startConsoleReader() {
+        Thread console = new Thread(() -> {
+            Scanner scanner = new Scanner(System.in);
+            while (running && scanner.hasNextLine()) {
+                consoleMessages.add(scanner.nextLine());
+                selector.wakeup();
+            }
+        }, "Console-Reader");
+        console.setDaemon(true);
+        console.start();
+    }
+
     /**
      * Clean up resources
      */
     private void cleanup() {
         try {
-            if (inputStream != null) inputStream.close();
-            if (outputStream != null) outputStream.close();
-            if (clientSocket != null) clientSocket.close();
-            if (serverSocket != null) serverSocket.close();
-            if (scanner != null) scanner.close();
+            if (selector != null) {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof ChatConnection conn) {
+                        conn.close();
+                    } else {
+                        key.channel().close();
+                    }
+                }
+                selector.close();
+            }
+            if (serverChannel != null) serverChannel.close();
+            printStats();
+            if (history != null) history.close();
             System.out.println("\n✓ All resources cleaned up.");
         } catch (IOException e) {
             System.err.println("Error during cleanup: " + e.getMessage());
         }
     }
-    
+
     /**
      * Main method
      */
     public static void main(String[] args) {
-        ChatServer server = new ChatServer();
-        
+        int maxQueue = 1024;
+        SlowConsumerPolicy policy = SlowConsumerPolicy.DROP;
+        String historyDir = null;
+        int segmentMb = 16;
+        long retentionMb = 1024;
+        long retentionHours = 0;
+        long flushMillis = 200;
+        long heartbeatMillis = ChatFrameCodec.DEFAULT_HEARTBEAT_MILLIS;
+        long idleTimeoutMillis = ChatFrameCodec.DEFAULT_IDLE_TIMEOUT_MILLIS;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--max-queue" -> maxQueue = Integer.parseInt(args[i + 1]);
+                case "--slow-consumer" -> policy = SlowConsumerPolicy.valueOf(args[i + 1].toUpperCase());
+                case "--history" -> historyDir = args[i + 1];
+                case "--history-segment-mb" -> segmentMb = Integer.parseInt(args[i + 1]);
+                case "--history-retention-mb" -> retentionMb = Long.parseLong(args[i + 1]);
+                case "--history-retention-hours" -> retentionHours = Long.parseLong(args[i + 1]);
+                case "--history-flush-ms" -> flushMillis = Long.parseLong(args[i + 1]);
+                case "--heartbeat-ms" -> heartbeatMillis = Long.parseLong(args[i + 1]);
+                case "--idle-timeout-ms" -> idleTimeoutMillis = Long.parseLong(args[i + 1]);
+                default -> System.err.println("Unknown option: " + args[i]);
+            }
+        }
+
+        ChatHistoryLog history = null;
+        if (historyDir != null) {
+            try {
+                history = new ChatHistoryLog(Path.of(historyDir), segmentMb << 20, retentionMb << 20,
+                    retentionHours * 3_600_000L, flushMillis);
+            } catch (IOException e) {
+                System.err.println("Cannot open history in " + historyDir + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        ChatServer server = new ChatServer(maxQueue, policy, history, heartbeatMillis, idleTimeoutMillis);
+
         System.out.println("Starting Chat Server...");
         System.out.println("Instructions:");
         System.out.println("  1. Run this server first");
-        System.out.println("  2. Then run ChatClient in another terminal");
-        System.out.println("  3. Type messages and press Enter");
-        System.out.println("  4. Type 'bye' to disconnect\n");
-        
+        System.out.println("  2. Then run one or more ChatClients in other terminals");
+        System.out.println("  3. Type messages and press Enter to broadcast");
+        System.out.println("  4. Type '/stats' for statistics, 'bye' to shut down\n");
+
         server.startServer();
-        
+
         System.out.println("\nChat Server stopped.");
     }
 }
@@ -0,0 +1,282 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CidrMatcher - Longest-Prefix Matching of Addresses Against CIDR Ranges
+ *
+ * This class demonstrates:
+ * - A Patricia trie (path-compressed binary radix trie) over prefixes
+ * - Longest-prefix match, as routers and firewalls use it
+ * - Storing a tree in parallel primitive arrays instead of node objects
+ * - Lookups that allocate nothing, for millions of checks per second
+ *
+ * Each range ("10.0.0.0/8", "2001:db8::/32", or a single address) maps to
+ * a value, for example "allow" or "deny". match() returns the value of the
+ * most specific range containing the address, so an allow list can carve
+ * exceptions out of a deny list:
+ * <pre>
+ *   CidrMatcher&lt;String&gt; rules = new CidrMatcher&lt;&gt;();
+ *   rules.add("10.0.0.0/8", "deny");
+ *   rules.add("10.1.0.0/16", "allow");
+ *   rules.match("10.1.2.3");  // "allow"
+ *   rules.match("10.9.9.9");  // "deny"
+ *   rules.match("8.8.8.8");   // null: no range contains it
+ * </pre>
+ *
+ * A node holds a whole run of bits (its prefix) rather than one bit, so a
+ * lookup visits at most one node per branching point, not one per bit.
+ * IPv4 and IPv6 ranges live in separate tries. Adding ranges is not
+ * thread-safe; once built, the matcher can be shared by any number of
+ * reading threads.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class CidrMatcher<V> {
+
+    private final PrefixTrie ipv4 = new PrefixTrie(32);
+    private final PrefixTrie ipv6 = new PrefixTrie(128);
+    private final List<V> values = new ArrayList<>();
+
+    // Per-thread scratch space for IPv6 parsing, so match() does not allocate
+    private static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Add a range; a later value for the same range replaces the earlier one
+     *
+     * @param cidr "address/prefixLength", or an address for a single host
+     * @throws IllegalArgumentException if the range is not valid
+     */
+    public void add(CharSequence cidr, V value) {
+        int slash = -1;
+        for (int i = 0; i < cidr.length(); i++) {
+            if (cidr.charAt(i) == '/') {
+                slash = i;
+                break;
+            }
+        }
+        int end = slash < 0 ? cidr.length() : slash;
+
+        long ipv4Address = IpAddressParser.parseIPv4(cidr, 0, end);
+        long[] ipv6Address = new long[2];
+        PrefixTrie trie;
+        long high;
+        long low;
+        if (ipv4Address != IpAddressParser.INVALID) {
+            trie = ipv4;
+            high = ipv4Address << 32;
+            low = 0;
+        } else if (IpAddressParser.parseIPv6(cidr, 0, end, ipv6Address)) {
+            trie = ipv6;
+            high = ipv6Address[0];
+            low = ipv6Address[1];
+        } else {
+            throw new IllegalArgumentException("Not an IP address or CIDR range: " + cidr);
+        }
+
+        int length = trie.maxBits;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(cidr.subSequence(slash + 1, cidr.length()).toString());
+            } catch (NumberFormatException e) {
+                length = -1;
+            }
+            if (length < 0 || length > trie.maxBits) {
+                throw new IllegalArgumentException("Bad prefix length in " + cidr);
+            }
+        }
+
+        values.add(value);
+        trie.insert(mask64(high, length), mask64(low, length - 64), length, values.size() - 1);
+    }
+
+    /**
+     * Value of the most specific range containing the address
+     *
+     * @return null if no range contains it, or it is not an IP address
+     */
+    public V match(CharSequence address) {
+        long ipv4Address = IpAddressParser.parseIPv4(address);
+        if (ipv4Address != IpAddressParser.INVALID) {
+            return matchIPv4(ipv4Address);
+        }
+        long[] scratch = SCRATCH.get();
+        if (IpAddressParser.parseIPv6(address, scratch)) {
+            return matchIPv6(scratch[0], scratch[1]);
+        }
+        return null;
+    }
+
+    /**
+     * @param address 32-bit address as returned by IpAddressParser.parseIPv4
+     */
+    public V matchIPv4(long address) {
+        return valueAt(ipv4.longestMatch(address << 32, 0));
+    }
+
+    public V matchIPv6(long high, long low) {
+        return valueAt(ipv6.longestMatch(high, low));
+    }
+
+    /**
+     * Ranges added (including replaced ones)
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Trie nodes in use, a measure of memory
+     */
+    public int nodeCount() {
+        return ipv4.count + ipv6.count;
+    }
+
+    private V valueAt(int index) {
+        return index < 0 ? null : values.get(index);
+    }
+
+    /**
+     * Keep the first bits of a 64-bit word (all of them if bits >= 64)
+     */
+    private static long mask64(long word, int bits) {
+        if (bits <= 0) {
+            return 0;
+        }
+        return bits >= 64 ? word : word & (-1L << (64 - bits));
+    }
+
+    /**
+     * Patricia trie in arrays: node i has a prefix (high, low, length), an
+     * optional value index and two children (-1 for none)
+     */
+    private static final class PrefixTrie {
+        private final int maxBits;
+        private long[] prefixHigh = new long[16];
+        private long[] prefixLow = new long[16];
+        private int[] length = new int[16];
+        private int[] value = new int[16];
+        private int[] zero = new int[16];
+        private int[] one = new int[16];
+        private int count;
+        private int root = -1;
+
+        PrefixTrie(int maxBits) {
+            this.maxBits = maxBits;
+        }
+
+        void insert(long high, long low, int bits, int valueIndex) {
+            if (root < 0) {
+                root = newNode(high, low, bits, valueIndex);
+                return;
+            }
+            int parent = -1;
+            int node = root;
+            while (true) {
+                int common = Math.min(Math.min(commonBits(high, low, prefixHigh[node], prefixLow[node]),
+                    length[node]), bits);
+                if (common < length[node]) {
+                    // The new prefix leaves this node's run of bits early: split it
+                    int split = newNode(mask64(high, common), mask64(low, common - 64), common,
+                        common == bits ? valueIndex : -1);
+                    setChild(split, bitAt(prefixHigh[node], prefixLow[node], common), node);
+                    if (common < bits) {
+                        setChild(split, bitAt(high, low, common), newNode(high, low, bits, valueIndex));
+                    }
+                    replaceChild(parent, node, split);
+                    return;
+                }
+                if (bits == length[node]) {
+                    value[node] = valueIndex;
+                    return;
+                }
+                int bit = bitAt(high, low, length[node]);
+                int child = bit == 0 ? zero[node] : one[node];
+                if (child < 0) {
+                    setChild(node, bit, newNode(high, low, bits, valueIndex));
+                    return;
+                }
+                parent = node;
+                node = child;
+            }
+        }
+
+        /**
+         * Value index of the longest prefix containing the address, or -1
+         */
+        int longestMatch(long high, long low) {
+            int best = -1;
+            int node = root;
+            while (node >= 0) {
+                int bits = length[node];
+                if (commonBits(high, low, prefixHigh[node], prefixLow[node]) < bits) {
+                    break;
+                }
+                if (value[node] >= 0) {
+                    best = value[node];
+                }
+                if (bits == maxBits) {
+                    break;
+                }
+                node = bitAt(high, low, bits) == 0 ? zero[node] : one[node];
+            }
+            return best;
+        }
+
+        private int newNode(long high, long low, int bits, int valueIndex) {
+            if (count == length.length) {
+                int capacity = count * 2;
+                prefixHigh = Arrays.copyOf(prefixHigh, capacity);
+                prefixLow = Arrays.copyOf(prefixLow, capacity);
+                length = Arrays.copyOf(length, capacity);
+                value = Arrays.copyOf(value, capacity);
+                zero = Arrays.copyOf(zero, capacity);
+                one = Arrays.copyOf(one, capacity);
+            }
+            int node = count++;
+            prefixHigh[node] = high;
+            prefixLow[node] = low;
+            length[node] = bits;
+            value[node] = valueIndex;
+            zero[node] = -1;
+            one[node] = -1;
+            return node;
+        }
+
+        private void setChild(int node, int bit, int child) {
+            if (bit == 0) {
+                zero[node] = child;
+            } else {
+                one[node] = child;
+            }
+        }
+
+        private void replaceChild(int parent, int oldChild, int newChild) {
+            if (parent < 0) {
+                root = newChild;
+            } else if (zero[parent] == oldChild) {
+                zero[parent] = newChild;
+            } else {
+                one[parent] = newChild;
+            }
+        }
+
+        /**
+         * Number of leading bits two 128-bit values share (128 if equal)
+         */
+        private static int commonBits(long highA, long lowA, long highB, long lowB) {
+            long diff = highA ^ highB;
+            if (diff != 0) {
+                return Long.numberOfLeadingZeros(diff);
+            }
+            return 64 + Long.numberOfLeadingZeros(lowA ^ lowB);
+        }
+
+        private static int bitAt(long high, long low, int index) {
+            return index < 64
+                ? (int) (high >>> (63 - index)) & 1
+                : (int) (low >>> (127 - index)) & 1;
+        }
+    }
+}
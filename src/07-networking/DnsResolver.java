@@ -0,0 +1,391 @@
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * DnsResolver - Concurrent Host Name Resolution with an Explicit Cache
+ *
+ * This class demonstrates:
+ * - Resolving many host names at once, callers on virtual threads
+ * - A bounded LRU cache for answers (positive) and failures (negative)
+ * - Sharing one lookup between callers asking for the same name
+ * - Blocking lookups on a fixed number of platform threads
+ * - Timeouts per lookup and hit/miss/latency statistics
+ *
+ * InetAddress.getAllByName blocks and keeps its own cache, which cannot be
+ * inspected or bounded. This resolver puts an explicit cache in front of
+ * it:
+ * - answers are kept for positiveTtl, "no such host" for negativeTtl
+ *   (InetAddress does not expose the TTL of the DNS records, so the TTLs
+ *   are configured, like the JVM's networkaddress.cache.ttl)
+ * - at most maxEntries names are kept; the least recently used goes first
+ * - while a name is being looked up, other callers for the same name wait
+ *   for that lookup instead of starting their own
+ * - lookups run on at most lookupThreads platform threads; further names
+ *   wait in a queue, so a batch of thousands does not start thousands of
+ *   OS threads (idle lookup threads end after a while)
+ * - a caller waits at most the timeout, time in the queue included; a
+ *   lookup that answers later still fills the cache for the next caller
+ *
+ * Literal IP addresses are answered without a lookup and never cached.
+ * The lookup itself is pluggable, so the cache can be tested offline.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class DnsResolver {
+
+    /**
+     * The actual name lookup, normally InetAddress.getAllByName
+     */
+    @FunctionalInterface
+    public interface Lookup {
+        InetAddress[] lookup(String host) throws UnknownHostException;
+    }
+
+    public enum Status { RESOLVED, NOT_FOUND, TIMED_OUT, FAILED }
+
+    /**
+     * Where an answer came from
+     */
+    public enum Source {
+        CACHE,   // cached answer or cached "not found"
+        LOOKUP,  // this caller started the lookup
+        SHARED,  // joined a lookup another caller had started
+        LITERAL  // the name was an IP address
+    }
+
+    /**
+     * Outcome of one resolve() call
+     *
+     * @param nanos time this caller spent in resolve()
+     */
+    public record Result(String host, Status status, List<InetAddress> addresses, Source source,
+                         long nanos, String error) {
+        public boolean isResolved() {
+            return status == Status.RESOLVED;
+        }
+    }
+
+    /**
+     * Counters since the resolver was created
+     *
+     * Lookup percentiles cover the real lookups only (not cache hits) and
+     * come from power-of-two buckets, as in ChatLoadTest.
+     */
+    public record Stats(long hits, long negativeHits, long misses, long shared, long timeouts, long failures,
+                        long evictions, int cachedNames, long lookupP50Micros, long lookupP99Micros) {
+        public double hitRatio() {
+            long total = hits + negativeHits + misses + shared;
+            return total == 0 ? 0 : (double) (hits + negativeHits) / total;
+        }
+    }
+
+    /** Lookups running at the same time, unless the constructor says otherwise */
+    public static final int DEFAULT_LOOKUP_THREADS = 64;
+
+    private static final int BUCKETS = 40;
+
+    private final Lookup lookup;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final int maxEntries;
+    private final long timeoutNanos;
+    private final LongSupplier clock;
+    // Platform threads: the system resolver is a blocking native call, which
+    // pins a virtual thread to its carrier and would serialise lookups
+    private final ThreadPoolExecutor lookups;
+
+    private final Map<String, Entry> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * A cached lookup result and when it stops being valid
+     */
+    private record Entry(Result result, long expiresAt) {
+    }
+
+    /**
+     * System resolver; 30 s answers, 10 s failures (the JVM's defaults),
+     * 10,000 names, 5 s timeout, 64 lookup threads
+     */
+    public DnsResolver() {
+        this(InetAddress::getAllByName, Duration.ofSeconds(30), Duration.ofSeconds(10), 10_000,
+            Duration.ofSeconds(5));
+    }
+
+    public DnsResolver(Lookup lookup, Duration positiveTtl, Duration negativeTtl, int maxEntries,
+                       Duration timeout) {
+        this(lookup, positiveTtl, negativeTtl, maxEntries, timeout, DEFAULT_LOOKUP_THREADS);
+    }
+
+    /**
+     * @param lookupThreads most lookups running at the same time
+     */
+    public DnsResolver(Lookup lookup, Duration positiveTtl, Duration negativeTtl, int maxEntries,
+                       Duration timeout, int lookupThreads) {
+        this(lookup, positiveTtl, negativeTtl, maxEntries, timeout, lookupThreads, System::nanoTime);
+    }
+
+    /**
+     * @param clock nanosecond clock for TTLs and timings (replaceable in checks)
+     */
+    DnsResolver(Lookup lookup, Duration positiveTtl, Duration negativeTtl, int maxEntries,
+                Duration timeout, int lookupThreads, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (lookupThreads <= 0) {
+            throw new IllegalArgumentException("lookupThreads must be positive");
+        }
+        this.lookup = lookup;
+        this.positiveTtlNanos = positiveTtl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.maxEntries = maxEntries;
+        this.timeoutNanos = timeout.toNanos();
+        this.clock = clock;
+        // Daemon threads that end when idle, so a forgotten resolver holds none
+        this.lookups = new ThreadPoolExecutor(lookupThreads, lookupThreads, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), Thread.ofPlatform().daemon().name("dns-lookup-", 0).factory());
+        this.lookups.allowCoreThreadTimeOut(true);
+        // Access order: iteration starts at the least recently used name
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > DnsResolver.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Resolve one name, from the cache if possible
+     *
+     * Never throws for an unknown host: the status says what happened.
+     */
+    public Result resolve(String host) {
+        long start = clock.getAsLong();
+        String name = host.trim().toLowerCase(Locale.ROOT);
+
+        if (isLiteral(name)) {
+            try {
+                return new Result(name, Status.RESOLVED, List.of(InetAddress.getAllByName(name)),
+                    Source.LITERAL, clock.getAsLong() - start, null);
+            } catch (UnknownHostException e) {
+                return new Result(name, Status.NOT_FOUND, List.of(), Source.LITERAL,
+                    clock.getAsLong() - start, e.getMessage());
+            }
+        }
+
+        Result cached = cached(name, start);
+        if (cached != null) {
+            (cached.isResolved() ? hits : negativeHits).increment();
+            return withSource(cached, Source.CACHE, clock.getAsLong() - start);
+        }
+
+        boolean[] started = {false};
+        CompletableFuture<Result> pending = inFlight.computeIfAbsent(name, key -> {
+            started[0] = true;
+            return new CompletableFuture<>();
+        });
+        Source source = started[0] ? Source.LOOKUP : Source.SHARED;
+        if (started[0]) {
+            misses.increment();
+            // Started only after the future is in the map, so finishing can remove it
+            lookups.execute(() -> lookUp(name, pending));
+        } else {
+            shared.increment();
+        }
+
+        try {
+            Result result = pending.get(timeoutNanos - (clock.getAsLong() - start), TimeUnit.NANOSECONDS);
+            return withSource(result, source, clock.getAsLong() - start);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return new Result(name, Status.TIMED_OUT, List.of(), source, clock.getAsLong() - start,
+                "No answer within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.increment();
+            return new Result(name, Status.FAILED, List.of(), source, clock.getAsLong() - start, "Interrupted");
+        } catch (ExecutionException e) {
+            failures.increment();
+            return new Result(name, Status.FAILED, List.of(), source, clock.getAsLong() - start,
+                String.valueOf(e.getCause()));
+        }
+    }
+
+    /**
+     * Resolve many names concurrently, one virtual thread per name
+     *
+     * The virtual threads only wait; the lookups themselves share the
+     * lookup threads.
+     *
+     * Results are in the order of the names. Each name takes at most
+     * about the timeout, however slow the others are.
+     */
+    public List<Result> resolveAll(Collection<String> hosts) throws InterruptedException {
+        List<Future<Result>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String host : hosts) {
+                futures.add(executor.submit(() -> resolve(host)));
+            }
+        }
+        List<Result> results = new ArrayList<>();
+        for (Future<Result> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("resolve() failed unexpectedly", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Forget a cached answer, e.g. after a connection to it failed
+     */
+    public void invalidate(String host) {
+        synchronized (cache) {
+            cache.remove(host.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return new Stats(hits.sum(), negativeHits.sum(), misses.sum(), shared.sum(), timeouts.sum(),
+            failures.sum(), evictions.sum(), size, percentile(0.50), percentile(0.99));
+    }
+
+    /**
+     * Runs on a lookup thread; completes the shared future
+     */
+    private void lookUp(String name, CompletableFuture<Result> pending) {
+        try {
+            long start = clock.getAsLong();
+            Result result;
+            try {
+                InetAddress[] addresses = lookup.lookup(name);
+                result = addresses.length == 0
+                    ? new Result(name, Status.NOT_FOUND, List.of(), Source.LOOKUP, 0, "No addresses")
+                    : new Result(name, Status.RESOLVED, List.of(addresses), Source.LOOKUP, 0, null);
+            } catch (UnknownHostException e) {
+                result = new Result(name, Status.NOT_FOUND, List.of(), Source.LOOKUP, 0, e.getMessage());
+            } catch (RuntimeException e) {
+                result = new Result(name, Status.FAILED, List.of(), Source.LOOKUP, 0, e.toString());
+            }
+            long now = clock.getAsLong();
+            record(now - start);
+
+            // Cache first, then leave the in-flight map: a caller arriving in
+            // between finds one or the other, never neither
+            if (result.status() != Status.FAILED) {
+                long ttl = result.isResolved() ? positiveTtlNanos : negativeTtlNanos;
+                synchronized (cache) {
+                    cache.put(name, new Entry(result, now + ttl));
+                }
+            } else {
+                failures.increment();
+            }
+            inFlight.remove(name, pending);
+            pending.complete(result);
+        } catch (Error e) {
+            // Waiting callers get a FAILED result instead of waiting out their timeout
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Never leave a dead future behind for the next caller of this name
+            inFlight.remove(name, pending);
+        }
+    }
+
+    private Result cached(String name, long now) {
+        synchronized (cache) {
+            Entry entry = cache.get(name);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.expiresAt() >= 0) {
+                cache.remove(name);
+                return null;
+            }
+            return entry.result();
+        }
+    }
+
+    private static Result withSource(Result result, Source source, long nanos) {
+        return new Result(result.host(), result.status(), result.addresses(), source, nanos, result.error());
+    }
+
+    /**
+     * A valid IPv4 or IPv6 address; no DNS needed
+     */
+    private static boolean isLiteral(String name) {
+        return IpAddressParser.isIpAddress(name);
+    }
+
+    private void record(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        latencyBuckets.incrementAndGet(bucket);
+    }
+
+    private long percentile(double fraction) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += latencyBuckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += latencyBuckets.get(i);
+            if (seen >= rank) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << BUCKETS;
+    }
+}
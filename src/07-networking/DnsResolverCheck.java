@@ -0,0 +1,321 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DnsResolverCheck - Offline Checks for DnsResolver
+ *
+ * This program demonstrates:
+ * - Testing a cache without a network, using /etc/hosts and literal IPs
+ * - Replacing the real lookup and clock with controllable fakes
+ * - Checking deduplication, TTLs, eviction and timeouts one by one
+ *
+ * Checks:
+ * - Literal IPs are answered without a lookup and not cached
+ * - Every name in /etc/hosts resolves through the system resolver to the
+ *   address listed there, and a second pass is served from the cache
+ * - 100 concurrent callers for one name cause a single lookup
+ * - "No such host" is cached, and expires sooner than answers
+ * - The cache never holds more than maxEntries names, evicting the least
+ *   recently used
+ * - A slow lookup times out for its caller but still fills the cache
+ * - 1,000 names that each take 50 ms resolve together in well under a
+ *   second, with no more lookups at once than the resolver has threads
+ *
+ * Usage: java DnsResolverCheck [hostsFile]   (default: /etc/hosts)
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class DnsResolverCheck {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(5);
+
+    private static boolean allPassed = true;
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws Exception {
+        Path hostsFile = Path.of(args.length > 0 ? args[0] : "/etc/hosts");
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║     DNS Resolver Checks           ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+
+        checkLiterals();
+        checkHostsFile(hostsFile);
+        checkDeduplication();
+        checkNegativeCaching();
+        checkEviction();
+        checkTimeout();
+        checkBatch();
+
+        System.out.println("\n" + "=".repeat(50));
+        System.out.println(allPassed ? "✅ All resolver checks passed" : "✗ Some resolver checks failed");
+        System.out.println("=".repeat(50));
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    private static void checkLiterals() {
+        System.out.println("📌 Literal addresses");
+        AtomicInteger calls = new AtomicInteger();
+        DnsResolver resolver = fakeResolver(host -> {
+            calls.incrementAndGet();
+            return address(host, 1);
+        }, 100, Duration.ofSeconds(1), new AtomicLong());
+
+        DnsResolver.Result v4 = resolver.resolve("127.0.0.1");
+        DnsResolver.Result v6 = resolver.resolve("::1");
+        check("127.0.0.1 and ::1 resolve as literals",
+            v4.isResolved() && v6.isResolved() && v4.source() == DnsResolver.Source.LITERAL
+                && v6.addresses().get(0).isLoopbackAddress());
+        check("No lookup made and nothing cached", calls.get() == 0 && resolver.stats().cachedNames() == 0);
+    }
+
+    private static void checkHostsFile(Path hostsFile) throws InterruptedException {
+        System.out.println("\n📌 Names from " + hostsFile + " via the system resolver");
+        Map<String, String> entries = readHosts(hostsFile);
+        if (entries.isEmpty()) {
+            System.out.println("⚠️  No usable entries, skipped");
+            return;
+        }
+        DnsResolver resolver = new DnsResolver();
+        List<String> names = new ArrayList<>(entries.keySet());
+
+        boolean matched = true;
+        for (DnsResolver.Result result : resolver.resolveAll(names)) {
+            boolean found = false;
+            for (InetAddress address : result.addresses()) {
+                found |= address.getHostAddress().equals(entries.get(result.host()));
+            }
+            if (!found) {
+                System.out.println("   " + result.host() + ": " + result.status() + " " + result.addresses());
+            }
+            matched &= found;
+        }
+        check(names.size() + " names resolve to their hosts-file address", matched);
+
+        boolean allCached = true;
+        for (DnsResolver.Result result : resolver.resolveAll(names)) {
+            allCached &= result.source() == DnsResolver.Source.CACHE;
+        }
+        DnsResolver.Stats stats = resolver.stats();
+        check("Second pass served from the cache (hit ratio " + Math.round(stats.hitRatio() * 100) + "%)",
+            allCached && stats.hits() == names.size());
+    }
+
+    private static void checkDeduplication() throws Exception {
+        System.out.println("\n📌 Concurrent callers for one name");
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        DnsResolver resolver = fakeResolver(host -> {
+            calls.incrementAndGet();
+            await(release);
+            return address(host, 2);
+        }, 100, Duration.ofSeconds(10), new AtomicLong());
+
+        List<Future<DnsResolver.Result>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(() -> resolver.resolve("shared.test")));
+            }
+            // Let every caller reach the resolver before the answer arrives
+            while (resolver.stats().misses() + resolver.stats().shared() < 100) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+        }
+        int resolved = 0;
+        for (Future<DnsResolver.Result> future : futures) {
+            resolved += future.get().isResolved() ? 1 : 0;
+        }
+        DnsResolver.Stats stats = resolver.stats();
+        check("100 callers, " + calls.get() + " lookup, " + stats.shared() + " shared it",
+            calls.get() == 1 && resolved == 100 && stats.shared() == 99);
+    }
+
+    private static void checkNegativeCaching() {
+        System.out.println("\n📌 Negative caching and TTLs");
+        AtomicInteger calls = new AtomicInteger();
+        AtomicLong clock = new AtomicLong();
+        DnsResolver resolver = fakeResolver(host -> {
+            calls.incrementAndGet();
+            if (host.startsWith("missing")) {
+                throw new UnknownHostException(host + ": Name or service not known");
+            }
+            return address(host, 3);
+        }, 100, Duration.ofSeconds(1), clock);
+
+        DnsResolver.Result first = resolver.resolve("missing.test");
+        DnsResolver.Result second = resolver.resolve("missing.test");
+        check("Unknown host cached as NOT_FOUND",
+            first.status() == DnsResolver.Status.NOT_FOUND && second.source() == DnsResolver.Source.CACHE
+                && second.status() == DnsResolver.Status.NOT_FOUND && calls.get() == 1);
+
+        resolver.resolve("present.test");
+        clock.addAndGet(NEGATIVE_TTL.toNanos());
+        resolver.resolve("missing.test");
+        DnsResolver.Result stillCached = resolver.resolve("present.test");
+        check("After the negative TTL only the failure is looked up again",
+            calls.get() == 3 && stillCached.source() == DnsResolver.Source.CACHE);
+
+        clock.addAndGet(TTL.toNanos());
+        DnsResolver.Result refreshed = resolver.resolve("present.test");
+        check("After the positive TTL the answer is looked up again",
+            calls.get() == 4 && refreshed.source() == DnsResolver.Source.LOOKUP);
+    }
+
+    private static void checkEviction() {
+        System.out.println("\n📌 Bounded size");
+        AtomicInteger calls = new AtomicInteger();
+        DnsResolver resolver = fakeResolver(host -> {
+            calls.incrementAndGet();
+            return address(host, 4);
+        }, 3, Duration.ofSeconds(1), new AtomicLong());
+
+        resolver.resolve("a.test");
+        resolver.resolve("b.test");
+        resolver.resolve("c.test");
+        resolver.resolve("a.test"); // now b is the least recently used
+        resolver.resolve("d.test");
+        resolver.resolve("e.test");
+        DnsResolver.Stats stats = resolver.stats();
+        check("Size stays at 3 with 2 evictions", stats.cachedNames() == 3 && stats.evictions() == 2);
+
+        int before = calls.get();
+        resolver.resolve("a.test");
+        boolean aKept = calls.get() == before;
+        resolver.resolve("b.test");
+        check("Recently used name kept, least recently used evicted", aKept && calls.get() == before + 1);
+    }
+
+    private static void checkTimeout() throws InterruptedException {
+        System.out.println("\n📌 Timeouts");
+        CountDownLatch release = new CountDownLatch(1);
+        DnsResolver resolver = fakeResolver(host -> {
+            await(release);
+            return address(host, 5);
+        }, 100, Duration.ofMillis(50), new AtomicLong());
+
+        long start = System.nanoTime();
+        DnsResolver.Result late = resolver.resolve("slow.test");
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        check("Caller gives up after ~50 ms (" + millis + " ms)",
+            late.status() == DnsResolver.Status.TIMED_OUT && millis < 1_000);
+
+        release.countDown();
+        DnsResolver.Result later = null;
+        for (int i = 0; i < 100 && (later == null || later.source() != DnsResolver.Source.CACHE); i++) {
+            Thread.sleep(10);
+            later = resolver.resolve("slow.test");
+        }
+        check("The late answer still filled the cache",
+            later != null && later.isResolved() && later.source() == DnsResolver.Source.CACHE);
+    }
+
+    private static void checkBatch() throws InterruptedException {
+        System.out.println("\n📌 Batch of 1,000 names, 50 ms each");
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        DnsResolver resolver = new DnsResolver(host -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return address(host, 6);
+        }, TTL, NEGATIVE_TTL, 10_000, Duration.ofSeconds(5)); // real clock, for real latencies
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            names.add("host-" + i + ".test");
+        }
+        long start = System.nanoTime();
+        List<DnsResolver.Result> results = resolver.resolveAll(names);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        boolean inOrder = true;
+        for (int i = 0; i < names.size(); i++) {
+            inOrder &= results.get(i).host().equals(names.get(i)) && results.get(i).isResolved();
+        }
+        DnsResolver.Stats stats = resolver.stats();
+        check(String.format("Resolved in %,d ms instead of %,d ms serially", millis, names.size() * 50),
+            inOrder && millis < 5_000);
+        check(String.format("At most %d lookups at once (saw %d)", DnsResolver.DEFAULT_LOOKUP_THREADS,
+            maxRunning.get()), maxRunning.get() <= DnsResolver.DEFAULT_LOOKUP_THREADS);
+        System.out.printf("   📊 Lookup latency p50 ≤ %,d µs, p99 ≤ %,d µs%n",
+            stats.lookupP50Micros(), stats.lookupP99Micros());
+    }
+
+    /**
+     * Fake lookups run on a controllable clock with fixed TTLs
+     */
+    private static DnsResolver fakeResolver(DnsResolver.Lookup lookup, int maxEntries, Duration timeout,
+                                            AtomicLong clock) {
+        return new DnsResolver(lookup, TTL, NEGATIVE_TTL, maxEntries, timeout,
+            DnsResolver.DEFAULT_LOOKUP_THREADS, clock::get);
+    }
+
+    /**
+     * A made-up 10.0.0.x address with the host name attached (no DNS)
+     */
+    private static InetAddress[] address(String host, int last) throws UnknownHostException {
+        return new InetAddress[] {InetAddress.getByAddress(host, new byte[] {10, 0, 0, (byte) last})};
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Name -> first address listed for it (IPv4 lines only)
+     */
+    private static Map<String, String> readHosts(Path file) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try {
+            for (String line : Files.readAllLines(file)) {
+                int hash = line.indexOf('#');
+                String[] fields = (hash >= 0 ? line.substring(0, hash) : line).trim().split("\\s+");
+                if (fields.length < 2 || fields[0].indexOf(':') >= 0) {
+                    continue;
+                }
+                for (int i = 1; i < fields.length; i++) {
+                    entries.putIfAbsent(fields[i].toLowerCase(), fields[0]);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("⚠️  Cannot read " + file + ": " + e.getMessage());
+        }
+        return entries;
+    }
+
+    private static void check(String description, boolean passed) {
+        System.out.println((passed ? "✓ " : "✗ ") + description);
+        allPassed &= passed;
+    }
+}
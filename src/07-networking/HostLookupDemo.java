@@ -1,5 +1,14 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -11,6 +20,9 @@ import java.util.Scanner;
  * - IP address retrieval
  * - Handling multiple IP addresses (load balancing)
  * - Exception handling for network operations
+ * - Concurrent, cached lookups with DnsResolver
+ * - Validating and classifying IP literals without DNS (IpAddressParser, CidrMatcher)
+ * - Bulk lookups from a file with BulkHostLookup
  * 
  * Original: MyHostLookup practical
  * 
@@ -19,6 +31,32 @@ import java.util.Scanner;
  */
 public class HostLookupDemo {
     
+    // Shared by all demos, so repeated names come from its cache
+    private static final DnsResolver RESOLVER = new DnsResolver();
+    
+    // Special-purpose ranges (RFC 6890); the most specific one wins
+    private static final CidrMatcher<String> ADDRESS_TYPES = new CidrMatcher<>();
+    
+    static {
+        ADDRESS_TYPES.add("0.0.0.0/0", "public");
+        ADDRESS_TYPES.add("0.0.0.0/8", "\"this\" network");
+        ADDRESS_TYPES.add("10.0.0.0/8", "private (RFC 1918)");
+        ADDRESS_TYPES.add("100.64.0.0/10", "carrier-grade NAT");
+        ADDRESS_TYPES.add("127.0.0.0/8", "loopback");
+        ADDRESS_TYPES.add("169.254.0.0/16", "link-local");
+        ADDRESS_TYPES.add("172.16.0.0/12", "private (RFC 1918)");
+        ADDRESS_TYPES.add("192.168.0.0/16", "private (RFC 1918)");
+        ADDRESS_TYPES.add("224.0.0.0/4", "multicast");
+        ADDRESS_TYPES.add("255.255.255.255", "broadcast");
+        ADDRESS_TYPES.add("::/0", "public");
+        ADDRESS_TYPES.add("::1", "loopback");
+        ADDRESS_TYPES.add("::ffff:0:0/96", "IPv4-mapped");
+        ADDRESS_TYPES.add("2001:db8::/32", "documentation");
+        ADDRESS_TYPES.add("fc00::/7", "unique local");
+        ADDRESS_TYPES.add("fe80::/10", "link-local");
+        ADDRESS_TYPES.add("ff00::/8", "multicast");
+    }
+    
     /**
      * Look up and display all IP addresses for a hostname
      * 
@@ -26,40 +64,59 @@ public class HostLookupDemo {
      * @return true if lookup successful, false otherwise
      */
     public static boolean lookupHost(String hostName) {
-        try {
-            System.out.println("\n🔍 Looking up: " + hostName);
-            System.out.println("=".repeat(50));
-            
-            // Get all IP addresses for the hostname
-            InetAddress[] addresses = InetAddress.getAllByName(hostName);
-            
-            if (addresses.length == 0) {
-                System.out.println("⚠️  No IP addresses found");
-                return false;
-            }
-            
-            // Display canonical hostname
-            System.out.println("📍 Hostname: " + addresses[0].getCanonicalHostName());
-            System.out.println("📊 IP Addresses found: " + addresses.length);
-            System.out.println();
-            
-            // Display all IP addresses
-            for (int i = 0; i < addresses.length; i++) {
-                InetAddress addr = addresses[i];
-                System.out.printf("   [%d] IP: %-15s | Host: %s%n", 
-                    i + 1, 
-                    addr.getHostAddress(),
-                    addr.getHostName());
-            }
-            
-            System.out.println("=".repeat(50));
-            return true;
-            
-        } catch (UnknownHostException e) {
-            System.out.println("❌ Host not found: " + hostName);
-            System.out.println("   Error: " + e.getMessage());
+        System.out.println("\n🔍 Looking up: " + hostName);
+        return printResult(RESOLVER.resolve(hostName));
+    }
+    
+    /**
+     * Display one resolver result
+     * 
+     * @return true if the name was resolved
+     */
+    private static boolean printResult(DnsResolver.Result result) {
+        System.out.println("=".repeat(50));
+        
+        if (!result.isResolved()) {
+            System.out.println("❌ Host not found: " + result.host() + " (" + result.status() + ")");
+            System.out.println("   Error: " + result.error());
             return false;
         }
+        
+        List<InetAddress> addresses = result.addresses();
+        
+        // Display canonical hostname
+        System.out.println("📍 Hostname: " + addresses.get(0).getCanonicalHostName());
+        System.out.println("📊 IP Addresses found: " + addresses.size());
+        System.out.printf("⏱️  Answered by %s in %.1f ms%n", result.source(), result.nanos() / 1e6);
+        System.out.println();
+        
+        // Display all IP addresses
+        for (int i = 0; i < addresses.size(); i++) {
+            InetAddress addr = addresses.get(i);
+            System.out.printf("   [%d] IP: %-15s | Host: %s%n", 
+                i + 1, 
+                addr.getHostAddress(),
+                addr.getHostName());
+        }
+        
+        System.out.println("=".repeat(50));
+        return true;
+    }
+    
+    /**
+     * Display the resolver's cache and latency statistics
+     */
+    public static void displayResolverStats() {
+        DnsResolver.Stats stats = RESOLVER.stats();
+        System.out.println("\n📊 Resolver statistics");
+        System.out.println("=".repeat(50));
+        System.out.printf("   Cache hits: %d (+%d cached failures) | Lookups: %d | Shared: %d%n",
+            stats.hits(), stats.negativeHits(), stats.misses(), stats.shared());
+        System.out.printf("   Hit ratio: %.0f%% | Timeouts: %d | Cached names: %d%n",
+            stats.hitRatio() * 100, stats.timeouts(), stats.cachedNames());
+        System.out.printf("   Lookup latency p50 ≤ %,d µs, p99 ≤ %,d µs%n",
+            stats.lookupP50Micros(), stats.lookupP99Micros());
+        System.out.println("=".repeat(50));
     }
     
     /**
@@ -89,26 +146,34 @@ public class HostLookupDemo {
     }
     
     /**
-     * Demonstrate common host lookups
+     * Demonstrate common host lookups, resolved concurrently as one batch
      */
     public static void demonstrateCommonHosts() {
         System.out.println("\n📚 Common Host Lookup Examples");
         
-        String[] commonHosts = {
+        List<String> commonHosts = List.of(
             "www.google.com",
             "www.github.com",
             "localhost"
-        };
+        );
         
-        for (String host : commonHosts) {
-            lookupHost(host);
-            
-            try {
-                Thread.sleep(500); // Small delay between lookups
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+        try {
+            // All names are looked up at once, each on its own virtual thread
+            List<DnsResolver.Result> results = RESOLVER.resolveAll(commonHosts);
+            for (DnsResolver.Result result : results) {
+                System.out.println("\n🔍 Looking up: " + result.host());
+                printResult(result);
             }
+            
+            // The same names again come straight from the cache
+            long start = System.nanoTime();
+            RESOLVER.resolveAll(commonHosts);
+            System.out.printf("%n🔁 Second batch of %d names: %.2f ms%n",
+                commonHosts.size(), (System.nanoTime() - start) / 1e6);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        displayResolverStats();
     }
     
     /**
@@ -135,12 +200,52 @@ public class HostLookupDemo {
                 
             } while (!hostName.equalsIgnoreCase("exit"));
             
+            displayResolverStats();
             System.out.println("\n👋 Exiting host lookup...");
         } finally {
             scanner.close();
         }
     }
     
+    /**
+     * Resolve every hostname in a file and write the results as CSV
+     * 
+     * A file rather than stdin, because the menu's Scanner already reads
+     * stdin; for piping, run BulkHostLookup directly.
+     */
+    public static void bulkLookupMode(Scanner scanner) {
+        System.out.println("\n📂 Bulk Host Lookup");
+        System.out.println("=".repeat(50));
+        System.out.print("Input file (one hostname per line): ");
+        String inputFile = scanner.nextLine().trim();
+        System.out.print("Output CSV file (blank for the console): ");
+        String outputFile = scanner.nextLine().trim();
+        
+        boolean toConsole = outputFile.isEmpty();
+        
+        try (Reader in = Files.newBufferedReader(Path.of(inputFile))) {
+            Writer out = toConsole
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Path.of(outputFile));
+            BulkHostLookup.Summary summary;
+            try {
+                // Progress lines only when they cannot interleave with the CSV
+                summary = BulkHostLookup.run(in, out, BulkHostLookup.Options.defaults(), RESOLVER,
+                    toConsole ? null : System.out);
+            } finally {
+                if (!toConsole) {
+                    out.close(); // the console stays open
+                }
+            }
+            BulkHostLookup.printSummary(summary, System.out);
+        } catch (IOException e) {
+            System.out.println("✗ Bulk lookup failed: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("✗ Bulk lookup interrupted");
+        }
+    }
+    
     /**
      * Demonstrate IP address validation
      */
@@ -152,18 +257,28 @@ public class HostLookupDemo {
             "8.8.8.8",           // Google DNS
             "192.168.1.1",       // Common router IP
             "127.0.0.1",         // Loopback
+            "::1",               // IPv6 loopback
+            "fe80::1",           // IPv6 link-local
+            "256.1.1.1",         // Out of range
             "invalid.ip"         // Invalid
         };
         
         for (String ipStr : testAddresses) {
+            // Parse first: getByName would turn anything that is not a
+            // literal into a DNS lookup
+            if (!IpAddressParser.isIpAddress(ipStr)) {
+                System.out.println("\n✗ Invalid: " + ipStr + " (not an IP address, no lookup made)");
+                continue;
+            }
             try {
                 InetAddress addr = InetAddress.getByName(ipStr);
                 System.out.println("\n✓ Valid: " + ipStr);
+                System.out.println("  Type: " + ADDRESS_TYPES.match(ipStr));
                 System.out.println("  Host: " + addr.getHostName());
                 System.out.println("  Reachable: " + (addr.isReachable(2000) ? "Yes" : "No"));
                 
             } catch (Exception e) {
-                System.out.println("\n✗ Invalid: " + ipStr);
+                System.out.println("\n✗ Invalid: " + ipStr + " (" + e.getMessage() + ")");
             }
         }
         
@@ -184,9 +299,10 @@ public class HostLookupDemo {
         System.out.println("3. IP address validation");
         System.out.println("4. Interactive mode");
         System.out.println("5. Run all demos");
+        System.out.println("6. Bulk lookup from a file");
         
         Scanner scanner = new Scanner(System.in);
-        System.out.print("\nEnter choice (1-5): ");
+        System.out.print("\nEnter choice (1-6): ");
         
         try {
             int choice = scanner.nextInt();
@@ -213,6 +329,9 @@ public class HostLookupDemo {
                     System.out.println("All demos completed!");
                     System.out.println("=".repeat(50));
                     break;
+                case 6:
+                    bulkLookupMode(scanner);
+                    break;
                 default:
                     System.out.println("Invalid choice. Running interactive mode...");
                     interactiveMode();
@@ -233,6 +352,9 @@ public class HostLookupDemo {
         System.out.println("  ✓ IP address retrieval");
         System.out.println("  ✓ Multiple IP handling");
         System.out.println("  ✓ Network exception handling");
+        System.out.println("  ✓ Concurrent lookups with a TTL cache");
+        System.out.println("  ✓ IP parsing and CIDR matching without DNS");
+        System.out.println("  ✓ Streaming bulk lookups with bounded concurrency");
         System.out.println("=".repeat(50));
     }
 }
@@ -0,0 +1,237 @@
+/**
+ * IpAddressParser - IPv4 and IPv6 Literals Parsed Without Allocation
+ *
+ * This class demonstrates:
+ * - Validating addresses by parsing, never by a DNS lookup
+ * - Working on any CharSequence (String, StringBuilder, CharBuffer)
+ * - Returning results in primitives, so parsing allocates nothing
+ *
+ * InetAddress.getByName validates a literal too, but anything that is not
+ * a literal becomes a DNS lookup, and every call creates objects. These
+ * methods only look at characters:
+ * - IPv4 is four decimal parts 0-255 separated by dots. Leading zeros are
+ *   rejected ("010.0.0.1" is octal to some tools and decimal to others)
+ * - IPv6 is up to eight groups of 1-4 hex digits, at most one "::", an
+ *   optional dotted IPv4 tail ("::ffff:192.0.2.1") and an optional zone
+ *   ("fe80::1%eth0"), which is checked but not returned
+ *
+ * An IPv4 address is returned as a long holding the 32-bit value, or
+ * INVALID. An IPv6 address is written into a caller-supplied long[2]
+ * (high and low 64 bits), so a loop can reuse one array.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public final class IpAddressParser {
+
+    /**
+     * Returned by parseIPv4 for anything that is not an IPv4 literal
+     */
+    public static final long INVALID = -1;
+
+    private IpAddressParser() {
+    }
+
+    public static long parseIPv4(CharSequence text) {
+        return parseIPv4(text, 0, text.length());
+    }
+
+    /**
+     * Parse text[from, to) as a dotted-quad IPv4 address
+     *
+     * @return the address as an unsigned 32-bit value, or INVALID
+     */
+    public static long parseIPv4(CharSequence text, int from, int to) {
+        int length = to - from;
+        if (length < 7 || length > 15) {
+            return INVALID;
+        }
+        long address = 0;
+        int parts = 0;
+        int i = from;
+        while (true) {
+            int start = i;
+            int value = 0;
+            while (i < to && i - start < 3) {
+                int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                i++;
+            }
+            int digits = i - start;
+            if (digits == 0 || value > 255 || (digits > 1 && text.charAt(start) == '0')) {
+                return INVALID;
+            }
+            address = (address << 8) | value;
+            parts++;
+            if (i == to) {
+                return parts == 4 ? address : INVALID;
+            }
+            if (parts == 4 || text.charAt(i) != '.') {
+                return INVALID;
+            }
+            i++;
+        }
+    }
+
+    public static boolean parseIPv6(CharSequence text, long[] out) {
+        return parseIPv6(text, 0, text.length(), out);
+    }
+
+    /**
+     * Parse text[from, to) as an IPv6 address
+     *
+     * @param out receives the high 64 bits in out[0] and the low in out[1];
+     *            untouched if the text is not valid; null to only validate
+     * @return true if the text is a valid IPv6 literal
+     */
+    public static boolean parseIPv6(CharSequence text, int from, int to, long[] out) {
+        int end = to;
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == '%') {
+                if (i == to - 1) {
+                    return false; // empty zone
+                }
+                end = i;
+                break;
+            }
+        }
+        if (end - from < 2 || end - from > 45) {
+            return false;
+        }
+
+        // Groups before "::" (head) and after it (tail), each as a 128-bit
+        // value built 16 bits at a time
+        long headHigh = 0;
+        long headLow = 0;
+        long tailHigh = 0;
+        long tailLow = 0;
+        int headGroups = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+
+        int i = from;
+        if (text.charAt(i) == ':') {
+            if (text.charAt(i + 1) != ':') {
+                return false;
+            }
+            compressed = true;
+            i += 2;
+        }
+        while (i < end) {
+            int start = i;
+            int value = 0;
+            while (i < end && i - start < 5) {
+                int digit = hexDigit(text.charAt(i));
+                if (digit < 0) {
+                    break;
+                }
+                value = (value << 4) | digit;
+                i++;
+            }
+
+            int groups;
+            long bits;
+            if (i < end && text.charAt(i) == '.') {
+                // Dotted IPv4 tail: the last 32 bits
+                long ipv4 = parseIPv4(text, start, end);
+                if (ipv4 == INVALID) {
+                    return false;
+                }
+                groups = 2;
+                bits = ipv4;
+                i = end;
+            } else {
+                if (i == start || i - start > 4) {
+                    return false;
+                }
+                groups = 1;
+                bits = value;
+            }
+
+            if (headGroups + tailGroups + groups > 8) {
+                return false;
+            }
+            for (int g = groups - 1; g >= 0; g--) {
+                long group = (bits >>> (16 * g)) & 0xFFFF;
+                if (compressed) {
+                    tailHigh = (tailHigh << 16) | (tailLow >>> 48);
+                    tailLow = (tailLow << 16) | group;
+                    tailGroups++;
+                } else {
+                    headHigh = (headHigh << 16) | (headLow >>> 48);
+                    headLow = (headLow << 16) | group;
+                    headGroups++;
+                }
+            }
+
+            if (i == end) {
+                break;
+            }
+            if (text.charAt(i) != ':' || i + 1 == end) {
+                return false;
+            }
+            i++;
+            if (text.charAt(i) == ':') {
+                if (compressed) {
+                    return false; // only one "::"
+                }
+                compressed = true;
+                i++;
+            }
+        }
+
+        int groups = headGroups + tailGroups;
+        if (compressed ? groups > 7 : groups != 8) {
+            return false;
+        }
+        // The head is left-aligned, the tail right-aligned, zeros between
+        for (int g = headGroups; g < 8; g++) {
+            headHigh = (headHigh << 16) | (headLow >>> 48);
+            headLow <<= 16;
+        }
+        if (out != null) {
+            out[0] = headHigh | tailHigh;
+            out[1] = headLow | tailLow;
+        }
+        return true;
+    }
+
+    public static boolean isIPv4(CharSequence text) {
+        return parseIPv4(text) != INVALID;
+    }
+
+    public static boolean isIPv6(CharSequence text) {
+        return parseIPv6(text, null);
+    }
+
+    public static boolean isIpAddress(CharSequence text) {
+        return isIPv4(text) || isIPv6(text);
+    }
+
+    /**
+     * ASCII hex digit value, or -1 (Character.digit also accepts non-ASCII digits)
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Dotted-quad text for a 32-bit address (allocates; for display)
+     */
+    public static String formatIPv4(long address) {
+        return ((address >>> 24) & 0xFF) + "." + ((address >>> 16) & 0xFF) + "."
+            + ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
+    }
+}
@@ -0,0 +1,465 @@
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * IpMatchBenchmark - InetAddress and a Linear Scan versus IpAddressParser and CidrMatcher
+ *
+ * This program demonstrates:
+ * - Checking a fast parser against the JDK on thousands of random addresses
+ * - Checking a trie against a simple linear scan that is obviously right
+ * - Measuring throughput and bytes allocated per operation
+ * - How a linear scan slows down with the list size and a trie does not
+ *
+ * The "current approach" is how HostLookupDemo validated addresses:
+ * InetAddress.getByName on the text, then (for an allow/deny list) a scan
+ * over every CIDR range comparing address bytes. The new approach parses
+ * with IpAddressParser and looks up the longest prefix in a CidrMatcher.
+ *
+ * The rule list is random: mostly IPv4 ranges from /8 to /32 and some IPv6
+ * ranges inside 2001:db8::/32. Half of the test addresses fall inside a
+ * rule, the rest are random. Nothing here needs a network: every input is
+ * a literal, so InetAddress never asks DNS.
+ *
+ * Usage: java IpMatchBenchmark [rules] [lookups]   (default: 10000 1000000)
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class IpMatchBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ADDRESSES = 4096;
+    private static final int[] SCALING_RULES = {1_000, 10_000, 100_000, 1_000_000};
+
+    private static volatile long sink;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * One rule of the baseline: network bytes and prefix length
+     */
+    private record Range(byte[] network, int prefixLength) {
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int rest = prefixLength % 8;
+            if (rest == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - rest);
+            return ((address[fullBytes] ^ network[fullBytes]) & mask) == 0;
+        }
+
+        String cidr() {
+            try {
+                return InetAddress.getByAddress(network).getHostAddress() + "/" + prefixLength;
+            } catch (UnknownHostException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Operations per second and bytes allocated per operation
+     */
+    private record Measurement(double opsPerSecond, double bytesPerOp) {
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        long run(String address) throws Exception;
+    }
+
+    /**
+     * Main method
+     */
+    public static void main(String[] args) throws Exception {
+        int ruleCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.println("╔═══════════════════════════════════╗");
+        System.out.println("║     IP Parse & Match Benchmark    ║");
+        System.out.println("╚═══════════════════════════════════╝\n");
+
+        Random random = new Random(42);
+        List<Range> ranges = randomRanges(random, ruleCount);
+        CidrMatcher<Integer> matcher = buildMatcher(ranges);
+        String[] addresses = randomAddresses(random, ranges, ADDRESSES);
+
+        System.out.println("📌 Correctness checks");
+        System.out.println("=".repeat(73));
+        boolean ok = checkParsing(random);
+        ok &= checkInvalid();
+        ok &= checkMatching(ranges, matcher, addresses);
+        System.out.println("=".repeat(73));
+        if (!ok) {
+            System.out.println("⚠️ Checks failed, not benchmarking");
+            System.exit(1);
+        }
+
+        System.out.println("\n📊 " + String.format("%,d", ruleCount) + " rules, "
+            + String.format("%,d", lookups) + " lookups per test (fewer for the linear scan)\n");
+        System.out.printf("%-40s %16s %12s%n", "Operation", "Ops/s", "Bytes/op");
+        System.out.println("=".repeat(73));
+
+        Measurement jdkParse = measure("InetAddress.getByName", addresses, lookups,
+            address -> InetAddress.getByName(address).getAddress().length);
+        Measurement fastParse = measure("IpAddressParser", addresses, lookups, IpMatchBenchmark::parse);
+        System.out.println("-".repeat(73));
+
+        int linearLookups = (int) Math.max(1_000, lookups * 100L / Math.max(1, ruleCount));
+        Measurement linear = measure("getByName + linear scan", addresses, linearLookups,
+            address -> linearMatch(ranges, InetAddress.getByName(address).getAddress()));
+        Measurement trie = measure("CidrMatcher.match", addresses, lookups,
+            address -> indexOf(matcher.match(address)));
+        System.out.println("=".repeat(73));
+        // Parsing alone runs at roughly getByName's speed; what it saves is the allocation
+        System.out.printf("Parsing: %.2fx the speed of getByName, %.0f instead of %.0f bytes/op%n",
+            fastParse.opsPerSecond() / jdkParse.opsPerSecond(), fastParse.bytesPerOp(), jdkParse.bytesPerOp());
+        System.out.printf("Parse + match: %.2fx the speed of getByName + linear scan, %.0f instead of %.0f bytes/op%n%n",
+            trie.opsPerSecond() / linear.opsPerSecond(), trie.bytesPerOp(), linear.bytesPerOp());
+
+        scaling(random, lookups);
+    }
+
+    /**
+     * CidrMatcher lookups as the rule list grows
+     */
+    private static void scaling(Random random, int lookups) throws Exception {
+        System.out.printf("%-12s %12s %12s %16s %12s%n", "Rules", "Trie nodes", "Build ms", "Lookups/s", "Bytes/op");
+        System.out.println("=".repeat(73));
+        for (int ruleCount : SCALING_RULES) {
+            List<Range> ranges = randomRanges(random, ruleCount);
+            String[] addresses = randomAddresses(random, ranges, ADDRESSES);
+            long start = System.nanoTime();
+            CidrMatcher<Integer> matcher = buildMatcher(ranges);
+            long buildMillis = (System.nanoTime() - start) / 1_000_000;
+            Measurement m = time(addresses, lookups, address -> indexOf(matcher.match(address)));
+            System.out.printf("%,-12d %,12d %,12d %,16.0f %12.1f%n", ruleCount, matcher.nodeCount(),
+                buildMillis, m.opsPerSecond(), m.bytesPerOp());
+        }
+        System.out.println("=".repeat(73));
+    }
+
+    private static Measurement measure(String name, String[] addresses, int n, Operation operation)
+            throws Exception {
+        Measurement m = time(addresses, n, operation);
+        System.out.printf("%-40s %,16.0f %12.1f%n", name, m.opsPerSecond(), m.bytesPerOp());
+        return m;
+    }
+
+    /**
+     * Run the operation n times per round; report the last round
+     */
+    private static Measurement time(String[] addresses, int n, Operation operation) throws Exception {
+        Measurement m = null;
+        long checksum = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            long allocated = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                checksum += operation.run(addresses[i & (addresses.length - 1)]);
+            }
+            long nanos = System.nanoTime() - start;
+            allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+            m = new Measurement(n / (nanos / 1e9), (double) allocated / n);
+        }
+        sink = checksum; // keeps the JIT from dropping the work
+        return m;
+    }
+
+    // ------------------------------------------------------------------
+    // Correctness checks
+    // ------------------------------------------------------------------
+
+    /**
+     * Random addresses, written the way the JDK and people write them,
+     * must parse to the same bytes as InetAddress gives
+     */
+    private static boolean checkParsing(Random random) throws UnknownHostException {
+        int checked = 0;
+        long[] scratch = new long[2];
+        for (int i = 0; i < 20_000; i++) {
+            byte[] bytes = new byte[i % 2 == 0 ? 4 : 16];
+            random.nextBytes(bytes);
+            if (bytes.length == 16) {
+                // Runs of zero groups, so "::" shows up; not ::ffff:0:0/96,
+                // which InetAddress turns into an IPv4 address
+                for (int g = 0; g < 8; g++) {
+                    if (random.nextInt(3) == 0) {
+                        bytes[2 * g] = 0;
+                        bytes[2 * g + 1] = 0;
+                    }
+                }
+                bytes[0] |= 0x20;
+            }
+            String text = format(bytes, random);
+            byte[] expected = InetAddress.getByName(text).getAddress();
+            byte[] actual;
+            if (bytes.length == 4) {
+                actual = toBytes(IpAddressParser.parseIPv4(text));
+            } else {
+                actual = IpAddressParser.parseIPv6(text, scratch) ? toBytes(scratch[0], scratch[1]) : null;
+            }
+            if (!Arrays.equals(expected, actual)) {
+                System.out.println("✗ " + text + " parsed wrongly");
+                return false;
+            }
+            checked++;
+        }
+        System.out.printf("✓ %,d random IPv4/IPv6 literals parse like InetAddress%n", checked);
+        return true;
+    }
+
+    private static boolean checkInvalid() {
+        String[] valid = {"0.0.0.0", "255.255.255.255", "::", "::1", "1::", "1:2:3:4:5:6:7::",
+            "::2:3:4:5:6:7:8", "::ffff:192.0.2.1", "1:2:3:4:5:6:1.2.3.4", "fe80::1%eth0",
+            "2001:DB8::A", "2001:0db8:0000:0000:0000:0000:0000:0001"};
+        String[] invalid = {"", "1.2.3", "1.2.3.4.5", "256.1.1.1", "01.2.3.4", "1.2.3.4 ", " 1.2.3.4",
+            "1..2.3", "1.2.3.", "invalid.ip", "٣.٢.١.٠", ":", ":::", "::1::", "1::2::3", ":1::", "1::2:",
+            "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "::1:2:3:4:5:6:7:8", "12345::", "g::1",
+            "::ffff:1.2.3", "::ffff:256.0.0.1", "1.2.3.4::", "::1.2.3.4:5", "fe80::1%", "%eth0"};
+        boolean ok = true;
+        for (String text : valid) {
+            if (!IpAddressParser.isIpAddress(text)) {
+                System.out.println("✗ rejected valid \"" + text + "\"");
+                ok = false;
+            }
+        }
+        for (String text : invalid) {
+            if (IpAddressParser.isIpAddress(text)) {
+                System.out.println("✗ accepted invalid \"" + text + "\"");
+                ok = false;
+            }
+        }
+        if (ok) {
+            System.out.println("✓ " + valid.length + " edge-case literals accepted, "
+                + invalid.length + " malformed ones rejected");
+        }
+        return ok;
+    }
+
+    /**
+     * The trie must pick the same rule as a scan over every rule
+     */
+    private static boolean checkMatching(List<Range> ranges, CidrMatcher<Integer> matcher, String[] addresses)
+            throws UnknownHostException {
+        int matched = 0;
+        for (String address : addresses) {
+            long expected = linearMatch(ranges, InetAddress.getByName(address).getAddress());
+            long actual = indexOf(matcher.match(address));
+            if (expected != actual) {
+                System.out.println("✗ " + address + ": trie says rule " + actual + ", scan says " + expected);
+                return false;
+            }
+            if (actual >= 0) {
+                matched++;
+            }
+        }
+        CidrMatcher<String> example = new CidrMatcher<>();
+        example.add("10.0.0.0/8", "deny");
+        example.add("10.1.0.0/16", "allow");
+        example.add("0.0.0.0/0", "default");
+        example.add("2001:db8::/32", "docs");
+        boolean exampleOk = "allow".equals(example.match("10.1.2.3"))
+            && "deny".equals(example.match("10.9.9.9"))
+            && "default".equals(example.match("8.8.8.8"))
+            && "docs".equals(example.match("2001:db8::1"))
+            && example.match("2001:db9::1") == null
+            && example.match("not-an-address") == null;
+        if (!exampleOk) {
+            System.out.println("✗ allow/deny example gives wrong answers");
+            return false;
+        }
+        System.out.printf("✓ Trie agrees with a linear scan on %,d addresses (%,d inside a rule)%n",
+            addresses.length, matched);
+        return true;
+    }
+
+    // ------------------------------------------------------------------
+    // Baseline and helpers
+    // ------------------------------------------------------------------
+
+    /**
+     * Index of the longest (latest, on a tie) rule containing the address, or -1
+     */
+    private static long linearMatch(List<Range> ranges, byte[] address) {
+        int best = -1;
+        int bestLength = -1;
+        for (int i = 0; i < ranges.size(); i++) {
+            Range range = ranges.get(i);
+            if (range.prefixLength() >= bestLength && range.contains(address)) {
+                best = i;
+                bestLength = range.prefixLength();
+            }
+        }
+        return best;
+    }
+
+    private static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static long parse(String address) {
+        long ipv4 = IpAddressParser.parseIPv4(address);
+        if (ipv4 != IpAddressParser.INVALID) {
+            return 4;
+        }
+        return IpAddressParser.parseIPv6(address, SCRATCH.get()) ? 16 : -1;
+    }
+
+    private static long indexOf(Integer rule) {
+        return rule == null ? -1 : rule;
+    }
+
+    private static CidrMatcher<Integer> buildMatcher(List<Range> ranges) {
+        CidrMatcher<Integer> matcher = new CidrMatcher<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            matcher.add(ranges.get(i).cidr(), i);
+        }
+        return matcher;
+    }
+
+    /**
+     * Nine in ten IPv4 (/8 to /32), the rest IPv6 inside 2001:db8::/32
+     */
+    private static List<Range> randomRanges(Random random, int count) {
+        List<Range> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean ipv6 = i % 10 == 9;
+            byte[] network = new byte[ipv6 ? 16 : 4];
+            random.nextBytes(network);
+            int prefixLength;
+            if (ipv6) {
+                network[0] = 0x20;
+                network[1] = 0x01;
+                network[2] = 0x0d;
+                network[3] = (byte) 0xb8;
+                prefixLength = 32 + random.nextInt(33);
+            } else {
+                prefixLength = 8 + random.nextInt(25);
+            }
+            clearHostBits(network, prefixLength);
+            ranges.add(new Range(network, prefixLength));
+        }
+        return ranges;
+    }
+
+    /**
+     * Half inside a random rule, half random (IPv4 and IPv6 in 2000::/3)
+     */
+    private static String[] randomAddresses(Random random, List<Range> ranges, int count) {
+        String[] addresses = new String[count];
+        for (int i = 0; i < count; i++) {
+            byte[] bytes;
+            if (i % 2 == 0) {
+                Range range = ranges.get(random.nextInt(ranges.size()));
+                bytes = range.network().clone();
+                byte[] host = new byte[bytes.length];
+                random.nextBytes(host);
+                clearNetworkBits(host, range.prefixLength());
+                for (int b = 0; b < bytes.length; b++) {
+                    bytes[b] |= host[b];
+                }
+            } else {
+                bytes = new byte[i % 4 == 1 ? 4 : 16];
+                random.nextBytes(bytes);
+                if (bytes.length == 16) {
+                    bytes[0] = (byte) (0x20 | (bytes[0] & 0x1F));
+                }
+            }
+            addresses[i] = format(bytes, random);
+        }
+        return addresses;
+    }
+
+    private static void clearHostBits(byte[] bytes, int prefixLength) {
+        for (int bit = prefixLength; bit < bytes.length * 8; bit++) {
+            bytes[bit / 8] &= (byte) ~(0x80 >>> (bit % 8));
+        }
+    }
+
+    private static void clearNetworkBits(byte[] bytes, int prefixLength) {
+        for (int bit = 0; bit < prefixLength; bit++) {
+            bytes[bit / 8] &= (byte) ~(0x80 >>> (bit % 8));
+        }
+    }
+
+    /**
+     * IPv4 as a dotted quad; IPv6 in full (as the JDK prints it) or
+     * compressed with "::", in lower or upper case
+     */
+    private static String format(byte[] bytes, Random random) {
+        if (bytes.length == 4) {
+            return IpAddressParser.formatIPv4(toLong(bytes));
+        }
+        int[] groups = new int[8];
+        for (int g = 0; g < 8; g++) {
+            groups[g] = ((bytes[2 * g] & 0xFF) << 8) | (bytes[2 * g + 1] & 0xFF);
+        }
+        // Longest run of zero groups, replaced by "::" in the compressed form
+        int runStart = -1;
+        int runLength = 0;
+        for (int g = 0; g < 8; ) {
+            int end = g;
+            while (end < 8 && groups[end] == 0) {
+                end++;
+            }
+            if (end - g > runLength) {
+                runStart = g;
+                runLength = end - g;
+            }
+            g = Math.max(end, g + 1);
+        }
+        boolean compress = runLength >= 2 && random.nextBoolean();
+        StringBuilder sb = new StringBuilder(39);
+        for (int g = 0; g < 8; g++) {
+            if (compress && g == runStart) {
+                sb.append("::");
+                g += runLength - 1;
+                continue;
+            }
+            if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ':') {
+                sb.append(':');
+            }
+            sb.append(Integer.toHexString(groups[g]));
+        }
+        String text = sb.toString();
+        return random.nextInt(4) == 0 ? text.toUpperCase() : text;
+    }
+
+    private static long toLong(byte[] bytes) {
+        long value = 0;
+        for (byte b : bytes) {
+            value = (value << 8) | (b & 0xFF);
+        }
+        return value;
+    }
+
+    private static byte[] toBytes(long ipv4) {
+        if (ipv4 == IpAddressParser.INVALID) {
+            return null;
+        }
+        return new byte[] {(byte) (ipv4 >>> 24), (byte) (ipv4 >>> 16), (byte) (ipv4 >>> 8), (byte) ipv4};
+    }
+
+    private static byte[] toBytes(long high, long low) {
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (high >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (low >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,115 @@
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+
+/**
+ * ModifiedUtf8 - writeUTF/readUTF Encoding Without Streams
+ *
+ * This class demonstrates:
+ * - The modified UTF-8 format used by DataOutputStream.writeUTF
+ * - Encoding straight into a (direct) ByteBuffer without temporary arrays
+ * - Decoding straight out of a ByteBuffer
+ *
+ * Modified UTF-8 differs from standard UTF-8 in two ways: the NUL
+ * character is written as two bytes, and supplementary characters are
+ * written as two 3-byte surrogates instead of one 4-byte sequence.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public final class ModifiedUtf8 {
+
+    /** Longest body a writeUTF frame can carry */
+    public static final int MAX_LENGTH = 0xFFFF;
+
+    private ModifiedUtf8() {
+    }
+
+    /**
+     * Number of bytes the text takes in modified UTF-8 (without length prefix)
+     */
+    public static int encodedLength(CharSequence text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                length += 1;
+            } else if (c <= 0x07FF) {
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Write a complete writeUTF frame (2-byte length + body)
+     *
+     * @param text text to encode
+     * @param dst buffer with at least 2 + encodedLength(text) bytes remaining
+     * @throws UTFDataFormatException if the text is longer than 65535 bytes
+     */
+    public static void encodeFrame(CharSequence text, ByteBuffer dst) throws UTFDataFormatException {
+        int length = encodedLength(text);
+        if (length > MAX_LENGTH) {
+            throw new UTFDataFormatException("Message too long: " + length + " bytes");
+        }
+        dst.putShort((short) length);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                dst.put((byte) c);
+            } else if (c <= 0x07FF) {
+                dst.put((byte) (0xC0 | (c >> 6)));
+                dst.put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                dst.put((byte) (0xE0 | (c >> 12)));
+                dst.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                dst.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Decode a modified UTF-8 body from the buffer's current position
+     *
+     * @param src buffer positioned at the first body byte
+     * @param length number of body bytes to consume
+     * @return decoded text
+     * @throws UTFDataFormatException if the bytes are malformed
+     */
+    public static String decode(ByteBuffer src, int length) throws UTFDataFormatException {
+        char[] chars = new char[length];
+        int count = 0;
+        int end = src.position() + length;
+
+        while (src.position() < end) {
+            int b = src.get() & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                if (src.position() >= end) {
+                    throw new UTFDataFormatException("Truncated 2-byte sequence");
+                }
+                int b2 = src.get() & 0xFF;
+                if ((b2 & 0xC0) != 0x80) {
+                    throw new UTFDataFormatException("Malformed input around byte " + src.position());
+                }
+                chars[count++] = (char) (((b & 0x1F) << 6) | (b2 & 0x3F));
+            } else if ((b & 0xF0) == 0xE0) {
+                if (src.position() + 1 >= end) {
+                    throw new UTFDataFormatException("Truncated 3-byte sequence");
+                }
+                int b2 = src.get() & 0xFF;
+                int b3 = src.get() & 0xFF;
+                if ((b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) {
+                    throw new UTFDataFormatException("Malformed input around byte " + src.position());
+                }
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F));
+            } else {
+                throw new UTFDataFormatException("Malformed input around byte " + src.position());
+            }
+        }
+        return new String(chars, 0, count);
+    }
+}
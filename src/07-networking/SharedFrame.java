@@ -0,0 +1,106 @@
+import java.io.UTFDataFormatException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+/**
+ * SharedFrame - One Encoded Message Shared by Many Connections
+ *
+ * This class demonstrates:
+ * - Encoding a broadcast once instead of once per recipient
+ * - Reference counting to know when a pooled buffer can be reused
+ *
+ * Each connection that queues the frame calls retain(); when it has
+ * written the frame (or is closed) it calls release(). The last release
+ * returns the buffer to the BufferPool (wrapped frames have no pool).
+ *
+ * The underlying buffer's position and limit are set by whoever writes
+ * it next, so a frame must only be used from the selector thread.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public final class SharedFrame {
+
+    private final BufferPool pool;
+    private final ByteBuffer buffer;
+    private final int length;
+    private int refCount = 1;
+
+    private SharedFrame(BufferPool pool, ByteBuffer buffer, int length) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    /**
+     * Encode a message as a writeUTF frame into a pooled direct buffer
+     *
+     * The returned frame holds one reference owned by the caller, which
+     * must call release() once it has handed the frame to the recipients.
+     *
+     * @throws UTFDataFormatException if the message exceeds 65535 bytes
+     */
+    public static SharedFrame encode(BufferPool pool, String message) throws UTFDataFormatException {
+        int bodyLength = ModifiedUtf8.encodedLength(message);
+        if (bodyLength > ModifiedUtf8.MAX_LENGTH) {
+            throw new UTFDataFormatException("Message too long: " + bodyLength + " bytes");
+        }
+        ByteBuffer buffer = pool.acquire(2 + bodyLength);
+        ModifiedUtf8.encodeFrame(message, buffer);
+        return new SharedFrame(pool, buffer, 2 + bodyLength);
+    }
+
+    /**
+     * Encode a binary frame (see ChatFrameCodec) into a pooled direct buffer
+     *
+     * @throws ProtocolException if the frame exceeds the codec's limit
+     */
+    public static SharedFrame encode(BufferPool pool, ChatFrameCodec codec, ChatFrameCodec.Frame frame)
+            throws ProtocolException {
+        ByteBuffer buffer = codec.encode(frame, pool::acquire);
+        return new SharedFrame(pool, buffer, buffer.position());
+    }
+
+    /**
+     * Share an already encoded frame that does not come from a pool
+     *
+     * Used for history replay, where the buffer is a slice of a
+     * memory-mapped log segment; release() then frees nothing.
+     *
+     * @param frame buffer holding exactly one frame, position 0
+     */
+    public static SharedFrame wrap(ByteBuffer frame) {
+        return new SharedFrame(null, frame, frame.remaining());
+    }
+
+    public SharedFrame retain() {
+        if (refCount <= 0) {
+            throw new IllegalStateException("Frame already released");
+        }
+        refCount++;
+        return this;
+    }
+
+    public void release() {
+        if (refCount <= 0) {
+            throw new IllegalStateException("Frame already released");
+        }
+        if (--refCount == 0 && pool != null) {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Buffer positioned to write the frame from the given offset
+     *
+     * @param offset bytes of this frame already written
+     */
+    public ByteBuffer viewFrom(int offset) {
+        buffer.limit(length).position(offset);
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+}
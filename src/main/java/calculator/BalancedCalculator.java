@@ -0,0 +1,258 @@
+package calculator;
+
+import java.rmi.Naming;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BalancedCalculator - Client-Side Load Balancer for Calculator Servers
+ *
+ * This class demonstrates:
+ * - Spreading remote calls over several RMI servers
+ * - Least-outstanding-requests server selection
+ * - Periodic health checks with ScheduledExecutorService
+ * - Failover when a server stops responding
+ * - Retrying elsewhere when a server sheds load (ServerBusyException)
+ *
+ * The balancer implements CalculatorInterface itself, so client code can
+ * use it exactly like a single remote stub. Every calculator operation is
+ * idempotent, which makes it safe to retry a failed call on another server.
+ *
+ * Example with two server JVMs on one host:
+ *   java calculator.CalculatorServer --port 1099 --instances 2
+ *   java calculator.CalculatorServer --port 1100 --instances 2
+ *   java calculator.CalculatorClient rmi://localhost:1099/CalculatorService-0 \
+ *        rmi://localhost:1099/CalculatorService-1 \
+ *        rmi://localhost:1100/CalculatorService-0 \
+ *        rmi://localhost:1100/CalculatorService-1
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class BalancedCalculator implements CalculatorInterface, AutoCloseable {
+
+    /**
+     * A remote call that can be replayed against any endpoint
+     */
+    @FunctionalInterface
+    private interface RemoteCall<T> {
+        T call(CalculatorInterface calculator) throws RemoteException;
+    }
+
+    /**
+     * Endpoint - One calculator server and its load/health state
+     */
+    private static final class Endpoint {
+        final String url;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        volatile CalculatorInterface stub;
+        volatile boolean healthy;
+
+        Endpoint(String url) {
+            this.url = url;
+        }
+    }
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final AtomicInteger nextStart = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * Create a balancer over the given server URLs
+     *
+     * @param urls lookup URLs of the calculator instances
+     * @param healthCheckIntervalMillis how often to probe servers
+     */
+    public BalancedCalculator(List<String> urls, long healthCheckIntervalMillis) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one server URL is required");
+        }
+        for (String url : urls) {
+            endpoints.add(new Endpoint(url));
+        }
+        endpoints.forEach(this::checkHealth);
+
+        healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Calculator-HealthCheck");
+            t.setDaemon(true);
+            return t;
+        });
+        healthChecker.scheduleWithFixedDelay(() -> endpoints.forEach(this::checkHealth),
+            healthCheckIntervalMillis, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Probe one endpoint, looking up its stub again if needed
+     */
+    private void checkHealth(Endpoint endpoint) {
+        try {
+            CalculatorInterface stub = endpoint.stub;
+            if (stub == null) {
+                stub = (CalculatorInterface) Naming.lookup(endpoint.url);
+            }
+            stub.ping();
+            endpoint.stub = stub;
+            if (!endpoint.healthy) {
+                endpoint.healthy = true;
+                System.out.println("✓ Server available: " + endpoint.url);
+            }
+        } catch (Exception e) {
+            markDown(endpoint);
+        }
+    }
+
+    private void markDown(Endpoint endpoint) {
+        endpoint.stub = null;
+        if (endpoint.healthy) {
+            endpoint.healthy = false;
+            System.err.println("✗ Server unavailable: " + endpoint.url);
+        }
+    }
+
+    /**
+     * Pick the healthy endpoint with the fewest calls in flight
+     *
+     * The scan starts at a rotating position so that ties are spread
+     * round-robin instead of always hitting the first server.
+     */
+    private Endpoint select(boolean[] tried) {
+        int size = endpoints.size();
+        int start = Math.floorMod(nextStart.getAndIncrement(), size);
+        Endpoint best = null;
+        int bestIndex = -1;
+        int bestLoad = Integer.MAX_VALUE;
+
+        for (int n = 0; n < size; n++) {
+            int i = (start + n) % size;
+            Endpoint e = endpoints.get(i);
+            if (tried[i] || !e.healthy || e.stub == null) {
+                continue;
+            }
+            int load = e.outstanding.get();
+            if (load < bestLoad) {
+                best = e;
+                bestIndex = i;
+                bestLoad = load;
+            }
+        }
+        if (best != null) {
+            tried[bestIndex] = true;
+        }
+        return best;
+    }
+
+    /**
+     * Run a call on the least loaded server, failing over on RemoteException
+     */
+    private <T> T invoke(RemoteCall<T> call) throws RemoteException {
+        boolean[] tried = new boolean[endpoints.size()];
+        RemoteException lastFailure = null;
+        ServerBusyException lastBusy = null;
+
+        Endpoint endpoint;
+        while ((endpoint = select(tried)) != null) {
+            CalculatorInterface stub = endpoint.stub;
+            if (stub == null) {
+                continue;
+            }
+            endpoint.outstanding.incrementAndGet();
+            try {
+                T result = call.call(stub);
+                endpoint.calls.increment();
+                return result;
+            } catch (RemoteException e) {
+                // RMI delivers a server's ServerBusyException wrapped in a ServerException
+                ServerBusyException busy = ServerBusyException.busyCause(e);
+                if (busy != null) {
+                    // Saturated but healthy - keep it in rotation
+                    lastBusy = busy;
+                } else {
+                    endpoint.failures.increment();
+                    markDown(endpoint);
+                    lastFailure = e;
+                }
+            } finally {
+                endpoint.outstanding.decrementAndGet();
+            }
+        }
+
+        if (lastBusy != null) {
+            throw lastBusy;
+        }
+        throw new RemoteException("No healthy calculator server available", lastFailure);
+    }
+
+    @Override
+    public int add(int a, int b) throws RemoteException {
+        return invoke(c -> c.add(a, b));
+    }
+
+    @Override
+    public int subtract(int a, int b) throws RemoteException {
+        return invoke(c -> c.subtract(a, b));
+    }
+
+    @Override
+    public int multiply(int a, int b) throws RemoteException {
+        return invoke(c -> c.multiply(a, b));
+    }
+
+    @Override
+    public int addExact(int a, int b) throws RemoteException, ArithmeticException {
+        return invoke(c -> c.addExact(a, b));
+    }
+
+    @Override
+    public int multiplyExact(int a, int b) throws RemoteException, ArithmeticException {
+        return invoke(c -> c.multiplyExact(a, b));
+    }
+
+    @Override
+    public int divide(int a, int b) throws RemoteException, ArithmeticException {
+        return invoke(c -> c.divide(a, b));
+    }
+
+    @Override
+    public double power(double base, int exponent) throws RemoteException {
+        return invoke(c -> c.power(base, exponent));
+    }
+
+    @Override
+    public boolean ping() throws RemoteException {
+        return invoke(CalculatorInterface::ping);
+    }
+
+    /**
+     * Statistics of whichever server handles this call
+     *
+     * To scrape every server, look each URL up directly instead.
+     */
+    @Override
+    public CalculatorStats getStats() throws RemoteException {
+        return invoke(CalculatorInterface::getStats);
+    }
+
+    /**
+     * Print per-server call and failure counts
+     */
+    public void printStats() {
+        System.out.println("\nLoad Balancer Statistics:");
+        for (Endpoint e : endpoints) {
+            System.out.printf("  %-45s %-8s calls=%-8d failures=%d%n",
+                e.url, e.healthy ? "UP" : "DOWN", e.calls.sum(), e.failures.sum());
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+    }
+}
@@ -1,6 +1,7 @@
 package calculator;
 
 import java.rmi.Naming;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -11,6 +12,11 @@ import java.util.Scanner;
  * - Calling remote methods
  * - Handling remote exceptions
  * - Interactive RMI client
+ * - Client-side load balancing over several servers
+ * 
+ * Usage: java calculator.CalculatorClient [serviceUrl ...]
+ *   With no arguments the client connects to rmi://localhost/CalculatorService.
+ *   With several URLs the calls are spread over them by BalancedCalculator.
  * 
  * Original: MyRMICalculator practical (Client class)
  * 
@@ -25,14 +31,24 @@ public class CalculatorClient {
         System.out.println("╚═══════════════════════════════════╝\n");
         
         Scanner scanner = null;
+        BalancedCalculator balancer = null;
         try {
-            // Lookup remote calculator service
-            String lookupName = "rmi://localhost/CalculatorService";
-            System.out.println("⏳ Looking up calculator service...");
-            System.out.println("   Service URL: " + lookupName);
-            
-            CalculatorInterface calculator = (CalculatorInterface) Naming.lookup(lookupName);
-            System.out.println("✓ Connected to remote calculator!\n");
+            CalculatorInterface calculator;
+            if (args.length > 1) {
+                // Spread calls over several calculator servers
+                System.out.println("⏳ Connecting to " + args.length + " calculator servers...");
+                balancer = new BalancedCalculator(Arrays.asList(args), 2000);
+                calculator = balancer;
+                System.out.println("✓ Load balancer ready!\n");
+            } else {
+                // Lookup remote calculator service
+                String lookupName = args.length == 1 ? args[0] : "rmi://localhost/CalculatorService";
+                System.out.println("⏳ Looking up calculator service...");
+                System.out.println("   Service URL: " + lookupName);
+                
+                calculator = (CalculatorInterface) Naming.lookup(lookupName);
+                System.out.println("✓ Connected to remote calculator!\n");
+            }
             
             // Interactive calculator
             scanner = new Scanner(System.in);
@@ -45,11 +61,12 @@ public class CalculatorClient {
             System.out.println("4. Division");
             System.out.println("5. Power");
             System.out.println("6. Run Demo");
+            System.out.println("7. Server Statistics");
             System.out.println("0. Exit");
             System.out.println("=".repeat(50));
             
             while (true) {
-                System.out.print("\nEnter choice (0-6): ");
+                System.out.print("\nEnter choice (0-7): ");
                 int choice = scanner.nextInt();
                 
                 if (choice == 0) {
@@ -63,8 +80,13 @@ public class CalculatorClient {
                     continue;
                 }
                 
+                if (choice == 7) {
+                    System.out.println("\n" + calculator.getStats());
+                    continue;
+                }
+                
                 if (choice < 1 || choice > 5) {
-                    System.out.println("Invalid choice! Please enter 0-6.");
+                    System.out.println("Invalid choice! Please enter 0-7.");
                     continue;
                 }
                 
@@ -88,6 +110,10 @@ public class CalculatorClient {
             if (scanner != null) {
                 scanner.close();
             }
+            if (balancer != null) {
+                balancer.printStats();
+                balancer.close();
+            }
         }
     }
     
@@ -166,8 +192,17 @@ public class CalculatorClient {
             double power = calc.power(2, 10);
             System.out.println("   2 ^ 10 = " + power);
             
+            // Overflow detection
+            System.out.println("\n6. Overflow Detection:");
+            System.out.println("   multiply(100000, 100000) wraps to " + calc.multiply(100000, 100000));
+            try {
+                calc.multiplyExact(100000, 100000);
+            } catch (ArithmeticException e) {
+                System.out.println("   ✓ multiplyExact reported: " + e.getMessage());
+            }
+            
             // Division by zero (error handling)
-            System.out.println("\n6. Division by Zero (Error Handling):");
+            System.out.println("\n7. Division by Zero (Error Handling):");
             try {
                 calc.divide(10, 0);
             } catch (ArithmeticException e) {
@@ -1,7 +1,12 @@
 package calculator;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.function.Supplier;
+
+import calculator.CalculatorMetrics.Operation;
 
 /**
  * CalculatorImpl - Implementation of Remote Calculator
@@ -11,6 +16,9 @@ import java.rmi.server.UnicastRemoteObject;
  * - Implementing remote interface
  * - Remote method implementations
  * - Exception handling in RMI
+ * - Optional memoization of power() results (see PowerCache)
+ * - Exact integer fast paths and overflow-checked arithmetic
+ * - Per-call metrics and load shedding (see CalculatorMetrics)
  * 
  * Original: MyRMICalculator practical (MyCalculator)
  * 
@@ -19,50 +27,225 @@ import java.rmi.server.UnicastRemoteObject;
  */
 public class CalculatorImpl extends UnicastRemoteObject implements CalculatorInterface {
     
+    private static final long serialVersionUID = 1L;
+    
+    private final int powerCacheCapacity;
+    private final int maxConcurrentCalls;
+    // Server-local: a deserialized copy starts with an empty cache of its own
+    private transient PowerCache powerCache;
+    // Counts this object's own calls; a deserialized copy starts from zero
+    private transient CalculatorMetrics metrics;
+    
     /**
      * Constructor - must throw RemoteException
      */
     public CalculatorImpl() throws RemoteException {
+        this(0, 0);
+    }
+    
+    /**
+     * Constructor with opt-in memoization and admission control
+     * 
+     * @param powerCacheCapacity number of cached results (0 disables caching)
+     * @param maxConcurrentCalls calls allowed in flight before rejecting (0 = unlimited)
+     * @throws RemoteException if the object cannot be exported
+     */
+    public CalculatorImpl(int powerCacheCapacity, int maxConcurrentCalls) throws RemoteException {
         super();
-        System.out.println("✓ Calculator implementation created");
+        this.powerCacheCapacity = powerCacheCapacity;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.powerCache = newPowerCache(powerCacheCapacity);
+        this.metrics = new CalculatorMetrics(maxConcurrentCalls);
+        System.out.println("✓ Calculator implementation created" +
+            (powerCache != null ? " (power cache: " + powerCache.getCapacity() + " entries)" : ""));
+    }
+    
+    private static PowerCache newPowerCache(int capacity) {
+        return capacity > 0 ? new PowerCache(capacity) : null;
+    }
+    
+    /**
+     * Recreate the transient cache and metrics after deserialization
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        powerCache = newPowerCache(powerCacheCapacity);
+        metrics = new CalculatorMetrics(maxConcurrentCalls);
+    }
+    
+    /**
+     * Get the power() result cache
+     * 
+     * @return the cache, or null if memoization is disabled
+     */
+    public PowerCache getPowerCache() {
+        return powerCache;
+    }
+    
+    /**
+     * Get the call metrics of this instance
+     * 
+     * @return metrics (also registered with JMX by CalculatorServer)
+     */
+    public CalculatorMetrics getMetrics() {
+        return metrics;
     }
     
     @Override
     public int add(int a, int b) throws RemoteException {
-        int result = a + b;
-        System.out.println("Calculation: " + a + " + " + b + " = " + result);
-        return result;
+        return metered(Operation.ADD, () -> {
+            int result = a + b;
+            System.out.println("Calculation: " + a + " + " + b + " = " + result);
+            return result;
+        });
     }
     
     @Override
     public int subtract(int a, int b) throws RemoteException {
-        int result = a - b;
-        System.out.println("Calculation: " + a + " - " + b + " = " + result);
-        return result;
+        return metered(Operation.SUBTRACT, () -> {
+            int result = a - b;
+            System.out.println("Calculation: " + a + " - " + b + " = " + result);
+            return result;
+        });
     }
     
     @Override
     public int multiply(int a, int b) throws RemoteException {
-        int result = a * b;
-        System.out.println("Calculation: " + a + " × " + b + " = " + result);
-        return result;
+        return metered(Operation.MULTIPLY, () -> {
+            int result = a * b;
+            System.out.println("Calculation: " + a + " × " + b + " = " + result);
+            return result;
+        });
+    }
+    
+    @Override
+    public int addExact(int a, int b) throws RemoteException, ArithmeticException {
+        return metered(Operation.ADD_EXACT, () -> {
+            try {
+                int result = Math.addExact(a, b);
+                System.out.println("Calculation: " + a + " + " + b + " = " + result);
+                return result;
+            } catch (ArithmeticException e) {
+                System.out.println("Error: Integer overflow in " + a + " + " + b);
+                throw new ArithmeticException("Integer overflow: " + a + " + " + b);
+            }
+        });
+    }
+    
+    @Override
+    public int multiplyExact(int a, int b) throws RemoteException, ArithmeticException {
+        return metered(Operation.MULTIPLY_EXACT, () -> {
+            try {
+                int result = Math.multiplyExact(a, b);
+                System.out.println("Calculation: " + a + " × " + b + " = " + result);
+                return result;
+            } catch (ArithmeticException e) {
+                System.out.println("Error: Integer overflow in " + a + " × " + b);
+                throw new ArithmeticException("Integer overflow: " + a + " × " + b);
+            }
+        });
     }
     
     @Override
     public int divide(int a, int b) throws RemoteException, ArithmeticException {
-        if (b == 0) {
-            System.out.println("Error: Division by zero attempted!");
-            throw new ArithmeticException("Cannot divide by zero!");
-        }
-        int result = a / b;
-        System.out.println("Calculation: " + a + " ÷ " + b + " = " + result);
-        return result;
+        return metered(Operation.DIVIDE, () -> {
+            if (b == 0) {
+                System.out.println("Error: Division by zero attempted!");
+                throw new ArithmeticException("Cannot divide by zero!");
+            }
+            int result = a / b;
+            System.out.println("Calculation: " + a + " ÷ " + b + " = " + result);
+            return result;
+        });
     }
     
     @Override
     public double power(double base, int exponent) throws RemoteException {
-        double result = Math.pow(base, exponent);
-        System.out.println("Calculation: " + base + " ^ " + exponent + " = " + result);
+        return metered(Operation.POWER, () -> {
+            double result;
+            if (powerCache != null) {
+                result = powerCache.get(base, exponent);
+                if (Double.isNaN(result)) {
+                    result = computePower(base, exponent);
+                    powerCache.put(base, exponent, result);
+                }
+            } else {
+                result = computePower(base, exponent);
+            }
+            System.out.println("Calculation: " + base + " ^ " + exponent + " = " + result);
+            return result;
+        });
+    }
+    
+    /**
+     * Run one calculation under admission control and metrics
+     * 
+     * Every remote calculation goes through here, so none can skip the
+     * accounting: admit() may reject the call with ServerBusyException,
+     * and complete() always runs, recording whether it succeeded.
+     * 
+     * @param op operation to record the call under
+     * @param calculation the work; may throw ArithmeticException
+     * @return the calculation's result
+     * @throws ServerBusyException if the concurrency limit is reached
+     */
+    private <T> T metered(Operation op, Supplier<T> calculation) throws ServerBusyException {
+        long start = metrics.admit(op);
+        boolean ok = false;
+        try {
+            T result = calculation.get();
+            ok = true;
+            return result;
+        } finally {
+            metrics.complete(op, start, ok);
+        }
+    }
+    
+    @Override
+    public boolean ping() throws RemoteException {
+        return true;
+    }
+    
+    @Override
+    public CalculatorStats getStats() throws RemoteException {
+        return metrics.snapshot(powerCache);
+    }
+    
+    /**
+     * Compute base^exponent, exactly when the base is integral
+     * 
+     * Integral bases with non-negative exponents use exponentiation by
+     * squaring on long, which is exact while the result fits in a long.
+     * Everything else (and any overflow) falls back to Math.pow.
+     */
+    static double computePower(double base, int exponent) {
+        if (exponent >= 0 && base != 0.0 && base == Math.rint(base)
+                && Math.abs(base) <= Integer.MAX_VALUE) {
+            try {
+                return powerExact((long) base, exponent);
+            } catch (ArithmeticException overflow) {
+                // Result does not fit in a long - use floating point
+            }
+        }
+        return Math.pow(base, exponent);
+    }
+    
+    /**
+     * Exponentiation by squaring with overflow detection
+     * 
+     * @throws ArithmeticException if the result overflows a long
+     */
+    static long powerExact(long base, int exponent) {
+        long result = 1;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = Math.multiplyExact(result, base);
+            }
+            exponent >>= 1;
+            if (exponent > 0) {
+                base = Math.multiplyExact(base, base);
+            }
+        }
         return result;
     }
 }
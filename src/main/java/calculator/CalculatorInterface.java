@@ -11,6 +11,12 @@ import java.rmi.RemoteException;
  * - Remote methods throwing RemoteException
  * - Contract for distributed calculator operations
  * 
+ * Any calculation may fail with ServerBusyException when the server has
+ * reached its concurrency limit. RMI delivers it to the client wrapped in
+ * a java.rmi.ServerException, so catch RemoteException and check it with
+ * ServerBusyException.busyCause() (BalancedCalculator does this and
+ * throws the unwrapped exception when every server is busy).
+ * 
  * Original: MyRMICalculator practical (MyCalcInter)
  * 
  * @author BICT Advanced Java Course
@@ -48,6 +54,28 @@ public interface CalculatorInterface extends Remote {
      */
     int multiply(int a, int b) throws RemoteException;
     
+    /**
+     * Add two integers remotely, reporting overflow instead of wrapping
+     * 
+     * @param a first number
+     * @param b second number
+     * @return sum of a and b
+     * @throws RemoteException if remote communication fails
+     * @throws ArithmeticException if the sum overflows an int
+     */
+    int addExact(int a, int b) throws RemoteException, ArithmeticException;
+    
+    /**
+     * Multiply two integers remotely, reporting overflow instead of wrapping
+     * 
+     * @param a first number
+     * @param b second number
+     * @return product of a and b
+     * @throws RemoteException if remote communication fails
+     * @throws ArithmeticException if the product overflows an int
+     */
+    int multiplyExact(int a, int b) throws RemoteException, ArithmeticException;
+    
     /**
      * Divide two integers remotely
      * 
@@ -68,4 +96,20 @@ public interface CalculatorInterface extends Remote {
      * @throws RemoteException if remote communication fails
      */
     double power(double base, int exponent) throws RemoteException;
+    
+    /**
+     * Health check used by load-balancing clients
+     * 
+     * @return true if the server is accepting calls
+     * @throws RemoteException if remote communication fails
+     */
+    boolean ping() throws RemoteException;
+    
+    /**
+     * Snapshot of server call counts, latencies and load
+     * 
+     * @return current server statistics
+     * @throws RemoteException if remote communication fails
+     */
+    CalculatorStats getStats() throws RemoteException;
 }
@@ -0,0 +1,225 @@
+package calculator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CalculatorMetrics - Call Counters, Latency Histograms and Admission Control
+ *
+ * This class demonstrates:
+ * - Low-contention counters with LongAdder
+ * - Lock-free latency histograms with AtomicLongArray
+ * - Bounding concurrent work with a compare-and-set admission counter
+ * - Exposing metrics through JMX (see CalculatorMetricsMBean)
+ *
+ * Every remote call is wrapped as follows (CalculatorImpl.metered does it):
+ * <pre>
+ *   long start = metrics.admit(Operation.ADD);   // may throw ServerBusyException
+ *   boolean ok = false;
+ *   try { ...; ok = true; } finally { metrics.complete(Operation.ADD, start, ok); }
+ * </pre>
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class CalculatorMetrics implements CalculatorMetricsMBean {
+
+    /**
+     * Metered remote operations
+     */
+    public enum Operation {
+        ADD, SUBTRACT, MULTIPLY, ADD_EXACT, MULTIPLY_EXACT, DIVIDE, POWER
+    }
+
+    /**
+     * LatencyHistogram - Power-of-two buckets of microseconds
+     *
+     * Bucket i counts latencies in [2^(i-1), 2^i) µs, so percentiles are
+     * reported as the upper bound of their bucket.
+     */
+    static final class LatencyHistogram {
+        private static final int BUCKETS = 40;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long micros) {
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            counts.incrementAndGet(bucket);
+            long current;
+            while (micros > (current = max.get())) {
+                if (max.compareAndSet(current, micros)) {
+                    break;
+                }
+            }
+        }
+
+        long percentile(double fraction) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0 : Math.min(1L << i, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        long max() {
+            return max.get();
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final LongAdder[] calls = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] errors = new LongAdder[OPERATIONS.length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LatencyHistogram allLatencies = new LatencyHistogram();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final int maxConcurrentCalls;
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * Create metrics with an optional concurrency limit
+     *
+     * @param maxConcurrentCalls maximum calls in flight (0 or less = unlimited)
+     */
+    public CalculatorMetrics(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            calls[i] = new LongAdder();
+            errors[i] = new LongAdder();
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Admit a call, or reject it if the server is saturated
+     *
+     * @param op operation being called
+     * @return start timestamp to pass to complete()
+     * @throws ServerBusyException if the concurrency limit is reached
+     */
+    public long admit(Operation op) throws ServerBusyException {
+        int current;
+        do {
+            current = inFlight.get();
+            if (maxConcurrentCalls > 0 && current >= maxConcurrentCalls) {
+                rejected.increment();
+                throw new ServerBusyException("Calculator server busy: " + current +
+                    " calls in flight (limit " + maxConcurrentCalls + "), rejected " + op);
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        int peak;
+        while ((peak = peakInFlight.get()) < current + 1) {
+            if (peakInFlight.compareAndSet(peak, current + 1)) {
+                break;
+            }
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the end of an admitted call
+     *
+     * @param op operation that was called
+     * @param startNanos value returned by admit()
+     * @param success false if the call threw an exception
+     */
+    public void complete(Operation op, long startNanos, boolean success) {
+        inFlight.decrementAndGet();
+        long micros = (System.nanoTime() - startNanos) / 1_000;
+        int i = op.ordinal();
+        calls[i].increment();
+        if (!success) {
+            errors[i].increment();
+        }
+        latencies[i].record(micros);
+        allLatencies.record(micros);
+    }
+
+    /**
+     * Take a serializable snapshot of all metrics
+     *
+     * @param cache power cache to include (may be null)
+     * @return snapshot suitable for returning over RMI
+     */
+    public CalculatorStats snapshot(PowerCache cache) {
+        Map<String, CalculatorStats.OperationStats> ops = new LinkedHashMap<>();
+        for (Operation op : OPERATIONS) {
+            int i = op.ordinal();
+            ops.put(op.name(), new CalculatorStats.OperationStats(
+                calls[i].sum(), errors[i].sum(),
+                latencies[i].percentile(0.50), latencies[i].percentile(0.99), latencies[i].max()));
+        }
+        return new CalculatorStats(System.currentTimeMillis() - startTime,
+            inFlight.get(), peakInFlight.get(), maxConcurrentCalls, rejected.sum(),
+            cache != null ? cache.getHits() : 0, cache != null ? cache.getMisses() : 0, ops);
+    }
+
+    @Override
+    public long getTotalCalls() {
+        long total = 0;
+        for (LongAdder c : calls) {
+            total += c.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        long total = 0;
+        for (LongAdder e : errors) {
+            total += e.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getRejectedCalls() {
+        return rejected.sum();
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    @Override
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    @Override
+    public long getP99LatencyMicros() {
+        return allLatencies.percentile(0.99);
+    }
+
+    @Override
+    public String getSummary() {
+        return snapshot(null).toString();
+    }
+}
@@ -0,0 +1,28 @@
+package calculator;
+
+/**
+ * CalculatorMetricsMBean - JMX Management Interface for CalculatorMetrics
+ *
+ * Visible in JConsole/VisualVM under the "calculator" domain.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public interface CalculatorMetricsMBean {
+
+    long getTotalCalls();
+
+    long getTotalErrors();
+
+    long getRejectedCalls();
+
+    int getInFlight();
+
+    int getPeakInFlight();
+
+    int getMaxConcurrentCalls();
+
+    long getP99LatencyMicros();
+
+    String getSummary();
+}
@@ -1,7 +1,11 @@
 package calculator;
 
+import java.lang.management.ManagementFactory;
 import java.rmi.Naming;
+import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
+import java.rmi.server.ExportException;
+import javax.management.ObjectName;
 
 /**
  * CalculatorServer - RMI Server for Calculator
@@ -11,6 +15,29 @@ import java.rmi.registry.LocateRegistry;
  * - Binding remote object to registry
  * - RMI server setup and lifecycle
  * - Naming service usage
+ * - Registering several instances under indexed names
+ * - Exposing call metrics through JMX
+ * 
+ * Usage: java calculator.CalculatorServer [--port P] [--instances N]
+ *                                         [--first-index K] [--power-cache N]
+ *                                         [--max-concurrent N]
+ *   --port P         registry port (default: 1099)
+ *   --instances N    number of calculator instances to bind (default: 1)
+ *   --first-index K  index of the first instance name (default: 0)
+ *   --power-cache N  memoize up to N power() results (default: disabled)
+ *   --max-concurrent N  reject calls beyond N in flight per instance
+ *                    with ServerBusyException (default: unlimited)
+ * 
+ * Instances are bound as CalculatorService-K, CalculatorService-(K+1), ...
+ * The JVM that creates the registry also binds its first instance as
+ * plain CalculatorService so existing clients keep working. If the
+ * registry port is already taken by another server JVM on this host, its
+ * registry is reused and the plain name is left alone; use --first-index
+ * to keep the indexed names of the two JVMs apart.
+ * 
+ * Metrics of each instance are registered as the JMX bean
+ * calculator:type=CalculatorService,index=K and are also available
+ * remotely through CalculatorInterface.getStats().
  * 
  * Original: MyRMICalculator practical (Server class)
  * 
@@ -19,34 +46,109 @@ import java.rmi.registry.LocateRegistry;
  */
 public class CalculatorServer {
     
+    /** Base name that every instance is bound under */
+    public static final String SERVICE_NAME = "CalculatorService";
+    
     public static void main(String[] args) {
         System.out.println("╔═══════════════════════════════════╗");
         System.out.println("║   RMI Calculator Server - BICT    ║");
         System.out.println("╚═══════════════════════════════════╝\n");
         
+        int port = 1099;
+        int instances = 1;
+        int firstIndex = 0;
+        int powerCacheSize = 0;
+        int maxConcurrent = 0;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+                case "--port":
+                case "--instances":
+                case "--first-index":
+                case "--power-cache":
+                case "--max-concurrent":
+                    break;
+                default:
+                    usage("Unknown option: " + option);
+                    return;
+            }
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+                return;
+            }
+            int value;
+            try {
+                value = Integer.parseInt(args[++i]);
+            } catch (NumberFormatException e) {
+                usage("Not a number for " + option + ": " + args[i]);
+                return;
+            }
+            switch (option) {
+                case "--port":
+                    port = value;
+                    break;
+                case "--instances":
+                    instances = value;
+                    break;
+                case "--first-index":
+                    firstIndex = value;
+                    break;
+                case "--power-cache":
+                    powerCacheSize = value;
+                    break;
+                case "--max-concurrent":
+                    maxConcurrent = value;
+                    break;
+            }
+        }
+        
         try {
-            // Create RMI registry on port 1099
-            System.out.println("⏳ Creating RMI registry on port 1099...");
-            LocateRegistry.createRegistry(1099);
-            System.out.println("✓ RMI registry created\n");
+            // Create RMI registry (or join the one already on this port)
+            System.out.println("⏳ Creating RMI registry on port " + port + "...");
+            boolean createdRegistry = createOrJoinRegistry(port);
             
-            // Create calculator implementation
-            System.out.println("⏳ Creating calculator implementation...");
-            CalculatorImpl calculator = new CalculatorImpl();
+            for (int n = 0; n < instances; n++) {
+                int index = firstIndex + n;
             
-            // Bind calculator to registry
-            String bindName = "rmi://localhost/CalculatorService";
-            System.out.println("⏳ Binding calculator to: " + bindName);
-            Naming.rebind(bindName, calculator);
-            System.out.println("✓ Calculator bound successfully!\n");
+                // Create calculator implementation
+                System.out.println("⏳ Creating calculator implementation #" + index + "...");
+                CalculatorImpl calculator = new CalculatorImpl(powerCacheSize, maxConcurrent);
+                
+                // Expose metrics to JConsole/VisualVM
+                ManagementFactory.getPlatformMBeanServer().registerMBean(calculator.getMetrics(),
+                    new ObjectName("calculator:type=" + SERVICE_NAME + ",index=" + index));
+                
+                // Report call statistics when the server stops
+                Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                    System.out.println("\n📊 Instance #" + index + "\n" +
+                        calculator.getMetrics().snapshot(calculator.getPowerCache())),
+                    "Calculator-Stats-" + index));
+                
+                // Bind calculator to registry
+                String bindName = serviceUrl("localhost", port, index);
+                System.out.println("⏳ Binding calculator to: " + bindName);
+                Naming.rebind(bindName, calculator);
+                
+                // Only the registry's owner binds the plain name, so a second
+                // JVM joining the registry never takes it over
+                if (n == 0 && createdRegistry) {
+                    Naming.rebind("rmi://localhost:" + port + "/" + SERVICE_NAME, calculator);
+                }
+                System.out.println("✓ Calculator bound successfully!\n");
+            }
             
             System.out.println("=".repeat(50));
             System.out.println("🚀 Server is ready and waiting for clients...");
             System.out.println("=".repeat(50));
             System.out.println();
             System.out.println("Server Information:");
-            System.out.println("  • Service Name: CalculatorService");
-            System.out.println("  • Port: 1099");
+            System.out.println("  • Service Names: " + SERVICE_NAME + "-" + firstIndex +
+                (instances > 1 ? " .. " + SERVICE_NAME + "-" + (firstIndex + instances - 1) : ""));
+            System.out.println("  • Port: " + port);
+            System.out.println("  • Power Cache: " +
+                (powerCacheSize > 0 ? powerCacheSize + " entries per instance" : "disabled"));
+            System.out.println("  • Max Concurrent Calls: " +
+                (maxConcurrent > 0 ? maxConcurrent + " per instance" : "unlimited"));
             System.out.println("  • Status: Running");
             System.out.println();
             System.out.println("To stop the server, press Ctrl+C");
@@ -57,4 +159,42 @@ public class CalculatorServer {
             e.printStackTrace();
         }
     }
+    
+    /**
+     * Build the lookup URL of an indexed calculator instance
+     * 
+     * @param host registry host
+     * @param port registry port
+     * @param index instance index
+     * @return URL such as rmi://localhost:1099/CalculatorService-0
+     */
+    public static String serviceUrl(String host, int port, int index) {
+        return "rmi://" + host + ":" + port + "/" + SERVICE_NAME + "-" + index;
+    }
+    
+    /**
+     * Create a registry, or reuse the one another server JVM already started
+     * 
+     * @return true if this process created the registry
+     */
+    private static boolean createOrJoinRegistry(int port) throws RemoteException {
+        try {
+            LocateRegistry.createRegistry(port);
+            System.out.println("✓ RMI registry created\n");
+            return true;
+        } catch (ExportException e) {
+            LocateRegistry.getRegistry(port).list();
+            System.out.println("✓ Joined existing RMI registry on port " + port + "\n");
+            return false;
+        }
+    }
+    
+    /**
+     * Report a bad command line instead of running with the defaults
+     */
+    private static void usage(String problem) {
+        System.err.println("✗ " + problem);
+        System.err.println("Usage: java calculator.CalculatorServer [--port P] [--instances N] " +
+            "[--first-index K] [--power-cache N] [--max-concurrent N]");
+    }
 }
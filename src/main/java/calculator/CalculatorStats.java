@@ -0,0 +1,92 @@
+package calculator;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CalculatorStats - Serializable Snapshot of Server Metrics
+ *
+ * Returned by CalculatorInterface.getStats() so that clients and
+ * monitoring scripts can scrape calculator throughput over RMI.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class CalculatorStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Per-operation counters and latency percentiles (microseconds)
+     */
+    public static class OperationStats implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public final long calls;
+        public final long errors;
+        public final long p50Micros;
+        public final long p99Micros;
+        public final long maxMicros;
+
+        public OperationStats(long calls, long errors, long p50Micros, long p99Micros, long maxMicros) {
+            this.calls = calls;
+            this.errors = errors;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+    }
+
+    public final long uptimeMillis;
+    public final int inFlight;
+    public final int peakInFlight;
+    public final int maxConcurrentCalls;
+    public final long rejectedCalls;
+    public final long powerCacheHits;
+    public final long powerCacheMisses;
+    /** A copy in operation order, so the snapshot serializes on its own */
+    public final LinkedHashMap<String, OperationStats> operations;
+
+    public CalculatorStats(long uptimeMillis, int inFlight, int peakInFlight, int maxConcurrentCalls,
+                           long rejectedCalls, long powerCacheHits, long powerCacheMisses,
+                           Map<String, OperationStats> operations) {
+        this.uptimeMillis = uptimeMillis;
+        this.inFlight = inFlight;
+        this.peakInFlight = peakInFlight;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.rejectedCalls = rejectedCalls;
+        this.powerCacheHits = powerCacheHits;
+        this.powerCacheMisses = powerCacheMisses;
+        this.operations = new LinkedHashMap<>(operations);
+    }
+
+    /**
+     * Total calls completed across all operations
+     */
+    public long getTotalCalls() {
+        long total = 0;
+        for (OperationStats op : operations.values()) {
+            total += op.calls;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Uptime: %ds | In flight: %d (peak %d, limit %s) | Rejected: %d%n",
+            uptimeMillis / 1000, inFlight, peakInFlight,
+            maxConcurrentCalls > 0 ? String.valueOf(maxConcurrentCalls) : "none", rejectedCalls));
+        sb.append(String.format("Power cache: %d hits, %d misses%n", powerCacheHits, powerCacheMisses));
+        sb.append(String.format("%-15s %10s %8s %10s %10s %10s%n",
+            "Operation", "Calls", "Errors", "p50(µs)", "p99(µs)", "max(µs)"));
+        for (Map.Entry<String, OperationStats> e : operations.entrySet()) {
+            OperationStats op = e.getValue();
+            sb.append(String.format("%-15s %10d %8d %10d %10d %10d%n",
+                e.getKey(), op.calls, op.errors, op.p50Micros, op.p99Micros, op.maxMicros));
+        }
+        return sb.toString();
+    }
+}
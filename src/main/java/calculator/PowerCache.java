@@ -0,0 +1,189 @@
+package calculator;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PowerCache - Bounded Memoization Cache for power() Results
+ *
+ * This class demonstrates:
+ * - Lock-free caching with AtomicReferenceArray and compare-and-set
+ * - Primitive keys (double bits + int) to avoid boxing
+ * - CLOCK (second chance) eviction inside small associative sets
+ * - Hit/miss statistics with LongAdder
+ *
+ * The table is split into sets of {@value #WAYS} slots. A key always maps to
+ * the same set, so a lookup touches at most {@value #WAYS} slots. When a set
+ * is full, the CLOCK hand of that set skips recently used entries once
+ * before evicting one.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class PowerCache {
+
+    private static final int WAYS = 4;
+
+    /**
+     * Immutable cache entry - the referenced bit is the only mutable part
+     */
+    private static final class Entry {
+        final long baseBits;
+        final int exponent;
+        final double result;
+        volatile boolean referenced;
+
+        Entry(long baseBits, int exponent, double result) {
+            this.baseBits = baseBits;
+            this.exponent = exponent;
+            this.result = result;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int[] clockHands;
+    private final int setMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache holding at least the given number of results
+     *
+     * @param capacity requested capacity (rounded up to a power of two)
+     */
+    public PowerCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int sets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS) * 2 - 1);
+        this.slots = new AtomicReferenceArray<>(sets * WAYS);
+        this.clockHands = new int[sets];
+        this.setMask = sets - 1;
+    }
+
+    /**
+     * Look up a cached result
+     *
+     * @param base base number
+     * @param exponent exponent
+     * @return cached result, or NaN if not present
+     */
+    public double get(double base, int exponent) {
+        long bits = Double.doubleToLongBits(base);
+        int start = setIndex(bits, exponent) * WAYS;
+
+        for (int i = start; i < start + WAYS; i++) {
+            Entry e = slots.get(i);
+            if (e != null && e.baseBits == bits && e.exponent == exponent) {
+                if (!e.referenced) {
+                    e.referenced = true;
+                }
+                hits.increment();
+                return e.result;
+            }
+        }
+
+        misses.increment();
+        return Double.NaN;
+    }
+
+    /**
+     * Store a result, evicting with CLOCK if the set is full
+     *
+     * @param base base number
+     * @param exponent exponent
+     * @param result computed result (NaN results are not cached)
+     */
+    public void put(double base, int exponent, double result) {
+        if (Double.isNaN(result)) {
+            return;
+        }
+        long bits = Double.doubleToLongBits(base);
+        int set = setIndex(bits, exponent);
+        int start = set * WAYS;
+        Entry fresh = new Entry(bits, exponent, result);
+
+        // Free slot or an existing copy of the same key
+        for (int i = start; i < start + WAYS; i++) {
+            Entry e = slots.get(i);
+            if (e == null) {
+                if (slots.compareAndSet(i, null, fresh)) {
+                    return;
+                }
+            } else if (e.baseBits == bits && e.exponent == exponent) {
+                return;
+            }
+        }
+
+        // CLOCK sweep: give referenced entries a second chance.
+        // The hand is a racy hint only; correctness relies on the CAS.
+        int hand = clockHands[set];
+        for (int step = 0; step < WAYS * 2; step++) {
+            int i = start + ((hand + step) & (WAYS - 1));
+            Entry victim = slots.get(i);
+            if (victim != null && victim.referenced) {
+                victim.referenced = false;
+                continue;
+            }
+            if (slots.compareAndSet(i, victim, fresh)) {
+                clockHands[set] = (hand + step + 1) & (WAYS - 1);
+                if (victim != null) {
+                    evictions.increment();
+                }
+                return;
+            }
+        }
+        // Lost every race - another thread is filling this set, skip caching
+    }
+
+    /**
+     * Remove all cached results (statistics are kept)
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Fraction of lookups served from the cache
+     *
+     * @return hit rate between 0.0 and 1.0
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PowerCache[capacity=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%]",
+            getCapacity(), getHits(), getMisses(), getEvictions(), getHitRate() * 100);
+    }
+
+    private int setIndex(long bits, int exponent) {
+        long h = bits * 0x9E3779B97F4A7C15L + exponent;
+        h ^= (h >>> 32);
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h >>> 40) & setMask;
+    }
+}
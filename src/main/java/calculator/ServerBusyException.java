@@ -0,0 +1,43 @@
+package calculator;
+
+import java.rmi.RemoteException;
+import java.rmi.ServerException;
+
+/**
+ * ServerBusyException - Thrown when a calculator server sheds load
+ *
+ * Raised by the server when the number of calls in flight has reached its
+ * concurrency limit. Clients should back off or try another server; the
+ * server itself is healthy.
+ *
+ * RMI wraps any RemoteException thrown by a remote method in a
+ * java.rmi.ServerException before it reaches the client, so a client
+ * cannot catch this class directly; use busyCause() to recognise it.
+ *
+ * @author BICT Advanced Java Course
+ * @version 1.0
+ */
+public class ServerBusyException extends RemoteException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServerBusyException(String message) {
+        super(message);
+    }
+
+    /**
+     * The ServerBusyException behind a failed remote call, if that is what it was
+     *
+     * @param e exception from a remote call (wrapped in ServerException or not)
+     * @return the busy exception, or null if the call failed for another reason
+     */
+    public static ServerBusyException busyCause(RemoteException e) {
+        if (e instanceof ServerBusyException busy) {
+            return busy;
+        }
+        if (e instanceof ServerException && e.getCause() instanceof ServerBusyException busy) {
+            return busy;
+        }
+        return null;
+    }
+}